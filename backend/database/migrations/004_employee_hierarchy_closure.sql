@@ -0,0 +1,21 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Employee hierarchy closure table
+-- One row per (ancestor, descendant) pair of the reporting structure,
+-- including a depth-0 row per employee. Backfilled on application startup.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'employee_hierarchy_closure')
+BEGIN
+    CREATE TABLE employee_hierarchy_closure (
+        ancestor_id UNIQUEIDENTIFIER NOT NULL,
+        descendant_id UNIQUEIDENTIFIER NOT NULL,
+        organization_id UNIQUEIDENTIFIER NOT NULL,
+        depth INT NOT NULL,
+        CONSTRAINT pk_employee_hierarchy_closure PRIMARY KEY (ancestor_id, descendant_id)
+    );
+
+    CREATE INDEX idx_ehc_descendant ON employee_hierarchy_closure(descendant_id, depth);
+    CREATE INDEX idx_ehc_ancestor_depth ON employee_hierarchy_closure(ancestor_id, depth);
+    CREATE INDEX idx_ehc_org ON employee_hierarchy_closure(organization_id);
+END
+GO
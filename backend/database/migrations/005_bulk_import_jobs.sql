@@ -0,0 +1,35 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Background bulk import jobs
+-- One row per uploaded employee CSV. last_row_number and the counters are
+-- advanced with every committed chunk so interrupted jobs can resume.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'bulk_import_jobs')
+BEGIN
+    CREATE TABLE bulk_import_jobs (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+        organization_id UNIQUEIDENTIFIER NOT NULL,
+        requested_by UNIQUEIDENTIFIER NULL,
+        file_name NVARCHAR(255) NULL,
+        stored_file NVARCHAR(500) NOT NULL,
+        error_file NVARCHAR(500) NULL,
+        error_file_bytes BIGINT NOT NULL DEFAULT 0,
+        skip_duplicates BIT NOT NULL,
+        status VARCHAR(20) NOT NULL,
+        last_row_number INT NOT NULL DEFAULT 0,
+        total_rows INT NOT NULL DEFAULT 0,
+        success_count INT NOT NULL DEFAULT 0,
+        failed_count INT NOT NULL DEFAULT 0,
+        skipped_count INT NOT NULL DEFAULT 0,
+        attempts INT NOT NULL DEFAULT 0,
+        error_message NVARCHAR(MAX) NULL,
+        created_at DATETIME2 NOT NULL,
+        started_at DATETIME2 NULL,
+        heartbeat_at DATETIME2 NULL,
+        completed_at DATETIME2 NULL
+    );
+
+    CREATE INDEX idx_bulk_import_jobs_org ON bulk_import_jobs(organization_id, created_at);
+    CREATE INDEX idx_bulk_import_jobs_status ON bulk_import_jobs(status);
+END
+GO
@@ -0,0 +1,31 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Email outbox
+-- Mails are queued here in the sender's transaction and delivered in
+-- batches by the outbox dispatcher. Bodies are cleared once sent.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'email_outbox')
+BEGIN
+    CREATE TABLE email_outbox (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+        recipient_email NVARCHAR(255) NOT NULL,
+        recipient_domain NVARCHAR(255) NOT NULL,
+        email_type NVARCHAR(255) NOT NULL,
+        subject NVARCHAR(255) NOT NULL,
+        body NVARCHAR(MAX) NULL,
+        related_entity_id NVARCHAR(255) NULL,
+        related_entity_type NVARCHAR(255) NULL,
+        status VARCHAR(20) NOT NULL,
+        attempts INT NOT NULL DEFAULT 0,
+        next_attempt_at DATETIME2 NOT NULL,
+        last_error NVARCHAR(MAX) NULL,
+        claim_token UNIQUEIDENTIFIER NULL,
+        locked_until DATETIME2 NULL,
+        created_at DATETIME2 NOT NULL,
+        sent_at DATETIME2 NULL
+    );
+
+    CREATE INDEX idx_email_outbox_due ON email_outbox(status, next_attempt_at);
+    CREATE INDEX idx_email_outbox_claim ON email_outbox(claim_token);
+END
+GO
@@ -0,0 +1,17 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Notification template versions
+-- Incremented on every edit; compiled templates are cached per version
+-- and looked up by (organization, code).
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID(N'[dbo].[notification_templates]') AND name = 'version')
+BEGIN
+    ALTER TABLE notification_templates ADD version INT NOT NULL DEFAULT 1;
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_notification_templates_org_code')
+BEGIN
+    CREATE INDEX idx_notification_templates_org_code ON notification_templates (organization_id, code);
+END
+GO
@@ -0,0 +1,26 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Scheduled job throughput
+-- Reminder jobs record the rows they processed; their target queries
+-- anti-join notifications by (employee, title, created_at).
+-- =====================================================
+
+IF OBJECT_ID(N'[dbo].[scheduled_job_logs]') IS NOT NULL
+   AND NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID(N'[dbo].[scheduled_job_logs]') AND name = 'rows_processed')
+BEGIN
+    ALTER TABLE scheduled_job_logs ADD
+        rows_processed BIGINT NULL,
+        rows_per_second FLOAT NULL;
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_notifications_employee_title_created')
+BEGIN
+    CREATE INDEX idx_notifications_employee_title_created ON notifications (employee_id, title, created_at);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_timesheet_entries_employee_date')
+BEGIN
+    CREATE INDEX idx_timesheet_entries_employee_date ON timesheet_entries (employee_id, entry_date);
+END
+GO
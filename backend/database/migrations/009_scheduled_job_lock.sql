@@ -0,0 +1,24 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Scheduled job lock
+-- One row per scheduled job; the node holding an unexpired lease runs it.
+-- Job logs record which node executed each run.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'scheduled_job_lock')
+BEGIN
+    CREATE TABLE scheduled_job_lock (
+        job_name NVARCHAR(100) NOT NULL PRIMARY KEY,
+        owner NVARCHAR(200) NULL,
+        locked_at DATETIME2 NULL,
+        lease_until DATETIME2 NOT NULL,
+        heartbeat_at DATETIME2 NULL
+    );
+END
+GO
+
+IF OBJECT_ID(N'[dbo].[scheduled_job_logs]') IS NOT NULL
+   AND NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID(N'[dbo].[scheduled_job_logs]') AND name = 'node_id')
+BEGIN
+    ALTER TABLE scheduled_job_logs ADD node_id NVARCHAR(200) NULL;
+END
+GO
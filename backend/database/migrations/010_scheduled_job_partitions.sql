@@ -0,0 +1,29 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Scheduled job partitions
+-- Heavy scheduled jobs split each run into slices by organization id hash;
+-- nodes claim slices, heartbeat them and record rows processed here.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'scheduled_job_partitions')
+BEGIN
+    CREATE TABLE scheduled_job_partitions (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+        job_name NVARCHAR(100) NOT NULL,
+        run_date DATE NOT NULL,
+        partition_no INT NOT NULL,
+        partition_count INT NOT NULL,
+        status VARCHAR(20) NOT NULL,
+        owner NVARCHAR(200) NULL,
+        attempts INT NOT NULL DEFAULT 0,
+        rows_processed BIGINT NULL,
+        error_message NVARCHAR(MAX) NULL,
+        created_at DATETIME2 NOT NULL,
+        claimed_at DATETIME2 NULL,
+        heartbeat_at DATETIME2 NULL,
+        completed_at DATETIME2 NULL,
+        CONSTRAINT uk_scheduled_job_partition UNIQUE (job_name, run_date, partition_no)
+    );
+
+    CREATE INDEX idx_scheduled_job_partitions_status ON scheduled_job_partitions (status, run_date);
+END
+GO
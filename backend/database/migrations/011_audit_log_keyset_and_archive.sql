@@ -0,0 +1,49 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Audit log keyset indexes and archive table
+-- The admin audit screen pages by (organization_id, performed_at, id);
+-- rows older than the hot window are rolled over into audit_logs_archive
+-- and later exported to compressed files.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_audit_logs_org_time' AND object_id = OBJECT_ID('audit_logs'))
+BEGIN
+    CREATE INDEX idx_audit_logs_org_time ON audit_logs (organization_id, performed_at DESC, id DESC);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_audit_logs_entity' AND object_id = OBJECT_ID('audit_logs'))
+BEGIN
+    CREATE INDEX idx_audit_logs_entity ON audit_logs (organization_id, entity_type, entity_id, performed_at DESC, id DESC);
+END
+GO
+
+-- Superseded by idx_audit_logs_org_time (same leading column); idx_al_performed_at serves the rollover
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_al_org' AND object_id = OBJECT_ID('audit_logs'))
+BEGIN
+    DROP INDEX idx_al_org ON audit_logs;
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'audit_logs_archive')
+BEGIN
+    CREATE TABLE audit_logs_archive (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+        action_type VARCHAR(50) NOT NULL,
+        entity_type VARCHAR(100) NULL,
+        entity_id VARCHAR(255) NULL,
+        performed_by UNIQUEIDENTIFIER NULL,
+        old_value NVARCHAR(MAX) NULL,
+        new_value NVARCHAR(MAX) NULL,
+        status VARCHAR(20) NOT NULL,
+        error_message NVARCHAR(MAX) NULL,
+        ip_address VARCHAR(50) NULL,
+        metadata NVARCHAR(MAX) NULL,
+        performed_at DATETIME2 NULL,
+        organization_id UNIQUEIDENTIFIER NULL,
+        archived_at DATETIME2 NOT NULL
+    );
+
+    CREATE INDEX idx_audit_logs_archive_org_time ON audit_logs_archive (organization_id, performed_at DESC, id DESC);
+    CREATE INDEX idx_audit_logs_archive_time ON audit_logs_archive (performed_at);
+END
+GO
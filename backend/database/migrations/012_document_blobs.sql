@@ -0,0 +1,29 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Content-addressed document storage
+-- Uploads are stored once per SHA-256 per organization in document_blobs;
+-- documents reference them by content_hash and reference_count tracks how
+-- many documents share each stored file. Existing documents keep their
+-- own file (content_hash NULL).
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'document_blobs')
+BEGIN
+    CREATE TABLE document_blobs (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY DEFAULT NEWID(),
+        organization_id UNIQUEIDENTIFIER NOT NULL,
+        content_hash VARCHAR(64) NOT NULL,
+        storage_path VARCHAR(500) NOT NULL,
+        size_bytes BIGINT NOT NULL,
+        content_type VARCHAR(100) NULL,
+        reference_count INT NOT NULL,
+        created_at DATETIME2 NULL,
+        CONSTRAINT uq_document_blobs_org_hash UNIQUE (organization_id, content_hash)
+    );
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.columns WHERE name = 'content_hash' AND object_id = OBJECT_ID('documents'))
+BEGIN
+    ALTER TABLE documents ADD content_hash VARCHAR(64) NULL;
+END
+GO
@@ -0,0 +1,26 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Incremental payroll re-runs
+-- payroll_run_fingerprints stores, per payroll run and employee, the
+-- SHA-256 of the inputs the payslip was computed from. Re-running a run
+-- recomputes only employees whose fingerprint changed.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'payroll_run_fingerprints')
+BEGIN
+    CREATE TABLE payroll_run_fingerprints (
+        id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY DEFAULT NEWID(),
+        organization_id UNIQUEIDENTIFIER NOT NULL,
+        payroll_run_id UNIQUEIDENTIFIER NOT NULL,
+        employee_id UNIQUEIDENTIFIER NOT NULL,
+        fingerprint VARCHAR(64) NOT NULL,
+        created_at DATETIME2 NULL,
+        CONSTRAINT uq_payroll_run_fingerprints_run_employee UNIQUE (payroll_run_id, employee_id)
+    );
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_payslips_run_employee')
+BEGIN
+    CREATE INDEX idx_payslips_run_employee ON payslips (payroll_run_id, employee_id);
+END
+GO
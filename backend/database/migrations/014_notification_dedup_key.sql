@@ -0,0 +1,19 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Notification dedup key
+-- Scheduled reminder jobs key each notification by run, recipient and
+-- content and insert it only if the key is absent, so a slice processed
+-- twice (retry, rebalance, racing nodes) never notifies anyone twice.
+-- =====================================================
+
+IF OBJECT_ID(N'[dbo].[notifications]') IS NOT NULL
+   AND NOT EXISTS (SELECT * FROM sys.columns WHERE object_id = OBJECT_ID(N'[dbo].[notifications]') AND name = 'dedup_key')
+BEGIN
+    ALTER TABLE notifications ADD dedup_key NVARCHAR(200) NULL;
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'uk_notifications_dedup_key')
+BEGIN
+    CREATE UNIQUE INDEX uk_notifications_dedup_key ON notifications (dedup_key) WHERE dedup_key IS NOT NULL;
+END
+GO
@@ -0,0 +1,28 @@
+-- =====================================================
+-- MIGRATION SCRIPT: Background payslip archives
+-- One row per payroll run whose payslip ZIP was requested. The archive is
+-- generated by a background worker into document storage; processing the
+-- run again marks it STALE.
+-- =====================================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'payslip_archives')
+BEGIN
+    CREATE TABLE payslip_archives (
+        payroll_run_id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+        organization_id UNIQUEIDENTIFIER NOT NULL,
+        requested_by UNIQUEIDENTIFIER NULL,
+        status VARCHAR(20) NOT NULL,
+        stored_path NVARCHAR(500) NULL,
+        size_bytes BIGINT NULL,
+        e_tag NVARCHAR(100) NULL,
+        payslip_count INT NULL,
+        error_message NVARCHAR(MAX) NULL,
+        created_at DATETIME2 NOT NULL,
+        started_at DATETIME2 NULL,
+        heartbeat_at DATETIME2 NULL,
+        completed_at DATETIME2 NULL
+    );
+
+    CREATE INDEX idx_payslip_archives_status ON payslip_archives(status);
+END
+GO
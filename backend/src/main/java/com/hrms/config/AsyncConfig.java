@@ -1,23 +1,107 @@
 package com.hrms.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.context.annotation.Bean;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "emailTaskExecutor")
-    public Executor emailTaskExecutor() {
+    /**
+     * CPU-bound row preparation for bulk imports (validation, password hashing).
+     * Sized to the machine by default; the caller runs tasks itself when the queue is full.
+     */
+    @Bean(name = "bulkImportWorkerExecutor")
+    public ThreadPoolTaskExecutor bulkImportWorkerExecutor(
+            @Value("${bulk-import.worker-threads:0}") int workerThreads) {
+        int threads = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("email-async-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background bulk import jobs. Bounded: jobs that do not fit stay queued in the database
+     * and are picked up by the recovery sweep.
+     */
+    @Bean(name = "bulkImportJobExecutor")
+    public ThreadPoolTaskExecutor bulkImportJobExecutor(
+            @Value("${bulk-import.job-threads:2}") int jobThreads,
+            @Value("${bulk-import.job-queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobThreads);
+        executor.setMaxPoolSize(jobThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-import-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Per-organization work of the scheduled reminder jobs. The scheduler thread runs
+     * organizations itself when the queue is full.
+     */
+    @Bean(name = "scheduledJobWorkerExecutor")
+    public ThreadPoolTaskExecutor scheduledJobWorkerExecutor(
+            @Value("${scheduled-jobs.organization-parallelism:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("scheduled-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * CPU-bound payslip computation of payroll runs (fork-join over the employees of a run).
+     * Sized to the machine by default; shared by concurrent runs.
+     */
+    @Bean(name = "payrollComputePool", destroyMethod = "shutdown")
+    public ForkJoinPool payrollComputePool(@Value("${payroll.engine.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Payslip PDF rendering for payslip archives. Each archive keeps a bounded window of payslips
+     * in flight, so the queue stays small; the caller renders itself when it is full.
+     */
+    @Bean(name = "payslipRenderExecutor")
+    public ThreadPoolTaskExecutor payslipRenderExecutor(@Value("${payroll.payslip-pdf.threads:0}") int renderThreads) {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("payslip-pdf-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background payslip archive jobs. Bounded: archives that do not fit stay queued in the
+     * database and are picked up by the recovery sweep.
+     */
+    @Bean(name = "payslipArchiveExecutor")
+    public ThreadPoolTaskExecutor payslipArchiveExecutor(
+            @Value("${payroll.payslip-archive.threads:1}") int archiveThreads,
+            @Value("${payroll.payslip-archive.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(archiveThreads);
+        executor.setMaxPoolSize(archiveThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payslip-archive-");
         executor.initialize();
         return executor;
     }
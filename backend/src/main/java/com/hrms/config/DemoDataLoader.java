@@ -2,6 +2,7 @@ package com.hrms.config;
 
 import com.hrms.entity.*;
 import com.hrms.repository.*;
+import com.hrms.service.EmployeeHierarchyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -37,6 +38,7 @@ public class DemoDataLoader {
             VendorRepository vendorRepository,
             ProjectRepository projectRepository,
             PermissionGroupRepository permissionGroupRepository,
+            EmployeeHierarchyService employeeHierarchyService,
             PasswordEncoder passwordEncoder) {
 
         return args -> {
@@ -576,6 +578,9 @@ public class DemoDataLoader {
                     userRepository, employeeRepository
             );
 
+            // Demo employees are saved directly, so build their reporting hierarchy in one pass
+            organizations.values().forEach(org -> employeeHierarchyService.rebuildOrganization(org.getId()));
+
             logger.info("======================================");
             logger.info("Demo data loaded successfully!");
             logger.info("======================================");
@@ -0,0 +1,23 @@
+package com.hrms.config;
+
+import com.hrms.security.CurrentPrincipalArgumentResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentPrincipalArgumentResolver currentPrincipalArgumentResolver;
+
+    public WebConfig(CurrentPrincipalArgumentResolver currentPrincipalArgumentResolver) {
+        this.currentPrincipalArgumentResolver = currentPrincipalArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentPrincipalArgumentResolver);
+    }
+}
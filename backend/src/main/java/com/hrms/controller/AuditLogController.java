@@ -1,19 +1,27 @@
 package com.hrms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hrms.entity.AuditLog;
 import com.hrms.entity.Organization;
 import com.hrms.entity.User;
-import com.hrms.repository.AuditLogRepository;
+import com.hrms.service.AuditLogExportService;
+import com.hrms.service.AuditLogQueryService;
+import com.hrms.service.AuditLogQueryService.AuditLogPage;
+import com.hrms.service.AuditLogService;
 import com.hrms.service.UserService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,22 +32,33 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
 public class AuditLogController {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogQueryService auditLogQueryService;
+    private final AuditLogExportService auditLogExportService;
+    private final AuditLogService auditLogService;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public AuditLogController(AuditLogRepository auditLogRepository, UserService userService) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditLogController(AuditLogQueryService auditLogQueryService,
+                              AuditLogExportService auditLogExportService,
+                              AuditLogService auditLogService,
+                              UserService userService,
+                              ObjectMapper objectMapper) {
+        this.auditLogQueryService = auditLogQueryService;
+        this.auditLogExportService = auditLogExportService;
+        this.auditLogService = auditLogService;
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Get audit logs for the organization with filtering and pagination
+     * Get audit logs for the organization with filtering and keyset pagination
+     * (pass the nextCursor of a page to get the following, older page)
      */
     @GetMapping
     public ResponseEntity<?> getAuditLogs(
             @RequestParam(required = false) String actionType,
             @RequestParam(required = false) String entityType,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size,
             Authentication authentication) {
 
@@ -51,44 +70,11 @@ public class AuditLogController {
             return ResponseEntity.status(403).body(Map.of("error", "User has no organization"));
         }
 
-        // Create pageable with sort by performedAt descending
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "performedAt"));
-
-        Page<AuditLog> auditLogsPage;
-
-        // Apply filters
-        if (actionType != null && !actionType.isEmpty() && entityType != null && !entityType.isEmpty()) {
-            // Both filters
-            auditLogsPage = auditLogRepository.findByOrganizationAndActionTypeOrderByPerformedAtDesc(
-                    organization, actionType, pageable);
-            // Further filter by entity type in memory (or create a more specific query method)
-            List<AuditLog> filtered = auditLogsPage.getContent().stream()
-                    .filter(log -> log.getEntityType() != null && log.getEntityType().equals(entityType))
-                    .collect(Collectors.toList());
-            auditLogsPage = new org.springframework.data.domain.PageImpl<>(
-                    filtered, pageable, filtered.size());
-        } else if (actionType != null && !actionType.isEmpty()) {
-            auditLogsPage = auditLogRepository.findByOrganizationAndActionTypeOrderByPerformedAtDesc(
-                    organization, actionType, pageable);
-        } else if (entityType != null && !entityType.isEmpty()) {
-            auditLogsPage = auditLogRepository.findByOrganizationAndEntityTypeOrderByPerformedAtDesc(
-                    organization, entityType, pageable);
-        } else {
-            auditLogsPage = auditLogRepository.findByOrganizationOrderByPerformedAtDesc(
-                    organization, pageable);
-        }
-
-        // Map to DTO
-        List<Map<String, Object>> auditLogsData = auditLogsPage.getContent().stream()
-                .map(this::mapAuditLogToDto)
-                .collect(Collectors.toList());
+        AuditLogPage auditLogsPage = auditLogQueryService.findPage(
+                organization.getId(), actionType, entityType, cursor, size);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", auditLogsData);
-        response.put("totalElements", auditLogsPage.getTotalElements());
-        response.put("totalPages", auditLogsPage.getTotalPages());
-        response.put("currentPage", auditLogsPage.getNumber());
-        response.put("pageSize", auditLogsPage.getSize());
+        Map<String, Object> response = toResponse(auditLogsPage);
+        response.put("pageSize", auditLogsPage.content().size());
 
         return ResponseEntity.ok(response);
     }
@@ -100,7 +86,7 @@ public class AuditLogController {
     public ResponseEntity<?> getAuditLogsForEntity(
             @PathVariable String entityType,
             @PathVariable String entityId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             Authentication authentication) {
 
@@ -112,29 +98,90 @@ public class AuditLogController {
             return ResponseEntity.status(403).body(Map.of("error", "User has no organization"));
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "performedAt"));
-        Page<AuditLog> auditLogsPage = auditLogRepository.findByEntityTypeAndEntityIdOrderByPerformedAtDesc(
-                entityType, entityId, pageable);
+        AuditLogPage auditLogsPage = auditLogQueryService.findEntityPage(
+                organization.getId(), entityType, entityId, cursor, size);
 
-        // Filter by organization (security check)
-        List<AuditLog> filtered = auditLogsPage.getContent().stream()
-                .filter(log -> log.getOrganization() != null &&
-                              log.getOrganization().getId().equals(organization.getId()))
-                .collect(Collectors.toList());
-
-        List<Map<String, Object>> auditLogsData = filtered.stream()
-                .map(this::mapAuditLogToDto)
-                .collect(Collectors.toList());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", auditLogsData);
-        response.put("totalElements", filtered.size());
+        Map<String, Object> response = toResponse(auditLogsPage);
         response.put("entityType", entityType);
         response.put("entityId", entityId);
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Stream the organization's audit logs as CSV or NDJSON (optionally gzip-compressed).
+     * Dates are inclusive; archived entries are included on request.
+     */
+    @GetMapping("/export")
+    public void exportAuditLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String actionType,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+
+        User currentUser = userService.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Organization organization = currentUser.getOrganization();
+        if (organization == null) {
+            writeError(response, HttpStatus.FORBIDDEN, "User has no organization");
+            return;
+        }
+
+        AuditLogExportService.Format exportFormat;
+        try {
+            exportFormat = AuditLogExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        AuditLogExportService.ExportFilter filter = new AuditLogExportService.ExportFilter(
+                blankToNull(actionType), blankToNull(entityType),
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                includeArchived);
+
+        String extension = exportFormat == AuditLogExportService.Format.NDJSON ? ".ndjson" : ".csv";
+        String filename = "audit-logs-" + LocalDate.now() + extension + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+                : exportFormat == AuditLogExportService.Format.NDJSON ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        long rows;
+        try {
+            rows = auditLogExportService.export(organization.getId(), filter, exportFormat, gzip,
+                    response.getOutputStream());
+        } catch (IllegalStateException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            // Rejected before anything was written
+            response.reset();
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+            return;
+        }
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("format", exportFormat.name());
+        metadata.put("rows", rows);
+        metadata.put("from", from != null ? from.toString() : null);
+        metadata.put("to", to != null ? to.toString() : null);
+        metadata.put("actionType", filter.actionType());
+        metadata.put("entityType", filter.entityType());
+        metadata.put("includeArchived", includeArchived);
+        auditLogService.logSuccess("EXPORT", "AuditLog", null, currentUser, organization, null, null, metadata);
+    }
+
     /**
      * Get available action types for filtering
      */
@@ -147,7 +194,7 @@ public class AuditLogController {
                 "ROLE_ASSIGN", "ROLE_REMOVE",
                 "USER_CREATE", "USER_UPDATE", "USER_DELETE",
                 "DOCUMENT_UPLOAD", "DOCUMENT_APPROVE", "DOCUMENT_REJECT",
-                "EMPLOYEE_CREATE", "EMPLOYEE_UPDATE", "EMPLOYEE_DELETE",
+                "EMPLOYEE_CREATE", "EMPLOYEE_UPDATE", "EMPLOYEE_DELETE", "EXPORT",
                 "PRIVILEGE_ESCALATION_ATTEMPT"
         );
         return ResponseEntity.ok(actionTypes);
@@ -168,6 +215,28 @@ public class AuditLogController {
         return ResponseEntity.ok(entityTypes);
     }
 
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(Map.of("error", message)));
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+
+    private Map<String, Object> toResponse(AuditLogPage auditLogsPage) {
+        List<Map<String, Object>> auditLogsData = auditLogsPage.content().stream()
+                .map(this::mapAuditLogToDto)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", auditLogsData);
+        response.put("nextCursor", auditLogsPage.nextCursor());
+        response.put("hasMore", auditLogsPage.hasMore());
+        return response;
+    }
+
     /**
      * Map AuditLog entity to DTO
      */
@@ -1,23 +1,31 @@
 package com.hrms.controller;
 
-import com.hrms.dto.employee.BulkImportResponse;
+import com.hrms.dto.employee.BulkImportJobResponse;
+import com.hrms.entity.BulkImportJob;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.BulkEmployeeImportService;
+import com.hrms.service.BulkImportJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Bulk Employee Import
- * Provides endpoints for CSV upload and template download
+ * Provides endpoints for CSV upload (as background jobs), job status and template download
  */
 @RestController
 @RequestMapping("/api/organizations/{orgId}/employees")
@@ -25,28 +33,36 @@ public class BulkImportController {
 
     private static final Logger logger = LoggerFactory.getLogger(BulkImportController.class);
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final int RECENT_JOBS_LIMIT = 50;
+    private static final String SUPERADMIN_ROLE = "superadmin";
 
     private final BulkEmployeeImportService bulkImportService;
+    private final BulkImportJobService bulkImportJobService;
 
-    public BulkImportController(BulkEmployeeImportService bulkImportService) {
+    public BulkImportController(BulkEmployeeImportService bulkImportService,
+                                BulkImportJobService bulkImportJobService) {
         this.bulkImportService = bulkImportService;
+        this.bulkImportJobService = bulkImportJobService;
     }
 
     /**
-     * Import employees from CSV file
+     * Queue an import of employees from a CSV file. The import runs in the background;
+     * poll the returned job for progress.
      *
      * @param orgId Organization ID
      * @param file CSV file containing employee data
      * @param skipDuplicates If true, skip duplicate entries instead of failing
-     * @return Import results with success/failure details per row
+     * @return The queued import job
      */
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
     public ResponseEntity<?> importEmployees(
             @PathVariable UUID orgId,
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "skipDuplicates", defaultValue = "true") boolean skipDuplicates) {
+            @RequestParam(value = "skipDuplicates", defaultValue = "true") boolean skipDuplicates,
+            @CurrentPrincipal CurrentUser currentUser) {
 
+        requireOrganizationAccess(orgId, currentUser);
         logger.info("Bulk import request received for organization {} - file: {}, size: {} bytes",
                 orgId, file.getOriginalFilename(), file.getSize());
 
@@ -68,13 +84,8 @@ public class BulkImportController {
         }
 
         try {
-            BulkImportResponse response = bulkImportService.importEmployeesFromCsv(file, orgId, skipDuplicates);
-
-            if ("failed".equals(response.getStatus()) && response.getSuccessCount() == 0) {
-                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
-            }
-
-            return ResponseEntity.ok(response);
+            BulkImportJob job = bulkImportJobService.submit(file, orgId, skipDuplicates, currentUser.getUserId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(BulkImportJobResponse.from(job));
 
         } catch (IllegalArgumentException e) {
             logger.error("Invalid import request: {}", e.getMessage());
@@ -88,12 +99,89 @@ public class BulkImportController {
         }
     }
 
+    /**
+     * Get status and progress of an import job
+     */
+    @GetMapping("/import/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> getImportJob(@PathVariable UUID orgId, @PathVariable UUID jobId,
+                                          @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
+        BulkImportJob job = bulkImportJobService.getJob(jobId, orgId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Import job not found"));
+        }
+        return ResponseEntity.ok(BulkImportJobResponse.from(job));
+    }
+
+    /**
+     * List recent import jobs of the organization, newest first
+     */
+    @GetMapping("/import/jobs")
+    @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
+    public ResponseEntity<List<BulkImportJobResponse>> getImportJobs(@PathVariable UUID orgId,
+                                                                     @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
+        return ResponseEntity.ok(bulkImportJobService.getRecentJobs(orgId, RECENT_JOBS_LIMIT).stream()
+                .map(BulkImportJobResponse::from)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Resume a failed import job after its last committed chunk
+     */
+    @PostMapping("/import/jobs/{jobId}/resume")
+    @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> resumeImportJob(@PathVariable UUID orgId, @PathVariable UUID jobId,
+                                             @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(BulkImportJobResponse.from(bulkImportJobService.resume(jobId, orgId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Download the failed and skipped rows of an import job as CSV
+     */
+    @GetMapping("/import/jobs/{jobId}/errors")
+    @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> downloadImportErrors(@PathVariable UUID orgId, @PathVariable UUID jobId,
+                                                  @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
+        BulkImportJob job = bulkImportJobService.getJob(jobId, orgId);
+        if (job == null || !bulkImportJobService.hasErrorFile(job)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No error file for this import job"));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "employee_import_errors_" + jobId + ".csv");
+
+        headers.setContentLength(job.getErrorFileBytes());
+
+        StreamingResponseBody body = out -> bulkImportJobService.writeErrorFile(job, out);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
     /**
      * Download CSV template for bulk import
      */
     @GetMapping("/import/template")
     @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
-    public ResponseEntity<String> downloadTemplate(@PathVariable UUID orgId) {
+    public ResponseEntity<String> downloadTemplate(@PathVariable UUID orgId,
+                                                   @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
         logger.info("Template download requested for organization {}", orgId);
 
         String template = bulkImportService.generateCsvTemplate();
@@ -112,7 +200,9 @@ public class BulkImportController {
      */
     @GetMapping("/import/instructions")
     @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
-    public ResponseEntity<Map<String, Object>> getImportInstructions(@PathVariable UUID orgId) {
+    public ResponseEntity<Map<String, Object>> getImportInstructions(@PathVariable UUID orgId,
+                                                                     @CurrentPrincipal CurrentUser currentUser) {
+        requireOrganizationAccess(orgId, currentUser);
         return ResponseEntity.ok(Map.of(
                 "maxFileSize", "10MB",
                 "fileFormat", "CSV (comma-separated values)",
@@ -130,7 +220,8 @@ public class BulkImportController {
                     "Department and Position codes must exist in the system",
                     "Manager (reports_to_code) must be an existing employee code",
                     "Duplicate employee codes or emails will be skipped (or fail based on settings)",
-                    "User accounts will be created automatically with temporary passwords"
+                    "User accounts will be created automatically with temporary passwords",
+                    "Imports run in the background; check the returned job for progress and download rejected rows from its error file"
                 }
         ));
     }
@@ -142,8 +233,10 @@ public class BulkImportController {
     @PreAuthorize("hasAnyRole('ORGADMIN', 'SUPERADMIN')")
     public ResponseEntity<?> validateImportFile(
             @PathVariable UUID orgId,
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @CurrentPrincipal CurrentUser currentUser) {
 
+        requireOrganizationAccess(orgId, currentUser);
         logger.info("Validation request received for organization {} - file: {}", orgId, file.getOriginalFilename());
 
         if (file.isEmpty()) {
@@ -164,4 +257,14 @@ public class BulkImportController {
                 "message", "File format is valid. Proceed with import to see detailed validation results."
         ));
     }
+
+    /**
+     * Org admins may only work on their own organization; superadmins on any
+     */
+    private static void requireOrganizationAccess(UUID orgId, CurrentUser currentUser) {
+        if (currentUser == null
+                || !(orgId.equals(currentUser.getOrganizationId()) || currentUser.hasRole(SUPERADMIN_ROLE))) {
+            throw new AccessDeniedException("Access denied to organization " + orgId);
+        }
+    }
 }
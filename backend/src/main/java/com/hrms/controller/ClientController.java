@@ -1,6 +1,8 @@
 package com.hrms.controller;
 
 import com.hrms.dto.client.*;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +24,9 @@ public class ClientController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<List<ClientListResponse>> getAllClients(
             @RequestParam(required = false) Boolean activeOnly,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        List<ClientListResponse> clients = clientService.getAllClients(email, activeOnly);
+        List<ClientListResponse> clients = clientService.getAllClients(currentUser.getOrganizationId(), activeOnly);
         return ResponseEntity.ok(clients);
     }
 
@@ -33,10 +34,9 @@ public class ClientController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<ClientDetailResponse> getClientById(
             @PathVariable UUID id,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        ClientDetailResponse client = clientService.getClientById(id, email);
+        ClientDetailResponse client = clientService.getClientById(id, currentUser.getOrganizationId());
         return ResponseEntity.ok(client);
     }
 
@@ -76,9 +76,8 @@ public class ClientController {
 
     @GetMapping("/codes/next")
     @PreAuthorize("hasRole('ORGADMIN')")
-    public ResponseEntity<String> getNextClientCode(Authentication authentication) {
-        String email = authentication.getName();
-        String nextCode = clientService.generateNextClientCode(email);
+    public ResponseEntity<String> getNextClientCode(@CurrentPrincipal CurrentUser currentUser) {
+        String nextCode = clientService.generateNextClientCode(currentUser.getOrganizationId());
         return ResponseEntity.ok(nextCode);
     }
 }
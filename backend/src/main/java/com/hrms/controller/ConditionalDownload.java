@@ -0,0 +1,185 @@
+package com.hrms.controller;
+
+import com.hrms.service.storage.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a stored file to the response with ETag / Last-Modified validation and single byte-range
+ * support (RFC 9110): If-None-Match and If-Modified-Since answer 304, a satisfiable Range answers
+ * 206 unless If-Range no longer matches, an unsatisfiable one answers 416. Multiple ranges are
+ * served as the full file. The body is copied straight from storage to the response, or, for files
+ * on local disk, handed to the connector's sendfile support so it never passes through the heap.
+ */
+final class ConditionalDownload {
+
+    // Tomcat request attributes for sendfile (NIO / NIO2 connectors)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Copies count bytes of the file starting at offset to out
+     */
+    @FunctionalInterface
+    interface RangeSource {
+        void copy(long offset, long count, OutputStream out) throws IOException;
+    }
+
+    private ConditionalDownload() {
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, StoredFile file,
+                      String filename, String contentType, RangeSource source) throws IOException {
+        write(request, response, file, filename, contentType, source, null);
+    }
+
+    /**
+     * @param localFile the file on local disk, if any; sent with sendfile when the server supports it
+     */
+    static void write(HttpServletRequest request, HttpServletResponse response, StoredFile file,
+                      String filename, String contentType, RangeSource source, Path localFile) throws IOException {
+        String eTag = quote(file.eTag());
+        long lastModified = file.lastModified() != null ? file.lastModified().toInstant().toEpochMilli() : -1;
+        long size = file.size();
+
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        if (lastModified >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, eTag, lastModified)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        response.setContentType(contentType);
+
+        HttpRange range = singleRange(request, eTag, lastModified);
+        if (range != null && size > 0) {
+            long start = -1;
+            long end = -1;
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                // Reported below as unsatisfiable
+            }
+            if (start < 0 || start >= size || end < start) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            long length = end - start + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            response.setContentLengthLong(length);
+            send(request, response, source, localFile, start, length);
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentLengthLong(size);
+        if (size > 0) {
+            send(request, response, source, localFile, 0, size);
+        }
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response, RangeSource source,
+                             Path localFile, long offset, long count) throws IOException {
+        if (localFile != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            try {
+                // Tomcat only accepts the canonical path
+                request.setAttribute(SENDFILE_FILENAME, localFile.toRealPath().toString());
+                request.setAttribute(SENDFILE_START, offset);
+                request.setAttribute(SENDFILE_END, offset + count);
+                return;
+            } catch (IOException | RuntimeException e) {
+                request.removeAttribute(SENDFILE_FILENAME);
+            }
+        }
+        source.copy(offset, count, response.getOutputStream());
+    }
+
+    private static boolean notModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return eTag != null && matches(ifNoneMatch, eTag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have second precision
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * The requested range, or null when the whole file should be sent
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String eTag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean current = ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                    ? eTag != null && !ifRange.startsWith("W/") && ifRange.equals(eTag)
+                    : lastModified >= 0 && lastModified / 1000 == dateHeader(request, HttpHeaders.IF_RANGE) / 1000;
+            if (!current) {
+                return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            // Malformed Range headers are ignored
+            return null;
+        }
+    }
+
+    private static boolean matches(String header, String eTag) {
+        String bare = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(bare)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String quote(String eTag) {
+        if (eTag == null || eTag.isEmpty()) {
+            return null;
+        }
+        return eTag.startsWith("\"") || eTag.startsWith("W/") ? eTag : "\"" + eTag + "\"";
+    }
+}
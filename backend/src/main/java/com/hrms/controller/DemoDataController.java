@@ -1,6 +1,9 @@
 package com.hrms.controller;
 
 import com.hrms.repository.*;
+import com.hrms.service.CurrentUserService;
+import com.hrms.service.EmployeeHierarchyService;
+import com.hrms.service.OrgHeadcountService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
@@ -32,6 +35,9 @@ public class DemoDataController {
     private final ClientRepository clientRepository;
     private final VendorRepository vendorRepository;
     private final ProjectRepository projectRepository;
+    private final EmployeeHierarchyService employeeHierarchyService;
+    private final CurrentUserService currentUserService;
+    private final OrgHeadcountService orgHeadcountService;
 
     public DemoDataController(
             OrganizationRepository organizationRepository,
@@ -41,7 +47,10 @@ public class DemoDataController {
             PositionRepository positionRepository,
             ClientRepository clientRepository,
             VendorRepository vendorRepository,
-            ProjectRepository projectRepository) {
+            ProjectRepository projectRepository,
+            EmployeeHierarchyService employeeHierarchyService,
+            CurrentUserService currentUserService,
+            OrgHeadcountService orgHeadcountService) {
         this.organizationRepository = organizationRepository;
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
@@ -50,6 +59,9 @@ public class DemoDataController {
         this.clientRepository = clientRepository;
         this.vendorRepository = vendorRepository;
         this.projectRepository = projectRepository;
+        this.employeeHierarchyService = employeeHierarchyService;
+        this.currentUserService = currentUserService;
+        this.orgHeadcountService = orgHeadcountService;
     }
 
     /**
@@ -86,11 +98,13 @@ public class DemoDataController {
                 logger.info("Deleting data for organization: {}", org.getName());
 
                 // Delete employees (must be first due to foreign key constraints)
+                employeeHierarchyService.onOrganizationRemoved(org.getId());
                 int employeesDeleted = employeeRepository.deleteByOrganization(org);
                 logger.info("  - Deleted {} employees", employeesDeleted);
 
                 // Delete users
                 int usersDeleted = userRepository.deleteByOrganization(org);
+                currentUserService.evictOrganization(org.getId());
                 logger.info("  - Deleted {} users", usersDeleted);
 
                 // Delete projects
@@ -120,6 +134,7 @@ public class DemoDataController {
             // Finally, delete the organizations
             int orgsDeleted = demoOrgs.size();
             organizationRepository.deleteAll(demoOrgs);
+            demoOrgs.forEach(org -> orgHeadcountService.evict(org.getId()));
             logger.info("Deleted {} demo organizations", orgsDeleted);
 
             logger.warn("======================================");
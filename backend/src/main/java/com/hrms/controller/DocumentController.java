@@ -6,27 +6,29 @@ import com.hrms.entity.Document;
 import com.hrms.entity.Employee;
 import com.hrms.entity.User;
 import com.hrms.repository.EmployeeRepository;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.DocumentService;
 import com.hrms.service.EmailService;
 import com.hrms.service.EmployeeService;
 import com.hrms.service.FileStorageService;
 import com.hrms.service.PermissionService;
 import com.hrms.service.UserService;
+import com.hrms.service.storage.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ContentDisposition;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -73,7 +75,7 @@ public class DocumentController {
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ORGADMIN')")
     public ResponseEntity<?> uploadForSelf(@RequestParam("file") MultipartFile file,
                                            @RequestParam(value = "requestId", required = false) UUID requestId,
-                                           Authentication authentication) {
+                                           @CurrentPrincipal CurrentUser currentUser) {
         try {
             // Validate file
             if (file == null || file.isEmpty()) {
@@ -86,22 +88,19 @@ public class DocumentController {
                 return ResponseEntity.badRequest().body(Map.of("error", "File size exceeds maximum allowed size of 10MB"));
             }
 
-            String email = authentication.getName();
-            User user = userService.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Employee employee = getOrCreateEmployee(user);
+            Employee employee = currentEmployee(currentUser);
 
             if (!permissionService.has(employee, "UPLOAD_OWN_DOCS")) {
                 return ResponseEntity.status(403).body(Map.of("error", "You do not have permission to upload documents"));
             }
 
-            String filePath = fileStorageService.store(file, employee.getId(), employee.getOrganization().getId());
+            FileStorageService.StoredContent content =
+                    fileStorageService.store(file, employee.getId(), employee.getOrganization().getId());
             Document document = documentService.uploadForEmployee(
                     employee,
-                    user,
+                    employee.getUser(),
                     file.getOriginalFilename(),
-                    filePath,
+                    content,
                     file.getContentType()
             );
 
@@ -136,12 +135,12 @@ public class DocumentController {
 
                 // Send email notification to requester
                 try {
-                    String uploaderName = user.getEmail().split("@")[0];
+                    String uploaderName = currentUser.getEmail().split("@")[0];
                     String requesterEmail = req.getRequester().getEmail();
                     emailService.sendDocumentUploadedEmail(
                         requesterEmail,
                         uploaderName,
-                        user.getEmail(),
+                        currentUser.getEmail(),
                         document.getFileType() != null ? document.getFileType() : "Document",
                         document.getId().toString()
                     );
@@ -163,12 +162,8 @@ public class DocumentController {
     public ResponseEntity<?> uploadForEmployee(@PathVariable UUID employeeId,
                                               @RequestParam("file") MultipartFile file,
                                               @RequestParam(value = "requestId", required = false) UUID requestId,
-                                              Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Employee currentEmployee = getOrCreateEmployee(user);
+                                              @CurrentPrincipal CurrentUser currentUser) {
+        Employee currentEmployee = currentEmployee(currentUser);
 
         if (!permissionService.has(currentEmployee, "UPLOAD_FOR_OTHERS")) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
@@ -177,16 +172,17 @@ public class DocumentController {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        if (user.getOrganization() == null || !user.getOrganization().getId().equals(employee.getOrganization().getId())) {
+        if (currentUser.getOrganizationId() == null || !currentUser.getOrganizationId().equals(employee.getOrganization().getId())) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
 
-        String filePath = fileStorageService.store(file, employee.getId(), employee.getOrganization().getId());
+        FileStorageService.StoredContent content =
+                fileStorageService.store(file, employee.getId(), employee.getOrganization().getId());
         Document document = documentService.uploadForEmployee(
                 employee,
-                user,
+                currentEmployee.getUser(),
                 file.getOriginalFilename(),
-                filePath,
+                content,
                 file.getContentType()
         );
 
@@ -222,12 +218,8 @@ public class DocumentController {
 
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ORGADMIN')")
-    public ResponseEntity<?> getMyDocuments(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Employee employee = getOrCreateEmployee(user);
+    public ResponseEntity<?> getMyDocuments(@CurrentPrincipal CurrentUser currentUser) {
+        Employee employee = currentEmployee(currentUser);
 
         if (!permissionService.has(employee, "VIEW_OWN_DOCS")) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
@@ -243,17 +235,13 @@ public class DocumentController {
 
     @GetMapping("/employee/{employeeId}")
     @PreAuthorize("hasRole('ORGADMIN')")
-    public ResponseEntity<?> getEmployeeDocuments(@PathVariable UUID employeeId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Employee currentEmployee = getOrCreateEmployee(user);
+    public ResponseEntity<?> getEmployeeDocuments(@PathVariable UUID employeeId, @CurrentPrincipal CurrentUser currentUser) {
+        Employee currentEmployee = currentEmployee(currentUser);
 
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        if (user.getOrganization() == null || !user.getOrganization().getId().equals(employee.getOrganization().getId())) {
+        if (currentUser.getOrganizationId() == null || !currentUser.getOrganizationId().equals(employee.getOrganization().getId())) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
 
@@ -280,14 +268,10 @@ public class DocumentController {
     public ResponseEntity<?> getOrganizationDocuments(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Employee currentEmployee = getOrCreateEmployee(user);
+            @CurrentPrincipal CurrentUser currentUser) {
+        Employee currentEmployee = currentEmployee(currentUser);
 
-        if (user.getOrganization() == null) {
+        if (currentUser.getOrganizationId() == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "User has no organization"));
         }
 
@@ -325,18 +309,15 @@ public class DocumentController {
 
     @GetMapping("/{documentId}/download")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> downloadDocument(@PathVariable UUID documentId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ResponseEntity<?> downloadDocument(@PathVariable UUID documentId, @CurrentPrincipal CurrentUser currentUser,
+                                              HttpServletRequest request, HttpServletResponse response) throws IOException {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        Employee currentEmployee = getOrCreateEmployee(user);
+        Employee currentEmployee = currentEmployee(currentUser);
 
         // Organization boundary check: Prevent cross-organization document access
-        if (user.getOrganization() != null &&
+        if (currentUser.getOrganizationId() != null &&
                 !document.getEmployee().getOrganization().getId().equals(currentEmployee.getOrganization().getId())) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
@@ -368,7 +349,7 @@ public class DocumentController {
         // Requester of fulfilled document request
         if (!allowed) {
             List<com.hrms.entity.DocumentRequest> reqs =
-                    documentRequestRepository.findByFulfilledDocument_IdAndRequester_Id(documentId, user.getId());
+                    documentRequestRepository.findByFulfilledDocument_IdAndRequester_Id(documentId, currentUser.getUserId());
             allowed = !reqs.isEmpty();
         }
 
@@ -376,34 +357,27 @@ public class DocumentController {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
 
-        InputStreamResource resource = new InputStreamResource(fileStorageService.load(document.getFilePath()));
-
-        String filename = document.getFileName();
         String contentType = document.getFileType() != null ? document.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
-        headers.setContentType(MediaType.parseMediaType(contentType));
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(resource);
+        StoredFile storedFile = fileStorageService.stat(document.getFilePath());
+
+        // Streamed from storage straight into the response (with Range / ETag handling)
+        ConditionalDownload.write(request, response, storedFile, document.getFileName(), contentType,
+                (offset, count, out) -> fileStorageService.download(
+                        document.getFilePath(), offset, count, storedFile.eTag(), out),
+                fileStorageService.localFile(document.getFilePath()));
+        return null;
     }
 
     @DeleteMapping("/{documentId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> deleteDocument(@PathVariable UUID documentId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ResponseEntity<?> deleteDocument(@PathVariable UUID documentId, @CurrentPrincipal CurrentUser currentUser) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        Employee currentEmployee = getOrCreateEmployee(user);
+        Employee currentEmployee = currentEmployee(currentUser);
 
         // Organization boundary check
-        if (user.getOrganization() != null &&
+        if (currentUser.getOrganizationId() != null &&
                 !document.getEmployee().getOrganization().getId().equals(currentEmployee.getOrganization().getId())) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
@@ -440,13 +414,10 @@ public class DocumentController {
         }
 
         try {
-            // Delete file from storage
-            fileStorageService.delete(document.getFilePath());
+            // Deletes the record; the stored file is released after the delete commits
+            documentService.delete(document);
 
-            // Delete document record
-            documentRepository.delete(document);
-
-            logger.info("Document {} deleted by user {}", documentId, user.getEmail());
+            logger.info("Document {} deleted by user {}", documentId, currentUser.getEmail());
             return ResponseEntity.ok(Map.of("message", "Document deleted successfully"));
         } catch (Exception e) {
             logger.error("Error deleting document {}: {}", documentId, e.getMessage(), e);
@@ -458,18 +429,14 @@ public class DocumentController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> replaceDocument(@PathVariable UUID documentId,
                                              @RequestParam("file") MultipartFile file,
-                                             Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+                                             @CurrentPrincipal CurrentUser currentUser) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        Employee currentEmployee = getOrCreateEmployee(user);
+        Employee currentEmployee = currentEmployee(currentUser);
 
         // Organization boundary check
-        if (user.getOrganization() != null &&
+        if (currentUser.getOrganizationId() != null &&
                 !document.getEmployee().getOrganization().getId().equals(currentEmployee.getOrganization().getId())) {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
         }
@@ -506,19 +473,9 @@ public class DocumentController {
         }
 
         try {
-            // Delete old file from storage
-            fileStorageService.delete(document.getFilePath());
+            Document updated = documentService.replace(document, file);
 
-            // Store new file
-            String newFilePath = fileStorageService.store(file, document.getEmployee().getId(), currentEmployee.getOrganization().getId());
-
-            // Update document record
-            document.setFileName(file.getOriginalFilename());
-            document.setFilePath(newFilePath);
-            document.setFileType(file.getContentType());
-            Document updated = documentRepository.save(document);
-
-            logger.info("Document {} replaced by user {}", documentId, user.getEmail());
+            logger.info("Document {} replaced by user {}", documentId, currentUser.getEmail());
             DocumentResponse response = toDocumentResponse(updated);
             return ResponseEntity.ok(new DocumentUploadResponse("Document replaced successfully", response));
         } catch (Exception e) {
@@ -527,6 +484,20 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Employee record of the caller, loaded by the id of the cached identity; created on first
+     * use for users that have none yet
+     */
+    private Employee currentEmployee(CurrentUser currentUser) {
+        if (currentUser.getEmployeeId() != null) {
+            return employeeRepository.findById(currentUser.getEmployeeId())
+                    .orElseThrow(() -> new RuntimeException("Employee record not found"));
+        }
+        User user = userService.findByEmail(currentUser.getEmail())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return getOrCreateEmployee(user);
+    }
+
     private Employee getOrCreateEmployee(User user) {
         return employeeRepository.findByUser_Id(user.getId())
                 .orElseGet(() -> {
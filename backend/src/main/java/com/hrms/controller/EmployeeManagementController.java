@@ -5,9 +5,12 @@ import com.hrms.entity.*;
 import com.hrms.entity.employee.*;
 import com.hrms.repository.DepartmentRepository;
 import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.OrganizationRepository;
 import com.hrms.repository.PermissionGroupRepository;
 import com.hrms.repository.PositionRepository;
 import com.hrms.repository.RoleRepository;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.AuditLogService;
 import com.hrms.service.EmployeeService;
 import com.hrms.service.PermissionService;
@@ -37,6 +40,7 @@ public class EmployeeManagementController {
     private final PositionRepository positionRepository;
     private final PermissionGroupRepository permissionGroupRepository;
     private final RoleRepository roleRepository;
+    private final OrganizationRepository organizationRepository;
     private final PermissionService permissionService;
     private final UserService userService;
     private final AuditLogService auditLogService;
@@ -45,14 +49,8 @@ public class EmployeeManagementController {
     public ResponseEntity<Page<EmployeeSummaryResponse>> getEmployees(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
-            throw new RuntimeException("User has no organization");
-        }
+            @CurrentPrincipal CurrentUser currentUser) {
+        Organization organization = organizationOf(currentUser);
 
         // Limit max page size to 100 to prevent performance issues
         int effectiveSize = Math.min(size, 100);
@@ -67,19 +65,13 @@ public class EmployeeManagementController {
 
     @GetMapping("/{employeeId}")
     public ResponseEntity<EmployeeDetailResponse> getEmployee(@PathVariable UUID employeeId,
-                                                               Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
-            throw new RuntimeException("User has no organization");
-        }
+                                                               @CurrentPrincipal CurrentUser currentUser) {
+        UUID organizationId = organizationOf(currentUser).getId();
 
         Employee employee = employeeService.getById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        if (!employee.getOrganization().getId().equals(organization.getId())) {
+        if (!employee.getOrganization().getId().equals(organizationId)) {
             throw new RuntimeException("Employee does not belong to your organization");
         }
 
@@ -165,19 +157,13 @@ public class EmployeeManagementController {
 
     @GetMapping("/{employeeId}/history")
     public ResponseEntity<List<EmployeeHistoryResponse>> getEmployeeHistory(@PathVariable UUID employeeId,
-                                                                             Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
-            throw new RuntimeException("User has no organization");
-        }
+                                                                             @CurrentPrincipal CurrentUser currentUser) {
+        UUID organizationId = organizationOf(currentUser).getId();
 
         Employee employee = employeeService.getById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        if (!employee.getOrganization().getId().equals(organization.getId())) {
+        if (!employee.getOrganization().getId().equals(organizationId)) {
             throw new RuntimeException("Employee does not belong to your organization");
         }
 
@@ -198,42 +184,33 @@ public class EmployeeManagementController {
     }
 
     @GetMapping("/tree")
-    public ResponseEntity<List<EmployeeTreeNodeResponse>> getEmployeeTree(Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
-            throw new RuntimeException("User has no organization");
-        }
+    public ResponseEntity<List<EmployeeTreeNodeResponse>> getEmployeeTree(@CurrentPrincipal CurrentUser currentUser) {
+        UUID organizationId = organizationOf(currentUser).getId();
 
-        List<Employee> employees = employeeService.getEmployeesForOrganization(organization);
+        List<EmployeeRepository.OrgChartRow> rows =
+                employeeRepository.findAllOrgChartRowsByOrganizationId(organizationId);
 
-        Map<UUID, EmployeeTreeNodeResponse> nodeMap = new HashMap<>();
-        for (Employee emp : employees) {
+        Map<UUID, EmployeeTreeNodeResponse> nodeMap = new HashMap<>(rows.size() * 2);
+        for (EmployeeRepository.OrgChartRow row : rows) {
             EmployeeTreeNodeResponse node = new EmployeeTreeNodeResponse();
-            node.setEmployeeId(emp.getId());
-            node.setEmail(emp.getUser().getEmail());
-            node.setFirstName(emp.getFirstName());
-            node.setLastName(emp.getLastName());
-            node.setPositionName(emp.getPosition() != null ? emp.getPosition().getName() : null);
-            node.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : null);
+            node.setEmployeeId(row.getId());
+            node.setEmail(row.getEmail());
+            node.setFirstName(row.getFirstName());
+            node.setLastName(row.getLastName());
+            node.setPositionName(row.getPositionName());
+            node.setDepartmentName(row.getDepartmentName());
             node.setReports(new ArrayList<>());
-            nodeMap.put(emp.getId(), node);
+            nodeMap.put(row.getId(), node);
         }
 
         List<EmployeeTreeNodeResponse> roots = new ArrayList<>();
-        for (Employee emp : employees) {
-            EmployeeTreeNodeResponse node = nodeMap.get(emp.getId());
-            if (emp.getReportsTo() == null) {
-                roots.add(node);
+        for (EmployeeRepository.OrgChartRow row : rows) {
+            EmployeeTreeNodeResponse node = nodeMap.get(row.getId());
+            EmployeeTreeNodeResponse managerNode = row.getReportsToId() != null ? nodeMap.get(row.getReportsToId()) : null;
+            if (managerNode != null) {
+                managerNode.getReports().add(node);
             } else {
-                EmployeeTreeNodeResponse managerNode = nodeMap.get(emp.getReportsTo().getId());
-                if (managerNode != null) {
-                    managerNode.getReports().add(node);
-                } else {
-                    roots.add(node);
-                }
+                roots.add(node);
             }
         }
 
@@ -507,6 +484,16 @@ public class EmployeeManagementController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Organization of the caller as a lazy reference (no query unless its fields are read)
+     */
+    private Organization organizationOf(CurrentUser currentUser) {
+        if (currentUser.getOrganizationId() == null) {
+            throw new RuntimeException("User has no organization");
+        }
+        return organizationRepository.getReferenceById(currentUser.getOrganizationId());
+    }
+
     private EmployeeSummaryResponse mapToSummary(Employee employee) {
         return new EmployeeSummaryResponse(
                 employee.getId(),
@@ -631,14 +618,11 @@ public class EmployeeManagementController {
     @GetMapping("/codes/next")
     public ResponseEntity<Map<String, String>> getNextEmployeeCode(
             @RequestParam(required = false) UUID departmentId,
-            Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
+            @CurrentPrincipal CurrentUser currentUser) {
+        if (currentUser.getOrganizationId() == null) {
             return ResponseEntity.status(403).body(Map.of("error", "User has no organization"));
         }
+        Organization organization = organizationRepository.getReferenceById(currentUser.getOrganizationId());
 
         Department department = null;
         if (departmentId != null) {
@@ -863,55 +847,54 @@ public class EmployeeManagementController {
      * Get organization chart hierarchy
      */
     @GetMapping("/org-chart")
-    public ResponseEntity<?> getOrganizationChart(Authentication authentication) {
-        User currentUser = userService.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Organization organization = currentUser.getOrganization();
-        if (organization == null) {
+    public ResponseEntity<?> getOrganizationChart(@CurrentPrincipal CurrentUser currentUser) {
+        if (currentUser.getOrganizationId() == null) {
             return ResponseEntity.status(403).body(Map.of("error", "User has no organization"));
         }
 
-        // Get all active employees in the organization
-        List<Employee> employees = employeeRepository.findByOrganization(organization).stream()
-                .filter(e -> e.getDeletedAt() == null)
-                .collect(Collectors.toList());
+        // Get all active employees in the organization as flat rows
+        List<EmployeeRepository.OrgChartRow> rows =
+                employeeRepository.findOrgChartRowsByOrganizationId(currentUser.getOrganizationId());
+
+        // Count direct reports in one pass
+        Map<UUID, Long> directReportCounts = new HashMap<>();
+        for (EmployeeRepository.OrgChartRow row : rows) {
+            if (row.getReportsToId() != null) {
+                directReportCounts.merge(row.getReportsToId(), 1L, Long::sum);
+            }
+        }
 
         // Build org chart nodes
-        List<Map<String, Object>> nodes = employees.stream().map(emp -> {
+        List<Map<String, Object>> nodes = new ArrayList<>(rows.size());
+        for (EmployeeRepository.OrgChartRow row : rows) {
             Map<String, Object> node = new HashMap<>();
-            node.put("id", emp.getId().toString());
-            node.put("employeeCode", emp.getEmployeeCode());
-            node.put("firstName", emp.getFirstName());
-            node.put("middleName", emp.getMiddleName());
-            node.put("lastName", emp.getLastName());
-            node.put("email", emp.getUser().getEmail());
+            node.put("id", row.getId().toString());
+            node.put("employeeCode", row.getEmployeeCode());
+            node.put("firstName", row.getFirstName());
+            node.put("middleName", row.getMiddleName());
+            node.put("lastName", row.getLastName());
+            node.put("email", row.getEmail());
 
             // Position info
-            if (emp.getPosition() != null) {
-                node.put("positionName", emp.getPosition().getName());
-                node.put("positionLevel", emp.getPosition().getSeniorityLevel());
+            if (row.getPositionName() != null) {
+                node.put("positionName", row.getPositionName());
+                node.put("positionLevel", row.getPositionLevel());
             }
 
             // Department info
-            if (emp.getDepartment() != null) {
-                node.put("departmentName", emp.getDepartment().getName());
-                node.put("departmentCode", emp.getDepartment().getDepartmentCode());
+            if (row.getDepartmentName() != null) {
+                node.put("departmentName", row.getDepartmentName());
+                node.put("departmentCode", row.getDepartmentCode());
             }
 
             // Reporting relationship
-            if (emp.getReportsTo() != null) {
-                node.put("reportsToId", emp.getReportsTo().getId().toString());
+            if (row.getReportsToId() != null) {
+                node.put("reportsToId", row.getReportsToId().toString());
             }
 
-            // Count direct reports
-            long directReportCount = employees.stream()
-                    .filter(e -> e.getReportsTo() != null && e.getReportsTo().getId().equals(emp.getId()))
-                    .count();
-            node.put("directReportCount", directReportCount);
-
-            return node;
-        }).collect(Collectors.toList());
+            node.put("directReportCount", directReportCounts.getOrDefault(row.getId(), 0L));
+            nodes.add(node);
+        }
 
         // Find root employees (those without a manager)
         List<String> rootEmployeeIds = nodes.stream()
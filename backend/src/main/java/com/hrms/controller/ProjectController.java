@@ -1,6 +1,8 @@
 package com.hrms.controller;
 
 import com.hrms.dto.project.*;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,10 +25,9 @@ public class ProjectController {
     public ResponseEntity<List<ProjectListResponse>> getAllProjects(
             @RequestParam(required = false) UUID clientId,
             @RequestParam(required = false) Boolean activeOnly,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        List<ProjectListResponse> projects = projectService.getAllProjects(email, clientId, activeOnly);
+        List<ProjectListResponse> projects = projectService.getAllProjects(currentUser.getOrganizationId(), clientId, activeOnly);
         return ResponseEntity.ok(projects);
     }
 
@@ -34,10 +35,9 @@ public class ProjectController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<ProjectDetailResponse> getProjectById(
             @PathVariable UUID id,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        ProjectDetailResponse project = projectService.getProjectById(id, email);
+        ProjectDetailResponse project = projectService.getProjectById(id, currentUser.getOrganizationId());
         return ResponseEntity.ok(project);
     }
 
@@ -79,10 +79,9 @@ public class ProjectController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<String> getNextProjectCode(
             @RequestParam UUID clientId,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        String nextCode = projectService.generateNextProjectCode(clientId, email);
+        String nextCode = projectService.generateNextProjectCode(clientId, currentUser.getOrganizationId());
         return ResponseEntity.ok(nextCode);
     }
 }
@@ -1,6 +1,8 @@
 package com.hrms.controller;
 
 import com.hrms.dto.vendor.*;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.service.VendorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +24,9 @@ public class VendorController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<List<VendorListResponse>> getAllVendors(
             @RequestParam(required = false) Boolean activeOnly,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        List<VendorListResponse> vendors = vendorService.getAllVendors(email, activeOnly);
+        List<VendorListResponse> vendors = vendorService.getAllVendors(currentUser.getOrganizationId(), activeOnly);
         return ResponseEntity.ok(vendors);
     }
 
@@ -33,10 +34,9 @@ public class VendorController {
     @PreAuthorize("hasRole('ORGADMIN')")
     public ResponseEntity<VendorDetailResponse> getVendorById(
             @PathVariable UUID id,
-            Authentication authentication
+            @CurrentPrincipal CurrentUser currentUser
     ) {
-        String email = authentication.getName();
-        VendorDetailResponse vendor = vendorService.getVendorById(id, email);
+        VendorDetailResponse vendor = vendorService.getVendorById(id, currentUser.getOrganizationId());
         return ResponseEntity.ok(vendor);
     }
 
@@ -76,9 +76,8 @@ public class VendorController {
 
     @GetMapping("/codes/next")
     @PreAuthorize("hasRole('ORGADMIN')")
-    public ResponseEntity<String> getNextVendorCode(Authentication authentication) {
-        String email = authentication.getName();
-        String nextCode = vendorService.generateNextVendorCode(email);
+    public ResponseEntity<String> getNextVendorCode(@CurrentPrincipal CurrentUser currentUser) {
+        String nextCode = vendorService.generateNextVendorCode(currentUser.getOrganizationId());
         return ResponseEntity.ok(nextCode);
     }
 }
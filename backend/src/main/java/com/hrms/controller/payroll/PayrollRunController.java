@@ -1,17 +1,25 @@
 package com.hrms.controller.payroll;
 
 import com.hrms.entity.payroll.PayrollRun;
+import com.hrms.entity.payroll.PayslipArchive;
+import com.hrms.service.payroll.PayrollEngine;
 import com.hrms.service.payroll.PayrollRunService;
+import com.hrms.service.payroll.PayslipArchiveService;
 import com.hrms.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +31,8 @@ import java.util.UUID;
 public class PayrollRunController {
 
     private final PayrollRunService service;
+    private final PayrollEngine payrollEngine;
+    private final PayslipArchiveService payslipArchiveService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @GetMapping
@@ -58,6 +68,76 @@ public class PayrollRunController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/{id}/process")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public ResponseEntity<PayrollRun> process(@PathVariable UUID id, HttpServletRequest request) {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("POST /payroll/payroll-run/{}/process - organizationId: {}", id, organizationId);
+        return ResponseEntity.ok(payrollEngine.process(id, organizationId, jwtAuthenticationFilter.getUserId(request)));
+    }
+
+    @PostMapping("/{id}/reprocess")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public ResponseEntity<PayrollRun> reprocess(@PathVariable UUID id, HttpServletRequest request) {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("POST /payroll/payroll-run/{}/reprocess - organizationId: {}", id, organizationId);
+        return ResponseEntity.ok(payrollEngine.reprocess(id, organizationId, jwtAuthenticationFilter.getUserId(request)));
+    }
+
+    /**
+     * ZIP of the run's payslip PDFs, rendered while it is streamed
+     */
+    @GetMapping("/{id}/payslips/archive")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public void downloadPayslipArchive(@PathVariable UUID id, HttpServletRequest request,
+                                       HttpServletResponse response) throws IOException {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("GET /payroll/payroll-run/{}/payslips/archive - organizationId: {}", id, organizationId);
+        String filename = payslipArchiveService.archiveFileName(id, organizationId);
+        response.setContentType(PayslipArchiveService.ARCHIVE_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        payslipArchiveService.writeArchive(id, organizationId, response.getOutputStream());
+    }
+
+    /**
+     * Queue the generation of the run's payslip archive into document storage for later download;
+     * its progress is at the Location returned
+     */
+    @PostMapping("/{id}/payslips/archive")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public ResponseEntity<PayslipArchive> requestPayslipArchive(@PathVariable UUID id, HttpServletRequest request) {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("POST /payroll/payroll-run/{}/payslips/archive - organizationId: {}", id, organizationId);
+        PayslipArchive archive = payslipArchiveService.requestArchive(id, organizationId,
+                jwtAuthenticationFilter.getUserId(request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/payroll/payroll-run/" + id + "/payslips/archive/status"))
+                .body(archive);
+    }
+
+    @GetMapping("/{id}/payslips/archive/status")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public ResponseEntity<PayslipArchive> getPayslipArchiveStatus(@PathVariable UUID id, HttpServletRequest request) {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("GET /payroll/payroll-run/{}/payslips/archive/status - organizationId: {}", id, organizationId);
+        return ResponseEntity.ok(payslipArchiveService.getArchive(id, organizationId));
+    }
+
+    @GetMapping("/{id}/payslips/archive/stored")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public void downloadStoredPayslipArchive(@PathVariable UUID id, HttpServletRequest request,
+                                             HttpServletResponse response) throws IOException {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("GET /payroll/payroll-run/{}/payslips/archive/stored - organizationId: {}", id, organizationId);
+        PayslipArchiveService.StoredArchive archive = payslipArchiveService.getStoredArchive(id, organizationId);
+        response.setContentType(PayslipArchiveService.ARCHIVE_CONTENT_TYPE);
+        response.setContentLengthLong(archive.size());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(payslipArchiveService.archiveFileName(id, organizationId)).build().toString());
+        payslipArchiveService.download(archive, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
     public ResponseEntity<PayrollRun> update(@PathVariable UUID id, @Valid @RequestBody PayrollRun entity, HttpServletRequest request) {
@@ -1,17 +1,24 @@
 package com.hrms.controller.payroll;
 
 import com.hrms.entity.payroll.Payslip;
+import com.hrms.service.payroll.PayslipArchiveService;
 import com.hrms.service.payroll.PayslipService;
+import com.hrms.security.CurrentPrincipal;
+import com.hrms.security.CurrentUser;
 import com.hrms.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +30,7 @@ import java.util.UUID;
 public class PayslipController {
 
     private final PayslipService service;
+    private final PayslipArchiveService payslipArchiveService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @GetMapping
@@ -49,6 +57,24 @@ public class PayslipController {
         return ResponseEntity.ok(service.getById(id, organizationId));
     }
 
+    @GetMapping("/{id}/pdf")
+    @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
+    public ResponseEntity<byte[]> getPdf(@PathVariable UUID id, HttpServletRequest request) throws IOException {
+        UUID organizationId = jwtAuthenticationFilter.getOrganizationId(request);
+        log.debug("GET /payroll/payslip/{}/pdf - organizationId: {}", id, organizationId);
+        PayslipArchiveService.RenderedPayslip pdf = payslipArchiveService.renderPayslip(id, organizationId);
+        return pdfResponse(pdf);
+    }
+
+    @GetMapping("/me/{id}/pdf")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<byte[]> getMyPdf(@PathVariable UUID id, @CurrentPrincipal CurrentUser currentUser) throws IOException {
+        log.debug("GET /payroll/payslip/me/{}/pdf - employeeId: {}", id, currentUser.getEmployeeId());
+        PayslipArchiveService.RenderedPayslip pdf = payslipArchiveService.renderEmployeePayslip(
+                id, currentUser.getOrganizationId(), currentUser.getEmployeeId());
+        return pdfResponse(pdf);
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyAuthority('orgadmin', 'superadmin')")
     public ResponseEntity<Payslip> create(@Valid @RequestBody Payslip entity, HttpServletRequest request) {
@@ -75,4 +101,11 @@ public class PayslipController {
         service.delete(id, organizationId);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<byte[]> pdfResponse(PayslipArchiveService.RenderedPayslip pdf) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(pdf.fileName()).build().toString())
+                .body(pdf.content());
+    }
 }
@@ -0,0 +1,57 @@
+package com.hrms.dto.employee;
+
+import com.hrms.entity.BulkImportJob;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Status and progress of a background employee import job
+ */
+@Data
+@NoArgsConstructor
+public class BulkImportJobResponse {
+    private UUID jobId;
+    private UUID organizationId;
+    private String fileName;
+    private String status; // QUEUED, RUNNING, COMPLETED, PARTIAL, FAILED
+    private boolean skipDuplicates;
+
+    // Progress (lastRowNumber is the CSV line of the last committed chunk)
+    private int lastRowNumber;
+    private int totalRows;
+    private int successCount;
+    private int failedCount;
+    private int skippedCount;
+    private int attempts;
+
+    private boolean hasErrorFile;
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public static BulkImportJobResponse from(BulkImportJob job) {
+        BulkImportJobResponse response = new BulkImportJobResponse();
+        response.setJobId(job.getId());
+        response.setOrganizationId(job.getOrganizationId());
+        response.setFileName(job.getFileName());
+        response.setStatus(job.getStatus());
+        response.setSkipDuplicates(job.isSkipDuplicates());
+        response.setLastRowNumber(job.getLastRowNumber());
+        response.setTotalRows(job.getTotalRows());
+        response.setSuccessCount(job.getSuccessCount());
+        response.setFailedCount(job.getFailedCount());
+        response.setSkippedCount(job.getSkippedCount());
+        response.setAttempts(job.getAttempts());
+        response.setHasErrorFile(job.getErrorFileBytes() > 0);
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        return response;
+    }
+}
@@ -12,8 +12,10 @@ import java.util.UUID;
 public class BulkImportResponse {
 
     private UUID importId;
+    private UUID organizationId;
     private LocalDateTime importedAt;
-    private String status; // completed, partial, failed
+    private LocalDateTime completedAt;
+    private String status; // running, completed, partial, failed
 
     // Summary
     private int totalRows;
@@ -118,9 +120,15 @@ public class BulkImportResponse {
     public UUID getImportId() { return importId; }
     public void setImportId(UUID importId) { this.importId = importId; }
 
+    public UUID getOrganizationId() { return organizationId; }
+    public void setOrganizationId(UUID organizationId) { this.organizationId = organizationId; }
+
     public LocalDateTime getImportedAt() { return importedAt; }
     public void setImportedAt(LocalDateTime importedAt) { this.importedAt = importedAt; }
 
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
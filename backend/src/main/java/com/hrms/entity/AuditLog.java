@@ -6,8 +6,17 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * AuditLog Entity
+ * Recent audit trail of an organization. Rows older than audit.retention.hot-months are moved to
+ * {@link AuditLogArchive} by {@link com.hrms.service.AuditLogRetentionService}.
+ */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+    @Index(name = "idx_audit_logs_org_time", columnList = "organization_id, performed_at, id"),
+    @Index(name = "idx_audit_logs_entity", columnList = "organization_id, entity_type, entity_id, performed_at, id"),
+    @Index(name = "idx_al_performed_at", columnList = "performed_at")
+})
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
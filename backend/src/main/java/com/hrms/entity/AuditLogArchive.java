@@ -0,0 +1,68 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * AuditLogArchive Entity
+ * Audit entries rolled over from audit_logs, keeping the original id and timestamps. References
+ * are plain ids so that archived rows outlive the users and organizations they mention. Rows
+ * older than audit.retention.file-after-months are exported to compressed files and deleted.
+ */
+@Entity
+@Table(name = "audit_logs_archive", indexes = {
+    @Index(name = "idx_audit_logs_archive_org_time", columnList = "organization_id, performed_at, id"),
+    @Index(name = "idx_audit_logs_archive_time", columnList = "performed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AuditLogArchive {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "action_type", nullable = false, length = 50)
+    private String actionType;
+
+    @Column(name = "entity_type", length = 100)
+    private String entityType;
+
+    @Column(name = "entity_id", length = 255)
+    private String entityId;
+
+    @Column(name = "performed_by")
+    private UUID performedBy;
+
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "ip_address", length = 50)
+    private String ipAddress;
+
+    @Column(name = "metadata", columnDefinition = "TEXT")
+    private String metadata;
+
+    @Column(name = "performed_at")
+    private LocalDateTime performedAt;
+
+    @Column(name = "organization_id")
+    private UUID organizationId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,107 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * BulkImportJob Entity
+ * A CSV employee import running in the background. lastRowNumber and the counters are
+ * advanced in the same transaction as each imported chunk, so a job interrupted by a crash
+ * or restart resumes after the last committed chunk.
+ */
+@Entity
+@Table(name = "bulk_import_jobs", indexes = {
+    @Index(name = "idx_bulk_import_jobs_org", columnList = "organization_id, created_at"),
+    @Index(name = "idx_bulk_import_jobs_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkImportJob {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_PARTIAL = "PARTIAL";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "stored_file", nullable = false, length = 500)
+    private String storedFile; // document storage path of the upload
+
+    @Column(name = "error_file", length = 500)
+    private String errorFile; // document storage path of the rejected rows
+
+    @Column(name = "error_file_bytes", nullable = false)
+    private long errorFileBytes;
+
+    @Column(name = "skip_duplicates", nullable = false)
+    private boolean skipDuplicates;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // QUEUED, RUNNING, COMPLETED, PARTIAL, FAILED
+
+    @Column(name = "last_row_number", nullable = false)
+    private int lastRowNumber;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(name = "success_count", nullable = false)
+    private int successCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = STATUS_QUEUED;
+        }
+    }
+
+    public boolean isFinished() {
+        return STATUS_COMPLETED.equals(status) || STATUS_PARTIAL.equals(status) || STATUS_FAILED.equals(status);
+    }
+}
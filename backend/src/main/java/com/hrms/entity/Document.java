@@ -30,6 +30,10 @@ public class Document {
     @Column(name = "file_type", length = 100)
     private String fileType;
 
+    // SHA-256 of the content, referencing document_blobs; null for documents that own their file
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "document_type", length = 100)
     private String documentType; // ID_PROOF, ADDRESS_PROOF, EDUCATION, TAX, CONTRACT, etc.
 
@@ -109,6 +113,14 @@ public class Document {
         this.fileType = fileType;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,52 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DocumentBlob Entity
+ * One stored file per distinct content (SHA-256) within an organization. Documents with the same
+ * content reference it through documents.content_hash; referenceCount counts them and the file
+ * is removed from storage when the last one is deleted.
+ */
+@Entity
+@Table(name = "document_blobs", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_document_blobs_org_hash", columnNames = {"organization_id", "content_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DocumentBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "storage_path", nullable = false, length = 500)
+    private String storagePath;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
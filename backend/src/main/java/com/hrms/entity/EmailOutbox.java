@@ -0,0 +1,109 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * EmailOutbox Entity
+ * An email waiting to be delivered. Rows are written in the caller's transaction and
+ * drained by {@link com.hrms.service.EmailOutboxDispatcher}; the rendered body (which may
+ * hold a temporary password or reset link) is cleared once the mail has been sent or given up.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmailOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "recipient_domain", nullable = false)
+    private String recipientDomain;
+
+    @Column(name = "email_type", nullable = false)
+    private String emailType;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "related_entity_id")
+    private String relatedEntityId;
+
+    @Column(name = "related_entity_type")
+    private String relatedEntityType;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // PENDING, SENT, FAILED
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public EmailOutbox(String recipientEmail, String emailType, String subject, String body,
+                       String relatedEntityId, String relatedEntityType) {
+        this.recipientEmail = recipientEmail;
+        this.recipientDomain = domainOf(recipientEmail);
+        this.emailType = emailType;
+        this.subject = subject;
+        this.body = body;
+        this.relatedEntityId = relatedEntityId;
+        this.relatedEntityType = relatedEntityType;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = now;
+        }
+        if (status == null) {
+            status = STATUS_PENDING;
+        }
+    }
+
+    private static String domainOf(String email) {
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        return at >= 0 ? email.substring(at + 1).toLowerCase() : "";
+    }
+}
@@ -0,0 +1,53 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Employee Hierarchy Closure Entity
+ * One row per (ancestor, descendant) pair of the reporting structure, including a depth-0 row
+ * for every employee. Mirrors employees.reports_to_id so that subtree, "is X under Y" and
+ * depth-limited queries are single indexed lookups instead of recursive walks.
+ */
+@Entity
+@Table(
+    name = "employee_hierarchy_closure",
+    indexes = {
+        @Index(name = "idx_ehc_descendant", columnList = "descendant_id, depth"),
+        @Index(name = "idx_ehc_ancestor_depth", columnList = "ancestor_id, depth"),
+        @Index(name = "idx_ehc_org", columnList = "organization_id")
+    }
+)
+@IdClass(EmployeeHierarchyClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeHierarchyClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+    }
+}
@@ -39,6 +39,15 @@ public class ScheduledJobLog {
     @Column(name = "duration_ms")
     private Long durationMs;
 
+    @Column(name = "node_id", length = 200)
+    private String nodeId;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -77,4 +86,15 @@ public class ScheduledJobLog {
                 .errorMessage(errorMessage)
                 .build();
     }
+
+    /**
+     * Record how many rows a run processed and the resulting throughput
+     */
+    public ScheduledJobLog withRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+        if (durationMs != null) {
+            this.rowsPerSecond = rowsProcessed * 1000.0 / Math.max(durationMs, 1);
+        }
+        return this;
+    }
 }
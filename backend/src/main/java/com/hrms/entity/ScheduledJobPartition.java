@@ -0,0 +1,84 @@
+package com.hrms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ScheduledJobPartition Entity
+ * One slice of one run of a partitioned scheduled job. A run (job name + run date) is split into
+ * partitionCount slices by organization id hash; nodes claim slices with conditional updates,
+ * heartbeat while working on them, and record the rows they processed.
+ */
+@Entity
+@Table(name = "scheduled_job_partitions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_scheduled_job_partition",
+        columnNames = {"job_name", "run_date", "partition_no"}),
+    indexes = @Index(name = "idx_scheduled_job_partitions_status", columnList = "status, run_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScheduledJobPartition {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(name = "partition_count", nullable = false)
+    private int partitionCount;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // PENDING, RUNNING, DONE, FAILED
+
+    @Column(name = "owner", length = 200)
+    private String owner;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public ScheduledJobPartition(String jobName, LocalDate runDate, int partitionNo, int partitionCount) {
+        this.jobName = jobName;
+        this.runDate = runDate;
+        this.partitionNo = partitionNo;
+        this.partitionCount = partitionCount;
+        this.status = STATUS_PENDING;
+        this.createdAt = LocalDateTime.now();
+    }
+}
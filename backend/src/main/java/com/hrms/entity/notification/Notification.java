@@ -84,6 +84,11 @@ public class Notification {
     @Column(name = "category", length = 50)
     private String category;
 
+    // Set by the scheduled reminder jobs (job, run date, recipient, content) so that a run
+    // processed twice inserts nothing new; unique where not null (see migration 014)
+    @Column(name = "dedup_key", length = 200, unique = true)
+    private String dedupKey;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -59,6 +59,9 @@ public class NotificationTemplate {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Column(name = "version")
+    private Integer version = 1;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -79,6 +82,7 @@ public class NotificationTemplate {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        version = 1;
         if (isActive == null) {
             isActive = true;
         }
@@ -90,5 +94,6 @@ public class NotificationTemplate {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        version = version != null ? version + 1 : 2;
     }
 }
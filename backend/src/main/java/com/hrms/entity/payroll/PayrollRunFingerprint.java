@@ -0,0 +1,45 @@
+package com.hrms.entity.payroll;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * PayrollRunFingerprint Entity
+ * Hash of the calculator inputs an employee's payslip in a payroll run was computed from: basic
+ * salary, components and tax schedule. Re-running the run recomputes only the employees whose
+ * fingerprint changed.
+ *
+ * PayrollEngine reads and writes these rows with JDBC; the entity mirrors migration 013 (plain
+ * UUID columns, no foreign keys) so that Hibernate ddl-auto creates the table, e.g. on H2 in tests.
+ */
+@Entity
+@Table(name = "payroll_run_fingerprints", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_payroll_run_fingerprints_run_employee", columnNames = {"payroll_run_id", "employee_id"})
+})
+@Data
+@NoArgsConstructor
+public class PayrollRunFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "payroll_run_id", nullable = false)
+    private UUID payrollRunId;
+
+    @Column(name = "employee_id", nullable = false)
+    private UUID employeeId;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,86 @@
+package com.hrms.entity.payroll;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * PayslipArchive Entity
+ * The ZIP of a payroll run's payslip PDFs, generated in the background into document storage.
+ * Every generation writes to a path of its own, so a generation that was superseded or became
+ * stale while it ran cannot overwrite the current archive. Processing the run again marks a
+ * finished archive STALE.
+ */
+@Entity
+@Table(name = "payslip_archives", indexes = {
+    @Index(name = "idx_payslip_archives_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PayslipArchive {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_STALE = "STALE";
+
+    @Id
+    @Column(name = "payroll_run_id")
+    private UUID payrollRunId;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, STALE
+
+    @Column(name = "stored_path", length = 500)
+    private String storedPath; // document storage path of the current generation
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "e_tag", length = 100)
+    private String etag;
+
+    @Column(name = "payslip_count")
+    private Integer payslipCount;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = STATUS_QUEUED;
+        }
+    }
+
+    public boolean isPending() {
+        return STATUS_QUEUED.equals(status) || STATUS_RUNNING.equals(status);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hrms.initializer;
+
+import com.hrms.entity.Organization;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.service.EmployeeHierarchyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Backfills the employee hierarchy closure table on startup
+ * Only organizations whose closure is out of sync with the employees table are rebuilt
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeHierarchyInitializer {
+
+    private final OrganizationRepository organizationRepository;
+    private final EmployeeHierarchyService employeeHierarchyService;
+
+    @Bean
+    @Order(3)
+    public CommandLineRunner reconcileEmployeeHierarchy() {
+        return args -> {
+            int rebuilt = 0;
+            for (Organization organization : organizationRepository.findAll()) {
+                try {
+                    if (employeeHierarchyService.reconcileOrganization(organization.getId())) {
+                        rebuilt++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to reconcile employee hierarchy for organization {}: {}",
+                            organization.getId(), e.getMessage());
+                }
+            }
+            log.info("Employee hierarchy reconciled ({} organizations rebuilt)", rebuilt);
+        };
+    }
+}
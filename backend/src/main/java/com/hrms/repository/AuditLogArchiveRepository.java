@@ -0,0 +1,33 @@
+package com.hrms.repository;
+
+import com.hrms.entity.AuditLogArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for AuditLogArchive entity
+ */
+@Repository
+public interface AuditLogArchiveRepository extends JpaRepository<AuditLogArchive, UUID> {
+
+    /**
+     * Oldest archived entry performed before the cutoff (null if none)
+     */
+    @Query("SELECT MIN(a.performedAt) FROM AuditLogArchive a WHERE a.performedAt < :cutoff")
+    LocalDateTime findOldestPerformedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Ids of entries of one export range, limited by the pageable
+     */
+    @Query("SELECT a.id FROM AuditLogArchive a WHERE a.performedAt >= :from AND a.performedAt < :to " +
+           "AND a.archivedAt <= :archivedBefore")
+    List<UUID> findIdsInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                              @Param("archivedBefore") LocalDateTime archivedBefore, Pageable pageable);
+}
@@ -6,6 +6,8 @@ import com.hrms.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -21,5 +23,40 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     Page<AuditLog> findByEntityTypeAndEntityIdOrderByPerformedAtDesc(String entityType, String entityId, Pageable pageable);
     Page<AuditLog> findByOrganizationAndActionTypeOrderByPerformedAtDesc(Organization organization, String actionType, Pageable pageable);
     Page<AuditLog> findByOrganizationAndEntityTypeOrderByPerformedAtDesc(Organization organization, String entityType, Pageable pageable);
-    List<AuditLog> findByPerformedAtBetweenOrderByPerformedAtDesc(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Keyset page of an organization's audit trail, newest first: entries strictly before
+     * (beforeAt, beforeId). Filters are optional (null = any). Limit with PageRequest.of(0, n).
+     */
+    @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.performedBy WHERE a.organization.id = :organizationId " +
+           "AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "AND (:entityType IS NULL OR a.entityType = :entityType) " +
+           "AND (a.performedAt < :beforeAt OR (a.performedAt = :beforeAt AND a.id < :beforeId)) " +
+           "ORDER BY a.performedAt DESC, a.id DESC")
+    List<AuditLog> findPageBefore(@Param("organizationId") UUID organizationId,
+                                  @Param("actionType") String actionType,
+                                  @Param("entityType") String entityType,
+                                  @Param("beforeAt") LocalDateTime beforeAt,
+                                  @Param("beforeId") UUID beforeId,
+                                  Pageable pageable);
+
+    /**
+     * Keyset page of the audit trail of one entity within an organization, newest first
+     */
+    @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.performedBy WHERE a.organization.id = :organizationId " +
+           "AND a.entityType = :entityType AND a.entityId = :entityId " +
+           "AND (a.performedAt < :beforeAt OR (a.performedAt = :beforeAt AND a.id < :beforeId)) " +
+           "ORDER BY a.performedAt DESC, a.id DESC")
+    List<AuditLog> findEntityPageBefore(@Param("organizationId") UUID organizationId,
+                                        @Param("entityType") String entityType,
+                                        @Param("entityId") String entityId,
+                                        @Param("beforeAt") LocalDateTime beforeAt,
+                                        @Param("beforeId") UUID beforeId,
+                                        Pageable pageable);
+
+    /**
+     * Ids of the oldest entries performed before the cutoff, limited by the pageable
+     */
+    @Query("SELECT a.id FROM AuditLog a WHERE a.performedAt < :cutoff ORDER BY a.performedAt")
+    List<UUID> findIdsPerformedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,73 @@
+package com.hrms.repository;
+
+import com.hrms.entity.BulkImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for BulkImportJob entity
+ */
+@Repository
+public interface BulkImportJobRepository extends JpaRepository<BulkImportJob, UUID> {
+
+    Optional<BulkImportJob> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    List<BulkImportJob> findByOrganizationIdOrderByCreatedAtDesc(UUID organizationId, Pageable pageable);
+
+    /**
+     * Jobs waiting to run, and running jobs whose worker stopped sending heartbeats
+     */
+    @Query("SELECT j.id FROM BulkImportJob j WHERE j.status = 'QUEUED' " +
+           "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore))")
+    List<UUID> findRunnableJobIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Atomically take a queued or abandoned job; returns 0 if another worker owns it
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkImportJob j SET j.status = 'RUNNING', j.attempts = j.attempts + 1, " +
+           "j.startedAt = :now, j.heartbeatAt = :now, j.errorMessage = NULL " +
+           "WHERE j.id = :id AND (j.status = 'QUEUED' " +
+           "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Put a failed job back in the queue
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BulkImportJob j SET j.status = 'QUEUED', j.completedAt = NULL " +
+           "WHERE j.id = :id AND j.status = 'FAILED'")
+    int requeue(@Param("id") UUID id);
+
+    /**
+     * Advance the checkpoint after a chunk (runs in the chunk's transaction)
+     */
+    @Modifying
+    @Query("UPDATE BulkImportJob j SET j.lastRowNumber = :lastRowNumber, " +
+           "j.totalRows = j.totalRows + :total, j.successCount = j.successCount + :success, " +
+           "j.failedCount = j.failedCount + :failed, j.skippedCount = j.skippedCount + :skipped, " +
+           "j.heartbeatAt = :now WHERE j.id = :id")
+    int recordChunk(@Param("id") UUID id,
+                    @Param("lastRowNumber") int lastRowNumber,
+                    @Param("total") int total,
+                    @Param("success") int success,
+                    @Param("failed") int failed,
+                    @Param("skipped") int skipped,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Record the size of the error file uploaded to document storage
+     */
+    @Modifying
+    @Query("UPDATE BulkImportJob j SET j.errorFileBytes = :errorFileBytes WHERE j.id = :id")
+    int recordErrorFile(@Param("id") UUID id, @Param("errorFileBytes") long errorFileBytes);
+}
@@ -0,0 +1,55 @@
+package com.hrms.repository;
+
+import com.hrms.entity.DocumentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, UUID> {
+
+    Optional<DocumentBlob> findByOrganizationIdAndContentHash(UUID organizationId, String contentHash);
+
+    /**
+     * Add a reference to a referenced blob (locks its row until the transaction ends). A blob
+     * without references may already have lost its file, so it is not matched.
+     * @return 1 if a referenced blob exists, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE DocumentBlob b SET b.referenceCount = b.referenceCount + 1 " +
+           "WHERE b.organizationId = :organizationId AND b.contentHash = :contentHash AND b.referenceCount > 0")
+    int addReference(@Param("organizationId") UUID organizationId, @Param("contentHash") String contentHash);
+
+    /**
+     * Take the first reference to a blob whose references were all dropped, after its file has
+     * been stored again (locks its row until the transaction ends)
+     * @return 1 if such a blob exists, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE DocumentBlob b SET b.referenceCount = 1 " +
+           "WHERE b.organizationId = :organizationId AND b.contentHash = :contentHash AND b.referenceCount = 0")
+    int reclaim(@Param("organizationId") UUID organizationId, @Param("contentHash") String contentHash);
+
+    /**
+     * Drop a reference (locks the row until the transaction ends)
+     */
+    @Modifying
+    @Query("UPDATE DocumentBlob b SET b.referenceCount = b.referenceCount - 1 " +
+           "WHERE b.organizationId = :organizationId AND b.contentHash = :contentHash AND b.referenceCount > 0")
+    int dropReference(@Param("organizationId") UUID organizationId, @Param("contentHash") String contentHash);
+
+    @Query("SELECT b.referenceCount FROM DocumentBlob b " +
+           "WHERE b.organizationId = :organizationId AND b.contentHash = :contentHash")
+    Optional<Integer> findReferenceCount(@Param("organizationId") UUID organizationId,
+                                         @Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("DELETE FROM DocumentBlob b WHERE b.organizationId = :organizationId " +
+           "AND b.contentHash = :contentHash AND b.referenceCount = 0")
+    int deleteUnreferenced(@Param("organizationId") UUID organizationId, @Param("contentHash") String contentHash);
+}
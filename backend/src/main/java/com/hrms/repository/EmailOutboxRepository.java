@@ -0,0 +1,65 @@
+package com.hrms.repository;
+
+import com.hrms.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for EmailOutbox entity
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    /**
+     * Pending mails that are due and not held by a dispatcher, oldest first
+     */
+    @Query("SELECT o.id FROM EmailOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+           "AND (o.lockedUntil IS NULL OR o.lockedUntil < :now) ORDER BY o.nextAttemptAt")
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Mark the given mails as held by one dispatcher run; rows taken by another run are left alone
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.claimToken = :token, o.lockedUntil = :lockedUntil " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING' AND (o.lockedUntil IS NULL OR o.lockedUntil < :now)")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("token") UUID token,
+              @Param("lockedUntil") LocalDateTime lockedUntil, @Param("now") LocalDateTime now);
+
+    List<EmailOutbox> findByClaimToken(UUID claimToken);
+
+    /**
+     * Mark mails as delivered and drop their rendered bodies
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = 'SENT', o.sentAt = :now, o.body = NULL, " +
+           "o.attempts = o.attempts + 1, o.claimToken = NULL, o.lockedUntil = NULL WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Hand mails back to the queue without counting an attempt (e.g. rate limited)
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.nextAttemptAt = :nextAttemptAt, o.claimToken = NULL, o.lockedUntil = NULL " +
+           "WHERE o.id IN :ids")
+    int release(@Param("ids") Collection<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Purge delivered mails sent before the cutoff and given-up mails queued before it
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox o WHERE (o.status = 'SENT' AND o.sentAt < :cutoff) " +
+           "OR (o.status = 'FAILED' AND o.createdAt < :cutoff)")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(String status);
+}
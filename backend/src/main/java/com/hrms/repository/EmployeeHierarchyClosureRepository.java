@@ -0,0 +1,58 @@
+package com.hrms.repository;
+
+import com.hrms.entity.EmployeeHierarchyClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmployeeHierarchyClosureRepository
+        extends JpaRepository<EmployeeHierarchyClosure, EmployeeHierarchyClosure.Key> {
+
+    boolean existsByAncestorIdAndDescendantIdAndDepthGreaterThan(UUID ancestorId, UUID descendantId, int depth);
+
+    long countByOrganizationIdAndDepth(UUID organizationId, int depth);
+
+    @Query("SELECT c.descendantId FROM EmployeeHierarchyClosure c " +
+           "WHERE c.ancestorId = :ancestorId AND c.depth > 0")
+    List<UUID> findDescendantIds(@Param("ancestorId") UUID ancestorId);
+
+    @Query("SELECT c.descendantId FROM EmployeeHierarchyClosure c " +
+           "WHERE c.ancestorId = :ancestorId AND c.depth > 0 AND c.depth <= :maxDepth")
+    List<UUID> findDescendantIdsWithinDepth(@Param("ancestorId") UUID ancestorId, @Param("maxDepth") int maxDepth);
+
+    @Query("SELECT c.ancestorId FROM EmployeeHierarchyClosure c " +
+           "WHERE c.descendantId = :descendantId AND c.depth > 0 ORDER BY c.depth")
+    List<UUID> findAncestorIds(@Param("descendantId") UUID descendantId);
+
+    /**
+     * Link a node (and its whole subtree) under a new parent:
+     * every ancestor of the parent becomes an ancestor of every node in the subtree.
+     */
+    @Modifying
+    @Query("INSERT INTO EmployeeHierarchyClosure (ancestorId, descendantId, organizationId, depth) " +
+           "SELECT a.ancestorId, d.descendantId, d.organizationId, a.depth + d.depth + 1 " +
+           "FROM EmployeeHierarchyClosure a, EmployeeHierarchyClosure d " +
+           "WHERE a.descendantId = :parentId AND d.ancestorId = :nodeId")
+    int linkSubtree(@Param("nodeId") UUID nodeId, @Param("parentId") UUID parentId);
+
+    /**
+     * Cut a node's subtree away from all of the node's current ancestors.
+     * Paths inside the subtree are kept.
+     */
+    @Modifying
+    @Query("DELETE FROM EmployeeHierarchyClosure c " +
+           "WHERE c.descendantId IN (SELECT s.descendantId FROM EmployeeHierarchyClosure s WHERE s.ancestorId = :nodeId) " +
+           "AND c.ancestorId IN (SELECT a.ancestorId FROM EmployeeHierarchyClosure a " +
+           "WHERE a.descendantId = :nodeId AND a.depth > 0)")
+    int unlinkSubtree(@Param("nodeId") UUID nodeId);
+
+    @Modifying
+    @Query("DELETE FROM EmployeeHierarchyClosure c WHERE c.organizationId = :organizationId")
+    int deleteByOrganizationId(@Param("organizationId") UUID organizationId);
+}
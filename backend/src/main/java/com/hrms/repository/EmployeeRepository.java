@@ -11,6 +11,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,7 +45,160 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
            "MONTH(e.dateOfBirth) = :month AND DAY(e.dateOfBirth) = :day")
     List<Employee> findByBirthday(@Param("month") int month, @Param("day") int day);
 
+    // Set-based reminder targets: ids only, per organization, excluding employees who already
+    // received a notification with the same title since the given time (safe to re-run)
+    @Query("SELECT DISTINCT e.organization.id FROM Employee e WHERE e.employmentStatus = 'active' AND e.deletedAt IS NULL")
+    List<UUID> findOrganizationIdsWithActiveEmployees();
+
+    @Query("SELECT e.id FROM Employee e WHERE e.organization.id = :organizationId " +
+           "AND e.employmentStatus = 'active' AND e.deletedAt IS NULL " +
+           "AND NOT EXISTS (SELECT n.id FROM Notification n WHERE n.employee = e AND n.title = :title AND n.createdAt >= :since)")
+    List<UUID> findActiveIdsNotNotifiedSince(@Param("organizationId") UUID organizationId,
+                                             @Param("title") String title,
+                                             @Param("since") LocalDateTime since);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL " +
+           "AND EXISTS (SELECT r.id FROM Employee r WHERE r.reportsTo = e AND r.deletedAt IS NULL) " +
+           "AND NOT EXISTS (SELECT n.id FROM Notification n WHERE n.employee = e AND n.title = :title AND n.createdAt >= :since)")
+    List<UUID> findManagerIdsNotNotifiedSince(@Param("organizationId") UUID organizationId,
+                                              @Param("title") String title,
+                                              @Param("since") LocalDateTime since);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.organization.id = :organizationId " +
+           "AND e.employmentStatus = 'active' AND e.deletedAt IS NULL " +
+           "AND NOT EXISTS (SELECT t.id FROM TimesheetEntry t WHERE t.employee = e " +
+           "AND t.entryDate BETWEEN :startDate AND :endDate AND t.deletedAt IS NULL) " +
+           "AND NOT EXISTS (SELECT n.id FROM Notification n WHERE n.employee = e AND n.title = :title AND n.createdAt >= :since)")
+    List<UUID> findActiveIdsWithoutTimesheetBetween(@Param("organizationId") UUID organizationId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    @Param("title") String title,
+                                                    @Param("since") LocalDateTime since);
+
+    @Query("SELECT e.id, e.firstName, e.lastName, e.probationEndDate, m.id FROM Employee e LEFT JOIN e.reportsTo m " +
+           "WHERE e.organization.id = :organizationId AND e.employmentStatus = 'active' AND e.deletedAt IS NULL " +
+           "AND e.probationEndDate BETWEEN :from AND :to " +
+           "AND NOT EXISTS (SELECT n.id FROM Notification n WHERE n.employee = e AND n.title = :title AND n.createdAt >= :since)")
+    List<Object[]> findProbationEndingBetween(@Param("organizationId") UUID organizationId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              @Param("title") String title,
+                                              @Param("since") LocalDateTime since);
+
+    // Reporting hierarchy (backed by employee_hierarchy_closure)
+    @Query("SELECT e FROM Employee e WHERE e.id IN (" +
+           "SELECT c.descendantId FROM EmployeeHierarchyClosure c WHERE c.ancestorId = :managerId AND c.depth > 0)")
+    List<Employee> findSubordinates(@Param("managerId") UUID managerId);
+
+    @Query("SELECT m.id FROM Employee e JOIN e.reportsTo m WHERE e.id = :employeeId")
+    Optional<UUID> findManagerIdById(@Param("employeeId") UUID employeeId);
+
+    @Query("SELECT e.id, m.id FROM Employee e LEFT JOIN e.reportsTo m WHERE e.organization.id = :organizationId")
+    List<Object[]> findReportingPairsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    long countByOrganizationId(UUID organizationId);
+
+    // Id-only views for access decisions (no entity hydration)
+    @Query("SELECT e.id AS id, e.organization.id AS organizationId, d.id AS departmentId " +
+           "FROM Employee e LEFT JOIN e.department d WHERE e.user.id = :userId")
+    Optional<AccessView> findAccessViewByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT e.id AS id, e.organization.id AS organizationId, d.id AS departmentId " +
+           "FROM Employee e LEFT JOIN e.department d WHERE e.id = :employeeId")
+    Optional<AccessView> findAccessViewById(@Param("employeeId") UUID employeeId);
+
+    @Query("SELECT e.id AS id, e.organization.id AS organizationId, d.id AS departmentId, m.id AS managerId " +
+           "FROM Employee e LEFT JOIN e.department d LEFT JOIN e.reportsTo m WHERE e.user.id = :userId")
+    Optional<PrincipalView> findPrincipalViewByUserId(@Param("userId") UUID userId);
+
+    // Flat rows for the org chart and employee tree (one query, no entity hydration)
+    String ORG_CHART_ROWS = "SELECT e.id AS id, e.employeeCode AS employeeCode, e.firstName AS firstName, " +
+           "e.middleName AS middleName, e.lastName AS lastName, u.email AS email, " +
+           "p.name AS positionName, p.seniorityLevel AS positionLevel, " +
+           "d.name AS departmentName, d.departmentCode AS departmentCode, m.id AS reportsToId " +
+           "FROM Employee e JOIN e.user u LEFT JOIN e.position p LEFT JOIN e.department d LEFT JOIN e.reportsTo m " +
+           "WHERE e.organization.id = :organizationId";
+
+    @Query(ORG_CHART_ROWS + " AND e.deletedAt IS NULL")
+    List<OrgChartRow> findOrgChartRowsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    // Deleted employees included
+    @Query(ORG_CHART_ROWS)
+    List<OrgChartRow> findAllOrgChartRowsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    // Bulk import: existing codes (employee_code is unique across organizations)
+    @Query("SELECT e.employeeCode AS employeeCode, e.id AS id, e.organization.id AS organizationId, " +
+           "e.deletedAt AS deletedAt FROM Employee e WHERE e.employeeCode IN :codes")
+    List<EmployeeCodeView> findCodeViewsByEmployeeCodeIn(@Param("codes") Collection<String> codes);
+
+    // Dashboard headcount (non-deleted employees only)
+    @Query("SELECT e.id, e.employmentStatus, e.employmentType, d.id, d.name, COALESCE(e.originalHireDate, e.joiningDate) " +
+           "FROM Employee e LEFT JOIN e.department d WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL")
+    List<Object[]> findHeadcountRowsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    @Query("SELECT LOWER(e.employmentStatus), COUNT(e) FROM Employee e " +
+           "WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL GROUP BY LOWER(e.employmentStatus)")
+    List<Object[]> countByStatusGrouped(@Param("organizationId") UUID organizationId);
+
+    @Query("SELECT e.employmentType, COUNT(e) FROM Employee e " +
+           "WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL GROUP BY e.employmentType")
+    List<Object[]> countByEmploymentTypeGrouped(@Param("organizationId") UUID organizationId);
+
+    @Query("SELECT YEAR(COALESCE(e.originalHireDate, e.joiningDate)), MONTH(COALESCE(e.originalHireDate, e.joiningDate)), " +
+           "COUNT(e) FROM Employee e WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL " +
+           "AND COALESCE(e.originalHireDate, e.joiningDate) IS NOT NULL " +
+           "GROUP BY YEAR(COALESCE(e.originalHireDate, e.joiningDate)), MONTH(COALESCE(e.originalHireDate, e.joiningDate))")
+    List<Object[]> countHiresByMonthGrouped(@Param("organizationId") UUID organizationId);
+
+    @Query("SELECT e.department.id, COUNT(e) FROM Employee e " +
+           "WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL AND e.department IS NOT NULL " +
+           "GROUP BY e.department.id")
+    List<Object[]> countByDepartmentGrouped(@Param("organizationId") UUID organizationId);
+
     // Demo data cleanup methods
     int deleteByOrganization(Organization organization);
     long countByOrganization(Organization organization);
+
+    /**
+     * Minimal employee identity used by PermissionService access checks
+     */
+    interface AccessView {
+        UUID getId();
+        UUID getOrganizationId();
+        UUID getDepartmentId();
+    }
+
+    /**
+     * Employee identity of the calling user, used by CurrentUserService
+     */
+    interface PrincipalView extends AccessView {
+        UUID getManagerId();
+    }
+
+    /**
+     * One employee as shown in the org chart and employee tree
+     */
+    interface OrgChartRow {
+        UUID getId();
+        String getEmployeeCode();
+        String getFirstName();
+        String getMiddleName();
+        String getLastName();
+        String getEmail();
+        String getPositionName();
+        Integer getPositionLevel();
+        String getDepartmentName();
+        String getDepartmentCode();
+        UUID getReportsToId();
+    }
+
+    /**
+     * Employee code ownership, used by the bulk importer for duplicate and manager checks
+     */
+    interface EmployeeCodeView {
+        String getEmployeeCode();
+        UUID getId();
+        UUID getOrganizationId();
+        LocalDateTime getDeletedAt();
+    }
 }
@@ -0,0 +1,53 @@
+package com.hrms.repository;
+
+import com.hrms.entity.ScheduledJobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for ScheduledJobLock entity
+ * All lock transitions are single conditional updates, so concurrent nodes cannot both win
+ */
+@Repository
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+
+    /**
+     * Create the lock row of a job (fails with a constraint violation if another node did first)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_job_lock (job_name, lease_until) VALUES (:jobName, :leaseUntil)",
+           nativeQuery = true)
+    int insertLock(@Param("jobName") String jobName, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Take the lock if its lease has expired; returns 0 if another node holds it
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJobLock l SET l.owner = :owner, l.lockedAt = :now, l.heartbeatAt = :now, " +
+           "l.leaseUntil = :leaseUntil WHERE l.jobName = :jobName AND l.leaseUntil <= :now")
+    int acquire(@Param("jobName") String jobName, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Extend the lease of a lock still held by the owner; returns 0 if the lease was lost
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJobLock l SET l.leaseUntil = :leaseUntil, l.heartbeatAt = :now " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner")
+    int heartbeat(@Param("jobName") String jobName, @Param("owner") String owner,
+                  @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * End the lease at the given time (the owner is kept for diagnostics)
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJobLock l SET l.leaseUntil = :leaseUntil " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner,
+                @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -0,0 +1,77 @@
+package com.hrms.repository;
+
+import com.hrms.entity.ScheduledJobPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for ScheduledJobPartition entity
+ * A partition is claimable when it is pending, failed with attempts left, or running on a node
+ * that stopped sending heartbeats (the node is presumed dead and its slice is rebalanced)
+ */
+@Repository
+public interface ScheduledJobPartitionRepository extends JpaRepository<ScheduledJobPartition, UUID> {
+
+    long countByJobNameAndRunDate(String jobName, LocalDate runDate);
+
+    List<ScheduledJobPartition> findByJobNameAndRunDateOrderByPartitionNo(String jobName, LocalDate runDate);
+
+    @Query("SELECT p.id FROM ScheduledJobPartition p WHERE p.jobName = :jobName AND p.runDate = :runDate " +
+           "AND (p.status = 'PENDING' " +
+           "OR (p.status = 'RUNNING' AND p.heartbeatAt < :staleBefore) " +
+           "OR (p.status = 'FAILED' AND p.attempts < :maxAttempts)) " +
+           "ORDER BY p.partitionNo")
+    List<UUID> findClaimableIds(@Param("jobName") String jobName,
+                                @Param("runDate") LocalDate runDate,
+                                @Param("staleBefore") LocalDateTime staleBefore,
+                                @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Runs that still have work nobody is doing: abandoned or failed slices, and pending slices
+     * of runs whose nodes all went away before claiming them
+     */
+    @Query("SELECT DISTINCT p.jobName, p.runDate FROM ScheduledJobPartition p WHERE p.runDate >= :since " +
+           "AND ((p.status = 'PENDING' AND p.createdAt < :staleBefore) " +
+           "OR (p.status = 'RUNNING' AND p.heartbeatAt < :staleBefore) " +
+           "OR (p.status = 'FAILED' AND p.attempts < :maxAttempts))")
+    List<Object[]> findRunsNeedingRebalance(@Param("since") LocalDate since,
+                                            @Param("staleBefore") LocalDateTime staleBefore,
+                                            @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Atomically take a claimable partition; returns 0 if another node got it first
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJobPartition p SET p.status = 'RUNNING', p.owner = :owner, p.attempts = p.attempts + 1, " +
+           "p.claimedAt = :now, p.heartbeatAt = :now, p.errorMessage = NULL " +
+           "WHERE p.id = :id AND (p.status = 'PENDING' " +
+           "OR (p.status = 'RUNNING' AND p.heartbeatAt < :staleBefore) " +
+           "OR (p.status = 'FAILED' AND p.attempts < :maxAttempts))")
+    int claim(@Param("id") UUID id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE ScheduledJobPartition p SET p.heartbeatAt = :now " +
+           "WHERE p.id = :id AND p.owner = :owner AND p.status = 'RUNNING'")
+    int heartbeat(@Param("id") UUID id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ScheduledJobPartition p SET p.status = 'DONE', p.rowsProcessed = :rows, p.completedAt = :now " +
+           "WHERE p.id = :id AND p.owner = :owner AND p.status = 'RUNNING'")
+    int complete(@Param("id") UUID id, @Param("owner") String owner, @Param("rows") long rows,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ScheduledJobPartition p SET p.status = 'FAILED', p.errorMessage = :error, p.completedAt = :now " +
+           "WHERE p.id = :id AND p.owner = :owner AND p.status = 'RUNNING'")
+    int fail(@Param("id") UUID id, @Param("owner") String owner, @Param("error") String error,
+             @Param("now") LocalDateTime now);
+}
@@ -3,8 +3,11 @@ package com.hrms.repository;
 import com.hrms.entity.Organization;
 import com.hrms.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,7 +22,31 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByOrganizationAndRoles_Name(Organization organization, String roleName);
     long countByOrganizationAndRoles_NameAndEnabledTrue(Organization organization, String roleName);
 
+    @Query("SELECT u.id AS id, u.email AS email, u.organization.id AS organizationId, u.enabled AS enabled " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<PrincipalState> findPrincipalStateById(@Param("userId") UUID userId);
+
+    @Query("SELECT u.id AS id, u.email AS email, u.organization.id AS organizationId, u.enabled AS enabled " +
+           "FROM User u WHERE u.email = :email")
+    Optional<PrincipalState> findPrincipalStateByEmail(@Param("email") String email);
+
+    @Query("SELECT r.id FROM User u JOIN u.roles r WHERE u.id = :userId")
+    List<Integer> findRoleIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // Demo data cleanup methods
     int deleteByOrganization(Organization organization);
     long countByOrganization(Organization organization);
+
+    /**
+     * Account state of the calling user, read by CurrentUserService when it is not cached
+     */
+    interface PrincipalState {
+        UUID getId();
+        String getEmail();
+        UUID getOrganizationId();
+        boolean isEnabled();
+    }
 }
@@ -19,6 +19,8 @@ public interface NotificationTemplateRepository extends JpaRepository<Notificati
 
     Optional<NotificationTemplate> findByIdAndOrganizationIdAndDeletedAtIsNull(UUID id, UUID organizationId);
 
+    Optional<NotificationTemplate> findFirstByOrganizationIdAndCodeAndIsActiveTrueAndDeletedAtIsNull(UUID organizationId, String code);
+
     @Query("SELECT e FROM NotificationTemplate e WHERE e.organization.id = :organizationId AND e.deletedAt IS NULL")
     List<NotificationTemplate> findActiveByOrganization(@Param("organizationId") UUID organizationId);
 }
@@ -0,0 +1,69 @@
+package com.hrms.repository.payroll;
+
+import com.hrms.entity.payroll.PayslipArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PayslipArchiveRepository extends JpaRepository<PayslipArchive, UUID> {
+
+    Optional<PayslipArchive> findByPayrollRunIdAndOrganizationId(UUID payrollRunId, UUID organizationId);
+
+    /**
+     * Archives waiting to be generated, and running ones whose worker stopped sending heartbeats
+     */
+    @Query("SELECT a.payrollRunId FROM PayslipArchive a WHERE a.status = 'QUEUED' " +
+           "OR (a.status = 'RUNNING' AND (a.heartbeatAt IS NULL OR a.heartbeatAt < :staleBefore))")
+    List<UUID> findRunnableRunIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Atomically take a queued or abandoned archive and give it a new storage path; returns 0 if
+     * another worker owns it
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PayslipArchive a SET a.status = 'RUNNING', a.storedPath = :storedPath, " +
+           "a.startedAt = :now, a.heartbeatAt = :now, a.errorMessage = NULL " +
+           "WHERE a.payrollRunId = :runId AND (a.status = 'QUEUED' " +
+           "OR (a.status = 'RUNNING' AND (a.heartbeatAt IS NULL OR a.heartbeatAt < :staleBefore)))")
+    int claim(@Param("runId") UUID runId, @Param("storedPath") String storedPath,
+              @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE PayslipArchive a SET a.heartbeatAt = :now " +
+           "WHERE a.payrollRunId = :runId AND a.storedPath = :storedPath AND a.status = 'RUNNING'")
+    int heartbeat(@Param("runId") UUID runId, @Param("storedPath") String storedPath, @Param("now") LocalDateTime now);
+
+    /**
+     * Finish a generation; returns 0 if it was superseded or marked stale meanwhile
+     */
+    @Modifying
+    @Query("UPDATE PayslipArchive a SET a.status = 'COMPLETED', a.sizeBytes = :sizeBytes, a.etag = :etag, " +
+           "a.payslipCount = :payslipCount, a.completedAt = :now " +
+           "WHERE a.payrollRunId = :runId AND a.storedPath = :storedPath AND a.status = 'RUNNING'")
+    int complete(@Param("runId") UUID runId, @Param("storedPath") String storedPath,
+                 @Param("sizeBytes") long sizeBytes, @Param("etag") String etag,
+                 @Param("payslipCount") int payslipCount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PayslipArchive a SET a.status = 'FAILED', a.errorMessage = :errorMessage, a.completedAt = :now " +
+           "WHERE a.payrollRunId = :runId AND a.storedPath = :storedPath AND a.status = 'RUNNING'")
+    int fail(@Param("runId") UUID runId, @Param("storedPath") String storedPath,
+             @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    /**
+     * The run's payslips changed: a finished or running archive no longer matches them
+     * (runs in the transaction that changes the payslips)
+     */
+    @Modifying
+    @Query("UPDATE PayslipArchive a SET a.status = 'STALE' " +
+           "WHERE a.payrollRunId = :runId AND a.status IN ('RUNNING', 'COMPLETED')")
+    int markStale(@Param("runId") UUID runId);
+}
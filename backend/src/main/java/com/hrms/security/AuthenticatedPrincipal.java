@@ -0,0 +1,42 @@
+package com.hrms.security;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of a verified JWT.
+ * Built once per token by JwtService and attached to the request by JwtAuthenticationFilter,
+ * so controllers can read the caller's identity without re-parsing the token.
+ */
+@Getter
+@ToString
+public class AuthenticatedPrincipal {
+
+    /**
+     * Request attribute under which the filter stores the principal
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedPrincipal.class.getName();
+
+    private final UUID userId;
+    private final UUID organizationId;
+    private final String email;
+    private final List<String> roles;
+    private final Instant expiresAt;
+
+    public AuthenticatedPrincipal(UUID userId, UUID organizationId, String email,
+                                  List<String> roles, Instant expiresAt) {
+        this.userId = userId;
+        this.organizationId = organizationId;
+        this.email = email;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,17 @@
+package com.hrms.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the calling user as a {@link CurrentUser} into a controller method parameter.
+ * Resolved from the request's JWT and a short-lived cache, without loading the User entity.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentPrincipal {
+}
@@ -0,0 +1,35 @@
+package com.hrms.security;
+
+import com.hrms.service.CurrentUserService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentPrincipal} parameters of type {@link CurrentUser}
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final CurrentUserService currentUserService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentPrincipal.class)
+                && CurrentUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        return currentUserService.resolve(jwtAuthenticationFilter.getPrincipal(request));
+    }
+}
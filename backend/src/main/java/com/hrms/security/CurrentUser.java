@@ -0,0 +1,42 @@
+package com.hrms.security;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lightweight identity of the calling user: ids only, no entities.
+ * Built from the JWT plus one projection query and cached briefly by CurrentUserService.
+ */
+@Getter
+@ToString
+public class CurrentUser {
+
+    private final UUID userId;
+    private final String email;
+    private final UUID organizationId;
+    private final UUID employeeId;
+    private final UUID departmentId;
+    private final UUID managerId;
+    private final Set<Integer> roleIds;
+    private final List<String> roleNames;
+
+    public CurrentUser(UUID userId, String email, UUID organizationId, UUID employeeId,
+                       UUID departmentId, UUID managerId, Set<Integer> roleIds, List<String> roleNames) {
+        this.userId = userId;
+        this.email = email;
+        this.organizationId = organizationId;
+        this.employeeId = employeeId;
+        this.departmentId = departmentId;
+        this.managerId = managerId;
+        this.roleIds = roleIds != null ? Set.copyOf(roleIds) : Set.of();
+        this.roleNames = roleNames != null ? List.copyOf(roleNames) : List.of();
+    }
+
+    public boolean hasRole(String roleName) {
+        return roleNames.contains(roleName);
+    }
+}
@@ -33,24 +33,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Extract organization ID from JWT token in the request
+     * Resolve the authenticated principal for the request.
+     * Uses the principal stored by doFilterInternal; falls back to the token cache
+     * when called on a request that did not pass through this filter.
      */
-    public UUID getOrganizationId(HttpServletRequest request) {
+    public AuthenticatedPrincipal getPrincipal(HttpServletRequest request) {
+        Object attribute = request.getAttribute(AuthenticatedPrincipal.REQUEST_ATTRIBUTE);
+        if (attribute instanceof AuthenticatedPrincipal principal) {
+            return principal;
+        }
+
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new RuntimeException("No valid authorization token found");
         }
 
+        AuthenticatedPrincipal principal = jwtService.parsePrincipal(authHeader.substring(7));
+        request.setAttribute(AuthenticatedPrincipal.REQUEST_ATTRIBUTE, principal);
+        return principal;
+    }
+
+    /**
+     * Extract organization ID from JWT token in the request
+     */
+    public UUID getOrganizationId(HttpServletRequest request) {
         try {
-            String jwt = authHeader.substring(7);
-            String organizationId = jwtService.extractOrganizationId(jwt);
+            UUID organizationId = getPrincipal(request).getOrganizationId();
 
             if (organizationId == null) {
                 throw new RuntimeException("No organization ID found in token");
             }
 
-            return UUID.fromString(organizationId);
+            return organizationId;
         } catch (Exception e) {
             logger.error("Failed to extract organization ID from token: {}", e.getMessage());
             throw new RuntimeException("Failed to extract organization ID from token", e);
@@ -61,21 +76,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * Extract user ID from JWT token in the request
      */
     public UUID getUserId(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new RuntimeException("No valid authorization token found");
-        }
-
         try {
-            String jwt = authHeader.substring(7);
-            String userId = jwtService.extractUserId(jwt);
+            UUID userId = getPrincipal(request).getUserId();
 
             if (userId == null) {
                 throw new RuntimeException("No user ID found in token");
             }
 
-            return UUID.fromString(userId);
+            return userId;
         } catch (Exception e) {
             logger.error("Failed to extract user ID from token: {}", e.getMessage());
             throw new RuntimeException("Failed to extract user ID from token", e);
@@ -95,20 +103,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = authHeader.substring(7);
-            String email = jwtService.extractEmail(jwt);
+            // Verify and parse the token once; everything downstream reads this principal
+            AuthenticatedPrincipal principal = jwtService.parsePrincipal(jwt);
+            request.setAttribute(AuthenticatedPrincipal.REQUEST_ATTRIBUTE, principal);
+            String email = principal.getEmail();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isTokenValid(jwt)) {
-                    List<String> roles = jwtService.extractRoles(jwt);
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
-                            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                            .collect(Collectors.toList());
-
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            email, null, authorities);
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                List<SimpleGrantedAuthority> authorities = principal.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                        .collect(Collectors.toList());
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        email, null, authorities);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (ExpiredJwtException e) {
             logger.warn("Expired JWT token from IP {}: {}",
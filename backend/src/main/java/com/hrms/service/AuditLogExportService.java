@@ -0,0 +1,223 @@
+package com.hrms.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams an organization's audit trail as CSV or NDJSON.
+ *
+ * Rows are read with a forward-only JDBC cursor (fetch size audit.export.fetch-size) and written
+ * to the output stream one by one, optionally through gzip, so memory stays bounded however many
+ * rows match. Archived entries (audit_logs_archive) can be included and come first, both parts
+ * ordered by (performed_at, id). Each export holds a database connection until it finishes, so
+ * at most audit.export.max-concurrent exports run at a time.
+ */
+@Service
+public class AuditLogExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String[] COLUMNS = {
+        "id", "performed_at", "action_type", "entity_type", "entity_id", "status", "performed_by",
+        "performed_by_email", "ip_address", "old_value", "new_value", "error_message", "metadata"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    @Value("${audit.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public AuditLogExportService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${audit.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Filters of an export; null fields match everything, to is exclusive
+     */
+    public record ExportFilter(String actionType, String entityType, LocalDateTime from, LocalDateTime to,
+                               boolean includeArchived) {
+    }
+
+    /**
+     * Write the matching entries of an organization to out (which is finished but not closed)
+     * @return number of entries written
+     * @throws IllegalStateException if too many exports are already running (nothing is written)
+     */
+    public long export(UUID organizationId, ExportFilter filter, Format format, boolean gzip,
+                       OutputStream out) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many audit log exports are running, try again later");
+        }
+        try {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+            OutputStream target = compressed != null ? compressed : out;
+            RowSink sink = format == Format.NDJSON ? new NdjsonSink(target) : new CsvSink(target);
+
+            long rows = 0;
+            if (filter.includeArchived()) {
+                rows += stream("audit_logs_archive", organizationId, filter, sink);
+            }
+            rows += stream("audit_logs", organizationId, filter, sink);
+
+            sink.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            out.flush();
+            return rows;
+        } finally {
+            slots.release();
+        }
+    }
+
+    private long stream(String table, UUID organizationId, ExportFilter filter, RowSink sink) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT a.id, a.performed_at, a.action_type, a.entity_type, a.entity_id, a.status, a.performed_by, " +
+            "u.email AS performed_by_email, a.ip_address, a.old_value, a.new_value, a.error_message, a.metadata " +
+            "FROM " + table + " a LEFT JOIN users u ON u.id = a.performed_by WHERE a.organization_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(organizationId.toString());
+        if (filter.actionType() != null) {
+            sql.append(" AND a.action_type = ?");
+            args.add(filter.actionType());
+        }
+        if (filter.entityType() != null) {
+            sql.append(" AND a.entity_type = ?");
+            args.add(filter.entityType());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND a.performed_at >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND a.performed_at < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        sql.append(" ORDER BY a.performed_at, a.id");
+
+        long[] count = {0};
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            String[] values = new String[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                values[i] = text(rs, i + 1);
+            }
+            try {
+                sink.write(values);
+            } catch (IOException e) {
+                // Client went away; stop reading
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }));
+        return count[0];
+    }
+
+    private static String text(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    private interface RowSink {
+        void write(String[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvSink implements RowSink {
+
+        private final CSVWriter writer;
+
+        CsvSink(OutputStream out) {
+            this.writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+            writer.writeNext(COLUMNS);
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            writer.writeNext(values);
+            // CSVWriter keeps write errors instead of throwing them
+            if (writer.getException() != null) {
+                throw writer.getException();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+            if (writer.getException() != null) {
+                throw writer.getException();
+            }
+        }
+    }
+
+    private final class NdjsonSink implements RowSink {
+
+        private final JsonGenerator generator;
+
+        NdjsonSink(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeStringField(COLUMNS[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
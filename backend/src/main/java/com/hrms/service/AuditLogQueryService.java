@@ -0,0 +1,109 @@
+package com.hrms.service;
+
+import com.hrms.entity.AuditLog;
+import com.hrms.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over audit_logs.
+ *
+ * Pages are ordered by (performed_at, id) descending and continue from an opaque cursor holding
+ * the last entry of the previous page, so every page costs the same index seek on
+ * (organization_id, performed_at, id) however deep it is. No total count is computed.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogQueryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Cursor of the first page: before every real entry
+    private static final LocalDateTime FIRST_PAGE_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID FIRST_PAGE_ID = new UUID(0L, 0L);
+
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * Page of an organization's audit trail, optionally filtered by action and/or entity type
+     * @param cursor nextCursor of the previous page, or null for the newest entries
+     */
+    public AuditLogPage findPage(UUID organizationId, String actionType, String entityType, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        int limit = clamp(size);
+        List<AuditLog> rows = auditLogRepository.findPageBefore(organizationId, blankToNull(actionType),
+                blankToNull(entityType), position.performedAt(), position.id(), PageRequest.of(0, limit + 1));
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Page of the audit trail of one entity within an organization
+     */
+    public AuditLogPage findEntityPage(UUID organizationId, String entityType, String entityId, String cursor, int size) {
+        Cursor position = Cursor.decode(cursor);
+        int limit = clamp(size);
+        List<AuditLog> rows = auditLogRepository.findEntityPageBefore(organizationId, entityType, entityId,
+                position.performedAt(), position.id(), PageRequest.of(0, limit + 1));
+        return toPage(rows, limit);
+    }
+
+    private static AuditLogPage toPage(List<AuditLog> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new AuditLogPage(rows, null);
+        }
+        List<AuditLog> content = rows.subList(0, limit);
+        AuditLog last = content.get(limit - 1);
+        return new AuditLogPage(content, new Cursor(last.getPerformedAt(), last.getId()).encode());
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+
+    /**
+     * One page; nextCursor is null on the last page
+     */
+    public record AuditLogPage(List<AuditLog> content, String nextCursor) {
+
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    /**
+     * Position after an entry, encoded as URL-safe base64 of "performedAt|id"
+     */
+    record Cursor(LocalDateTime performedAt, UUID id) {
+
+        String encode() {
+            String raw = performedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new Cursor(FIRST_PAGE_AT, FIRST_PAGE_ID);
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        UUID.fromString(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid audit log cursor");
+            }
+        }
+    }
+}
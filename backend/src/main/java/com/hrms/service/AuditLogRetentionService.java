@@ -0,0 +1,271 @@
+package com.hrms.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrms.repository.AuditLogArchiveRepository;
+import com.hrms.repository.AuditLogRepository;
+import com.hrms.service.storage.StoredFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention of the audit trail in three tiers.
+ *
+ * audit_logs keeps the last audit.retention.hot-months months and serves the keyset pages of the
+ * admin screen. Older rows are rolled over in chunks into audit_logs_archive (copy and delete in
+ * one transaction per chunk). Archived rows older than audit.retention.file-after-months are
+ * exported one calendar month at a time to gzip-compressed JSON-lines files in document storage
+ * under audit.retention.archive-path, and deleted once storage holds the complete file. Files are
+ * built in a local work file first, so no node-local state outlives a run.
+ */
+@Service
+@Slf4j
+public class AuditLogRetentionService {
+
+    private static final String JOB_NAME = "AuditLogRetention";
+
+    private static final String COLUMNS = "id, action_type, entity_type, entity_id, performed_by, old_value, new_value, " +
+        "status, error_message, ip_address, metadata, performed_at, organization_id";
+
+    private static final String ARCHIVE_CONTENT_TYPE = "application/gzip";
+
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditLogArchiveRepository archiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final FileStorageService fileStorageService;
+    private final ScheduledJobLockService jobLockService;
+    private final JobLogService jobLogService;
+
+    @Value("${audit.retention.hot-months:6}")
+    private int hotMonths;
+
+    @Value("${audit.retention.file-after-months:24}")
+    private int fileAfterMonths;
+
+    @Value("${audit.retention.archive-path:audit-archive}")
+    private String archivePath;
+
+    @Value("${audit.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${audit.retention.fetch-size:1000}")
+    private int fetchSize;
+
+    public AuditLogRetentionService(AuditLogRepository auditLogRepository,
+                                    AuditLogArchiveRepository archiveRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    FileStorageService fileStorageService,
+                                    ScheduledJobLockService jobLockService,
+                                    JobLogService jobLogService) {
+        this.auditLogRepository = auditLogRepository;
+        this.archiveRepository = archiveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.fileStorageService = fileStorageService;
+        this.jobLockService = jobLockService;
+        this.jobLogService = jobLogService;
+    }
+
+    /**
+     * Roll over and export old audit entries (default daily at 2:30 AM)
+     */
+    @Scheduled(cron = "${audit.retention.cron:0 30 2 * * *}")
+    public void applyRetention() {
+        jobLockService.runExclusively(JOB_NAME, () -> {
+            long startTime = System.currentTimeMillis();
+            long rows = 0;
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                rows += rollOver(now.minusMonths(hotMonths));
+                rows += exportArchive(now.minusMonths(fileAfterMonths));
+                long duration = System.currentTimeMillis() - startTime;
+                log.info("Audit log retention completed: {} rows moved in {}ms", rows, duration);
+                jobLogService.logSuccess(JOB_NAME, duration, rows);
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                log.error("Error in audit log retention job", e);
+                jobLogService.logFailure(JOB_NAME, duration, e.getMessage(), rows);
+            }
+        });
+    }
+
+    /**
+     * Move entries performed before the cutoff from audit_logs to audit_logs_archive
+     * @return number of entries moved
+     */
+    public long rollOver(LocalDateTime cutoff) {
+        long moved = 0;
+        while (true) {
+            List<UUID> ids = auditLogRepository.findIdsPerformedBefore(cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            LocalDateTime archivedAt = LocalDateTime.now();
+            String in = placeholders(ids.size());
+            Object[] copyArgs = new Object[ids.size() + 1];
+            copyArgs[0] = Timestamp.valueOf(archivedAt);
+            Object[] idArgs = new Object[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                copyArgs[i + 1] = ids.get(i).toString();
+                idArgs[i] = ids.get(i).toString();
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO audit_logs_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS +
+                        ", ? FROM audit_logs WHERE id IN (" + in + ")", copyArgs);
+                jdbcTemplate.update("DELETE FROM audit_logs WHERE id IN (" + in + ")", idArgs);
+            });
+            moved += ids.size();
+            if (ids.size() < chunkSize) {
+                return moved;
+            }
+        }
+    }
+
+    /**
+     * Export archived entries performed before the cutoff to monthly compressed files and delete them
+     * @return number of entries exported
+     */
+    public long exportArchive(LocalDateTime cutoff) throws IOException {
+        long exported = 0;
+        LocalDateTime oldest;
+        while ((oldest = archiveRepository.findOldestPerformedAtBefore(cutoff)) != null) {
+            YearMonth month = YearMonth.from(oldest);
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            LocalDateTime to = monthEnd.isBefore(cutoff) ? monthEnd : cutoff;
+            // Rows rolled over while the file is written go into the next file
+            LocalDateTime archivedBefore = LocalDateTime.now();
+
+            String storedPath = writeArchiveFile(month, from, to, archivedBefore);
+            long deleted = deleteArchived(from, to, archivedBefore);
+            log.info("Exported {} archived audit entries of {} to {}", deleted, month, storedPath);
+            exported += deleted;
+        }
+        return exported;
+    }
+
+    /**
+     * Write the rows of the range to a local work file and upload it to document storage
+     * @return the stored path, confirmed present with the full size
+     */
+    private String writeArchiveFile(YearMonth month, LocalDateTime from, LocalDateTime to,
+                                    LocalDateTime archivedBefore) throws IOException {
+        String storedPath = archivePath + "/audit-logs-" + month.format(FILE_MONTH) + "-"
+                + System.currentTimeMillis() + ".jsonl.gz";
+        Path work = Files.createTempFile("audit-logs-", ".jsonl.gz");
+        try {
+            try (OutputStream file = Files.newOutputStream(work);
+                 GZIPOutputStream gzip = new GZIPOutputStream(file, 64 * 1024)) {
+                streamRange(from, to, archivedBefore, gzip);
+                gzip.finish();
+            }
+            long size = Files.size(work);
+            fileStorageService.storeGenerated(storedPath, work, ARCHIVE_CONTENT_TYPE);
+            // Rows are deleted only once storage reports the whole file
+            StoredFile stored = fileStorageService.stat(storedPath);
+            if (stored.size() != size) {
+                throw new IOException("Archive " + storedPath + " stored with " + stored.size() + " of " + size + " bytes");
+            }
+            return storedPath;
+        } finally {
+            Files.deleteIfExists(work);
+        }
+    }
+
+    private void streamRange(LocalDateTime from, LocalDateTime to, LocalDateTime archivedBefore,
+                             OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        // Streams with a forward-only cursor; the whole export runs in one read-only transaction
+        // so that drivers honour the fetch size instead of buffering the result
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + COLUMNS + ", archived_at FROM audit_logs_archive " +
+                    "WHERE performed_at >= ? AND performed_at < ? AND archived_at <= ? ORDER BY performed_at, id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            statement.setTimestamp(3, Timestamp.valueOf(archivedBefore));
+            return statement;
+        }, (ResultSet rs) -> {
+            try {
+                writeRow(rs, generator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        generator.flush();
+    }
+
+    private static void writeRow(ResultSet rs, JsonGenerator generator) throws IOException, SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        generator.writeStartObject();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String column = meta.getColumnLabel(i).toLowerCase();
+            Object value = rs.getObject(i);
+            if (value == null) {
+                generator.writeNullField(column);
+            } else if (value instanceof Timestamp timestamp) {
+                generator.writeStringField(column, timestamp.toLocalDateTime().toString());
+            } else {
+                generator.writeStringField(column, value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private long deleteArchived(LocalDateTime from, LocalDateTime to, LocalDateTime archivedBefore) {
+        long deleted = 0;
+        while (true) {
+            List<UUID> ids = archiveRepository.findIdsInRange(from, to, archivedBefore, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            Object[] args = ids.stream().map(UUID::toString).toArray();
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update("DELETE FROM audit_logs_archive WHERE id IN (" + placeholders(ids.size()) + ")", args));
+            deleted += ids.size();
+            if (ids.size() < chunkSize) {
+                return deleted;
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -4,14 +4,12 @@ import com.hrms.entity.AuditLog;
 import com.hrms.entity.AuditLog.AuditStatus;
 import com.hrms.entity.Organization;
 import com.hrms.entity.User;
-import com.hrms.repository.AuditLogRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -27,24 +25,26 @@ import java.util.Map;
  * - User management (create/update/delete)
  * - Employee management
  * - Document operations
+ *
+ * Entries are handed to {@link AuditLogWriter} and written in batches outside the caller's
+ * transaction; the client IP is captured here while the request is still available.
  */
 @Service
 public class AuditLogService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final ObjectMapper objectMapper;
 
-    public AuditLogService(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditLogService(AuditLogWriter auditLogWriter, ObjectMapper objectMapper) {
+        this.auditLogWriter = auditLogWriter;
         this.objectMapper = objectMapper;
     }
 
     /**
      * Log a successful action
      */
-    @Transactional
     public void logSuccess(String actionType, String entityType, String entityId,
                           User performedBy, Organization organization) {
         logSuccess(actionType, entityType, entityId, performedBy, organization, null, null, null);
@@ -53,7 +53,6 @@ public class AuditLogService {
     /**
      * Log a successful action with old/new values
      */
-    @Transactional
     public void logSuccess(String actionType, String entityType, String entityId,
                           User performedBy, Organization organization,
                           String oldValue, String newValue) {
@@ -63,7 +62,6 @@ public class AuditLogService {
     /**
      * Log a successful action with full details
      */
-    @Transactional
     public void logSuccess(String actionType, String entityType, String entityId,
                           User performedBy, Organization organization,
                           String oldValue, String newValue, Map<String, Object> metadata) {
@@ -78,7 +76,7 @@ public class AuditLogService {
                 log.setMetadata(objectMapper.writeValueAsString(metadata));
             }
 
-            auditLogRepository.save(log);
+            auditLogWriter.enqueue(log);
         } catch (Exception e) {
             logger.error("Failed to create audit log for action: " + actionType, e);
             // Don't throw - audit failure shouldn't block business operations
@@ -88,7 +86,6 @@ public class AuditLogService {
     /**
      * Log a failed action
      */
-    @Transactional
     public void logFailure(String actionType, String entityType, String entityId,
                           User performedBy, Organization organization, String errorMessage) {
         logFailure(actionType, entityType, entityId, performedBy, organization, errorMessage, null);
@@ -97,7 +94,6 @@ public class AuditLogService {
     /**
      * Log a failed action with metadata
      */
-    @Transactional
     public void logFailure(String actionType, String entityType, String entityId,
                           User performedBy, Organization organization,
                           String errorMessage, Map<String, Object> metadata) {
@@ -111,7 +107,7 @@ public class AuditLogService {
                 log.setMetadata(objectMapper.writeValueAsString(metadata));
             }
 
-            auditLogRepository.save(log);
+            auditLogWriter.enqueue(log);
         } catch (Exception e) {
             logger.error("Failed to create audit log for failed action: " + actionType, e);
         }
@@ -0,0 +1,475 @@
+package com.hrms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrms.entity.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for audit_logs.
+ *
+ * Callers only put an entry into a bounded in-memory queue; a dedicated writer thread inserts
+ * them with JDBC batches every audit.writer.flush-interval-ms or as soon as audit.writer.batch-size
+ * entries are waiting. When the queue is full the caller appends the entry to the spool file
+ * instead (that slower path is the back-pressure), and a batch the database rejects goes to the
+ * same file. The spool is an append-only file of JSON lines, replayed into the database
+ * periodically and on startup; lines that cannot be parsed, and entries the database refuses even
+ * one at a time, are moved to a .rejected file next to it. Pending entries are flushed on shutdown.
+ *
+ * An entry logged inside a transaction is only queued once that transaction completes: as is
+ * after a commit, and marked FAILED after a rollback, so the trail never shows a change that did
+ * not happen as successful.
+ */
+@Service
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (id, action_type, entity_type, entity_id, performed_by, old_value, new_value, " +
+        "status, error_message, ip_address, metadata, performed_at, organization_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final Path spoolFile;
+    private final Path rejectedFile;
+    private final Object spoolLock = new Object();
+
+    private final Counter enqueued;
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter replayed;
+    private final Counter failedFlushes;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:500}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMs,
+                          @Value("${audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+                          @Value("${audit.writer.spool-path:audit-spool}") String spoolPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.spoolFile = Paths.get(spoolPath, "audit-logs.jsonl");
+        this.rejectedFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".rejected");
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Audit entries waiting for the writer")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots before callers spill to the spool file")
+                .register(meterRegistry);
+        this.enqueued = meterRegistry.counter("audit.writer.enqueued");
+        this.written = meterRegistry.counter("audit.writer.written");
+        this.spilled = meterRegistry.counter("audit.writer.spilled");
+        this.replayed = meterRegistry.counter("audit.writer.replayed");
+        this.failedFlushes = meterRegistry.counter("audit.writer.failed-flushes");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue an unsaved AuditLog; its id and performedAt are assigned here
+     */
+    public void enqueue(AuditLog auditLog) {
+        enqueue(new Entry(UUID.randomUUID(), auditLog.getActionType(), auditLog.getEntityType(), auditLog.getEntityId(),
+                auditLog.getPerformedBy() != null ? auditLog.getPerformedBy().getId() : null,
+                auditLog.getOrganization() != null ? auditLog.getOrganization().getId() : null,
+                auditLog.getStatus() != null ? auditLog.getStatus().name() : AuditLog.AuditStatus.SUCCESS.name(),
+                auditLog.getOldValue(), auditLog.getNewValue(), auditLog.getErrorMessage(), auditLog.getIpAddress(),
+                auditLog.getMetadata(), LocalDateTime.now()));
+    }
+
+    /**
+     * Queue an entry; never blocks on the database and never throws. Inside a transaction the
+     * entry waits for its outcome: a rolled-back SUCCESS entry is written as FAILED.
+     */
+    public void enqueue(Entry entry) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    offer(status == STATUS_COMMITTED ? entry : rolledBack(entry));
+                }
+            });
+            return;
+        }
+        offer(entry);
+    }
+
+    private void offer(Entry entry) {
+        if (running && queue.offer(entry)) {
+            enqueued.increment();
+            return;
+        }
+        spill(List.of(entry));
+    }
+
+    /**
+     * Stop the writer and flush what is still queued (to the database, or the spool if that fails)
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                log.warn("Audit writer did not stop within {}ms, spooling {} queued entries", shutdownTimeoutMs, queue.size());
+                List<Entry> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                spill(rest);
+                return;
+            }
+        }
+        List<Entry> rest = new ArrayList<>();
+        while (queue.drainTo(rest, batchSize) > 0) {
+            flush(rest);
+            rest.clear();
+        }
+    }
+
+    /**
+     * Insert spooled entries into the database (default every 30 seconds, and shortly after startup)
+     * @return number of entries replayed
+     */
+    @Scheduled(fixedDelayString = "${audit.writer.replay-interval-ms:30000}",
+               initialDelayString = "${audit.writer.replay-initial-delay-ms:15000}")
+    public int replaySpool() {
+        Path replaying = spoolFile.resolveSibling(spoolFile.getFileName() + ".replaying");
+        synchronized (spoolLock) {
+            try {
+                if (Files.exists(replaying)) {
+                    // Left over from a crash during replay; entries that were already committed are skipped by insertNew
+                    appendFile(replaying);
+                }
+                if (!Files.exists(spoolFile) || Files.size(spoolFile) == 0) {
+                    return 0;
+                }
+                Files.move(spoolFile, replaying, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                log.error("Could not prepare audit spool {} for replay", spoolFile, e);
+                return 0;
+            }
+        }
+
+        int count = 0;
+        List<Entry> batch = new ArrayList<>(batchSize);
+        List<String> unsent = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!unsent.isEmpty()) {
+                    unsent.add(line);
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException e) {
+                    // A torn or corrupt line must not hold back the rest of the spool
+                    log.warn("Skipping unreadable audit spool line, moving it to {}: {}", rejectedFile, e.getOriginalMessage());
+                    rejected.add(line);
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    count += replay(batch, unsent, rejected);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += replay(batch, unsent, rejected);
+            }
+        } catch (IOException e) {
+            log.error("Could not read audit spool {}, will retry", replaying, e);
+            return count;
+        }
+
+        synchronized (spoolLock) {
+            try {
+                if (!unsent.isEmpty()) {
+                    appendLines(spoolFile, unsent);
+                }
+                if (!rejected.isEmpty()) {
+                    appendLines(rejectedFile, rejected);
+                }
+                Files.delete(replaying);
+            } catch (IOException e) {
+                log.error("Could not finish replay of audit spool {}", replaying, e);
+            }
+        }
+        replayed.increment(count);
+        if (count > 0) {
+            log.info("Replayed {} spooled audit log entries ({} still pending)", count, unsent.size());
+        }
+        return count;
+    }
+
+    /**
+     * Current queue depth and counters, as also published through the audit.writer.* meters
+     */
+    public Stats getStats() {
+        return new Stats(queue.size(), queue.remainingCapacity(), (long) enqueued.count(), (long) written.count(),
+                (long) spilled.count(), (long) replayed.count(), (long) failedFlushes.count());
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in audit writer", e);
+                spill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.warn("Could not write {} audit log entries to the database, spooling to {}: {}",
+                    batch.size(), spoolFile, e.getMessage());
+            spill(batch);
+        }
+    }
+
+    private void insert(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            rows.add(toRow(entry));
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    /**
+     * Replay one batch of spooled entries; entries that could not be written go to unsent, entries
+     * the database refused go to rejected
+     * @return number of entries written
+     */
+    private int replay(List<Entry> batch, List<String> unsent, List<String> rejected) {
+        List<Entry> refused = new ArrayList<>();
+        int inserted = insertNew(batch, refused);
+        if (inserted < 0) {
+            batch.forEach(e -> unsent.add(toJson(e)));
+            return 0;
+        }
+        refused.forEach(e -> rejected.add(toJson(e)));
+        return inserted;
+    }
+
+    /**
+     * Insert a replayed batch, skipping entries that already reached the database. When the batch
+     * fails, entries are inserted one at a time, and an entry the database refuses while it is
+     * reachable goes to refused so that it cannot hold back the rest of the spool.
+     * @return number of entries written, or -1 if the database could not be reached
+     */
+    private int insertNew(List<Entry> batch, List<Entry> refused) {
+        try {
+            insert(batch);
+            written.increment(batch.size());
+            return batch.size();
+        } catch (Exception e) {
+            log.debug("Audit spool batch failed, retrying entries one at a time: {}", e.getMessage());
+        }
+
+        List<Entry> rowRefused = new ArrayList<>();
+        for (Entry entry : batch) {
+            try {
+                Integer found = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM audit_logs WHERE id = ?", Integer.class, entry.id().toString());
+                if (found != null && found > 0) {
+                    continue;
+                }
+            } catch (Exception unreachable) {
+                log.warn("Audit spool replay failed, keeping entries for the next attempt: {}", unreachable.getMessage());
+                return -1;
+            }
+            try {
+                insert(List.of(entry));
+            } catch (Exception rowFailure) {
+                log.warn("Database refused spooled audit entry {}, moving it to {}: {}", entry.id(), rejectedFile,
+                        rowFailure.getMessage());
+                rowRefused.add(entry);
+            }
+        }
+        refused.addAll(rowRefused);
+        written.increment(batch.size() - rowRefused.size());
+        return batch.size() - rowRefused.size();
+    }
+
+    private void spill(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            lines.add(toJson(entry));
+        }
+        synchronized (spoolLock) {
+            try {
+                appendLines(spoolFile, lines);
+                spilled.increment(entries.size());
+            } catch (IOException e) {
+                // Last resort: keep the trail in the application log
+                log.error("Could not spool {} audit log entries to {}: {}", entries.size(), spoolFile, lines, e);
+            }
+        }
+    }
+
+    /** Caller holds spoolLock */
+    private void appendLines(Path file, List<String> lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /** Caller holds spoolLock */
+    private void appendFile(Path file) throws IOException {
+        appendLines(spoolFile, Files.readAllLines(file, StandardCharsets.UTF_8).stream().filter(l -> !l.isBlank()).toList());
+        Files.delete(file);
+    }
+
+    private String toJson(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Entry rolledBack(Entry entry) {
+        if (!AuditLog.AuditStatus.SUCCESS.name().equals(entry.status())) {
+            return entry;
+        }
+        return new Entry(entry.id(), entry.actionType(), entry.entityType(), entry.entityId(), entry.performedById(),
+                entry.organizationId(), AuditLog.AuditStatus.FAILED.name(), entry.oldValue(), entry.newValue(),
+                "Transaction rolled back", entry.ipAddress(), entry.metadata(), entry.performedAt());
+    }
+
+    private static Object[] toRow(Entry entry) {
+        return new Object[] {
+            entry.id().toString(), entry.actionType(), entry.entityType(), entry.entityId(),
+            entry.performedById() != null ? entry.performedById().toString() : null,
+            entry.oldValue(), entry.newValue(), entry.status(), entry.errorMessage(), entry.ipAddress(),
+            entry.metadata(), Timestamp.valueOf(entry.performedAt()),
+            entry.organizationId() != null ? entry.organizationId().toString() : null
+        };
+    }
+
+    /**
+     * One audit_logs row; the id and timestamp are assigned when the action happens
+     */
+    public record Entry(UUID id, String actionType, String entityType, String entityId,
+                        UUID performedById, UUID organizationId, String status, String oldValue,
+                        String newValue, String errorMessage, String ipAddress, String metadata,
+                        LocalDateTime performedAt) {
+    }
+
+    public record Stats(int queueDepth, int remainingCapacity, long enqueued, long written,
+                        long spilled, long replayed, long failedFlushes) {
+    }
+}
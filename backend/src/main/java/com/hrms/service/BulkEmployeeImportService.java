@@ -6,33 +6,49 @@ import com.hrms.dto.employee.BulkImportResponse.ImportRowResult;
 import com.hrms.entity.*;
 import com.hrms.entity.employee.EmployeeAddress;
 import com.hrms.repository.*;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import com.opencsv.exceptions.CsvException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
  * Service for bulk importing employees from CSV files.
  * Features:
- * - CSV parsing with validation
- * - Duplicate detection (by email and employee code)
+ * - Streaming CSV parsing: rows are read and processed in chunks, never all at once
+ * - Validation and password hashing in parallel on a worker pool
+ * - Per-chunk transactions with JDBC insert batching; a failed chunk is retried row by row
+ * - Duplicate detection (by email and employee code) with one query per chunk
  * - Department/Position/Manager resolution
  * - Automatic user account creation
- * - Detailed error reporting per row
+ * - Detailed error reporting per row, with a per-chunk hook for job checkpoints
  */
 @Service
 public class BulkEmployeeImportService {
@@ -45,7 +61,28 @@ public class BulkEmployeeImportService {
     private final PositionRepository positionRepository;
     private final OrganizationRepository organizationRepository;
     private final RoleRepository roleRepository;
+    private final EmployeeHierarchyService employeeHierarchyService;
     private final Validator validator;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor workerExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk-import.max-row-results:1000}")
+    private int maxRowResults;
+
+    /**
+     * Receives the outcome of every processed chunk, inside the transaction that wrote it,
+     * so that a checkpoint stored by the listener commits or rolls back together with the rows.
+     */
+    public interface ChunkListener {
+        void onChunkProcessed(int lastRowNumber, List<ImportRowResult> results);
+    }
 
     public BulkEmployeeImportService(EmployeeRepository employeeRepository,
                                      UserRepository userRepository,
@@ -53,125 +90,240 @@ public class BulkEmployeeImportService {
                                      PositionRepository positionRepository,
                                      OrganizationRepository organizationRepository,
                                      RoleRepository roleRepository,
-                                     Validator validator) {
+                                     EmployeeHierarchyService employeeHierarchyService,
+                                     Validator validator,
+                                     PasswordEncoder passwordEncoder,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("bulkImportWorkerExecutor") Executor workerExecutor) {
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
         this.departmentRepository = departmentRepository;
         this.positionRepository = positionRepository;
         this.organizationRepository = organizationRepository;
         this.roleRepository = roleRepository;
+        this.employeeHierarchyService = employeeHierarchyService;
         this.validator = validator;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerExecutor = workerExecutor;
     }
 
     /**
-     * Import employees from CSV file
+     * Import employees from a CSV stream
      */
-    @Transactional
-    public BulkImportResponse importEmployeesFromCsv(MultipartFile file, UUID organizationId, boolean skipDuplicates) {
-        logger.info("Starting bulk employee import for organization {}", organizationId);
+    public BulkImportResponse importEmployees(InputStream in, UUID organizationId, boolean skipDuplicates) {
+        return importEmployees(in, organizationId, skipDuplicates, new BulkImportResponse(), 0, null);
+    }
+
+    /**
+     * Import employees from a CSV stream, continuing after resumeAfterRow (0 = from the start).
+     * Counts of earlier runs are expected in progress; the listener is told about every chunk.
+     */
+    public BulkImportResponse importEmployees(InputStream in, UUID organizationId, boolean skipDuplicates,
+                                              BulkImportResponse progress, int resumeAfterRow,
+                                              ChunkListener listener) {
+        logger.info("Starting bulk employee import {} for organization {} after row {}",
+                progress.getImportId(), organizationId, resumeAfterRow);
 
         // Validate organization
         Organization organization = organizationRepository.findById(organizationId)
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found: " + organizationId));
 
-        // Parse CSV
-        List<BulkEmployeeImportRequest> rows;
-        try {
-            rows = parseCsvFile(file);
+        progress.setOrganizationId(organizationId);
+        progress.setStatus("running");
+
+        // Pre-load organization-level lookups (small) once
+        ImportContext context = new ImportContext(
+                organizationId,
+                loadDepartments(organization),
+                loadPositions(organization),
+                roleRepository.findByName("employee")
+                        .orElseThrow(() -> new IllegalStateException("employee role not found")).getId(),
+                skipDuplicates,
+                listener);
+
+        List<ParseError> parseErrors = new ArrayList<>();
+        Deque<Long> recordNumbers = new ArrayDeque<>(); // the iterator reads ahead, so numbers are queued per row
+        int rowsRead = 0;
+        boolean aborted = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Iterator<BulkEmployeeImportRequest> rows = openCsv(reader, parseErrors, recordNumbers).iterator();
+
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            int lastRowNumber = resumeAfterRow;
+            while (rows.hasNext()) {
+                BulkEmployeeImportRequest row = rows.next();
+                rowsRead++;
+                int rowNumber = recordNumbers.remove().intValue(); // the header is record 1
+                if (rowNumber <= resumeAfterRow) {
+                    continue; // already processed by an earlier run
+                }
+                chunk.add(new ParsedRow(row, rowNumber));
+                lastRowNumber = rowNumber;
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, takeParseErrors(parseErrors, resumeAfterRow, lastRowNumber),
+                            lastRowNumber, context, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            List<ImportRowResult> remainingErrors = takeParseErrors(parseErrors, resumeAfterRow, Integer.MAX_VALUE);
+            if (!chunk.isEmpty() || !remainingErrors.isEmpty()) {
+                for (ImportRowResult error : remainingErrors) {
+                    lastRowNumber = Math.max(lastRowNumber, error.getRowNumber());
+                }
+                processChunk(chunk, remainingErrors, lastRowNumber, context, progress);
+            }
         } catch (Exception e) {
-            logger.error("Failed to parse CSV file: {}", e.getMessage(), e);
-            return BulkImportResponse.failure("Failed to parse CSV file: " + e.getMessage());
+            logger.error("Bulk import {} aborted after {} rows: {}", progress.getImportId(), rowsRead, e.getMessage(), e);
+            progress.getErrors().add("Import aborted: " + e.getMessage());
+            aborted = true;
         }
 
-        if (rows.isEmpty()) {
-            return BulkImportResponse.failure("CSV file is empty or has no valid data rows");
+        if (progress.getTotalRows() == 0 && progress.getErrors().isEmpty()) {
+            progress.getErrors().add("CSV file is empty or has no valid data rows");
+            return finish(progress, "failed");
         }
 
-        logger.info("Parsed {} rows from CSV", rows.size());
+        String status = aborted ? "failed"
+                : progress.getSuccessCount() == progress.getTotalRows() ? "completed"
+                : (progress.getSuccessCount() > 0 ? "partial" : "failed");
+        BulkImportResponse response = finish(progress, status);
 
-        // Process each row
-        List<ImportRowResult> results = new ArrayList<>();
-        int successCount = 0;
-        int skippedCount = 0;
+        logger.info("Bulk import {}: {} total, {} success, {} failed, {} skipped", status,
+                response.getTotalRows(), response.getSuccessCount(), response.getFailedCount(), response.getSkippedCount());
 
-        // Pre-load lookups for efficiency
-        Map<String, Department> departmentMap = loadDepartments(organization);
-        Map<String, Position> positionMap = loadPositions(organization);
-        Map<String, Employee> employeeByCodeMap = loadEmployeesByCode(organization);
-        Set<String> existingEmails = loadExistingEmails();
-        Role employeeRole = roleRepository.findByName("EMPLOYEE")
-                .orElseThrow(() -> new IllegalStateException("EMPLOYEE role not found"));
+        return response;
+    }
 
-        for (int i = 0; i < rows.size(); i++) {
-            BulkEmployeeImportRequest row = rows.get(i);
-            int rowNum = i + 2; // +2 for header row and 0-indexing
+    private BulkImportResponse finish(BulkImportResponse progress, String status) {
+        progress.setStatus(status);
+        progress.setCompletedAt(LocalDateTime.now());
+        return progress;
+    }
 
-            try {
-                ImportRowResult result = processRow(row, rowNum, organization, departmentMap, positionMap,
-                        employeeByCodeMap, existingEmails, employeeRole, skipDuplicates);
-
-                results.add(result);
-
-                if ("success".equals(result.getStatus())) {
-                    successCount++;
-                    // Update caches for subsequent rows
-                    existingEmails.add(row.getEmail().toLowerCase());
-                    employeeByCodeMap.put(row.getEmployeeCode().toUpperCase(),
-                            employeeRepository.findByEmployeeCode(row.getEmployeeCode()).orElse(null));
-                } else if ("skipped".equals(result.getStatus())) {
-                    skippedCount++;
-                }
+    /**
+     * Build a lazy CSV reader; bad records are collected instead of aborting the import.
+     * Rows are numbered by CSV record rather than physical line, so a quoted value spanning
+     * several lines is still one row. The record number of every accepted row is queued in
+     * recordNumbers; both callbacks run on the iterating thread right after the record is read.
+     */
+    private CsvToBean<BulkEmployeeImportRequest> openCsv(BufferedReader reader, List<ParseError> parseErrors,
+                                                         Deque<Long> recordNumbers) {
+        HeaderColumnNameMappingStrategy<BulkEmployeeImportRequest> strategy = new HeaderColumnNameMappingStrategy<>();
+        strategy.setType(BulkEmployeeImportRequest.class);
 
-            } catch (Exception e) {
-                logger.error("Error processing row {}: {}", rowNum, e.getMessage(), e);
-                results.add(ImportRowResult.failed(rowNum, row.getEmployeeCode(), row.getEmail(),
-                        List.of("Unexpected error: " + e.getMessage())));
+        CSVReader csvReader = new CSVReaderBuilder(reader)
+                .withCSVParser(new CSVParserBuilder().withIgnoreLeadingWhiteSpace(true).build())
+                .build();
+        return new CsvToBeanBuilder<BulkEmployeeImportRequest>(csvReader)
+                .withMappingStrategy(strategy)
+                .withIgnoreEmptyLine(true)
+                .withVerifier(row -> recordNumbers.add(csvReader.getRecordsRead()))
+                .withExceptionHandler(e -> {
+                    parseErrors.add(new ParseError(csvReader.getRecordsRead(), e));
+                    return null;
+                })
+                .build();
+    }
+
+    /**
+     * Remove and convert the parse errors up to lastRowNumber; errors of already processed rows are dropped
+     */
+    private List<ImportRowResult> takeParseErrors(List<ParseError> parseErrors, int resumeAfterRow, int lastRowNumber) {
+        List<ImportRowResult> results = new ArrayList<>();
+        Iterator<ParseError> it = parseErrors.iterator();
+        while (it.hasNext()) {
+            ParseError error = it.next();
+            if (error.rowNumber() <= lastRowNumber) {
+                if (error.rowNumber() > resumeAfterRow) {
+                    results.add(ImportRowResult.failed((int) error.rowNumber(), null, null,
+                            List.of("Invalid CSV row: " + error.cause().getMessage())));
+                }
+                it.remove();
             }
         }
-
-        BulkImportResponse response = BulkImportResponse.success(rows.size(), successCount, results);
-        response.setSkippedCount(skippedCount);
-
-        logger.info("Bulk import completed: {} total, {} success, {} failed, {} skipped",
-                rows.size(), successCount, rows.size() - successCount - skippedCount, skippedCount);
-
-        return response;
+        return results;
     }
 
+    // ==================== Chunk Pipeline ====================
+
     /**
-     * Parse CSV file to list of request objects
+     * Validate, resolve and write one chunk of rows
      */
-    private List<BulkEmployeeImportRequest> parseCsvFile(MultipartFile file) throws Exception {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+    private void processChunk(List<ParsedRow> chunk, List<ImportRowResult> parseErrors, int lastRowNumber,
+                              ImportContext context, BulkImportResponse progress) {
+        // 1. CPU-bound work (bean validation, password hashing) in parallel
+        List<CompletableFuture<PreparedRow>> futures = new ArrayList<>(chunk.size());
+        for (ParsedRow parsed : chunk) {
+            futures.add(CompletableFuture.supplyAsync(() -> prepare(parsed), workerExecutor));
+        }
+        List<PreparedRow> prepared = new ArrayList<>(chunk.size());
+        for (CompletableFuture<PreparedRow> future : futures) {
+            prepared.add(future.join());
+        }
+
+        // 2. Duplicate checks and lookups, one query each for the whole chunk
+        Set<String> existingEmails = loadExistingEmails(prepared);
+        Map<String, EmployeeRepository.EmployeeCodeView> existingCodes = loadExistingCodes(prepared);
+
+        List<ImportRowResult> rejected = new ArrayList<>(parseErrors);
+        List<PendingRow> pending = new ArrayList<>();
+        Set<String> chunkEmails = new HashSet<>();
+        Set<String> chunkCodes = new HashSet<>();
+        for (PreparedRow row : prepared) {
+            ImportRowResult result = resolve(row, context, existingEmails, existingCodes, chunkEmails, chunkCodes);
+            if (result != null) {
+                rejected.add(result);
+            } else {
+                pending.add(row.pending);
+            }
+        }
 
-            HeaderColumnNameMappingStrategy<BulkEmployeeImportRequest> strategy = new HeaderColumnNameMappingStrategy<>();
-            strategy.setType(BulkEmployeeImportRequest.class);
+        // 3. Write all accepted rows in one transaction, falling back to one transaction per row
+        List<ImportRowResult> results = new ArrayList<>(rejected);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!pending.isEmpty()) {
+                    writeRows(pending, context);
+                }
+                List<ImportRowResult> chunkResults = new ArrayList<>(rejected);
+                for (PendingRow row : pending) {
+                    chunkResults.add(row.toResult());
+                }
+                notifyListener(context, lastRowNumber, chunkResults);
+            });
+            for (PendingRow row : pending) {
+                results.add(row.toResult());
+            }
+        } catch (RuntimeException e) {
+            if (pending.isEmpty()) {
+                throw e;
+            }
+            logger.warn("Chunk insert failed ({}), retrying {} rows individually", e.getMessage(), pending.size());
+            entityManager.clear();
+            results.addAll(writeRowsIndividually(pending, context));
+            // Rows committed above but not yet checkpointed are reported as duplicates if the job is resumed
+            transactionTemplate.executeWithoutResult(status -> notifyListener(context, lastRowNumber, results));
+        }
 
-            CsvToBean<BulkEmployeeImportRequest> csvToBean = new CsvToBeanBuilder<BulkEmployeeImportRequest>(reader)
-                    .withMappingStrategy(strategy)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withIgnoreEmptyLine(true)
-                    .build();
+        for (ImportRowResult result : results) {
+            record(progress, result);
+        }
+        progress.setTotalRows(progress.getTotalRows() + results.size());
+    }
 
-            return csvToBean.parse();
+    private static void notifyListener(ImportContext context, int lastRowNumber, List<ImportRowResult> results) {
+        if (context.listener != null) {
+            context.listener.onChunkProcessed(lastRowNumber, results);
         }
     }
 
     /**
-     * Process a single CSV row
+     * Worker-pool step: validate the row and hash a temporary password
      */
-    private ImportRowResult processRow(BulkEmployeeImportRequest row, int rowNum,
-                                        Organization organization,
-                                        Map<String, Department> departmentMap,
-                                        Map<String, Position> positionMap,
-                                        Map<String, Employee> employeeByCodeMap,
-                                        Set<String> existingEmails,
-                                        Role employeeRole,
-                                        boolean skipDuplicates) {
-
+    private PreparedRow prepare(ParsedRow parsed) {
+        BulkEmployeeImportRequest row = parsed.row;
         List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
 
         // Validate required fields
         Set<ConstraintViolation<BulkEmployeeImportRequest>> violations = validator.validate(row);
@@ -181,9 +333,29 @@ public class BulkEmployeeImportService {
                     .collect(Collectors.toList()));
         }
 
+        String passwordHash = errors.isEmpty()
+                ? passwordEncoder.encode(UUID.randomUUID().toString()) // Temporary password, must be changed
+                : null;
+        return new PreparedRow(parsed, errors, passwordHash);
+    }
+
+    /**
+     * Sequential step: duplicate checks and department/position/manager resolution
+     * @return the rejection result, or null if the row was accepted (row.pending is then set)
+     */
+    private ImportRowResult resolve(PreparedRow prepared, ImportContext context,
+                                    Set<String> existingEmails,
+                                    Map<String, EmployeeRepository.EmployeeCodeView> existingCodes,
+                                    Set<String> chunkEmails, Set<String> chunkCodes) {
+        BulkEmployeeImportRequest row = prepared.parsed.row;
+        int rowNum = prepared.parsed.rowNumber;
+        List<String> errors = new ArrayList<>(prepared.errors);
+        List<String> warnings = new ArrayList<>();
+
         // Check for duplicate employee code
-        if (row.getEmployeeCode() != null && employeeByCodeMap.containsKey(row.getEmployeeCode().toUpperCase())) {
-            if (skipDuplicates) {
+        String code = row.getEmployeeCode() != null ? row.getEmployeeCode().toUpperCase() : null;
+        if (code != null && (existingCodes.containsKey(code) || chunkCodes.contains(code))) {
+            if (context.skipDuplicates) {
                 return ImportRowResult.skipped(rowNum, row.getEmployeeCode(), row.getEmail(),
                         "Employee code already exists: " + row.getEmployeeCode());
             } else {
@@ -192,8 +364,9 @@ public class BulkEmployeeImportService {
         }
 
         // Check for duplicate email
-        if (row.getEmail() != null && existingEmails.contains(row.getEmail().toLowerCase())) {
-            if (skipDuplicates) {
+        String email = row.getEmail() != null ? row.getEmail().toLowerCase() : null;
+        if (email != null && (existingEmails.contains(email) || chunkEmails.contains(email))) {
+            if (context.skipDuplicates) {
                 return ImportRowResult.skipped(rowNum, row.getEmployeeCode(), row.getEmail(),
                         "Email already exists: " + row.getEmail());
             } else {
@@ -202,28 +375,35 @@ public class BulkEmployeeImportService {
         }
 
         // Resolve department
-        Department department = null;
+        UUID departmentId = null;
         if (row.getDepartmentCode() != null && !row.getDepartmentCode().isBlank()) {
-            department = departmentMap.get(row.getDepartmentCode().toUpperCase());
-            if (department == null) {
+            departmentId = context.departmentIds.get(row.getDepartmentCode().toUpperCase());
+            if (departmentId == null) {
                 warnings.add("Department not found: " + row.getDepartmentCode() + " (will be null)");
             }
         }
 
         // Resolve position
-        Position position = null;
+        UUID positionId = null;
         if (row.getPositionCode() != null && !row.getPositionCode().isBlank()) {
-            position = positionMap.get(row.getPositionCode().toUpperCase());
-            if (position == null) {
+            positionId = context.positionIds.get(row.getPositionCode().toUpperCase());
+            if (positionId == null) {
                 warnings.add("Position not found: " + row.getPositionCode() + " (will be null)");
             }
         }
 
-        // Resolve manager
-        Employee manager = null;
+        // Resolve manager: an existing employee, or an earlier row of this chunk
+        UUID managerId = null;
+        String managerCode = null;
         if (row.getReportsToCode() != null && !row.getReportsToCode().isBlank()) {
-            manager = employeeByCodeMap.get(row.getReportsToCode().toUpperCase());
-            if (manager == null) {
+            String reportsTo = row.getReportsToCode().toUpperCase();
+            EmployeeRepository.EmployeeCodeView manager = existingCodes.get(reportsTo);
+            if (manager != null && context.organizationId.equals(manager.getOrganizationId())
+                    && manager.getDeletedAt() == null) {
+                managerId = manager.getId();
+            } else if (chunkCodes.contains(reportsTo)) {
+                managerCode = reportsTo;
+            } else {
                 warnings.add("Manager not found: " + row.getReportsToCode() + " (will be null)");
             }
         }
@@ -233,33 +413,128 @@ public class BulkEmployeeImportService {
             return ImportRowResult.failed(rowNum, row.getEmployeeCode(), row.getEmail(), errors);
         }
 
-        // Create user
-        User user = createUser(row, organization, employeeRole);
-        userRepository.save(user);
+        chunkEmails.add(email);
+        chunkCodes.add(code);
+        prepared.pending = new PendingRow(row, rowNum, prepared.passwordHash, departmentId, positionId,
+                managerId, managerCode, warnings);
+        return null;
+    }
+
+    /**
+     * Persist a list of accepted rows in the current transaction.
+     * Users, employees and addresses are persisted in separate passes so that each entity
+     * type goes out as JDBC batches rather than interleaved single inserts; the hierarchy
+     * closure rows of the new employees are written in the same transaction.
+     */
+    private void writeRows(List<PendingRow> rows, ImportContext context) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(chunkSize);
+
+        Organization organization = entityManager.getReference(Organization.class, context.organizationId);
+        Role employeeRole = entityManager.getReference(Role.class, context.employeeRoleId);
+
+        List<User> users = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            User user = createUser(row.row, organization, employeeRole, row.passwordHash);
+            entityManager.persist(user);
+            users.add(user);
+        }
+
+        Map<String, Employee> createdByCode = new HashMap<>();
+        List<Employee> employees = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            Employee employee = createEmployee(row.row, organization,
+                    row.departmentId != null ? entityManager.getReference(Department.class, row.departmentId) : null,
+                    row.positionId != null ? entityManager.getReference(Position.class, row.positionId) : null,
+                    resolveManager(row, createdByCode),
+                    users.get(i));
+            entityManager.persist(employee);
+            createdByCode.put(row.row.getEmployeeCode().toUpperCase(), employee);
+            employees.add(employee);
+        }
 
-        // Create employee
-        Employee employee = createEmployee(row, organization, department, position, manager, user);
-        Employee savedEmployee = employeeRepository.save(employee);
+        for (int i = 0; i < rows.size(); i++) {
+            if (hasAddressData(rows.get(i).row)) {
+                entityManager.persist(createAddress(rows.get(i).row, employees.get(i), organization));
+            }
+        }
 
-        // Create address if provided
-        if (hasAddressData(row)) {
-            EmployeeAddress address = createAddress(row, savedEmployee, organization);
-            savedEmployee.getAddresses().add(address);
-            employeeRepository.save(savedEmployee);
+        entityManager.flush();
+        SequencedMap<UUID, UUID> managerOf = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Employee employee = employees.get(i);
+            rows.get(i).employeeId = employee.getId();
+            managerOf.put(employee.getId(), employee.getReportsTo() != null ? employee.getReportsTo().getId() : null);
         }
+        // Rows are in file order, so a manager from the same file always precedes its reports
+        employeeHierarchyService.onEmployeesImported(context.organizationId, managerOf);
+        entityManager.clear();
+    }
 
-        ImportRowResult result = ImportRowResult.success(rowNum, row.getEmployeeCode(), row.getEmail(), savedEmployee.getId());
-        result.setWarnings(warnings);
-        return result;
+    private Employee resolveManager(PendingRow row, Map<String, Employee> createdByCode) {
+        if (row.managerId != null) {
+            return entityManager.getReference(Employee.class, row.managerId);
+        }
+        if (row.managerCode != null) {
+            return createdByCode.get(row.managerCode);
+        }
+        return null;
+    }
+
+    /**
+     * Fallback after a failed chunk: one transaction per row so a single bad row cannot sink the rest
+     */
+    private List<ImportRowResult> writeRowsIndividually(List<PendingRow> rows, ImportContext context) {
+        List<ImportRowResult> results = new ArrayList<>(rows.size());
+        Map<String, UUID> committedByCode = new HashMap<>();
+        for (PendingRow row : rows) {
+            if (row.managerCode != null) {
+                row.managerId = committedByCode.get(row.managerCode);
+                row.managerCode = null;
+                if (row.managerId == null) {
+                    row.warnings.add("Manager not found: " + row.row.getReportsToCode() + " (will be null)");
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeRows(List.of(row), context));
+                committedByCode.put(row.row.getEmployeeCode().toUpperCase(), row.employeeId);
+                results.add(row.toResult());
+            } catch (RuntimeException e) {
+                entityManager.clear();
+                logger.error("Error processing row {}: {}", row.rowNumber, e.getMessage());
+                results.add(ImportRowResult.failed(row.rowNumber, row.row.getEmployeeCode(), row.row.getEmail(),
+                        List.of("Unexpected error: " + e.getMessage())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Count a row result and keep its details while under the retention limit
+     */
+    private void record(BulkImportResponse progress, ImportRowResult result) {
+        switch (result.getStatus()) {
+            case "success" -> progress.setSuccessCount(progress.getSuccessCount() + 1);
+            case "skipped" -> progress.setSkippedCount(progress.getSkippedCount() + 1);
+            default -> progress.setFailedCount(progress.getFailedCount() + 1);
+        }
+
+        if (progress.getResults().size() < maxRowResults) {
+            progress.getResults().add(result);
+        } else if (progress.getResults().size() == maxRowResults && progress.getWarnings().isEmpty()) {
+            progress.getWarnings().add("Row details are limited to the first " + maxRowResults + " rows");
+        }
     }
 
     /**
      * Create User entity from import row
      */
-    private User createUser(BulkEmployeeImportRequest row, Organization organization, Role employeeRole) {
+    private User createUser(BulkEmployeeImportRequest row, Organization organization, Role employeeRole,
+                            String passwordHash) {
         User user = new User();
         user.setEmail(row.getEmail().toLowerCase());
-        user.setPassword(UUID.randomUUID().toString()); // Temporary password
+        user.setPassword(passwordHash); // Hash of a random temporary password
         user.setEnabled(true);
         user.setMustChangePassword(true);
         user.setOrganization(organization);
@@ -350,31 +625,65 @@ public class BulkEmployeeImportService {
 
     // ==================== Lookup Loaders ====================
 
-    private Map<String, Department> loadDepartments(Organization organization) {
+    private Map<String, UUID> loadDepartments(Organization organization) {
         return departmentRepository.findByOrganizationAndDeletedAtIsNull(organization)
                 .stream()
                 .filter(d -> d.getCode() != null)
-                .collect(Collectors.toMap(d -> d.getCode().toUpperCase(), d -> d, (a, b) -> a));
+                .collect(Collectors.toMap(d -> d.getCode().toUpperCase(), Department::getId, (a, b) -> a));
     }
 
-    private Map<String, Position> loadPositions(Organization organization) {
+    private Map<String, UUID> loadPositions(Organization organization) {
         return positionRepository.findByOrganization(organization)
                 .stream()
                 .filter(p -> p.getCode() != null)
-                .collect(Collectors.toMap(p -> p.getCode().toUpperCase(), p -> p, (a, b) -> a));
+                .collect(Collectors.toMap(p -> p.getCode().toUpperCase(), Position::getId, (a, b) -> a));
     }
 
-    private Map<String, Employee> loadEmployeesByCode(Organization organization) {
-        return employeeRepository.findByOrganizationAndDeletedAtIsNull(organization)
-                .stream()
-                .collect(Collectors.toMap(e -> e.getEmployeeCode().toUpperCase(), e -> e, (a, b) -> a));
+    /**
+     * Lower-cased emails of the chunk that already belong to a user
+     */
+    private Set<String> loadExistingEmails(List<PreparedRow> rows) {
+        Set<String> candidates = new HashSet<>();
+        for (PreparedRow row : rows) {
+            String email = row.parsed.row.getEmail();
+            if (email != null) {
+                candidates.add(email);
+                candidates.add(email.toLowerCase());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new HashSet<>();
+        }
+        return userRepository.findExistingEmails(candidates).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
     }
 
-    private Set<String> loadExistingEmails() {
-        return userRepository.findAll()
-                .stream()
-                .map(u -> u.getEmail().toLowerCase())
-                .collect(Collectors.toSet());
+    /**
+     * Existing employees referenced by the chunk (own codes and manager codes), keyed by upper-cased code
+     */
+    private Map<String, EmployeeRepository.EmployeeCodeView> loadExistingCodes(List<PreparedRow> rows) {
+        Set<String> candidates = new HashSet<>();
+        for (PreparedRow row : rows) {
+            addCodeCandidates(candidates, row.parsed.row.getEmployeeCode());
+            addCodeCandidates(candidates, row.parsed.row.getReportsToCode());
+        }
+        Map<String, EmployeeRepository.EmployeeCodeView> codes = new HashMap<>();
+        if (candidates.isEmpty()) {
+            return codes;
+        }
+        for (EmployeeRepository.EmployeeCodeView view : employeeRepository.findCodeViewsByEmployeeCodeIn(candidates)) {
+            codes.merge(view.getEmployeeCode().toUpperCase(), view,
+                    (a, b) -> a.getDeletedAt() == null ? a : b);
+        }
+        return codes;
+    }
+
+    private static void addCodeCandidates(Set<String> candidates, String code) {
+        if (code != null && !code.isBlank()) {
+            candidates.add(code);
+            candidates.add(code.toUpperCase());
+        }
     }
 
     /**
@@ -417,4 +726,81 @@ public class BulkEmployeeImportService {
                 "work_mode"
         ) + "\n";
     }
+
+    // ==================== Pipeline State ====================
+
+    private static final class ImportContext {
+        final UUID organizationId;
+        final Map<String, UUID> departmentIds;
+        final Map<String, UUID> positionIds;
+        final Integer employeeRoleId;
+        final boolean skipDuplicates;
+        final ChunkListener listener;
+
+        ImportContext(UUID organizationId, Map<String, UUID> departmentIds, Map<String, UUID> positionIds,
+                      Integer employeeRoleId, boolean skipDuplicates, ChunkListener listener) {
+            this.organizationId = organizationId;
+            this.departmentIds = departmentIds;
+            this.positionIds = positionIds;
+            this.employeeRoleId = employeeRoleId;
+            this.skipDuplicates = skipDuplicates;
+            this.listener = listener;
+        }
+    }
+
+    private record ParseError(long rowNumber, CsvException cause) {
+    }
+
+    private static final class ParsedRow {
+        final BulkEmployeeImportRequest row;
+        final int rowNumber;
+
+        ParsedRow(BulkEmployeeImportRequest row, int rowNumber) {
+            this.row = row;
+            this.rowNumber = rowNumber;
+        }
+    }
+
+    private static final class PreparedRow {
+        final ParsedRow parsed;
+        final List<String> errors;
+        final String passwordHash;
+        PendingRow pending;
+
+        PreparedRow(ParsedRow parsed, List<String> errors, String passwordHash) {
+            this.parsed = parsed;
+            this.errors = errors;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    private static final class PendingRow {
+        final BulkEmployeeImportRequest row;
+        final int rowNumber;
+        final String passwordHash;
+        final UUID departmentId;
+        final UUID positionId;
+        UUID managerId;
+        String managerCode;
+        final List<String> warnings;
+        UUID employeeId;
+
+        PendingRow(BulkEmployeeImportRequest row, int rowNumber, String passwordHash, UUID departmentId,
+                   UUID positionId, UUID managerId, String managerCode, List<String> warnings) {
+            this.row = row;
+            this.rowNumber = rowNumber;
+            this.passwordHash = passwordHash;
+            this.departmentId = departmentId;
+            this.positionId = positionId;
+            this.managerId = managerId;
+            this.managerCode = managerCode;
+            this.warnings = warnings;
+        }
+
+        ImportRowResult toResult() {
+            ImportRowResult result = ImportRowResult.success(rowNumber, row.getEmployeeCode(), row.getEmail(), employeeId);
+            result.setWarnings(warnings);
+            return result;
+        }
+    }
 }
@@ -0,0 +1,430 @@
+package com.hrms.service;
+
+import com.hrms.dto.employee.BulkImportResponse;
+import com.hrms.dto.employee.BulkImportResponse.ImportRowResult;
+import com.hrms.entity.BulkImportJob;
+import com.hrms.repository.BulkImportJobRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.opencsv.CSVWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs bulk employee imports as background jobs.
+ *
+ * The uploaded CSV is kept in document storage and a bulk_import_jobs row is queued, so any
+ * instance can run or resume the job. Jobs run on a bounded executor; each committed chunk advances
+ * the job's checkpoint in the same transaction and appends its failed/skipped rows to a local
+ * error file. The error file is copied to document storage outside the chunk transactions: at most
+ * every bulk-import.error-upload-interval-ms while the job runs, and once more when it finishes or
+ * fails. Jobs that do not fit the executor queue, and running jobs whose worker died (no
+ * heartbeat), are picked up by a periodic sweep and resume after their last committed chunk; rows
+ * rejected after the last upload of a dead worker are not in the error file.
+ */
+@Service
+@Slf4j
+public class BulkImportJobService {
+
+    private static final String CSV_CONTENT_TYPE = "text/csv";
+    private static final String[] ERROR_FILE_HEADER = {"row_number", "employee_code", "email", "status", "messages"};
+
+    private final BulkImportJobRepository jobRepository;
+    private final OrganizationRepository organizationRepository;
+    private final BulkEmployeeImportService importService;
+    private final FileStorageService fileStorageService;
+    private final TaskExecutor jobExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate errorFileTransaction;
+
+    /** Jobs queued or running on this instance */
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** Local scratch space for the error file of a running job */
+    @Value("${bulk-import.work-path:${java.io.tmpdir}/hrms-imports}")
+    private String workPath;
+
+    @Value("${bulk-import.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${bulk-import.error-upload-interval-ms:60000}")
+    private long errorUploadIntervalMs;
+
+    public BulkImportJobService(BulkImportJobRepository jobRepository,
+                                OrganizationRepository organizationRepository,
+                                BulkEmployeeImportService importService,
+                                FileStorageService fileStorageService,
+                                @Qualifier("bulkImportJobExecutor") TaskExecutor jobExecutor,
+                                PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.organizationRepository = organizationRepository;
+        this.importService = importService;
+        this.fileStorageService = fileStorageService;
+        this.jobExecutor = jobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Error file uploads are recorded after a chunk has committed, in a transaction of their own
+        this.errorFileTransaction = new TransactionTemplate(transactionManager);
+        this.errorFileTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store the uploaded file and queue an import job for it
+     */
+    public BulkImportJob submit(MultipartFile file, UUID organizationId, boolean skipDuplicates, UUID requestedBy)
+            throws IOException {
+        if (!organizationRepository.existsById(organizationId)) {
+            throw new IllegalArgumentException("Organization not found: " + organizationId);
+        }
+
+        String fileKey = String.format("org/%s/imports/%s", organizationId, UUID.randomUUID());
+        try (InputStream in = file.getInputStream()) {
+            fileStorageService.storeGenerated(fileKey + ".csv", in, file.getSize(), CSV_CONTENT_TYPE);
+        }
+
+        BulkImportJob job = new BulkImportJob();
+        job.setOrganizationId(organizationId);
+        job.setRequestedBy(requestedBy);
+        job.setFileName(file.getOriginalFilename());
+        job.setStoredFile(fileKey + ".csv");
+        job.setErrorFile(fileKey + "-errors.csv");
+        job.setSkipDuplicates(skipDuplicates);
+        job.setStatus(BulkImportJob.STATUS_QUEUED);
+        job = jobRepository.save(job);
+
+        log.info("Queued bulk import job {} for organization {} ({})", job.getId(), organizationId, job.getFileName());
+        dispatch(job.getId());
+        return job;
+    }
+
+    public BulkImportJob getJob(UUID jobId, UUID organizationId) {
+        return jobRepository.findByIdAndOrganizationId(jobId, organizationId).orElse(null);
+    }
+
+    public List<BulkImportJob> getRecentJobs(UUID organizationId, int limit) {
+        return jobRepository.findByOrganizationIdOrderByCreatedAtDesc(organizationId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Whether a job has an error file (failed and skipped rows)
+     */
+    public boolean hasErrorFile(BulkImportJob job) {
+        return job.getErrorFile() != null && job.getErrorFileBytes() > 0;
+    }
+
+    /**
+     * Stream the uploaded part of a job's error file to out; while a job runs this lags behind its
+     * committed chunks by up to bulk-import.error-upload-interval-ms
+     */
+    public void writeErrorFile(BulkImportJob job, OutputStream out) {
+        fileStorageService.download(job.getErrorFile(), 0, job.getErrorFileBytes(), null, out);
+    }
+
+    /**
+     * Re-queue a failed job; it continues after its last committed chunk
+     */
+    public BulkImportJob resume(UUID jobId, UUID organizationId) {
+        BulkImportJob job = jobRepository.findByIdAndOrganizationId(jobId, organizationId)
+                .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+        try {
+            fileStorageService.stat(job.getStoredFile());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Uploaded file of import job " + jobId + " is no longer available");
+        }
+        Integer updated = transactionTemplate.execute(status -> jobRepository.requeue(jobId));
+        if (updated == null || updated == 0) {
+            throw new IllegalStateException("Only failed import jobs can be resumed (status: " + job.getStatus() + ")");
+        }
+        dispatch(jobId);
+        return jobRepository.findById(jobId).orElseThrow();
+    }
+
+    /**
+     * Pick up queued jobs that did not fit the executor and jobs abandoned by a dead worker
+     * (also resumes interrupted jobs after a restart)
+     */
+    @Scheduled(fixedDelayString = "${bulk-import.recovery-interval-ms:60000}",
+               initialDelayString = "${bulk-import.recovery-initial-delay-ms:30000}")
+    public void recoverJobs() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+            for (UUID jobId : jobRepository.findRunnableJobIds(staleBefore)) {
+                if (!inFlight.contains(jobId)) {
+                    dispatch(jobId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error while recovering bulk import jobs", e);
+        }
+    }
+
+    private void dispatch(UUID jobId) {
+        if (!inFlight.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobId);
+            log.info("Bulk import queue is full, job {} stays queued", jobId);
+        }
+    }
+
+    /**
+     * Claim and execute a job
+     */
+    void run(UUID jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusNanos(staleAfterMs * 1_000_000);
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.claim(jobId, now, staleBefore));
+        if (claimed == null || claimed == 0) {
+            return; // finished, or owned by another worker
+        }
+
+        BulkImportJob job = jobRepository.findById(jobId).orElseThrow();
+        log.info("Running bulk import job {} (attempt {}, after row {})", jobId, job.getAttempts(), job.getLastRowNumber());
+
+        BulkImportResponse progress = new BulkImportResponse();
+        progress.setImportId(jobId);
+        progress.setTotalRows(job.getTotalRows());
+        progress.setSuccessCount(job.getSuccessCount());
+        progress.setFailedCount(job.getFailedCount());
+        progress.setSkippedCount(job.getSkippedCount());
+
+        Path workFile = null;
+        ErrorFile errorFile = null;
+        try {
+            workFile = workFile(job);
+            ErrorFile jobErrorFile = new ErrorFile(jobId, workFile, job.getErrorFile(), job.getErrorFileBytes());
+            errorFile = jobErrorFile;
+            BulkImportResponse result;
+            try (InputStream in = fileStorageService.load(job.getStoredFile())) {
+                result = importService.importEmployees(in, job.getOrganizationId(),
+                        job.isSkipDuplicates(), progress, job.getLastRowNumber(),
+                        (lastRowNumber, results) -> checkpoint(jobId, jobErrorFile, lastRowNumber, results));
+            }
+            jobErrorFile.upload();
+            complete(jobId, result);
+        } catch (Exception e) {
+            log.error("Bulk import job {} failed: {}", jobId, e.getMessage(), e);
+            if (errorFile != null) {
+                // Keep the rows rejected so far for a resumed run
+                try {
+                    errorFile.upload();
+                } catch (RuntimeException uploadFailure) {
+                    log.warn("Could not upload error file of import job {}: {}", jobId, uploadFailure.getMessage());
+                }
+            }
+            complete(jobId, BulkImportResponse.failure(e.getMessage()));
+        } finally {
+            if (workFile != null) {
+                try {
+                    Files.deleteIfExists(workFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete work file of import job {}: {}", jobId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Local copy of the committed part of a job's error file, to append the next chunks to
+     */
+    private Path workFile(BulkImportJob job) throws IOException {
+        Path directory = Paths.get(workPath);
+        Files.createDirectories(directory);
+        Path workFile = Files.createTempFile(directory, job.getId().toString(), ".csv");
+        if (job.getErrorFileBytes() > 0) {
+            try (OutputStream out = Files.newOutputStream(workFile)) {
+                fileStorageService.download(job.getErrorFile(), 0, job.getErrorFileBytes(), null, out);
+            }
+        }
+        return workFile;
+    }
+
+    /**
+     * Advance the job's checkpoint inside the chunk's transaction; the error file is uploaded
+     * after the commit when it is due
+     */
+    private void checkpoint(UUID jobId, ErrorFile errorFile, int lastRowNumber, List<ImportRowResult> results) {
+        int success = 0, failed = 0, skipped = 0;
+        for (ImportRowResult result : results) {
+            switch (result.getStatus()) {
+                case "success" -> success++;
+                case "skipped" -> skipped++;
+                default -> failed++;
+            }
+        }
+
+        long errorFileBytes = errorFile.append(results);
+        jobRepository.recordChunk(jobId, lastRowNumber, results.size(), success, failed, skipped,
+                LocalDateTime.now());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                errorFile.committed(errorFileBytes);
+                try {
+                    errorFile.uploadIfDue();
+                } catch (RuntimeException e) {
+                    // Retried at the next interval and when the job finishes
+                    log.warn("Could not upload error file of import job {}: {}", jobId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void complete(UUID jobId, BulkImportResponse result) {
+        BulkImportJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(switch (result.getStatus()) {
+            case "completed" -> BulkImportJob.STATUS_COMPLETED;
+            case "partial" -> BulkImportJob.STATUS_PARTIAL;
+            default -> BulkImportJob.STATUS_FAILED;
+        });
+        job.setErrorMessage(result.getErrors().isEmpty() ? null : String.join("; ", result.getErrors()));
+        job.setCompletedAt(LocalDateTime.now());
+        jobRepository.save(job);
+
+        if (!BulkImportJob.STATUS_FAILED.equals(job.getStatus())) {
+            // Finished jobs cannot be resumed; the upload is no longer needed
+            try {
+                fileStorageService.deleteGenerated(job.getStoredFile());
+            } catch (RuntimeException e) {
+                log.warn("Could not delete uploaded file of import job {}: {}", jobId, e.getMessage());
+            }
+        }
+        log.info("Bulk import job {} finished: {} ({} rows, {} success, {} failed, {} skipped)", jobId,
+                job.getStatus(), job.getTotalRows(), job.getSuccessCount(), job.getFailedCount(), job.getSkippedCount());
+    }
+
+    /**
+     * Append-only CSV of rejected rows, built in a local work file. Anything past the last
+     * committed size belongs to a rolled-back or interrupted chunk and is cut off before the next
+     * append or upload, so the stored copy and the job's errorFileBytes only ever cover committed
+     * chunks.
+     */
+    private final class ErrorFile {
+
+        private final UUID jobId;
+        private final Path path;
+        private final String storedPath;
+        private volatile long committedBytes;
+        private long uploadedBytes;
+        private long uploadedAt;
+
+        ErrorFile(UUID jobId, Path path, String storedPath, long committedBytes) {
+            this.jobId = jobId;
+            this.path = path;
+            this.storedPath = storedPath;
+            this.committedBytes = committedBytes;
+            this.uploadedBytes = committedBytes;
+            this.uploadedAt = System.currentTimeMillis();
+        }
+
+        long append(List<ImportRowResult> results) {
+            StringWriter buffer = new StringWriter();
+            try (CSVWriter writer = new CSVWriter(buffer)) {
+                if (committedBytes == 0) {
+                    writer.writeNext(ERROR_FILE_HEADER);
+                }
+                int rows = 0;
+                for (ImportRowResult result : results) {
+                    if ("success".equals(result.getStatus())) {
+                        continue;
+                    }
+                    List<String> messages = "skipped".equals(result.getStatus()) ? result.getWarnings() : result.getErrors();
+                    writer.writeNext(new String[] {
+                            String.valueOf(result.getRowNumber()),
+                            result.getEmployeeCode(),
+                            result.getEmail(),
+                            result.getStatus(),
+                            String.join("; ", messages)
+                    });
+                    rows++;
+                }
+                if (rows == 0) {
+                    return committedBytes;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            long position = committedBytes;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(committedBytes);
+                ByteBuffer data = ByteBuffer.wrap(bytes);
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return position;
+        }
+
+        void committed(long bytes) {
+            committedBytes = bytes;
+        }
+
+        void uploadIfDue() {
+            if (System.currentTimeMillis() - uploadedAt >= errorUploadIntervalMs) {
+                upload();
+            }
+        }
+
+        /**
+         * Copy the committed rows to document storage and record their size on the job; must not
+         * run inside a chunk's transaction
+         */
+        void upload() {
+            long bytes = committedBytes;
+            if (bytes == uploadedBytes) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fileStorageService.storeGenerated(storedPath, path, CSV_CONTENT_TYPE);
+            errorFileTransaction.executeWithoutResult(status -> jobRepository.recordErrorFile(jobId, bytes));
+            uploadedBytes = bytes;
+            uploadedAt = System.currentTimeMillis();
+        }
+    }
+}
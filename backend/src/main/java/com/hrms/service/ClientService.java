@@ -28,15 +28,12 @@ public class ClientService {
     private EmployeeRepository employeeRepository;
 
     @Transactional(readOnly = true)
-    public List<ClientListResponse> getAllClients(String email, Boolean activeOnly) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (user.getOrganization() == null) {
+    public List<ClientListResponse> getAllClients(UUID organizationId, Boolean activeOnly) {
+        if (organizationId == null) {
             throw new RuntimeException("User does not belong to an organization");
         }
 
-        List<Client> clients = clientRepository.findByOrganizationId(user.getOrganization().getId());
+        List<Client> clients = clientRepository.findByOrganizationId(organizationId);
 
         if (activeOnly != null && activeOnly) {
             clients = clients.stream()
@@ -54,14 +51,11 @@ public class ClientService {
     }
 
     @Transactional(readOnly = true)
-    public ClientDetailResponse getClientById(UUID clientId, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ClientDetailResponse getClientById(UUID clientId, UUID organizationId) {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new RuntimeException("Client not found"));
 
-        if (!client.getOrganization().getId().equals(user.getOrganization().getId())) {
+        if (!client.getOrganization().getId().equals(organizationId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -82,7 +76,7 @@ public class ClientService {
 
         // Generate client code if not provided
         if (request.getClientCode() == null || request.getClientCode().isEmpty()) {
-            client.setClientCode(generateNextClientCode(email));
+            client.setClientCode(generateNextClientCode(user.getOrganization().getId()));
         } else {
             // Check uniqueness
             if (clientRepository.findByClientCode(request.getClientCode()).isPresent()) {
@@ -199,11 +193,8 @@ public class ClientService {
         clientRepository.save(client);
     }
 
-    public String generateNextClientCode(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Client> clients = clientRepository.findByOrganizationId(user.getOrganization().getId());
+    public String generateNextClientCode(UUID organizationId) {
+        List<Client> clients = clientRepository.findByOrganizationId(organizationId);
         int maxNumber = clients.stream()
                 .map(Client::getClientCode)
                 .filter(code -> code != null && code.matches("CLI\\d{4}"))
@@ -0,0 +1,137 @@
+package com.hrms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.UserRepository;
+import com.hrms.security.AuthenticatedPrincipal;
+import com.hrms.security.CurrentUser;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.UUID;
+
+/**
+ * Resolves the calling user into a {@link CurrentUser} without loading the User entity.
+ *
+ * On a cache miss the user's account state (email, organization, enabled flag) is read with one
+ * primary-key query, and employee, department, manager and role ids with two id-only queries;
+ * disabled or deleted accounts are refused there. Cache hits query nothing. Entries are evicted
+ * when the user is saved through UserService (roles, enabled flag, email) and when their
+ * reporting line or department changes. Eviction is local to this instance, so another instance
+ * may serve a changed user's previous identity for up to security.current-user-cache.ttl-seconds.
+ */
+@Service
+@RequiredArgsConstructor
+public class CurrentUserService {
+
+    private final EmployeeRepository employeeRepository;
+    private final UserRepository userRepository;
+
+    @Value("${security.current-user-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${security.current-user-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<UUID, CurrentUser> currentUsers;
+
+    @PostConstruct
+    void initCache() {
+        currentUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Build (or reuse) the current user for a verified principal
+     */
+    public CurrentUser resolve(AuthenticatedPrincipal principal) {
+        if (principal == null) {
+            throw new RuntimeException("User not found");
+        }
+        if (principal.getUserId() != null) {
+            CurrentUser cached = currentUsers.getIfPresent(principal.getUserId());
+            if (cached != null && cached.getEmail().equals(principal.getEmail())) {
+                return cached;
+            }
+        }
+
+        // Tokens issued before the id claim was added are resolved by email
+        UserRepository.PrincipalState state = (principal.getUserId() != null
+                ? userRepository.findPrincipalStateById(principal.getUserId())
+                : userRepository.findPrincipalStateByEmail(principal.getEmail()))
+                .filter(user -> user.getEmail().equals(principal.getEmail()))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!state.isEnabled()) {
+            throw new AccessDeniedException("User account is disabled");
+        }
+
+        CurrentUser currentUser = load(state, principal);
+        currentUsers.put(state.getId(), currentUser);
+        return currentUser;
+    }
+
+    /**
+     * Forget the cached identity of a user, e.g. after their roles, account state, reporting line
+     * or department changed. Inside a transaction it is forgotten again after commit, so a request
+     * resolving the user meanwhile cannot cache the old state.
+     */
+    public void evict(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        currentUsers.invalidate(userId);
+        afterCommit(() -> currentUsers.invalidate(userId));
+    }
+
+    /**
+     * Forget the cached identities of an organization's users, e.g. after they were deleted
+     */
+    public void evictOrganization(UUID organizationId) {
+        if (organizationId == null) {
+            return;
+        }
+        Runnable invalidate = () -> currentUsers.asMap().values()
+                .removeIf(user -> organizationId.equals(user.getOrganizationId()));
+        invalidate.run();
+        afterCommit(invalidate);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private CurrentUser load(UserRepository.PrincipalState state, AuthenticatedPrincipal principal) {
+        UUID userId = state.getId();
+        EmployeeRepository.PrincipalView employee = employeeRepository.findPrincipalViewByUserId(userId)
+                .orElse(null);
+
+        return new CurrentUser(
+                userId,
+                state.getEmail(),
+                state.getOrganizationId(),
+                employee != null ? employee.getId() : null,
+                employee != null ? employee.getDepartmentId() : null,
+                employee != null ? employee.getManagerId() : null,
+                new HashSet<>(userRepository.findRoleIdsByUserId(userId)),
+                principal.getRoles()
+        );
+    }
+}
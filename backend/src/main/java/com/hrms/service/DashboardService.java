@@ -3,15 +3,14 @@ package com.hrms.service;
 import com.hrms.dto.DashboardStatsResponse;
 import com.hrms.dto.DashboardStatsResponse.*;
 import com.hrms.entity.AuditLog;
-import com.hrms.entity.Employee;
 import com.hrms.entity.Organization;
 import com.hrms.repository.*;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -24,22 +23,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class DashboardService {
 
-    private final EmployeeRepository employeeRepository;
-    private final DepartmentRepository departmentRepository;
-    private final UserRepository userRepository;
     private final AuditLogRepository auditLogRepository;
     private final OrganizationRepository organizationRepository;
+    private final OrgHeadcountService orgHeadcountService;
 
-    public DashboardService(EmployeeRepository employeeRepository,
-                           DepartmentRepository departmentRepository,
-                           UserRepository userRepository,
-                           AuditLogRepository auditLogRepository,
-                           OrganizationRepository organizationRepository) {
-        this.employeeRepository = employeeRepository;
-        this.departmentRepository = departmentRepository;
-        this.userRepository = userRepository;
+    public DashboardService(AuditLogRepository auditLogRepository,
+                           OrganizationRepository organizationRepository,
+                           OrgHeadcountService orgHeadcountService) {
         this.auditLogRepository = auditLogRepository;
         this.organizationRepository = organizationRepository;
+        this.orgHeadcountService = orgHeadcountService;
     }
 
     /**
@@ -51,39 +44,28 @@ public class DashboardService {
 
         DashboardStatsResponse response = new DashboardStatsResponse();
 
-        // Get all employees for the organization
-        List<Employee> employees = employeeRepository.findByOrganizationAndDeletedAtIsNull(organization);
+        // Headcount metrics come from the in-memory snapshot
+        OrgHeadcountSnapshot snapshot = orgHeadcountService.getSnapshot(organizationId);
 
         // Key Metrics
-        response.setTotalEmployees(employees.size());
-        response.setActiveEmployees(employees.stream()
-                .filter(e -> "active".equalsIgnoreCase(e.getEmploymentStatus()))
-                .count());
-        response.setOnProbation(employees.stream()
-                .filter(e -> "probation".equalsIgnoreCase(e.getEmploymentStatus()))
-                .count());
-        response.setOnLeave(employees.stream()
-                .filter(e -> "on_leave".equalsIgnoreCase(e.getEmploymentStatus()))
-                .count());
+        response.setTotalEmployees(snapshot.getTotal());
+        response.setActiveEmployees(snapshot.getStatusCount("active"));
+        response.setOnProbation(snapshot.getStatusCount("probation"));
+        response.setOnLeave(snapshot.getStatusCount("on_leave"));
 
         // New hires this month
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        response.setNewHiresThisMonth(employees.stream()
-                .filter(e -> e.getHireDate() != null && !e.getHireDate().isBefore(startOfMonth))
-                .count());
+        response.setNewHiresThisMonth(snapshot.getHiresFrom(YearMonth.now()));
 
         // Attendance rate (placeholder - would need attendance tracking)
-        double activeRate = employees.isEmpty() ? 0 :
+        double activeRate = response.getTotalEmployees() == 0 ? 0 :
                 ((double) response.getActiveEmployees() / response.getTotalEmployees()) * 100;
         response.setAttendanceRate(Math.round(activeRate * 10.0) / 10.0);
 
         // Department stats
-        Map<String, Long> deptCounts = employees.stream()
-                .filter(e -> e.getDepartment() != null)
-                .collect(Collectors.groupingBy(
-                        e -> e.getDepartment().getName(),
-                        Collectors.counting()
-                ));
+        Map<UUID, String> deptNames = snapshot.getDepartmentNames();
+        Map<String, Long> deptCounts = new HashMap<>();
+        snapshot.getDepartmentCounts().forEach((deptId, count) ->
+                deptCounts.merge(deptNames.getOrDefault(deptId, "Unknown"), count, Long::sum));
 
         List<DepartmentStat> deptStats = deptCounts.entrySet().stream()
                 .map(entry -> new DepartmentStat(entry.getKey(), entry.getValue(), 0.0))
@@ -93,13 +75,7 @@ public class DashboardService {
         response.setDepartmentStats(deptStats);
 
         // Employment type stats
-        Map<String, Long> typeCounts = employees.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getEmploymentType() != null ? e.getEmploymentType() : "Not Set",
-                        Collectors.counting()
-                ));
-
-        List<EmploymentTypeStat> typeStats = typeCounts.entrySet().stream()
+        List<EmploymentTypeStat> typeStats = snapshot.getTypeCounts().entrySet().stream()
                 .map(entry -> new EmploymentTypeStat(entry.getKey(), entry.getValue()))
                 .sorted((a, b) -> Long.compare(b.getCount(), a.getCount()))
                 .collect(Collectors.toList());
@@ -135,14 +111,6 @@ public class DashboardService {
     private ActivityItem convertToActivityItem(AuditLog log) {
         String timeAgo = formatTimeAgo(log.getPerformedAt());
         String userName = "System";
-        if (log.getPerformedBy() != null) {
-            userRepository.findById(log.getPerformedBy().getId())
-                    .ifPresent(user -> {
-                        // Try to get employee name
-                        employeeRepository.findByUser(user)
-                                .ifPresent(emp -> {});
-                    });
-        }
 
         return new ActivityItem(
                 log.getEntityType() != null ? log.getEntityType().toLowerCase() : "system",
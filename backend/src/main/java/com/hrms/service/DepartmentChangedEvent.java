@@ -0,0 +1,31 @@
+package com.hrms.service;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a department row is updated (e.g. renamed)
+ */
+public class DepartmentChangedEvent {
+
+    private final UUID organizationId;
+    private final UUID departmentId;
+    private final String name;
+
+    public DepartmentChangedEvent(UUID organizationId, UUID departmentId, String name) {
+        this.organizationId = organizationId;
+        this.departmentId = departmentId;
+        this.name = name;
+    }
+
+    public UUID getOrganizationId() {
+        return organizationId;
+    }
+
+    public UUID getDepartmentId() {
+        return departmentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
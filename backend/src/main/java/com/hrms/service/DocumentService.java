@@ -5,28 +5,87 @@ import com.hrms.entity.Employee;
 import com.hrms.entity.Organization;
 import com.hrms.entity.User;
 import com.hrms.repository.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class DocumentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
+
     private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
 
-    public DocumentService(DocumentRepository documentRepository) {
+    public DocumentService(DocumentRepository documentRepository,
+                           FileStorageService fileStorageService,
+                           PlatformTransactionManager transactionManager) {
         this.documentRepository = documentRepository;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
-    public Document uploadForEmployee(Employee employee, User uploadedBy, String fileName, String filePath, String fileType) {
-        Document document = new Document(employee, uploadedBy, fileName, filePath, fileType);
+    public Document uploadForEmployee(Employee employee, User uploadedBy, String fileName,
+                                      FileStorageService.StoredContent content, String fileType) {
+        Document document = new Document(employee, uploadedBy, fileName, content.path(), fileType);
+        document.setContentHash(content.contentHash());
         return documentRepository.save(document);
     }
 
+    /**
+     * Delete a document. Its reference to the stored file is dropped only once the delete has
+     * committed, so a rolled-back delete never leaves the document pointing at a removed file.
+     */
+    public void delete(Document document) {
+        transactionTemplate.executeWithoutResult(status -> {
+            documentRepository.delete(document);
+            releaseAfterCommit(document.getEmployee().getOrganization().getId(),
+                    document.getContentHash(), document.getFilePath());
+        });
+    }
+
+    /**
+     * Point a document at a new upload. The old file is released after the update commits; if the
+     * update fails, the reference taken on the new file is dropped again.
+     */
+    public Document replace(Document document, MultipartFile file) {
+        UUID organizationId = document.getEmployee().getOrganization().getId();
+        String oldContentHash = document.getContentHash();
+        String oldFilePath = document.getFilePath();
+
+        // Store new file (or reference an identical one); committed on its own
+        FileStorageService.StoredContent content =
+                fileStorageService.store(file, document.getEmployee().getId(), organizationId);
+        try {
+            return transactionTemplate.execute(status -> {
+                document.setFileName(file.getOriginalFilename());
+                document.setFilePath(content.path());
+                document.setContentHash(content.contentHash());
+                document.setFileType(file.getContentType());
+                Document updated = documentRepository.saveAndFlush(document);
+                releaseAfterCommit(organizationId, oldContentHash, oldFilePath);
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            // The document still points at the old file
+            fileStorageService.release(organizationId, content.contentHash(), content.path());
+            throw e;
+        }
+    }
+
     public List<Document> getDocumentsForEmployee(Employee employee) {
         return documentRepository.findByEmployeeId(employee.getId());
     }
@@ -38,4 +97,18 @@ public class DocumentService {
     public Page<Document> getDocumentsForOrganization(Organization organization, Pageable pageable) {
         return documentRepository.findByEmployeeOrganizationId(organization.getId(), pageable);
     }
+
+    private void releaseAfterCommit(UUID organizationId, String contentHash, String filePath) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    fileStorageService.release(organizationId, contentHash, filePath);
+                } catch (Exception e) {
+                    // The document is gone; an unreleased file only costs storage
+                    logger.error("Could not release stored file {}: {}", filePath, e.getMessage(), e);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,294 @@
+package com.hrms.service;
+
+import com.hrms.entity.EmailLog;
+import com.hrms.entity.EmailOutbox;
+import com.hrms.repository.EmailLogRepository;
+import com.hrms.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drains the email outbox.
+ *
+ * Each run claims a batch of due mails, sends them over a single SMTP connection
+ * (JavaMailSender.send(MimeMessage...)), and records the outcome with bulk updates and one
+ * batched EmailLog insert. Recipient domains are rate limited per minute; deferred mails go
+ * back to the queue without using up an attempt. Failed mails are retried with exponential
+ * backoff until email.outbox.max-attempts is reached.
+ *
+ * The domain rate limit is counted in memory on each instance: with several instances
+ * dispatching, a domain can receive up to email.outbox.per-domain-per-minute times the number of
+ * instances per minute, so the setting should be divided by the instance count.
+ */
+@Service
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String PURGE_JOB_NAME = "EmailOutboxPurge";
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailLogRepository emailLogRepository;
+    private final JavaMailSender mailSender;
+    private final ScheduledJobLockService jobLockService;
+    private final JobLogService jobLogService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, DomainWindow> domainWindows = new ConcurrentHashMap<>();
+
+    @Value("${spring.mail.username:noreply@hrms.com}")
+    private String fromEmail;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-base-seconds:60}")
+    private long retryBaseSeconds;
+
+    @Value("${email.outbox.retry-max-seconds:21600}")
+    private long retryMaxSeconds;
+
+    @Value("${email.outbox.per-domain-per-minute:120}")
+    private int perDomainPerMinute;
+
+    @Value("${email.outbox.lock-seconds:300}")
+    private long lockSeconds;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 EmailLogRepository emailLogRepository,
+                                 JavaMailSender mailSender,
+                                 ScheduledJobLockService jobLockService,
+                                 JobLogService jobLogService,
+                                 PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.emailLogRepository = emailLogRepository;
+        this.mailSender = mailSender;
+        this.jobLockService = jobLockService;
+        this.jobLogService = jobLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Send due mails until the queue is empty or the per-run batch limit is reached
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}",
+               initialDelayString = "${email.outbox.initial-delay-ms:10000}")
+    public void dispatch() {
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (dispatchBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error while dispatching email outbox", e);
+        }
+    }
+
+    /**
+     * Claim and send one batch
+     * @return number of claimed mails
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        UUID token = UUID.randomUUID();
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            outboxRepository.claim(dueIds, token, now.plusSeconds(lockSeconds), now);
+            return outboxRepository.findByClaimToken(token);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Apply per-domain rate limits
+        Map<LocalDateTime, List<UUID>> deferred = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        Map<UUID, String> failures = new HashMap<>();
+        for (EmailOutbox mail : claimed) {
+            DomainWindow window = domainWindows.computeIfAbsent(mail.getRecipientDomain(), d -> new DomainWindow());
+            LocalDateTime retryAt = window.tryAcquire(now, perDomainPerMinute);
+            if (retryAt != null) {
+                deferred.computeIfAbsent(retryAt, t -> new ArrayList<>()).add(mail.getId());
+                continue;
+            }
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail.getId(), e.getMessage());
+            }
+        }
+
+        // Send everything over one connection
+        List<EmailOutbox> sent = new ArrayList<>();
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failed = e.getFailedMessages();
+                for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+                    Exception cause = failed.isEmpty() ? e : failed.get(entry.getKey());
+                    if (cause != null) {
+                        failures.put(entry.getValue().getId(), cause.getMessage());
+                    }
+                }
+            } catch (MailException e) {
+                for (EmailOutbox mail : messages.values()) {
+                    failures.put(mail.getId(), e.getMessage());
+                }
+            }
+            for (EmailOutbox mail : messages.values()) {
+                if (!failures.containsKey(mail.getId())) {
+                    sent.add(mail);
+                }
+            }
+        }
+
+        recordOutcome(sent, failures, deferred);
+
+        // deferred is grouped by retry time; report mails, not groups
+        int deferredCount = deferred.values().stream().mapToInt(List::size).sum();
+        if (!failures.isEmpty()) {
+            log.warn("Email outbox batch: {} sent, {} failed, {} deferred", sent.size(), failures.size(), deferredCount);
+        } else {
+            log.debug("Email outbox batch: {} sent, {} deferred", sent.size(), deferredCount);
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Delete delivered and given-up mails past the retention period (daily at 3:30 AM)
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void purgeSentMails() {
+        jobLockService.runExclusively(PURGE_JOB_NAME, () -> {
+            long startTime = System.currentTimeMillis();
+            try {
+                Integer deleted = transactionTemplate.execute(status ->
+                        outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+                long duration = System.currentTimeMillis() - startTime;
+                log.info("Purged {} delivered and failed emails from the outbox", deleted);
+                jobLogService.logSuccess(PURGE_JOB_NAME, duration, deleted != null ? deleted : 0);
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                log.error("Error while purging the email outbox", e);
+                jobLogService.logFailure(PURGE_JOB_NAME, duration, e.getMessage());
+            }
+        });
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(mail.getRecipientEmail());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody() != null ? mail.getBody() : "", true);
+        return message;
+    }
+
+    private void recordOutcome(List<EmailOutbox> sent, Map<UUID, String> failures,
+                               Map<LocalDateTime, List<UUID>> deferred) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<EmailLog> logs = new ArrayList<>();
+
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent.stream().map(EmailOutbox::getId).toList(), now);
+                for (EmailOutbox mail : sent) {
+                    logs.add(toLog(mail, EmailLog.EmailStatus.SUCCESS, null));
+                }
+            }
+
+            for (Map.Entry<LocalDateTime, List<UUID>> entry : deferred.entrySet()) {
+                outboxRepository.release(entry.getValue(), entry.getKey());
+            }
+
+            if (!failures.isEmpty()) {
+                for (EmailOutbox mail : outboxRepository.findAllById(failures.keySet())) {
+                    String error = failures.get(mail.getId());
+                    mail.setAttempts(mail.getAttempts() + 1);
+                    mail.setLastError(error);
+                    mail.setClaimToken(null);
+                    mail.setLockedUntil(null);
+                    if (mail.getAttempts() >= maxAttempts) {
+                        // The rendered body may hold credentials; it is not needed once we give up
+                        mail.setStatus(EmailOutbox.STATUS_FAILED);
+                        mail.setBody(null);
+                        logs.add(toLog(mail, EmailLog.EmailStatus.FAILED, error));
+                    } else {
+                        mail.setNextAttemptAt(now.plusSeconds(backoffSeconds(mail.getAttempts())));
+                    }
+                }
+            }
+
+            if (!logs.isEmpty()) {
+                emailLogRepository.saveAll(logs);
+            }
+        });
+    }
+
+    private long backoffSeconds(int attempts) {
+        long delay = retryBaseSeconds << Math.min(attempts - 1, 20);
+        return Math.min(delay, retryMaxSeconds);
+    }
+
+    private static EmailLog toLog(EmailOutbox mail, EmailLog.EmailStatus status, String error) {
+        EmailLog emailLog = new EmailLog(mail.getRecipientEmail(), mail.getEmailType(), mail.getSubject(), status,
+                mail.getRelatedEntityId(), mail.getRelatedEntityType());
+        emailLog.setErrorMessage(error);
+        return emailLog;
+    }
+
+    /**
+     * Fixed one-minute send window of a recipient domain
+     */
+    private static final class DomainWindow {
+
+        private LocalDateTime windowStart = LocalDateTime.MIN;
+        private int count;
+
+        /**
+         * @return null if the mail may be sent now, otherwise when the next window opens
+         */
+        synchronized LocalDateTime tryAcquire(LocalDateTime now, int limit) {
+            if (!now.isBefore(windowStart.plusMinutes(1))) {
+                windowStart = now;
+                count = 0;
+            }
+            if (count < limit) {
+                count++;
+                return null;
+            }
+            return windowStart.plusMinutes(1);
+        }
+    }
+}
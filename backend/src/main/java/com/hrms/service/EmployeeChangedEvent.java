@@ -0,0 +1,32 @@
+package com.hrms.service;
+
+import java.util.UUID;
+
+/**
+ * Published whenever an employee row is inserted, updated or deleted.
+ * Facts are null when the employee no longer counts (deleted or soft-deleted).
+ */
+public class EmployeeChangedEvent {
+
+    private final UUID organizationId;
+    private final UUID employeeId;
+    private final OrgHeadcountSnapshot.EmployeeFacts facts;
+
+    public EmployeeChangedEvent(UUID organizationId, UUID employeeId, OrgHeadcountSnapshot.EmployeeFacts facts) {
+        this.organizationId = organizationId;
+        this.employeeId = employeeId;
+        this.facts = facts;
+    }
+
+    public UUID getOrganizationId() {
+        return organizationId;
+    }
+
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+
+    public OrgHeadcountSnapshot.EmployeeFacts getFacts() {
+        return facts;
+    }
+}
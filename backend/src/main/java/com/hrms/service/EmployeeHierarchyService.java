@@ -0,0 +1,220 @@
+package com.hrms.service;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.EmployeeHierarchyClosure;
+import com.hrms.repository.EmployeeHierarchyClosureRepository;
+import com.hrms.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Maintains the employee_hierarchy_closure table.
+ *
+ * The closure mirrors employees.reports_to_id (including deactivated employees, so that
+ * reactivation needs no rebuild). Creation inserts one row per ancestor, a reporting change
+ * moves the whole subtree with one delete and one insert-select, bulk imports insert the rows
+ * of their employees in JDBC batches (onEmployeesImported), and rebuildOrganization
+ * recomputes an organization from scratch for backfill and reconciliation. Employees are only
+ * soft-deleted one at a time; hard deletes happen per organization (onOrganizationRemoved).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeHierarchyService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO employee_hierarchy_closure (ancestor_id, descendant_id, organization_id, depth) VALUES (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final EmployeeHierarchyClosureRepository closureRepository;
+    private final EmployeeRepository employeeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Register a newly saved employee (and its manager link, if any)
+     */
+    @Transactional
+    public void onEmployeeCreated(Employee employee) {
+        // The node is linked under the manager's chain as it is created
+        ensureNode(employee.getId(), employee.getOrganization().getId());
+    }
+
+    /**
+     * Register employees inserted in bulk, given as employee id -> manager id (null = top level)
+     * in creation order: every manager is an existing employee or comes earlier in the map.
+     * Chains of in-batch managers are kept in memory, so only existing managers are looked up.
+     */
+    @Transactional
+    public void onEmployeesImported(UUID organizationId, SequencedMap<UUID, UUID> managerOf) {
+        Map<UUID, List<UUID>> chains = new HashMap<>(); // employee -> ancestors, nearest first
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<UUID, UUID> entry : managerOf.entrySet()) {
+            UUID employeeId = entry.getKey();
+            UUID managerId = entry.getValue();
+            rows.add(closureRow(employeeId, employeeId, organizationId, 0));
+
+            List<UUID> chain = new ArrayList<>();
+            if (managerId != null) {
+                chain.add(managerId);
+                chain.addAll(chains.computeIfAbsent(managerId, id -> {
+                    ensureNode(id, organizationId);
+                    return closureRepository.findAncestorIds(id);
+                }));
+            }
+            for (int depth = 1; depth <= chain.size(); depth++) {
+                rows.add(closureRow(chain.get(depth - 1), employeeId, organizationId, depth));
+            }
+            chains.put(employeeId, chain);
+
+            if (rows.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Move an employee and everyone under them to a new manager (null = top level)
+     */
+    @Transactional
+    public void onReportingChanged(Employee employee, Employee newManager) {
+        UUID organizationId = employee.getOrganization().getId();
+        ensureNode(employee.getId(), organizationId);
+
+        closureRepository.unlinkSubtree(employee.getId());
+
+        if (newManager != null) {
+            ensureNode(newManager.getId(), organizationId);
+            closureRepository.linkSubtree(employee.getId(), newManager.getId());
+        }
+    }
+
+    /**
+     * Forget every employee of an organization (used when its employees are bulk-deleted)
+     */
+    @Transactional
+    public void onOrganizationRemoved(UUID organizationId) {
+        closureRepository.deleteByOrganizationId(organizationId);
+    }
+
+    /**
+     * Is employeeId a direct or indirect report of managerId?
+     */
+    public boolean isInReportingLine(UUID managerId, UUID employeeId) {
+        if (managerId == null || employeeId == null) {
+            return false;
+        }
+        return closureRepository.existsByAncestorIdAndDescendantIdAndDepthGreaterThan(managerId, employeeId, 0);
+    }
+
+    /**
+     * Ids of all direct and indirect reports of a manager
+     */
+    public List<UUID> getSubordinateIds(UUID managerId) {
+        return closureRepository.findDescendantIds(managerId);
+    }
+
+    /**
+     * Ids of reports at most maxDepth levels below a manager (1 = direct reports)
+     */
+    public List<UUID> getSubordinateIds(UUID managerId, int maxDepth) {
+        return closureRepository.findDescendantIdsWithinDepth(managerId, maxDepth);
+    }
+
+    /**
+     * Management chain of an employee, nearest manager first
+     */
+    public List<UUID> getManagementChainIds(UUID employeeId) {
+        return closureRepository.findAncestorIds(employeeId);
+    }
+
+    /**
+     * Rebuild the closure of an organization only if it is out of sync with the employees table
+     * @return true if a rebuild was performed
+     */
+    @Transactional
+    public boolean reconcileOrganization(UUID organizationId) {
+        long employees = employeeRepository.countByOrganizationId(organizationId);
+        long nodes = closureRepository.countByOrganizationIdAndDepth(organizationId, 0);
+        if (employees == nodes) {
+            return false;
+        }
+        log.info("Employee hierarchy out of sync for organization {} ({} employees, {} nodes), rebuilding",
+                organizationId, employees, nodes);
+        rebuildOrganization(organizationId);
+        return true;
+    }
+
+    /**
+     * Recompute the closure of an organization from employees.reports_to_id
+     */
+    @Transactional
+    public void rebuildOrganization(UUID organizationId) {
+        closureRepository.deleteByOrganizationId(organizationId);
+
+        Map<UUID, UUID> managerOf = new HashMap<>();
+        for (Object[] row : employeeRepository.findReportingPairsByOrganizationId(organizationId)) {
+            managerOf.put((UUID) row[0], (UUID) row[1]);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (UUID employeeId : managerOf.keySet()) {
+            rows.add(closureRow(employeeId, employeeId, organizationId, 0));
+
+            // Walk up the chain; guard against cycles in bad legacy data
+            Set<UUID> seen = new HashSet<>();
+            seen.add(employeeId);
+            UUID ancestor = managerOf.get(employeeId);
+            int depth = 1;
+            while (ancestor != null && managerOf.containsKey(ancestor) && seen.add(ancestor)) {
+                rows.add(closureRow(ancestor, employeeId, organizationId, depth++));
+                ancestor = managerOf.get(ancestor);
+            }
+
+            if (rows.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+
+        log.info("Rebuilt employee hierarchy for organization {} ({} employees)", organizationId, managerOf.size());
+    }
+
+    private void ensureNode(UUID employeeId, UUID organizationId) {
+        ensureNode(employeeId, organizationId, new HashSet<>());
+    }
+
+    /**
+     * Create the missing node of an employee, with the rows of its whole management chain:
+     * the manager's node is ensured first, so linking copies every ancestor of the manager.
+     * visiting guards against cycles in bad legacy data.
+     */
+    private void ensureNode(UUID employeeId, UUID organizationId, Set<UUID> visiting) {
+        if (closureRepository.existsById(new EmployeeHierarchyClosure.Key(employeeId, employeeId))) {
+            return;
+        }
+        visiting.add(employeeId);
+        closureRepository.saveAndFlush(new EmployeeHierarchyClosure(employeeId, employeeId, organizationId, 0));
+
+        UUID managerId = employeeRepository.findManagerIdById(employeeId).orElse(null);
+        if (managerId != null && !visiting.contains(managerId)) {
+            ensureNode(managerId, organizationId, visiting);
+            closureRepository.linkSubtree(employeeId, managerId);
+        }
+    }
+
+    private static Object[] closureRow(UUID ancestorId, UUID descendantId, UUID organizationId, int depth) {
+        return new Object[] { ancestorId.toString(), descendantId.toString(), organizationId.toString(), depth };
+    }
+}
@@ -5,8 +5,6 @@ import com.hrms.entity.*;
 import com.hrms.entity.employee.*;
 import com.hrms.repository.*;
 import com.hrms.repository.employee.IdentityDocumentTypeRepository;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,6 +26,8 @@ public class EmployeeService {
     private final ClientRepository clientRepository;
     private final ProjectRepository projectRepository;
     private final IdentityDocumentTypeRepository identityDocumentTypeRepository;
+    private final EmployeeHierarchyService employeeHierarchyService;
+    private final CurrentUserService currentUserService;
 
     public EmployeeService(EmployeeRepository employeeRepository,
                           EmployeeHistoryRepository employeeHistoryRepository,
@@ -38,7 +38,9 @@ public class EmployeeService {
                           VendorRepository vendorRepository,
                           ClientRepository clientRepository,
                           ProjectRepository projectRepository,
-                          IdentityDocumentTypeRepository identityDocumentTypeRepository) {
+                          IdentityDocumentTypeRepository identityDocumentTypeRepository,
+                          EmployeeHierarchyService employeeHierarchyService,
+                          CurrentUserService currentUserService) {
         this.employeeRepository = employeeRepository;
         this.employeeHistoryRepository = employeeHistoryRepository;
         this.permissionGroupRepository = permissionGroupRepository;
@@ -49,6 +51,8 @@ public class EmployeeService {
         this.clientRepository = clientRepository;
         this.projectRepository = projectRepository;
         this.identityDocumentTypeRepository = identityDocumentTypeRepository;
+        this.employeeHierarchyService = employeeHierarchyService;
+        this.currentUserService = currentUserService;
     }
 
     @Transactional
@@ -77,7 +81,10 @@ public class EmployeeService {
             employee.getPermissionGroups().add(employeeBasic);
         }
 
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        employeeHierarchyService.onEmployeeCreated(saved);
+        currentUserService.evict(user.getId());
+        return saved;
     }
 
     @Transactional
@@ -317,7 +324,10 @@ public class EmployeeService {
             }
         }
 
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        employeeHierarchyService.onEmployeeCreated(saved);
+        currentUserService.evict(user.getId());
+        return saved;
     }
 
     private void createIdentityDoc(Employee employee, Organization org, String docTypeCode, String docNumber) {
@@ -336,13 +346,14 @@ public class EmployeeService {
     }
 
     @Transactional
-    @CacheEvict(value = "reportingTrees", allEntries = true)
     public Employee updateReporting(Employee employee, Employee reportsTo, User changedBy) {
         String oldValue = employee.getReportsTo() != null ? employee.getReportsTo().getId().toString() : null;
         String newValue = reportsTo != null ? reportsTo.getId().toString() : null;
 
         employee.setReportsTo(reportsTo);
         Employee updated = employeeRepository.save(employee);
+        employeeHierarchyService.onReportingChanged(updated, reportsTo);
+        currentUserService.evict(employee.getUser().getId());
 
         recordHistory(employee, "reports_to", oldValue, newValue, changedBy);
         return updated;
@@ -355,6 +366,7 @@ public class EmployeeService {
 
         employee.setDepartment(dept);
         Employee updated = employeeRepository.save(employee);
+        currentUserService.evict(employee.getUser().getId());
 
         recordHistory(employee, "department_id", oldValue, newValue, changedBy);
         return updated;
@@ -428,62 +440,16 @@ public class EmployeeService {
             return true; // Self-reference
         }
 
-        Set<UUID> visited = new HashSet<>();
-        UUID current = newManagerId;
-
-        while (current != null) {
-            if (current.equals(employeeId)) {
-                return true; // Cycle detected: employee would be in their own management chain
-            }
-
-            if (!visited.add(current)) {
-                // We've seen this ID before, there's a loop but it doesn't involve our employee
-                return false;
-            }
-
-            Optional<Employee> manager = employeeRepository.findById(current);
-            current = manager
-                .flatMap(m -> Optional.ofNullable(m.getReportsTo()))
-                .map(Employee::getId)
-                .orElse(null);
-        }
-
-        return false;
+        // Cycle iff the new manager already sits somewhere under the employee
+        return employeeHierarchyService.isInReportingLine(employeeId, newManagerId);
     }
 
-    @Cacheable(value = "reportingTrees", key = "#employeeId")
+    /**
+     * Get all direct and indirect reports of an employee
+     * Single indexed lookup on the hierarchy closure table
+     */
     public List<Employee> getReportingTree(UUID employeeId) {
-        Employee manager = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        // Optimized: Load all employees in organization once (single query)
-        List<Employee> allEmployees = employeeRepository.findByOrganization(manager.getOrganization());
-
-        // Build tree in memory instead of recursive DB queries
-        return collectReportsInMemory(employeeId, allEmployees);
-    }
-
-    private void collectReports(UUID managerId, List<Employee> tree) {
-        List<Employee> directReports = employeeRepository.findByReportsToId(managerId);
-        for (Employee report : directReports) {
-            tree.add(report);
-            collectReports(report.getId(), tree);
-        }
-    }
-
-    private List<Employee> collectReportsInMemory(UUID managerId, List<Employee> allEmployees) {
-        List<Employee> tree = new ArrayList<>();
-
-        // Find direct reports in memory
-        for (Employee emp : allEmployees) {
-            if (emp.getReportsTo() != null && emp.getReportsTo().getId().equals(managerId)) {
-                tree.add(emp);
-                // Recursively collect their reports
-                tree.addAll(collectReportsInMemory(emp.getId(), allEmployees));
-            }
-        }
-
-        return tree;
+        return new ArrayList<>(employeeRepository.findSubordinates(employeeId));
     }
 
     public List<Employee> getEmployeesForOrganization(Organization organization) {
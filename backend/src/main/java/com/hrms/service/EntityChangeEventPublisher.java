@@ -0,0 +1,90 @@
+package com.hrms.service;
+
+import com.hrms.entity.Department;
+import com.hrms.entity.Employee;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate listener that turns every Employee write into an {@link EmployeeChangedEvent} and
+ * every Department update into a {@link DepartmentChangedEvent}, so aggregates stay current no
+ * matter which service or controller saved the entity. Registered with Hibernate at startup,
+ * which keeps the entities free of listener annotations.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeEventPublisher
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Employee employee) {
+            publish(employee, employee.getDeletedAt() == null ? factsOf(employee) : null);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Employee employee) {
+            publish(employee, employee.getDeletedAt() == null ? factsOf(employee) : null);
+        } else if (event.getEntity() instanceof Department department && department.getOrganization() != null) {
+            eventPublisher.publishEvent(new DepartmentChangedEvent(
+                    department.getOrganization().getId(), department.getId(), department.getName()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Employee employee) {
+            publish(employee, null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        // The events are delivered after commit by @TransactionalEventListener
+        return false;
+    }
+
+    private void publish(Employee employee, OrgHeadcountSnapshot.EmployeeFacts facts) {
+        if (employee.getOrganization() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new EmployeeChangedEvent(
+                employee.getOrganization().getId(), employee.getId(), facts));
+    }
+
+    private static OrgHeadcountSnapshot.EmployeeFacts factsOf(Employee employee) {
+        // Only the department id is read so the lazy association is never initialized during flush
+        return new OrgHeadcountSnapshot.EmployeeFacts(
+                employee.getEmploymentStatus(),
+                employee.getEmploymentType(),
+                employee.getDepartment() != null ? employee.getDepartment().getId() : null,
+                employee.getHireDate());
+    }
+}
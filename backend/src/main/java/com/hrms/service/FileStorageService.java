@@ -1,45 +1,77 @@
 package com.hrms.service;
 
-import com.azure.storage.blob.*;
-import com.azure.storage.blob.models.BlobHttpHeaders;
-import org.springframework.beans.factory.annotation.Value;
+import com.hrms.entity.DocumentBlob;
+import com.hrms.repository.DocumentBlobRepository;
+import com.hrms.service.storage.DocumentStorage;
+import com.hrms.service.storage.StoredFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Stores employee documents: validates uploads and hands the bytes to the configured
+ * DocumentStorage backend (Azure Blob Storage or the local filesystem).
+ *
+ * Uploads are content-addressed: the SHA-256 of the upload is computed by streaming it once, and
+ * each distinct content is stored once per organization (document_blobs) under
+ * org/{organizationId}/sha256/{hash}. A duplicate upload only adds a reference to the existing
+ * blob and writes nothing to storage; the file is deleted after its last reference is dropped.
+ * Storage writes and deletes happen outside the transactions that count references, and a blob
+ * without references is never referenced again without storing its file first. Documents stored
+ * before this have no content hash and own their file.
+ */
 @Service
 public class FileStorageService {
 
-    private final FileValidationService fileValidationService;
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
-    @Value("${storage.azure.connection-string}")
-    private String connectionString;
+    private static final int MAX_ATTEMPTS = 3;
 
-    @Value("${storage.azure.container}")
-    private String containerName;
+    private final FileValidationService fileValidationService;
+    private final DocumentStorage storage;
+    private final DocumentBlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public FileStorageService(FileValidationService fileValidationService) {
+    public FileStorageService(FileValidationService fileValidationService,
+                              DocumentStorage storage,
+                              DocumentBlobRepository blobRepository,
+                              PlatformTransactionManager transactionManager) {
         this.fileValidationService = fileValidationService;
+        this.storage = storage;
+        this.blobRepository = blobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
-    private BlobContainerClient getContainer() {
-        BlobContainerClient containerClient =
-                new BlobContainerClientBuilder()
-                        .connectionString(connectionString)
-                        .containerName(containerName)
-                        .buildClient();
-
-        containerClient.createIfNotExists();
-        return containerClient;
+    /**
+     * Where an upload was stored: the storage path and the content hash the document references
+     * (null for documents stored before content addressing)
+     */
+    public record StoredContent(String path, String contentHash, boolean duplicate) {
     }
 
-    public String store(MultipartFile file, UUID employeeId, UUID organizationId) {
+    /**
+     * Store an upload for an employee, or reference the organization's existing copy of the same content
+     */
+    public StoredContent store(MultipartFile file, UUID employeeId, UUID organizationId) {
         try {
             // Validate file before storing
             fileValidationService.validateFile(file);
@@ -48,64 +80,183 @@ public class FileStorageService {
                 throw new RuntimeException("Failed to store empty file");
             }
 
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            LocalDateTime now = LocalDateTime.now();
-            String year = now.format(DateTimeFormatter.ofPattern("yyyy"));
-            String month = now.format(DateTimeFormatter.ofPattern("MM"));
+            // Multipart uploads are already spooled by the container, so hashing them is a local read
+            String contentHash = sha256(file);
+            String blobPath = String.format("org/%s/sha256/%s", organizationId, contentHash);
 
-            String sanitizedFilename = originalFilename != null ?
-                originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_") :
-                "document" + extension;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Integer referenced = transactionTemplate.execute(status ->
+                            blobRepository.addReference(organizationId, contentHash));
+                    boolean duplicate = referenced != null && referenced > 0;
+                    if (!duplicate) {
+                        try (InputStream input = file.getInputStream()) {
+                            storage.put(blobPath, input, file.getSize(), file.getContentType());
+                        }
+                        duplicate = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                                addReference(file, organizationId, contentHash, blobPath)));
+                    }
+                    if (duplicate) {
+                        logger.debug("Upload for employee {} matches stored content {}", employeeId, contentHash);
+                    }
+                    return new StoredContent(blobPath, contentHash, duplicate);
+                } catch (DataIntegrityViolationException | StoredContentMissingException e) {
+                    // The same content was stored or deleted concurrently; reference or store it again
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
 
-            String fileName = UUID.randomUUID() + "_" + sanitizedFilename;
-            String blobPath = String.format("org/%s/employee/%s/%s/%s/%s",
-                organizationId, employeeId, year, month, fileName);
+        } catch (Exception e) {
+            throw new RuntimeException("Document upload failed", e);
+        }
+    }
 
-            BlobContainerClient container = getContainer();
-            BlobClient blobClient = container.getBlobClient(blobPath);
+    /**
+     * Add a reference to content that was just written to storage: to a blob stored concurrently,
+     * to a blob whose references were all dropped, or to a new blob row. Once the row is locked no
+     * delete of the content can start, but one that finished after the write took the file with
+     * it, so the file is checked before the reference commits.
+     * @return true if the content was already stored
+     * @throws StoredContentMissingException if the file has to be written again
+     */
+    private boolean addReference(MultipartFile file, UUID organizationId, String contentHash, String blobPath) {
+        if (blobRepository.addReference(organizationId, contentHash) > 0) {
+            return true;
+        }
+        if (blobRepository.reclaim(organizationId, contentHash) == 0) {
+            DocumentBlob blob = new DocumentBlob();
+            blob.setOrganizationId(organizationId);
+            blob.setContentHash(contentHash);
+            blob.setStoragePath(blobPath);
+            blob.setSizeBytes(file.getSize());
+            blob.setContentType(file.getContentType());
+            blob.setReferenceCount(1);
+            blobRepository.saveAndFlush(blob);
+        }
+        try {
+            storage.stat(blobPath);
+        } catch (RuntimeException e) {
+            throw new StoredContentMissingException(blobPath);
+        }
+        return false;
+    }
 
-            blobClient.upload(file.getInputStream(), file.getSize(), true);
+    /**
+     * Store a generated file (e.g. a payslip archive) under a fixed path, replacing any previous
+     * version. Not content-addressed: the path belongs to whatever generated the file.
+     */
+    public void storeGenerated(String storedPath, Path file, String contentType) {
+        try (InputStream input = Files.newInputStream(file)) {
+            storage.put(storedPath, input, Files.size(file), contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store " + storedPath, e);
+        }
+    }
 
-            BlobHttpHeaders headers = new BlobHttpHeaders()
-                    .setContentType(file.getContentType());
-            blobClient.setHttpHeaders(headers);
+    /**
+     * Store size bytes of content under a fixed path, replacing any previous version
+     */
+    public void storeGenerated(String storedPath, InputStream content, long size, String contentType) {
+        try {
+            storage.put(storedPath, content, size, contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store " + storedPath, e);
+        }
+    }
 
-            return blobPath;
+    /**
+     * Delete a file stored with storeGenerated
+     */
+    public void deleteGenerated(String storedPath) {
+        storage.delete(storedPath);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Azure Blob upload failed", e);
+    /**
+     * Drop a document's reference to its stored content. After the last reference is dropped and
+     * that has committed, the blob row and its file are deleted.
+     */
+    public void release(UUID organizationId, String contentHash, String storedPath) {
+        if (contentHash == null) {
+            storage.delete(storedPath);
+            return;
         }
+        transactionTemplate.executeWithoutResult(status -> {
+            blobRepository.dropReference(organizationId, contentHash);
+            if (blobRepository.findReferenceCount(organizationId, contentHash).orElse(0) == 0) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        deleteUnreferenced(organizationId, contentHash, storedPath);
+                    }
+                });
+            }
+        });
     }
 
-    public InputStream load(String storedPath) {
+    /**
+     * Delete a blob without references and its file, unless an upload referenced it again
+     * meanwhile. The file goes while the row delete is uncommitted, so an upload of the same
+     * content waits for it; if the delete does not commit, the row stays without references and
+     * the next upload of the content stores the file again.
+     */
+    private void deleteUnreferenced(UUID organizationId, String contentHash, String storedPath) {
         try {
-            BlobContainerClient container = getContainer();
-            BlobClient blobClient = container.getBlobClient(storedPath);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (blobRepository.deleteUnreferenced(organizationId, contentHash) > 0) {
+                    storage.delete(storedPath);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete unreferenced content {}: {}", storedPath, e.getMessage());
+        }
+    }
 
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            blobClient.downloadStream(output);
+    /**
+     * Size, ETag and modification time of a stored file
+     */
+    public StoredFile stat(String storedPath) {
+        return storage.stat(storedPath);
+    }
 
-            return new ByteArrayInputStream(output.toByteArray());
+    /**
+     * Stream count bytes of a stored file from offset to out, without buffering the file.
+     * With an eTag the download fails if the file changed since it was read.
+     */
+    public void download(String storedPath, long offset, long count, String eTag, OutputStream out) {
+        storage.download(storedPath, offset, count, eTag, out);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Azure Blob load failed", e);
-        }
+    /**
+     * Open a stored file for reading
+     */
+    public InputStream load(String storedPath) {
+        return storage.open(storedPath);
     }
 
-    public void delete(String storedPath) {
-        try {
-            BlobContainerClient container = getContainer();
-            BlobClient blobClient = container.getBlobClient(storedPath);
+    /**
+     * The stored file on local disk, or null when documents are not kept on a local filesystem
+     */
+    public Path localFile(String storedPath) {
+        return storage.localFile(storedPath);
+    }
 
-            blobClient.deleteIfExists();
+    private static String sha256(MultipartFile file) throws IOException {
+        try (DigestInputStream input = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            input.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(input.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Azure Blob delete failed", e);
+    /**
+     * Stored content went missing between writing it and referencing it
+     */
+    private static class StoredContentMissingException extends RuntimeException {
+        StoredContentMissingException(String storedPath) {
+            super("Stored content disappeared before it was referenced: " + storedPath);
         }
     }
 }
@@ -27,6 +27,9 @@ public class JobLogService {
     @Autowired
     private ScheduledJobLogRepository jobLogRepository;
 
+    @Autowired
+    private ScheduledJobLockService jobLockService;
+
     /**
      * Log a successful job execution
      */
@@ -34,7 +37,7 @@ public class JobLogService {
     public void logSuccess(String jobName, long durationMs) {
         try {
             ScheduledJobLog log = ScheduledJobLog.success(jobName, durationMs);
-            jobLogRepository.save(log);
+            jobLogRepository.save(stamped(log));
             logger.debug("Logged successful execution of job: {} ({}ms)", jobName, durationMs);
         } catch (Exception e) {
             logger.error("Failed to log job success for: " + jobName, e);
@@ -48,13 +51,39 @@ public class JobLogService {
     public void logFailure(String jobName, long durationMs, String errorMessage) {
         try {
             ScheduledJobLog log = ScheduledJobLog.failure(jobName, durationMs, errorMessage);
-            jobLogRepository.save(log);
+            jobLogRepository.save(stamped(log));
             logger.warn("Logged failed execution of job: {} ({}ms) - Error: {}", jobName, durationMs, errorMessage);
         } catch (Exception e) {
             logger.error("Failed to log job failure for: " + jobName, e);
         }
     }
 
+    /**
+     * Log a successful execution of a job that processed rows (records throughput)
+     */
+    @Transactional
+    public void logSuccess(String jobName, long durationMs, long rowsProcessed) {
+        try {
+            jobLogRepository.save(stamped(ScheduledJobLog.success(jobName, durationMs).withRowsProcessed(rowsProcessed)));
+            logger.debug("Logged successful execution of job: {} ({}ms, {} rows)", jobName, durationMs, rowsProcessed);
+        } catch (Exception e) {
+            logger.error("Failed to log job success for: " + jobName, e);
+        }
+    }
+
+    /**
+     * Log a failed execution of a job, with the rows it processed before failing
+     */
+    @Transactional
+    public void logFailure(String jobName, long durationMs, String errorMessage, long rowsProcessed) {
+        try {
+            jobLogRepository.save(stamped(ScheduledJobLog.failure(jobName, durationMs, errorMessage).withRowsProcessed(rowsProcessed)));
+            logger.warn("Logged failed execution of job: {} ({}ms, {} rows) - Error: {}", jobName, durationMs, rowsProcessed, errorMessage);
+        } catch (Exception e) {
+            logger.error("Failed to log job failure for: " + jobName, e);
+        }
+    }
+
     /**
      * Generic method to log job execution with all parameters
      */
@@ -69,13 +98,21 @@ public class JobLogService {
                     .durationMs(durationMs)
                     .build();
 
-            jobLogRepository.save(log);
+            jobLogRepository.save(stamped(log));
             logger.debug("Logged {} execution of job: {} ({}ms)", status, jobName, durationMs);
         } catch (Exception e) {
             logger.error("Failed to log job execution for: " + jobName, e);
         }
     }
 
+    /**
+     * Record which node ran the job (only the holder of the job's lock runs it)
+     */
+    private ScheduledJobLog stamped(ScheduledJobLog log) {
+        log.setNodeId(jobLockService.getNodeId());
+        return log;
+    }
+
     /**
      * Get recent logs for a specific job
      */
@@ -1,7 +1,12 @@
 package com.hrms.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.hrms.entity.User;
+import com.hrms.security.AuthenticatedPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -11,10 +16,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +41,17 @@ public class JwtService {
     @Value("${security.jwt.expiration:86400000}")
     private long expirationTime;
 
+    @Value("${security.jwt.principal-cache.max-size:10000}")
+    private long principalCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Verified principals keyed by SHA-256 of the raw token; each entry lives until the token's own expiry
+     */
+    private Cache<String, AuthenticatedPrincipal> principalCache;
+
     @PostConstruct
     public void validateSecretKey() {
         if (secretKey == null || secretKey.trim().isEmpty()) {
@@ -47,10 +70,19 @@ public class JwtService {
         }
 
         logger.info("JWT secret key validated successfully (length: {} chars)", secretKey.length());
+
+        // The key and parser are immutable and thread-safe, so build them once
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
     }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return signingKey;
     }
 
     public String generateToken(User user) {
@@ -76,38 +108,97 @@ public class JwtService {
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verify the token and return its principal.
+     * The signature and JSON payload are checked only the first time a token is seen; later calls
+     * are served from a bounded cache until the token expires. Invalid tokens are never cached and
+     * surface the same JwtException subtypes as extractClaims.
+     */
+    public AuthenticatedPrincipal parsePrincipal(String token) {
+        String key = hashToken(token);
+        AuthenticatedPrincipal principal = principalCache.get(key, k -> toPrincipal(extractClaims(token)));
+        if (principal.isExpired(Instant.now())) {
+            principalCache.invalidate(key);
+            // Re-parse so the caller gets the regular ExpiredJwtException
+            return toPrincipal(extractClaims(token));
+        }
+        return principal;
     }
 
     public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
+        return parsePrincipal(token).getEmail();
     }
 
     public List<String> extractRoles(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("roles", List.class);
+        return parsePrincipal(token).getRoles();
     }
 
     public String extractOrganizationId(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("organizationId", String.class);
+        UUID organizationId = parsePrincipal(token).getOrganizationId();
+        return organizationId != null ? organizationId.toString() : null;
     }
 
     public String extractUserId(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("id", String.class);
+        UUID userId = parsePrincipal(token).getUserId();
+        return userId != null ? userId.toString() : null;
     }
 
     public boolean isTokenValid(String token) {
         try {
-            extractClaims(token);
+            parsePrincipal(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private AuthenticatedPrincipal toPrincipal(Claims claims) {
+        String userId = claims.get("id", String.class);
+        String organizationId = claims.get("organizationId", String.class);
+        Date expiration = claims.getExpiration();
+        return new AuthenticatedPrincipal(
+                userId != null ? UUID.fromString(userId) : null,
+                organizationId != null ? UUID.fromString(organizationId) : null,
+                claims.getSubject(),
+                claims.get("roles", List.class),
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expires each cached principal at the exp claim of its token
+     */
+    private class TokenExpiry implements Expiry<String, AuthenticatedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedPrincipal value, long currentTime) {
+            Instant expiresAt = value.getExpiresAt();
+            if (expiresAt == null) {
+                return Duration.ofMillis(expirationTime).toNanos();
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
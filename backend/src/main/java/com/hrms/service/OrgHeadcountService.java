@@ -0,0 +1,172 @@
+package com.hrms.service;
+
+import com.hrms.entity.Department;
+import com.hrms.repository.DepartmentRepository;
+import com.hrms.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the per-organization headcount snapshots behind the dashboard.
+ *
+ * A snapshot is built with one slim query the first time an organization's dashboard is read,
+ * then kept current by {@link EmployeeChangedEvent}s and {@link DepartmentChangedEvent}s after each
+ * commit. Snapshots live on each instance and events are only delivered on the instance that made
+ * the change, so a periodic job compares every loaded snapshot (counts, hires by month and
+ * department names) with the database and rebuilds it on drift: changes made on another instance
+ * show up within dashboard.headcount.reconcile-interval-ms (one minute by default).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrgHeadcountService {
+
+    private static final String JOB_NAME = "HeadcountSnapshotReconcile";
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final JobLogService jobLogService;
+
+    private final Map<UUID, OrgHeadcountSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Get the snapshot of an organization, building it on first use
+     */
+    public OrgHeadcountSnapshot getSnapshot(UUID organizationId) {
+        OrgHeadcountSnapshot snapshot = snapshots.computeIfAbsent(organizationId, this::build);
+        resolveDepartmentNames(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Apply a committed employee change to the organization's snapshot, if one is loaded
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        OrgHeadcountSnapshot snapshot = snapshots.get(event.getOrganizationId());
+        if (snapshot != null) {
+            snapshot.apply(event.getEmployeeId(), event.getFacts());
+        }
+    }
+
+    /**
+     * Apply a committed department rename to the organization's snapshot, if one is loaded
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        OrgHeadcountSnapshot snapshot = snapshots.get(event.getOrganizationId());
+        if (snapshot != null) {
+            snapshot.renameDepartment(event.getDepartmentId(), event.getName());
+        }
+    }
+
+    /**
+     * Drop the snapshot of an organization, e.g. once the organization's data was deleted
+     */
+    public void evict(UUID organizationId) {
+        snapshots.remove(organizationId);
+    }
+
+    /**
+     * Compare every loaded snapshot with the database and rebuild the ones that drifted
+     * (default every minute)
+     */
+    @Scheduled(fixedDelayString = "${dashboard.headcount.reconcile-interval-ms:60000}",
+               initialDelayString = "${dashboard.headcount.reconcile-interval-ms:60000}")
+    public void reconcileSnapshots() {
+        long startTime = System.currentTimeMillis();
+        try {
+            int rebuilt = 0;
+            for (UUID organizationId : new ArrayList<>(snapshots.keySet())) {
+                if (!isConsistent(snapshots.get(organizationId))) {
+                    log.warn("Headcount snapshot of organization {} drifted from the database, rebuilding", organizationId);
+                    snapshots.put(organizationId, build(organizationId));
+                    rebuilt++;
+                }
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("Reconciled {} headcount snapshots ({} rebuilt) in {}ms", snapshots.size(), rebuilt, duration);
+            jobLogService.logSuccess(JOB_NAME, duration);
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            log.error("Error in headcount snapshot reconcile job", e);
+            jobLogService.logFailure(JOB_NAME, duration, e.getMessage());
+        }
+    }
+
+    /**
+     * Does the snapshot match the GROUP BY counts of the employees table and the current
+     * department names?
+     */
+    public boolean isConsistent(OrgHeadcountSnapshot snapshot) {
+        if (snapshot == null) {
+            return true;
+        }
+        UUID organizationId = snapshot.getOrganizationId();
+
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Object[] row : employeeRepository.countByStatusGrouped(organizationId)) {
+            statusCounts.merge(OrgHeadcountSnapshot.normalizeStatus((String) row[0]), (Long) row[1], Long::sum);
+        }
+        Map<String, Long> typeCounts = new HashMap<>();
+        for (Object[] row : employeeRepository.countByEmploymentTypeGrouped(organizationId)) {
+            String type = row[0] != null ? (String) row[0] : OrgHeadcountSnapshot.TYPE_NOT_SET;
+            typeCounts.merge(type, (Long) row[1], Long::sum);
+        }
+        Map<UUID, Long> departmentCounts = new HashMap<>();
+        for (Object[] row : employeeRepository.countByDepartmentGrouped(organizationId)) {
+            departmentCounts.put((UUID) row[0], (Long) row[1]);
+        }
+
+        Map<YearMonth, Long> hiresByMonth = new HashMap<>();
+        for (Object[] row : employeeRepository.countHiresByMonthGrouped(organizationId)) {
+            hiresByMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), (Long) row[2]);
+        }
+        Map<UUID, String> departmentNames = snapshot.getDepartmentNames();
+        for (Department department : departmentRepository.findAllById(departmentNames.keySet())) {
+            if (!Objects.equals(department.getName(), departmentNames.get(department.getId()))) {
+                return false;
+            }
+        }
+
+        return statusCounts.equals(snapshot.getStatusCounts())
+                && typeCounts.equals(snapshot.getTypeCounts())
+                && departmentCounts.equals(snapshot.getDepartmentCounts())
+                && hiresByMonth.equals(snapshot.getHiresByMonth());
+    }
+
+    private OrgHeadcountSnapshot build(UUID organizationId) {
+        OrgHeadcountSnapshot snapshot = new OrgHeadcountSnapshot(organizationId);
+        for (Object[] row : employeeRepository.findHeadcountRowsByOrganizationId(organizationId)) {
+            UUID departmentId = (UUID) row[3];
+            snapshot.apply((UUID) row[0], new OrgHeadcountSnapshot.EmployeeFacts(
+                    (String) row[1], (String) row[2], departmentId, (LocalDate) row[5]));
+            if (departmentId != null) {
+                snapshot.putDepartmentName(departmentId, (String) row[4]);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Departments first seen through events have no name yet; load them in one query
+     */
+    private void resolveDepartmentNames(OrgHeadcountSnapshot snapshot) {
+        Set<UUID> missing = new HashSet<>(snapshot.getDepartmentCounts().keySet());
+        missing.removeAll(snapshot.getDepartmentNames().keySet());
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Department department : departmentRepository.findAllById(missing)) {
+            snapshot.putDepartmentName(department.getId(), department.getName());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.hrms.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * In-memory headcount aggregates of one organization (non-deleted employees only).
+ *
+ * Keeps the dashboard-relevant facts of every employee so that a change event can move an
+ * employee from one bucket to another without re-reading the organization. All mutators and
+ * readers are synchronized; readers return copies.
+ */
+public final class OrgHeadcountSnapshot {
+
+    public static final String TYPE_NOT_SET = "Not Set";
+
+    private final UUID organizationId;
+    private final Map<UUID, EmployeeFacts> employees = new HashMap<>();
+    private final Map<String, Long> statusCounts = new HashMap<>();
+    private final Map<String, Long> typeCounts = new HashMap<>();
+    private final Map<UUID, Long> departmentCounts = new HashMap<>();
+    private final Map<YearMonth, Long> hiresByMonth = new HashMap<>();
+    private final Map<UUID, String> departmentNames = new HashMap<>();
+
+    public OrgHeadcountSnapshot(UUID organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    public UUID getOrganizationId() {
+        return organizationId;
+    }
+
+    /**
+     * Record the current facts of an employee; null facts remove the employee (deleted or deactivated)
+     */
+    public synchronized void apply(UUID employeeId, EmployeeFacts facts) {
+        EmployeeFacts previous = facts != null ? employees.put(employeeId, facts) : employees.remove(employeeId);
+        if (Objects.equals(previous, facts)) {
+            return;
+        }
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (facts != null) {
+            count(facts, 1);
+        }
+    }
+
+    public synchronized void putDepartmentName(UUID departmentId, String name) {
+        departmentNames.put(departmentId, name);
+    }
+
+    /**
+     * Follow a rename of a department the snapshot already knows
+     */
+    public synchronized void renameDepartment(UUID departmentId, String name) {
+        departmentNames.computeIfPresent(departmentId, (id, previous) -> name);
+    }
+
+    public synchronized long getTotal() {
+        return employees.size();
+    }
+
+    public synchronized long getStatusCount(String status) {
+        return statusCounts.getOrDefault(normalizeStatus(status), 0L);
+    }
+
+    public synchronized Map<String, Long> getStatusCounts() {
+        return new HashMap<>(statusCounts);
+    }
+
+    public synchronized Map<String, Long> getTypeCounts() {
+        return new HashMap<>(typeCounts);
+    }
+
+    public synchronized Map<UUID, Long> getDepartmentCounts() {
+        return new HashMap<>(departmentCounts);
+    }
+
+    public synchronized Map<UUID, String> getDepartmentNames() {
+        return new HashMap<>(departmentNames);
+    }
+
+    /**
+     * Employees hired in the given month or later
+     */
+    public synchronized long getHiresFrom(YearMonth from) {
+        long hires = 0;
+        for (Map.Entry<YearMonth, Long> entry : hiresByMonth.entrySet()) {
+            if (!entry.getKey().isBefore(from)) {
+                hires += entry.getValue();
+            }
+        }
+        return hires;
+    }
+
+    public synchronized Map<YearMonth, Long> getHiresByMonth() {
+        return new HashMap<>(hiresByMonth);
+    }
+
+    private void count(EmployeeFacts facts, long delta) {
+        add(statusCounts, normalizeStatus(facts.status), delta);
+        add(typeCounts, facts.type != null ? facts.type : TYPE_NOT_SET, delta);
+        if (facts.departmentId != null) {
+            add(departmentCounts, facts.departmentId, delta);
+        }
+        if (facts.hireDate != null) {
+            add(hiresByMonth, YearMonth.from(facts.hireDate), delta);
+        }
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    static String normalizeStatus(String status) {
+        return status != null ? status.toLowerCase() : "";
+    }
+
+    /**
+     * Dashboard-relevant facts of one employee
+     */
+    public static final class EmployeeFacts {
+
+        private final String status;
+        private final String type;
+        private final UUID departmentId;
+        private final LocalDate hireDate;
+
+        public EmployeeFacts(String status, String type, UUID departmentId, LocalDate hireDate) {
+            this.status = status;
+            this.type = type;
+            this.departmentId = departmentId;
+            this.hireDate = hireDate;
+        }
+
+        public UUID getDepartmentId() {
+            return departmentId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EmployeeFacts other)) return false;
+            return Objects.equals(status, other.status)
+                    && Objects.equals(type, other.type)
+                    && Objects.equals(departmentId, other.departmentId)
+                    && Objects.equals(hireDate, other.hireDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, type, departmentId, hireDate);
+        }
+    }
+}
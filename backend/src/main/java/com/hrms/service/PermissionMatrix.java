@@ -0,0 +1,169 @@
+package com.hrms.service;
+
+import com.hrms.entity.Permission;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiled, immutable permission set for one user.
+ *
+ * Resources, actions and scopes are interned to small integer ids shared by all matrices.
+ * For every (resource, action) pair the matrix stores a bitmask of granted scopes, so a
+ * permission check is two map lookups and one bit test instead of a scan over Permission entities.
+ */
+public final class PermissionMatrix {
+
+    public static final String SCOPE_OWN = "own";
+    public static final String SCOPE_TEAM = "team";
+    public static final String SCOPE_DEPARTMENT = "department";
+    public static final String SCOPE_ORGANIZATION = "organization";
+
+    private static final Interner RESOURCES = new Interner(Integer.MAX_VALUE);
+    private static final Interner ACTIONS = new Interner(Integer.MAX_VALUE);
+    private static final Interner SCOPES = new Interner(Long.SIZE);
+
+    /**
+     * Scopes from widest to narrowest, used by getHighestScope
+     */
+    private static final String[] SCOPE_PRECEDENCE = {
+        SCOPE_ORGANIZATION, SCOPE_DEPARTMENT, SCOPE_TEAM, SCOPE_OWN
+    };
+    private static final long[] SCOPE_PRECEDENCE_BITS = new long[SCOPE_PRECEDENCE.length];
+
+    static {
+        // Reserve the well-known scopes first so their bits are stable
+        for (int i = 0; i < SCOPE_PRECEDENCE.length; i++) {
+            SCOPE_PRECEDENCE_BITS[i] = 1L << SCOPES.intern(SCOPE_PRECEDENCE[i]);
+        }
+    }
+
+    private static final long[][] NO_MASKS = new long[0][];
+
+    private final long[][] scopeMasks;
+    private final long rolesVersion;
+    private final long roleSignature;
+
+    private PermissionMatrix(long[][] scopeMasks, long rolesVersion, long roleSignature) {
+        this.scopeMasks = scopeMasks;
+        this.rolesVersion = rolesVersion;
+        this.roleSignature = roleSignature;
+    }
+
+    /**
+     * Compile a set of permissions into a matrix
+     * @param rolesVersion Global roles version at compile time
+     * @param roleSignature Signature of the user's role ids at compile time
+     */
+    public static PermissionMatrix compile(Collection<Permission> permissions, long rolesVersion, long roleSignature) {
+        if (permissions.isEmpty()) {
+            return new PermissionMatrix(NO_MASKS, rolesVersion, roleSignature);
+        }
+
+        int[] resourceIds = new int[permissions.size()];
+        int[] actionIds = new int[permissions.size()];
+        int[] scopeIds = new int[permissions.size()];
+        int maxResource = -1;
+        int maxAction = -1;
+
+        int i = 0;
+        for (Permission permission : permissions) {
+            resourceIds[i] = RESOURCES.intern(permission.getResource());
+            actionIds[i] = ACTIONS.intern(permission.getAction());
+            scopeIds[i] = SCOPES.intern(permission.getScope());
+            maxResource = Math.max(maxResource, resourceIds[i]);
+            maxAction = Math.max(maxAction, actionIds[i]);
+            i++;
+        }
+
+        long[][] masks = new long[maxResource + 1][];
+        for (int p = 0; p < resourceIds.length; p++) {
+            long[] actions = masks[resourceIds[p]];
+            if (actions == null) {
+                actions = new long[maxAction + 1];
+                masks[resourceIds[p]] = actions;
+            }
+            actions[actionIds[p]] |= 1L << scopeIds[p];
+        }
+
+        return new PermissionMatrix(masks, rolesVersion, roleSignature);
+    }
+
+    public boolean has(String resource, String action, String scope) {
+        int scopeId = SCOPES.lookup(scope);
+        return scopeId >= 0 && (scopeMask(resource, action) & (1L << scopeId)) != 0;
+    }
+
+    /**
+     * Get the widest granted scope for a resource:action combination
+     * Returns: "organization" > "department" > "team" > "own" > null
+     */
+    public String getHighestScope(String resource, String action) {
+        long mask = scopeMask(resource, action);
+        if (mask == 0) {
+            return null;
+        }
+        for (int i = 0; i < SCOPE_PRECEDENCE.length; i++) {
+            if ((mask & SCOPE_PRECEDENCE_BITS[i]) != 0) {
+                return SCOPE_PRECEDENCE[i];
+            }
+        }
+        return null;
+    }
+
+    public long getRolesVersion() {
+        return rolesVersion;
+    }
+
+    public long getRoleSignature() {
+        return roleSignature;
+    }
+
+    private long scopeMask(String resource, String action) {
+        int resourceId = RESOURCES.lookup(resource);
+        if (resourceId < 0 || resourceId >= scopeMasks.length || scopeMasks[resourceId] == null) {
+            return 0;
+        }
+        long[] actions = scopeMasks[resourceId];
+        int actionId = ACTIONS.lookup(action);
+        if (actionId < 0 || actionId >= actions.length) {
+            return 0;
+        }
+        return actions[actionId];
+    }
+
+    /**
+     * Append-only string to id table. Lookups never allocate ids, so probing unknown
+     * names cannot grow the table.
+     */
+    private static final class Interner {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+        private final int capacity;
+
+        Interner(int capacity) {
+            this.capacity = capacity;
+        }
+
+        int intern(String name) {
+            return ids.computeIfAbsent(name, key -> {
+                int id = nextId.getAndIncrement();
+                if (id >= capacity) {
+                    throw new IllegalStateException("Too many distinct permission names, cannot intern: " + key);
+                }
+                return id;
+            });
+        }
+
+        int lookup(String name) {
+            if (name == null) {
+                return -1;
+            }
+            Integer id = ids.get(name);
+            return id != null ? id : -1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hrms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrms.entity.Permission;
+import com.hrms.entity.Role;
+import com.hrms.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of compiled permission matrices.
+ *
+ * An entry is reused only while both the global roles version and the user's role ids are
+ * unchanged, so role reassignment is picked up without explicit eviction. Edits to a role's
+ * permissions must call invalidateAll(); per-user permission edits call invalidateUser().
+ *
+ * The version and the invalidations are local to this instance. Entries expire a fixed time after
+ * they were compiled (permissions.matrix-cache.ttl-seconds), which bounds how long another
+ * instance keeps serving permissions that were changed elsewhere.
+ */
+@Component
+public class PermissionMatrixCache {
+
+    private final Cache<UUID, PermissionMatrix> matrices;
+
+    private final AtomicLong rolesVersion = new AtomicLong();
+
+    public PermissionMatrixCache(@Value("${permissions.matrix-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the compiled matrix for a user, compiling it on first use or after invalidation
+     */
+    public PermissionMatrix get(User user, Supplier<Collection<Permission>> permissions) {
+        long version = rolesVersion.get();
+        long signature = roleSignature(user);
+
+        if (user.getId() == null) {
+            return PermissionMatrix.compile(permissions.get(), version, signature);
+        }
+
+        PermissionMatrix cached = matrices.getIfPresent(user.getId());
+        if (cached != null && cached.getRolesVersion() == version && cached.getRoleSignature() == signature) {
+            return cached;
+        }
+
+        PermissionMatrix compiled = PermissionMatrix.compile(permissions.get(), version, signature);
+        // Do not overwrite an entry compiled against a newer version by a concurrent request
+        matrices.asMap().merge(user.getId(), compiled,
+                (existing, fresh) -> existing.getRolesVersion() > fresh.getRolesVersion() ? existing : fresh);
+        return compiled;
+    }
+
+    /**
+     * Drop every compiled matrix, e.g. after a role's permissions changed.
+     * Runs again after commit so requests that compiled from pre-commit data are not kept.
+     */
+    public void invalidateAll() {
+        rolesVersion.incrementAndGet();
+        matrices.invalidateAll();
+        afterCommit(() -> {
+            rolesVersion.incrementAndGet();
+            matrices.invalidateAll();
+        });
+    }
+
+    /**
+     * Drop the compiled matrix of a single user
+     */
+    public void invalidateUser(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        matrices.invalidate(userId);
+        afterCommit(() -> matrices.invalidate(userId));
+    }
+
+    private static long roleSignature(User user) {
+        long signature = 0;
+        for (Role role : user.getRoles()) {
+            // Order-independent combination of role ids
+            signature += mix(role.getId() != null ? role.getId() : 0);
+        }
+        return signature;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
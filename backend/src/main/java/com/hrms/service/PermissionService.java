@@ -4,8 +4,11 @@ import com.hrms.entity.*;
 import com.hrms.repository.EmployeeRepository;
 import com.hrms.repository.PermissionRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -19,13 +22,24 @@ import java.util.stream.Collectors;
 @Service
 public class PermissionService {
 
+    /**
+     * Request attribute holding access decisions already made during the current request
+     */
+    private static final String ACCESS_MEMO_ATTRIBUTE = PermissionService.class.getName() + ".accessMemo";
+
     private final EmployeeRepository employeeRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionMatrixCache permissionMatrixCache;
+    private final EmployeeHierarchyService employeeHierarchyService;
 
     public PermissionService(EmployeeRepository employeeRepository,
-                           PermissionRepository permissionRepository) {
+                           PermissionRepository permissionRepository,
+                           PermissionMatrixCache permissionMatrixCache,
+                           EmployeeHierarchyService employeeHierarchyService) {
         this.employeeRepository = employeeRepository;
         this.permissionRepository = permissionRepository;
+        this.permissionMatrixCache = permissionMatrixCache;
+        this.employeeHierarchyService = employeeHierarchyService;
     }
 
     /**
@@ -65,12 +79,7 @@ public class PermissionService {
             return false;
         }
 
-        Set<Permission> userPermissions = getAllPermissions(user);
-
-        return userPermissions.stream()
-            .anyMatch(p -> p.getResource().equals(resource) &&
-                          p.getAction().equals(action) &&
-                          p.getScope().equals(scope));
+        return getPermissionMatrix(user).has(resource, action, scope);
     }
 
     /**
@@ -86,11 +95,17 @@ public class PermissionService {
      * Returns: "organization" > "department" > "team" > "own" > null
      */
     public String getHighestScope(User user, String resource, String action) {
-        if (hasPermission(user, resource, action, "organization")) return "organization";
-        if (hasPermission(user, resource, action, "department")) return "department";
-        if (hasPermission(user, resource, action, "team")) return "team";
-        if (hasPermission(user, resource, action, "own")) return "own";
-        return null;
+        if (user == null) {
+            return null;
+        }
+        return getPermissionMatrix(user).getHighestScope(resource, action);
+    }
+
+    /**
+     * Get the compiled permission matrix for a user (cached per user and role set)
+     */
+    public PermissionMatrix getPermissionMatrix(User user) {
+        return permissionMatrixCache.get(user, () -> getAllPermissions(user));
     }
 
     /**
@@ -151,26 +166,27 @@ public class PermissionService {
         Organization org = user.getOrganization();
 
         // Check scope from highest to lowest
-        if (hasPermission(user, resource, action, "organization")) {
+        PermissionMatrix matrix = getPermissionMatrix(user);
+        if (matrix.has(resource, action, "organization")) {
             // Can access ALL employees in organization
             return employeeRepository.findByOrganization(org);
         }
 
-        if (hasPermission(user, resource, action, "department")) {
+        if (matrix.has(resource, action, "department")) {
             // Can access employees in same department
             if (currentEmployee.getDepartment() != null) {
                 return employeeRepository.findByDepartment(currentEmployee.getDepartment());
             }
         }
 
-        if (hasPermission(user, resource, action, "team")) {
+        if (matrix.has(resource, action, "team")) {
             // Can access direct reports (team members)
             List<Employee> team = getTeamMembers(currentEmployee);
             team.add(currentEmployee); // Include self
             return team;
         }
 
-        if (hasPermission(user, resource, action, "own")) {
+        if (matrix.has(resource, action, "own")) {
             // Can only access own record
             return Collections.singletonList(currentEmployee);
         }
@@ -180,45 +196,116 @@ public class PermissionService {
 
     /**
      * Get all team members (direct and indirect reports) for a manager
+     * Single indexed lookup on the hierarchy closure table
      */
     public List<Employee> getTeamMembers(Employee manager) {
-        List<Employee> allEmployees = employeeRepository.findByOrganization(manager.getOrganization());
-        return collectReportsInMemory(manager.getId(), allEmployees);
+        return new ArrayList<>(employeeRepository.findSubordinates(manager.getId()));
     }
 
     /**
-     * Recursively collect all direct and indirect reports
+     * Check if user can access a specific employee record
      */
-    private List<Employee> collectReportsInMemory(UUID managerId, List<Employee> allEmployees) {
-        List<Employee> team = new ArrayList<>();
-
-        for (Employee emp : allEmployees) {
-            if (emp.getReportsTo() != null && emp.getReportsTo().getId().equals(managerId)) {
-                team.add(emp);
-                // Recursively collect their reports
-                team.addAll(collectReportsInMemory(emp.getId(), allEmployees));
-            }
+    public boolean canAccessEmployee(User user, Employee targetEmployee, String resource, String action) {
+        if (user == null || targetEmployee == null) {
+            return false;
+        }
+
+        // Must be same organization
+        if (!user.getOrganization().getId().equals(targetEmployee.getOrganization().getId())) {
+            return false;
         }
 
-        return team;
+        return canAccessEmployee(user, targetEmployee.getId(), resource, action);
     }
 
     /**
-     * Check if user can access a specific employee record
+     * Check if user can access a specific employee record by id
+     *
+     * Same decision as getAccessibleEmployees, but answered without loading employee lists:
+     * organization scope compares org ids, department scope compares department ids and
+     * team scope is one ancestor lookup in the hierarchy closure. Decisions are memoized
+     * for the rest of the current request.
      */
-    public boolean canAccessEmployee(User user, Employee targetEmployee, String resource, String action) {
-        if (user == null || targetEmployee == null) {
+    public boolean canAccessEmployee(User user, UUID targetEmployeeId, String resource, String action) {
+        if (user == null || user.getOrganization() == null || targetEmployeeId == null) {
             return false;
         }
 
-        // Must be same organization
-        if (!user.getOrganization().getId().equals(targetEmployee.getOrganization().getId())) {
+        Map<Object, Object> memo = requestMemo();
+        String key = user.getId() + "|" + targetEmployeeId + "|" + resource + "|" + action;
+        if (memo != null && memo.get(key) instanceof Boolean decision) {
+            return decision;
+        }
+
+        boolean decision = decideEmployeeAccess(user, targetEmployeeId, resource, action, memo);
+        if (memo != null) {
+            memo.put(key, decision);
+        }
+        return decision;
+    }
+
+    private boolean decideEmployeeAccess(User user, UUID targetEmployeeId, String resource, String action,
+                                         Map<Object, Object> memo) {
+        Optional<EmployeeRepository.AccessView> current = memoized(memo, "user:" + user.getId(),
+            () -> employeeRepository.findAccessViewByUserId(user.getId()));
+        if (current.isEmpty()) {
             return false;
         }
 
-        List<Employee> accessibleEmployees = getAccessibleEmployees(user, resource, action);
-        return accessibleEmployees.stream()
-            .anyMatch(emp -> emp.getId().equals(targetEmployee.getId()));
+        Optional<EmployeeRepository.AccessView> target = memoized(memo, "employee:" + targetEmployeeId,
+            () -> employeeRepository.findAccessViewById(targetEmployeeId));
+        if (target.isEmpty() || !user.getOrganization().getId().equals(target.get().getOrganizationId())) {
+            return false;
+        }
+
+        UUID currentId = current.get().getId();
+        UUID currentDepartmentId = current.get().getDepartmentId();
+
+        // Check scope from highest to lowest, mirroring getAccessibleEmployees
+        PermissionMatrix matrix = getPermissionMatrix(user);
+        if (matrix.has(resource, action, "organization")) {
+            return true;
+        }
+
+        if (matrix.has(resource, action, "department") && currentDepartmentId != null) {
+            return currentDepartmentId.equals(target.get().getDepartmentId());
+        }
+
+        if (matrix.has(resource, action, "team")) {
+            return currentId.equals(targetEmployeeId)
+                || employeeHierarchyService.isInReportingLine(currentId, targetEmployeeId);
+        }
+
+        if (matrix.has(resource, action, "own")) {
+            return currentId.equals(targetEmployeeId);
+        }
+
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T memoized(Map<Object, Object> memo, String key, Supplier<T> loader) {
+        if (memo == null) {
+            return loader.get();
+        }
+        return (T) memo.computeIfAbsent(key, k -> loader.get());
+    }
+
+    /**
+     * Per-request memo, or null outside of a web request
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object memo = attributes.getAttribute(ACCESS_MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(ACCESS_MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Object, Object>) memo;
     }
 
     /**
@@ -333,8 +420,8 @@ public class PermissionService {
 
         // Also check if employee has the permission through their user's roles
         if (employee.getUser() != null) {
-            Set<String> userPermissions = getAllPermissionCodes(employee.getUser());
-            if (userPermissions.contains(newCode)) {
+            String[] parts = newCode.split(":");
+            if (parts.length == 3 && hasPermission(employee.getUser(), parts[0], parts[1], parts[2])) {
                 return true;
             }
         }
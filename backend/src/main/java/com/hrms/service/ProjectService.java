@@ -31,11 +31,8 @@ public class ProjectService {
     private EmployeeRepository employeeRepository;
 
     @Transactional(readOnly = true)
-    public List<ProjectListResponse> getAllProjects(String email, UUID clientId, Boolean activeOnly) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (user.getOrganization() == null) {
+    public List<ProjectListResponse> getAllProjects(UUID organizationId, UUID clientId, Boolean activeOnly) {
+        if (organizationId == null) {
             throw new RuntimeException("User does not belong to an organization");
         }
 
@@ -46,10 +43,10 @@ public class ProjectService {
             projects = projectRepository.findByClientId(clientId);
             // Additional check to ensure client belongs to user's organization
             projects = projects.stream()
-                    .filter(p -> p.getOrganization().getId().equals(user.getOrganization().getId()))
+                    .filter(p -> p.getOrganization().getId().equals(organizationId))
                     .collect(Collectors.toList());
         } else {
-            projects = projectRepository.findByOrganizationId(user.getOrganization().getId());
+            projects = projectRepository.findByOrganizationId(organizationId);
         }
 
         // Filter by active status if specified
@@ -69,14 +66,11 @@ public class ProjectService {
     }
 
     @Transactional(readOnly = true)
-    public ProjectDetailResponse getProjectById(UUID projectId, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ProjectDetailResponse getProjectById(UUID projectId, UUID organizationId) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
-        if (!project.getOrganization().getId().equals(user.getOrganization().getId())) {
+        if (!project.getOrganization().getId().equals(organizationId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -111,7 +105,7 @@ public class ProjectService {
 
         // Generate project code if not provided
         if (request.getProjectCode() == null || request.getProjectCode().isEmpty()) {
-            project.setProjectCode(generateNextProjectCode(request.getClientId(), email));
+            project.setProjectCode(generateNextProjectCode(request.getClientId(), user.getOrganization().getId()));
         } else {
             // Check uniqueness
             if (projectRepository.existsByProjectCodeAndDeletedAtIsNull(request.getProjectCode())) {
@@ -217,15 +211,12 @@ public class ProjectService {
         projectRepository.save(project);
     }
 
-    public String generateNextProjectCode(UUID clientId, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public String generateNextProjectCode(UUID clientId, UUID organizationId) {
         List<Project> projects;
         if (clientId != null) {
             projects = projectRepository.findByClientId(clientId);
         } else {
-            projects = projectRepository.findByOrganizationId(user.getOrganization().getId());
+            projects = projectRepository.findByOrganizationId(organizationId);
         }
 
         int maxNumber = projects.stream()
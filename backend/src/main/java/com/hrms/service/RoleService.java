@@ -18,10 +18,13 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionMatrixCache permissionMatrixCache;
 
-    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository,
+                       PermissionMatrixCache permissionMatrixCache) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.permissionMatrixCache = permissionMatrixCache;
     }
 
     /**
@@ -110,6 +113,8 @@ public class RoleService {
                     .orElseThrow(() -> new RuntimeException("Permission not found: " + id)))
                 .collect(Collectors.toSet());
             role.setPermissions(permissions);
+            // Every user holding this role has a stale compiled matrix now
+            permissionMatrixCache.invalidateAll();
         }
 
         return roleRepository.save(role);
@@ -133,5 +138,6 @@ public class RoleService {
         }
 
         roleRepository.delete(role);
+        permissionMatrixCache.invalidateAll();
     }
 }
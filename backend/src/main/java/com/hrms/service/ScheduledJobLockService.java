@@ -0,0 +1,158 @@
+package com.hrms.service;
+
+import com.hrms.repository.ScheduledJobLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Lets exactly one node of a cluster run each scheduled job.
+ *
+ * A node runs a job only after taking its row in scheduled_job_lock with a conditional update
+ * (the lease must have expired). While the job runs, a heartbeat extends the lease; if the node
+ * dies the lease runs out and the next trigger on another node takes over. On completion the
+ * lease is kept for at least scheduled-jobs.lock.min-hold-seconds so that the same cron trigger
+ * firing slightly later on other nodes does not run the job a second time.
+ *
+ * Heartbeats run on a scheduler of their own: on the shared job scheduler they would queue
+ * behind the very jobs they keep alive whenever every scheduler thread is busy.
+ */
+@Service
+@Slf4j
+public class ScheduledJobLockService {
+
+    private final ScheduledJobLockRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler heartbeatScheduler;
+    private final String nodeId;
+    private final Duration lease;
+    private final Duration minHold;
+
+    public ScheduledJobLockService(ScheduledJobLockRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${scheduled-jobs.lock.node-id:}") String nodeId,
+                                   @Value("${scheduled-jobs.lock.lease-seconds:600}") long leaseSeconds,
+                                   @Value("${scheduled-jobs.lock.min-hold-seconds:30}") long minHoldSeconds) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+        this.heartbeatScheduler.setPoolSize(1);
+        this.heartbeatScheduler.setThreadNamePrefix("job-lock-heartbeat-");
+        this.heartbeatScheduler.setDaemon(true);
+        this.heartbeatScheduler.initialize();
+        this.nodeId = nodeId != null && !nodeId.isBlank() ? nodeId : defaultNodeId();
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.minHold = Duration.ofSeconds(minHoldSeconds);
+    }
+
+    /**
+     * Identifier of this node, as stored in the lock owner and in job logs
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Run a job if this node can take its lock; on other nodes the run is skipped
+     * @return true if the job ran on this node
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!tryAcquire(jobName, startedAt)) {
+            log.debug("Skipping job {}: lock held by another node", jobName);
+            return false;
+        }
+
+        Duration interval = lease.dividedBy(3);
+        ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(
+                () -> extend(jobName), Instant.now().plus(interval), interval);
+        try {
+            job.run();
+            return true;
+        } finally {
+            heartbeat.cancel(false);
+            release(jobName, startedAt);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdown();
+    }
+
+    /**
+     * Take the lock of a job for one lease, creating its row on first use
+     */
+    public boolean tryAcquire(String jobName, LocalDateTime now) {
+        LocalDateTime leaseUntil = now.plus(lease);
+        if (acquire(jobName, now, leaseUntil)) {
+            return true;
+        }
+        if (repository.existsById(jobName)) {
+            return false;
+        }
+        try {
+            transactionTemplate.execute(status -> repository.insertLock(jobName, now.minusSeconds(1)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock row of job {} was created by another node", jobName);
+        }
+        return acquire(jobName, now, leaseUntil);
+    }
+
+    /**
+     * Give up the lock of a job, keeping it at least minHold after the run started
+     */
+    public void release(String jobName, LocalDateTime startedAt) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime holdUntil = startedAt.plus(minHold);
+        LocalDateTime leaseUntil = holdUntil.isAfter(now) ? holdUntil : now;
+        try {
+            transactionTemplate.execute(status -> repository.release(jobName, nodeId, leaseUntil));
+        } catch (Exception e) {
+            // The lease simply expires
+            log.error("Failed to release lock of job {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    private boolean acquire(String jobName, LocalDateTime now, LocalDateTime leaseUntil) {
+        Integer acquired = transactionTemplate.execute(status -> repository.acquire(jobName, nodeId, now, leaseUntil));
+        return acquired != null && acquired > 0;
+    }
+
+    private void extend(String jobName) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer extended = transactionTemplate.execute(status ->
+                    repository.heartbeat(jobName, nodeId, now, now.plus(lease)));
+            if (extended == null || extended == 0) {
+                log.warn("Lock of job {} is no longer held by {}", jobName, nodeId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to extend lock of job {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,232 @@
+package com.hrms.service;
+
+import com.hrms.entity.ScheduledJobPartition;
+import com.hrms.repository.ScheduledJobPartitionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Spreads heavy scheduled jobs over all nodes of a cluster.
+ *
+ * Each run of a registered job (job name + run date) is split into scheduled-jobs.partitions.count
+ * slices by organization id hash, stored in scheduled_job_partitions. When the trigger fires, every
+ * node claims slices one at a time until none is left, so replicas process disjoint slices
+ * concurrently. Running slices are kept alive by heartbeats; a slice whose node stopped beating,
+ * a failed slice with attempts left, or a run nobody picked up is taken over by the rebalance sweep.
+ * Each node writes one ScheduledJobLog per run with the rows it processed. Slice heartbeats run
+ * on a dedicated scheduler, as lease heartbeats do in {@link ScheduledJobLockService}.
+ */
+@Service
+@Slf4j
+public class ScheduledJobPartitionService {
+
+    /**
+     * Processes one slice of a run of a partitioned job
+     */
+    @FunctionalInterface
+    public interface PartitionWorker {
+        /**
+         * @return number of rows processed
+         */
+        long process(LocalDate runDate, int partition, int partitionCount);
+    }
+
+    private final ScheduledJobPartitionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler heartbeatScheduler;
+    private final JobLogService jobLogService;
+    private final String nodeId;
+
+    private final Map<String, PartitionWorker> workers = new ConcurrentHashMap<>();
+
+    @Value("${scheduled-jobs.partitions.count:16}")
+    private int partitionCount;
+
+    @Value("${scheduled-jobs.partitions.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    @Value("${scheduled-jobs.partitions.max-attempts:3}")
+    private int maxAttempts;
+
+    public ScheduledJobPartitionService(ScheduledJobPartitionRepository repository,
+                                        PlatformTransactionManager transactionManager,
+                                        JobLogService jobLogService,
+                                        ScheduledJobLockService jobLockService) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+        this.heartbeatScheduler.setPoolSize(1);
+        this.heartbeatScheduler.setThreadNamePrefix("job-partition-heartbeat-");
+        this.heartbeatScheduler.setDaemon(true);
+        this.heartbeatScheduler.initialize();
+        this.jobLogService = jobLogService;
+        this.nodeId = jobLockService.getNodeId();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdown();
+    }
+
+    /**
+     * Slice of an organization in a run split into partitionCount slices
+     */
+    public static int partitionOf(UUID organizationId, int partitionCount) {
+        return Math.floorMod(organizationId.hashCode(), partitionCount);
+    }
+
+    public void register(String jobName, PartitionWorker worker) {
+        workers.put(jobName, worker);
+    }
+
+    /**
+     * Process slices of a run until none is left to claim (called by the job's trigger on every node)
+     * @return rows processed by this node
+     */
+    public long run(String jobName, LocalDate runDate) {
+        PartitionWorker worker = workers.get(jobName);
+        if (worker == null) {
+            throw new IllegalArgumentException("No partitioned job registered as " + jobName);
+        }
+        long startTime = System.currentTimeMillis();
+        ensurePartitions(jobName, runDate);
+
+        int claimed = 0;
+        int failed = 0;
+        long rowsProcessed = 0;
+        String lastError = null;
+        // Slices failing here are left to the rebalance sweep rather than retried in a tight loop
+        Set<UUID> failedHere = new HashSet<>();
+        ScheduledJobPartition partition;
+        while ((partition = claimNext(jobName, runDate, failedHere)) != null) {
+            claimed++;
+            UUID partitionId = partition.getId();
+            Duration interval = Duration.ofSeconds(staleAfterSeconds).dividedBy(3);
+            ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(
+                    () -> heartbeat(partitionId), Instant.now().plus(interval), interval);
+            try {
+                long rows = worker.process(runDate, partition.getPartitionNo(), partition.getPartitionCount());
+                transactionTemplate.execute(status ->
+                        repository.complete(partitionId, nodeId, rows, LocalDateTime.now()));
+                rowsProcessed += rows;
+            } catch (Exception e) {
+                failed++;
+                failedHere.add(partitionId);
+                lastError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                log.error("Partition {}/{} of job {} ({}) failed", partition.getPartitionNo(),
+                        partition.getPartitionCount(), jobName, runDate, e);
+                String error = lastError;
+                transactionTemplate.execute(status ->
+                        repository.fail(partitionId, nodeId, error, LocalDateTime.now()));
+            } finally {
+                heartbeat.cancel(false);
+            }
+        }
+
+        if (claimed > 0) {
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("Processed {} partitions of job {} ({}) in {}ms - {} rows", claimed, jobName, runDate,
+                    duration, rowsProcessed);
+            if (failed == 0) {
+                jobLogService.logSuccess(jobName, duration, rowsProcessed);
+            } else {
+                jobLogService.logFailure(jobName, duration,
+                        failed + " of " + claimed + " partitions failed: " + lastError, rowsProcessed);
+            }
+        }
+        return rowsProcessed;
+    }
+
+    /**
+     * Resume runs that have abandoned, failed or unclaimed slices (e.g. after a node died)
+     */
+    @Scheduled(fixedDelayString = "${scheduled-jobs.partitions.rebalance-interval-ms:60000}",
+               initialDelayString = "${scheduled-jobs.partitions.rebalance-interval-ms:60000}")
+    public void rebalance() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+            for (Object[] run : repository.findRunsNeedingRebalance(LocalDate.now().minusDays(1), staleBefore, maxAttempts)) {
+                String jobName = (String) run[0];
+                LocalDate runDate = (LocalDate) run[1];
+                if (workers.containsKey(jobName)) {
+                    log.info("Rebalancing unfinished partitions of job {} ({})", jobName, runDate);
+                    run(jobName, runDate);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error rebalancing scheduled job partitions", e);
+        }
+    }
+
+    /**
+     * Progress of a run, one row per slice
+     */
+    public List<ScheduledJobPartition> getPartitions(String jobName, LocalDate runDate) {
+        return repository.findByJobNameAndRunDateOrderByPartitionNo(jobName, runDate);
+    }
+
+    private void ensurePartitions(String jobName, LocalDate runDate) {
+        if (repository.countByJobNameAndRunDate(jobName, runDate) > 0) {
+            return;
+        }
+        List<ScheduledJobPartition> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ScheduledJobPartition(jobName, runDate, i, partitionCount));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAllAndFlush(partitions));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Partitions of job {} ({}) were created by another node", jobName, runDate);
+        }
+    }
+
+    private ScheduledJobPartition claimNext(String jobName, LocalDate runDate, Set<UUID> skip) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusSeconds(staleAfterSeconds);
+        for (UUID id : repository.findClaimableIds(jobName, runDate, staleBefore, maxAttempts)) {
+            if (skip.contains(id)) {
+                continue;
+            }
+            Integer claimed = transactionTemplate.execute(status ->
+                    repository.claim(id, nodeId, now, staleBefore, maxAttempts));
+            if (claimed != null && claimed > 0) {
+                return repository.findById(id).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    private void heartbeat(UUID partitionId) {
+        try {
+            Integer beat = transactionTemplate.execute(status ->
+                    repository.heartbeat(partitionId, nodeId, LocalDateTime.now()));
+            if (beat == null || beat == 0) {
+                log.warn("Partition {} is no longer owned by {}", partitionId, nodeId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to heartbeat partition {}: {}", partitionId, e.getMessage());
+        }
+    }
+}
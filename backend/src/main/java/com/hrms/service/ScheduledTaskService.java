@@ -8,27 +8,46 @@ import com.hrms.repository.timesheet.TimesheetEntryRepository;
 import com.hrms.repository.asset.AssetAssignmentRepository;
 import com.hrms.repository.performance.PerformanceReviewRepository;
 import com.hrms.service.notification.NotificationService;
+import com.hrms.service.notification.NotificationService.PendingNotification;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Scheduled Task Service
  * Manages all scheduled/cron jobs for the HRMS system
  * Runs various background tasks like reminders, notifications, cleanup, etc.
+ * Light jobs run under a {@link ScheduledJobLockService} lock, so with several replicas each
+ * trigger is executed by one node only. Heavy per-organization jobs are split into slices by
+ * {@link ScheduledJobPartitionService} and processed by all nodes concurrently.
  */
 @Service
 public class ScheduledTaskService {
 
+    private static final String TIMESHEET_REMINDERS = "TimesheetReminders";
+    private static final String LEAVE_BALANCE_REMINDERS = "LeaveBalanceReminders";
+    private static final String PROBATION_COMPLETION_CHECK = "ProbationCompletionCheck";
+    private static final String LEAVE_EXPIRY_REMINDERS = "LeaveExpiryReminders";
+    private static final String DAILY_ATTENDANCE_SUMMARY = "DailyAttendanceSummary";
+
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTaskService.class);
 
     @Autowired
@@ -37,6 +56,12 @@ public class ScheduledTaskService {
     @Autowired
     private JobLogService jobLogService;
 
+    @Autowired
+    private ScheduledJobLockService jobLockService;
+
+    @Autowired
+    private ScheduledJobPartitionService jobPartitionService;
+
     @Autowired
     private TimesheetEntryRepository timesheetRepository;
 
@@ -55,53 +80,28 @@ public class ScheduledTaskService {
     @Autowired
     private PerformanceReviewRepository performanceReviewRepository;
 
+    @Autowired
+    @Qualifier("scheduledJobWorkerExecutor")
+    private ThreadPoolTaskExecutor scheduledJobWorkerExecutor;
+
+    @Value("${scheduled-jobs.notification-chunk-size:1000}")
+    private int notificationChunkSize;
+
     /**
      * Daily timesheet reminders at 5 PM (Mon-Fri)
      * Reminds employees who haven't submitted timesheet for current week
      */
     @Scheduled(cron = "0 0 17 * * MON-FRI")
-    @Transactional
     public void sendTimesheetReminders() {
-        String jobName = "TimesheetReminders";
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting daily timesheet reminder job");
-
-        try {
-            LocalDate today = LocalDate.now();
-            LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
-
-            // Find all active employees
-            List<Employee> employees = employeeRepository.findByEmploymentStatusAndDeletedAtIsNull("active");
-
-            for (Employee employee : employees) {
-                // Check if employee has submitted timesheet for this week
-                long timesheetCount = timesheetRepository.countByEmployeeIdAndDateBetween(
-                    employee.getId(),
-                    startOfWeek,
-                    today
-                );
-
-                // If no timesheet entries, send reminder
-                if (timesheetCount == 0) {
-                    notificationService.createNotification(
-                        employee,
-                        "REMINDER",
-                        "Timesheet Reminder",
-                        "Please submit your timesheet for this week.",
-                        null
-                    );
-                }
-            }
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed timesheet reminder job in {}ms", duration);
-            jobLogService.logSuccess(jobName, duration);
+        jobPartitionService.run(TIMESHEET_REMINDERS, LocalDate.now());
+    }
 
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("Error in timesheet reminder job", e);
-            jobLogService.logFailure(jobName, duration, e.getMessage());
-        }
+    private List<PendingNotification> timesheetReminderTargets(UUID organizationId, LocalDate today) {
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        String title = "Timesheet Reminder";
+        return toEmployees(employeeRepository.findActiveIdsWithoutTimesheetBetween(
+                organizationId, startOfWeek, today, title, today.atStartOfDay()),
+            "REMINDER", title, "Please submit your timesheet for this week.");
     }
 
     /**
@@ -109,33 +109,16 @@ public class ScheduledTaskService {
      * Notifies employees with low leave balance
      */
     @Scheduled(cron = "0 0 9 * * MON")
-    @Transactional
     public void sendLeaveBalanceReminders() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting weekly leave balance reminder job");
-
-        try {
-            // Find employees with low leave balance (< 5 days)
-            List<Employee> employees = employeeRepository.findByEmploymentStatusAndDeletedAtIsNull("active");
-
-            for (Employee employee : employees) {
-                // This is a placeholder - you would implement leave balance logic
-                // based on your LeaveBalance entity
-                notificationService.createNotification(
-                    employee,
-                    "INFO",
-                    "Leave Balance Update",
-                    "Your weekly leave balance summary is ready.",
-                    null
-                );
-            }
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed leave balance reminder job in {}ms", duration);
+        jobPartitionService.run(LEAVE_BALANCE_REMINDERS, LocalDate.now());
+    }
 
-        } catch (Exception e) {
-            logger.error("Error in leave balance reminder job", e);
-        }
+    private List<PendingNotification> leaveBalanceReminderTargets(UUID organizationId, LocalDate today) {
+        // This is a placeholder - you would implement leave balance logic
+        // based on your LeaveBalance entity
+        String title = "Leave Balance Update";
+        return toEmployees(employeeRepository.findActiveIdsNotNotifiedSince(organizationId, title, today.atStartOfDay()),
+            "INFO", title, "Your weekly leave balance summary is ready.");
     }
 
     /**
@@ -143,31 +126,32 @@ public class ScheduledTaskService {
      * Notifies HR/Finance to process payroll
      */
     @Scheduled(cron = "0 0 10 25 * *")
-    @Transactional
     public void sendPayrollProcessingReminder() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting monthly payroll processing reminder job");
-
-        try {
-            // Find HR/Finance admins
-            List<Employee> hrAdmins = employeeRepository.findByRoleName("ORGADMIN");
-
-            for (Employee admin : hrAdmins) {
-                notificationService.createNotification(
-                    admin,
-                    "REMINDER",
-                    "Payroll Processing Reminder",
-                    "Monthly payroll processing is due. Please review and process employee salaries.",
-                    null
-                );
-            }
+        jobLockService.runExclusively("PayrollProcessingReminder", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting monthly payroll processing reminder job");
 
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed payroll processing reminder job in {}ms", duration);
+            try {
+                // Find HR/Finance admins
+                List<Employee> hrAdmins = employeeRepository.findByRoleName("ORGADMIN");
 
-        } catch (Exception e) {
-            logger.error("Error in payroll processing reminder job", e);
-        }
+                for (Employee admin : hrAdmins) {
+                    notificationService.createNotification(
+                        admin,
+                        "REMINDER",
+                        "Payroll Processing Reminder",
+                        "Monthly payroll processing is due. Please review and process employee salaries.",
+                        null
+                    );
+                }
+
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed payroll processing reminder job in {}ms", duration);
+
+            } catch (Exception e) {
+                logger.error("Error in payroll processing reminder job", e);
+            }
+        });
     }
 
     /**
@@ -176,52 +160,32 @@ public class ScheduledTaskService {
      * Notifies managers for performance review
      */
     @Scheduled(cron = "0 0 8 * * *")
-    @Transactional
     public void checkProbationCompletions() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting probation completion check job");
-
-        try {
-            LocalDate today = LocalDate.now();
-            LocalDate nextWeek = today.plusDays(7);
-
-            // Find employees whose probation ends in next 7 days
-            List<Employee> employees = employeeRepository.findByEmploymentStatusAndDeletedAtIsNull("active");
-
-            for (Employee employee : employees) {
-                if (employee.getProbationEndDate() != null) {
-                    LocalDate probationEnd = employee.getProbationEndDate();
-
-                    if (!probationEnd.isBefore(today) && !probationEnd.isAfter(nextWeek)) {
-                        // Notify employee
-                        notificationService.createNotification(
-                            employee,
-                            "INFO",
-                            "Probation Period Ending",
-                            "Your probation period ends on " + probationEnd + ". Your manager will conduct a performance review.",
-                            null
-                        );
-
-                        // Notify manager if exists
-                        if (employee.getReportsTo() != null) {
-                            notificationService.createNotification(
-                                employee.getReportsTo(),
-                                "REMINDER",
-                                "Employee Probation Review Due",
-                                employee.getFirstName() + " " + employee.getLastName() + "'s probation ends on " + probationEnd + ". Please conduct performance review.",
-                                null
-                            );
-                        }
-                    }
-                }
-            }
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed probation completion check job in {}ms", duration);
+        jobPartitionService.run(PROBATION_COMPLETION_CHECK, LocalDate.now());
+    }
 
-        } catch (Exception e) {
-            logger.error("Error in probation completion check job", e);
+    private List<PendingNotification> probationCompletionTargets(UUID organizationId, LocalDate today) {
+        LocalDate nextWeek = today.plusDays(7);
+        String title = "Probation Period Ending";
+
+        List<PendingNotification> notifications = new ArrayList<>();
+        for (Object[] row : employeeRepository.findProbationEndingBetween(
+                organizationId, today, nextWeek, title, today.atStartOfDay())) {
+            UUID employeeId = (UUID) row[0];
+            LocalDate probationEnd = (LocalDate) row[3];
+            UUID managerId = (UUID) row[4];
+
+            // Notify employee
+            notifications.add(new PendingNotification(employeeId, "INFO", title,
+                "Your probation period ends on " + probationEnd + ". Your manager will conduct a performance review."));
+
+            // Notify manager if exists
+            if (managerId != null) {
+                notifications.add(new PendingNotification(managerId, "REMINDER", "Employee Probation Review Due",
+                    row[1] + " " + row[2] + "'s probation ends on " + probationEnd + ". Please conduct performance review."));
+            }
         }
+        return notifications;
     }
 
     /**
@@ -229,24 +193,25 @@ public class ScheduledTaskService {
      * Finds overdue asset returns and sends reminders
      */
     @Scheduled(cron = "0 0 10 * * *")
-    @Transactional
     public void sendAssetReturnReminders() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting asset return reminder job");
+        jobLockService.runExclusively("AssetReturnReminders", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting asset return reminder job");
 
-        try {
-            LocalDate today = LocalDate.now();
+            try {
+                LocalDate today = LocalDate.now();
 
-            // This is a placeholder - implement based on your AssetAssignment entity
-            // Find assignments with expected return date in the past and not yet returned
-            logger.info("Checking for overdue asset returns");
+                // This is a placeholder - implement based on your AssetAssignment entity
+                // Find assignments with expected return date in the past and not yet returned
+                logger.info("Checking for overdue asset returns");
 
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed asset return reminder job in {}ms", duration);
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed asset return reminder job in {}ms", duration);
 
-        } catch (Exception e) {
-            logger.error("Error in asset return reminder job", e);
-        }
+            } catch (Exception e) {
+                logger.error("Error in asset return reminder job", e);
+            }
+        });
     }
 
     /**
@@ -254,24 +219,25 @@ public class ScheduledTaskService {
      * Checks active review cycles and sends reminders for pending reviews
      */
     @Scheduled(cron = "0 0 9 * * *")
-    @Transactional
     public void sendPerformanceReviewReminders() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting performance review reminder job");
+        jobLockService.runExclusively("PerformanceReviewReminders", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting performance review reminder job");
 
-        try {
-            LocalDate today = LocalDate.now();
+            try {
+                LocalDate today = LocalDate.now();
 
-            // This is a placeholder - implement based on your ReviewCycle entity
-            // Find active review cycles and pending reviews
-            logger.info("Checking for pending performance reviews");
+                // This is a placeholder - implement based on your ReviewCycle entity
+                // Find active review cycles and pending reviews
+                logger.info("Checking for pending performance reviews");
 
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed performance review reminder job in {}ms", duration);
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed performance review reminder job in {}ms", duration);
 
-        } catch (Exception e) {
-            logger.error("Error in performance review reminder job", e);
-        }
+            } catch (Exception e) {
+                logger.error("Error in performance review reminder job", e);
+            }
+        });
     }
 
     /**
@@ -279,25 +245,26 @@ public class ScheduledTaskService {
      * Deletes notifications older than 90 days
      */
     @Scheduled(cron = "0 0 2 * * SUN")
-    @Transactional
     public void cleanupOldNotifications() {
-        String jobName = "NotificationCleanup";
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting notification cleanup job");
-
-        try {
-            int daysToKeep = 90;
-            notificationService.deleteOldNotifications(daysToKeep);
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed notification cleanup job in {}ms", duration);
-            jobLogService.logSuccess(jobName, duration);
-
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("Error in notification cleanup job", e);
-            jobLogService.logFailure(jobName, duration, e.getMessage());
-        }
+        jobLockService.runExclusively("NotificationCleanup", () -> {
+            String jobName = "NotificationCleanup";
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting notification cleanup job");
+
+            try {
+                int daysToKeep = 90;
+                notificationService.deleteOldNotifications(daysToKeep);
+
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed notification cleanup job in {}ms", duration);
+                jobLogService.logSuccess(jobName, duration);
+
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                logger.error("Error in notification cleanup job", e);
+                jobLogService.logFailure(jobName, duration, e.getMessage());
+            }
+        });
     }
 
     /**
@@ -305,39 +272,27 @@ public class ScheduledTaskService {
      * Finds leaves expiring at end of year and sends reminders
      */
     @Scheduled(cron = "0 0 9 1 * *")
-    @Transactional
     public void sendLeaveExpiryReminders() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting leave expiry reminder job");
-
-        try {
-            LocalDate today = LocalDate.now();
-            LocalDate endOfYear = LocalDate.of(today.getYear(), 12, 31);
-
-            // Calculate months until end of year
-            long monthsUntilExpiry = ChronoUnit.MONTHS.between(today, endOfYear);
-
-            if (monthsUntilExpiry <= 3) {
-                // Send reminders if less than 3 months until year end
-                List<Employee> employees = employeeRepository.findByEmploymentStatusAndDeletedAtIsNull("active");
-
-                for (Employee employee : employees) {
-                    notificationService.createNotification(
-                        employee,
-                        "REMINDER",
-                        "Leave Expiry Reminder",
-                        "Your unused leaves will expire on " + endOfYear + ". Please plan to use them before the year ends.",
-                        null
-                    );
-                }
-            }
+        LocalDate today = LocalDate.now();
+        LocalDate endOfYear = LocalDate.of(today.getYear(), 12, 31);
 
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed leave expiry reminder job in {}ms", duration);
+        // Calculate months until end of year
+        long monthsUntilExpiry = ChronoUnit.MONTHS.between(today, endOfYear);
 
-        } catch (Exception e) {
-            logger.error("Error in leave expiry reminder job", e);
+        // Send reminders if less than 3 months until year end
+        if (monthsUntilExpiry > 3) {
+            logger.info("Skipping leave expiry reminder job, {} months until year end", monthsUntilExpiry);
+            return;
         }
+        jobPartitionService.run(LEAVE_EXPIRY_REMINDERS, today);
+    }
+
+    private List<PendingNotification> leaveExpiryReminderTargets(UUID organizationId, LocalDate today) {
+        LocalDate endOfYear = LocalDate.of(today.getYear(), 12, 31);
+        String title = "Leave Expiry Reminder";
+        return toEmployees(employeeRepository.findActiveIdsNotNotifiedSince(organizationId, title, today.atStartOfDay()),
+            "REMINDER", title,
+            "Your unused leaves will expire on " + endOfYear + ". Please plan to use them before the year ends.");
     }
 
     /**
@@ -345,34 +300,15 @@ public class ScheduledTaskService {
      * Sends daily attendance summary to managers
      */
     @Scheduled(cron = "0 0 18 * * MON-FRI")
-    @Transactional
     public void sendDailyAttendanceSummary() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting daily attendance summary job");
-
-        try {
-            LocalDate today = LocalDate.now();
-
-            // Find all managers
-            List<Employee> managers = employeeRepository.findManagers();
-
-            for (Employee manager : managers) {
-                // This is a placeholder - implement attendance summary logic
-                notificationService.createNotification(
-                    manager,
-                    "INFO",
-                    "Daily Attendance Summary",
-                    "Your team's attendance summary for " + today + " is ready.",
-                    null
-                );
-            }
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed daily attendance summary job in {}ms", duration);
+        jobPartitionService.run(DAILY_ATTENDANCE_SUMMARY, LocalDate.now());
+    }
 
-        } catch (Exception e) {
-            logger.error("Error in daily attendance summary job", e);
-        }
+    private List<PendingNotification> dailyAttendanceSummaryTargets(UUID organizationId, LocalDate today) {
+        // This is a placeholder - implement attendance summary logic
+        String title = "Daily Attendance Summary";
+        return toEmployees(employeeRepository.findManagerIdsNotNotifiedSince(organizationId, title, today.atStartOfDay()),
+            "INFO", title, "Your team's attendance summary for " + today + " is ready.");
     }
 
     /**
@@ -380,33 +316,34 @@ public class ScheduledTaskService {
      * Sends birthday wishes and notifications
      */
     @Scheduled(cron = "0 0 7 * * *")
-    @Transactional
     public void sendBirthdayReminders() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting birthday reminder job");
-
-        try {
-            LocalDate today = LocalDate.now();
-
-            // Find employees with birthday today
-            List<Employee> employees = employeeRepository.findByBirthday(today.getMonthValue(), today.getDayOfMonth());
-
-            for (Employee employee : employees) {
-                notificationService.createNotification(
-                    employee,
-                    "INFO",
-                    "Happy Birthday!",
-                    "Wishing you a wonderful birthday! Have a great day!",
-                    null
-                );
-            }
+        jobLockService.runExclusively("BirthdayReminders", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting birthday reminder job");
 
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed birthday reminder job in {}ms - {} birthdays found", duration, employees.size());
+            try {
+                LocalDate today = LocalDate.now();
 
-        } catch (Exception e) {
-            logger.error("Error in birthday reminder job", e);
-        }
+                // Find employees with birthday today
+                List<Employee> employees = employeeRepository.findByBirthday(today.getMonthValue(), today.getDayOfMonth());
+
+                for (Employee employee : employees) {
+                    notificationService.createNotification(
+                        employee,
+                        "INFO",
+                        "Happy Birthday!",
+                        "Wishing you a wonderful birthday! Have a great day!",
+                        null
+                    );
+                }
+
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed birthday reminder job in {}ms - {} birthdays found", duration, employees.size());
+
+            } catch (Exception e) {
+                logger.error("Error in birthday reminder job", e);
+            }
+        });
     }
 
     /**
@@ -414,24 +351,105 @@ public class ScheduledTaskService {
      * Deletes job logs older than 180 days to maintain database performance
      */
     @Scheduled(cron = "0 0 3 * * SUN")
-    @Transactional
     public void cleanupOldJobLogs() {
-        String jobName = "JobLogCleanup";
-        long startTime = System.currentTimeMillis();
-        logger.info("Starting job log cleanup task");
-
-        try {
-            int daysToKeep = 180;
-            int deletedCount = jobLogService.cleanupOldLogs(daysToKeep);
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Completed job log cleanup in {}ms - {} logs deleted", duration, deletedCount);
-            jobLogService.logSuccess(jobName, duration);
-
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("Error in job log cleanup task", e);
-            jobLogService.logFailure(jobName, duration, e.getMessage());
+        jobLockService.runExclusively("JobLogCleanup", () -> {
+            String jobName = "JobLogCleanup";
+            long startTime = System.currentTimeMillis();
+            logger.info("Starting job log cleanup task");
+
+            try {
+                int daysToKeep = 180;
+                int deletedCount = jobLogService.cleanupOldLogs(daysToKeep);
+
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Completed job log cleanup in {}ms - {} logs deleted", duration, deletedCount);
+                jobLogService.logSuccess(jobName, duration);
+
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                logger.error("Error in job log cleanup task", e);
+                jobLogService.logFailure(jobName, duration, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Register the partitioned notification jobs; each slice of a run goes through notifyPartition
+     */
+    @PostConstruct
+    void registerPartitionedJobs() {
+        registerNotificationJob(TIMESHEET_REMINDERS, this::timesheetReminderTargets);
+        registerNotificationJob(LEAVE_BALANCE_REMINDERS, this::leaveBalanceReminderTargets);
+        registerNotificationJob(PROBATION_COMPLETION_CHECK, this::probationCompletionTargets);
+        registerNotificationJob(LEAVE_EXPIRY_REMINDERS, this::leaveExpiryReminderTargets);
+        registerNotificationJob(DAILY_ATTENDANCE_SUMMARY, this::dailyAttendanceSummaryTargets);
+    }
+
+    private void registerNotificationJob(String jobName, NotificationTargets targets) {
+        jobPartitionService.register(jobName, (runDate, partition, partitionCount) ->
+            notifyPartition(jobName, runDate, partition, partitionCount, targets));
+    }
+
+    /**
+     * Process one slice of a notification job as a set-based pipeline: one target query per
+     * organization of the slice, organizations in parallel, notifications inserted in JDBC batches
+     * of notificationChunkSize with a commit per chunk. Targets exclude employees already notified
+     * on the run date, and notifications are inserted only if absent, so a failed slice can simply
+     * be processed again.
+     */
+    private long notifyPartition(String jobName, LocalDate runDate, int partition, int partitionCount,
+                                 NotificationTargets targets) {
+        List<UUID> organizationIds = employeeRepository.findOrganizationIdsWithActiveEmployees().stream()
+            .filter(organizationId -> ScheduledJobPartitionService.partitionOf(organizationId, partitionCount) == partition)
+            .toList();
+        AtomicLong rowsProcessed = new AtomicLong();
+        Map<UUID, String> failures = new ConcurrentHashMap<>();
+
+        CompletableFuture.allOf(organizationIds.stream()
+            .map(organizationId -> CompletableFuture.runAsync(() -> {
+                try {
+                    rowsProcessed.addAndGet(insertInChunks(organizationId, jobName + "/" + runDate,
+                        targets.find(organizationId, runDate)));
+                } catch (Exception e) {
+                    logger.error("{} job failed for organization {}", jobName, organizationId, e);
+                    failures.put(organizationId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                }
+            }, scheduledJobWorkerExecutor))
+            .toArray(CompletableFuture[]::new)).join();
+
+        if (!failures.isEmpty()) {
+            throw new RuntimeException(failures.size() + " of " + organizationIds.size()
+                + " organizations failed, e.g. " + failures.values().iterator().next());
         }
+        return rowsProcessed.get();
+    }
+
+    /**
+     * Each insertNotifications call is its own transaction, so every chunk commits separately
+     */
+    private int insertInChunks(UUID organizationId, String runKey, List<PendingNotification> notifications) {
+        int inserted = 0;
+        for (int from = 0; from < notifications.size(); from += notificationChunkSize) {
+            List<PendingNotification> chunk =
+                notifications.subList(from, Math.min(from + notificationChunkSize, notifications.size()));
+            inserted += notificationService.insertNotifications(organizationId, runKey, chunk);
+        }
+        return inserted;
+    }
+
+    private static List<PendingNotification> toEmployees(List<UUID> employeeIds, String type, String title, String message) {
+        List<PendingNotification> notifications = new ArrayList<>(employeeIds.size());
+        for (UUID employeeId : employeeIds) {
+            notifications.add(new PendingNotification(employeeId, type, title, message));
+        }
+        return notifications;
+    }
+
+    /**
+     * Notifications one organization should receive on a run date, found with a set-based query
+     */
+    @FunctionalInterface
+    private interface NotificationTargets {
+        List<PendingNotification> find(UUID organizationId, LocalDate today);
     }
 }
@@ -20,6 +20,7 @@ public class SimplePermissionService {
     private final EmployeeRepository employeeRepository;
     private final PermissionRepository permissionRepository;
     private final UserRepository userRepository;
+    private final PermissionMatrixCache permissionMatrixCache;
 
     /**
      * Get employee's permissions in simple format
@@ -77,6 +78,9 @@ public class SimplePermissionService {
         // In a real implementation, you might create custom permission groups
 
         employeeRepository.save(employee);
+        if (employee.getUser() != null) {
+            permissionMatrixCache.invalidateUser(employee.getUser().getId());
+        }
 
         return getEmployeeSimplePermissions(employeeId);
     }
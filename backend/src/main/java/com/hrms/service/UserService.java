@@ -18,11 +18,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentUserService currentUserService;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                       CurrentUserService currentUserService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.currentUserService = currentUserService;
     }
 
     public Optional<User> findByEmail(String email) {
@@ -38,8 +41,13 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + authentication.getName()));
     }
 
+    /**
+     * Save a user; their cached identity is evicted, as roles, email or enabled flag may have changed
+     */
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        currentUserService.evict(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -25,15 +25,12 @@ public class VendorService {
     private OrganizationRepository organizationRepository;
 
     @Transactional(readOnly = true)
-    public List<VendorListResponse> getAllVendors(String email, Boolean activeOnly) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (user.getOrganization() == null) {
+    public List<VendorListResponse> getAllVendors(UUID organizationId, Boolean activeOnly) {
+        if (organizationId == null) {
             throw new RuntimeException("User does not belong to an organization");
         }
 
-        List<Vendor> vendors = vendorRepository.findByOrganizationId(user.getOrganization().getId());
+        List<Vendor> vendors = vendorRepository.findByOrganizationId(organizationId);
 
         if (activeOnly != null && activeOnly) {
             vendors = vendors.stream()
@@ -51,14 +48,11 @@ public class VendorService {
     }
 
     @Transactional(readOnly = true)
-    public VendorDetailResponse getVendorById(UUID vendorId, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public VendorDetailResponse getVendorById(UUID vendorId, UUID organizationId) {
         Vendor vendor = vendorRepository.findById(vendorId)
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
 
-        if (!vendor.getOrganization().getId().equals(user.getOrganization().getId())) {
+        if (!vendor.getOrganization().getId().equals(organizationId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -79,7 +73,7 @@ public class VendorService {
 
         // Generate vendor code if not provided
         if (request.getVendorCode() == null || request.getVendorCode().isEmpty()) {
-            vendor.setVendorCode(generateNextVendorCode(email));
+            vendor.setVendorCode(generateNextVendorCode(user.getOrganization().getId()));
         } else {
             // Check uniqueness
             if (vendorRepository.findByVendorCode(request.getVendorCode()).isPresent()) {
@@ -213,11 +207,8 @@ public class VendorService {
         vendorRepository.save(vendor);
     }
 
-    public String generateNextVendorCode(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Vendor> vendors = vendorRepository.findByOrganizationId(user.getOrganization().getId());
+    public String generateNextVendorCode(UUID organizationId) {
+        List<Vendor> vendors = vendorRepository.findByOrganizationId(organizationId);
         int maxNumber = vendors.stream()
                 .map(Vendor::getVendorCode)
                 .filter(code -> code != null && code.matches("VEN\\d{4}"))
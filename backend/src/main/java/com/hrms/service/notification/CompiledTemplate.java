@@ -0,0 +1,144 @@
+package com.hrms.service.notification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A template pre-split into literal text and variable slots.
+ *
+ * Placeholders use the {{name}} syntax; values are HTML-escaped unless the template was
+ * compiled for plain text. {{{name}}} inserts a value verbatim (for pre-rendered markup).
+ * Missing variables render as empty text. Rendering appends into a per-thread buffer that
+ * is reused across calls, so the only allocation per render is the resulting String.
+ */
+public final class CompiledTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String[] literals;   // literals[i] precedes variables[i]; one trailing literal
+    private final String[] variables;
+    private final boolean[] raw;
+    private final boolean htmlEscape;
+    private final int literalLength;
+
+    private CompiledTemplate(List<String> literals, List<String> variables, List<Boolean> raw, boolean htmlEscape) {
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.raw = new boolean[raw.size()];
+        for (int i = 0; i < raw.size(); i++) {
+            this.raw[i] = raw.get(i);
+        }
+        this.htmlEscape = htmlEscape;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compile an HTML template (variable values are escaped)
+     */
+    public static CompiledTemplate html(String source) {
+        return compile(source, true);
+    }
+
+    /**
+     * Compile a plain-text template such as a subject line (variable values are inserted as-is)
+     */
+    public static CompiledTemplate text(String source) {
+        return compile(source, false);
+    }
+
+    private static CompiledTemplate compile(String source, boolean htmlEscape) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        String text = source != null ? source : "";
+
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (pos < text.length()) {
+            int open = text.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            boolean triple = text.startsWith("{{{", open);
+            String closeToken = triple ? "}}}" : "}}";
+            int nameStart = open + (triple ? 3 : 2);
+            int close = text.indexOf(closeToken, nameStart);
+            if (close < 0) {
+                break; // unterminated placeholder stays literal text
+            }
+            String name = text.substring(nameStart, close).trim();
+            literal.append(text, pos, open);
+            if (name.isEmpty()) {
+                literal.append(text, open, close + closeToken.length());
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(name);
+                raw.add(triple);
+            }
+            pos = close + closeToken.length();
+        }
+        literal.append(text, pos, text.length());
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(literals, variables, raw, htmlEscape);
+    }
+
+    /**
+     * Names of the variables referenced by the template, in order of first use
+     */
+    public Set<String> getVariableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, variables);
+        return names;
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            renderTo(out, values);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        out.ensureCapacity(out.length() + literalLength + variables.length * 16);
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            Object value = values != null ? values.get(variables[i]) : null;
+            if (value != null) {
+                String text = value.toString();
+                if (htmlEscape && !raw[i]) {
+                    appendEscaped(out, text);
+                } else {
+                    out.append(text);
+                }
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -6,10 +6,15 @@ import com.hrms.repository.notification.NotificationRepository;
 import com.hrms.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,7 +24,14 @@ import java.util.UUID;
 @Transactional
 public class NotificationService {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (id, organization_id, employee_id, type, title, message, " +
+        "is_read, is_active, is_email_sent, priority, created_at, dedup_key) " +
+        "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? " +
+        "WHERE NOT EXISTS (SELECT 1 FROM notifications WHERE dedup_key = ?)";
+
     private final NotificationRepository repository;
+    private final JdbcTemplate jdbcTemplate;
 
     public List<Notification> getAllByOrganization(UUID organizationId) {
         log.debug("Fetching all Notification for organization: {}", organizationId);
@@ -90,6 +102,50 @@ public class NotificationService {
         return repository.save(notification);
     }
 
+    /**
+     * Insert many notifications of one organization with a single JDBC batch
+     * (bypasses the persistence context; used by the scheduled reminder jobs).
+     * Each notification is keyed by the run (job name and run date), its recipient and its
+     * content; notifications whose key already exists are skipped, so processing a run again
+     * is harmless. Two nodes racing on the same key hit the unique index instead and the
+     * chunk fails, to be retried with the slice.
+     * @return Number of inserted notifications (rows the driver reports without a count are
+     * counted as inserted)
+     */
+    public int insertNotifications(UUID organizationId, String runKey, List<PendingNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        for (PendingNotification notification : notifications) {
+            String dedupKey = dedupKey(runKey, notification);
+            rows.add(new Object[] {
+                UUID.randomUUID().toString(), organizationId.toString(), notification.employeeId().toString(),
+                notification.type(), notification.title(), notification.message(),
+                false, true, false, "MEDIUM", now, dedupKey, dedupKey
+            });
+        }
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_SQL, rows)) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            } else if (count != Statement.EXECUTE_FAILED) {
+                inserted += count;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Key of a notification of a run: the run key, the recipient and a digest of the content
+     */
+    static String dedupKey(String runKey, PendingNotification notification) {
+        UUID content = UUID.nameUUIDFromBytes((notification.title() + "\n" + notification.message())
+            .getBytes(StandardCharsets.UTF_8));
+        return runKey + "/" + notification.employeeId() + "/" + content;
+    }
+
     /**
      * Deletes notifications older than specified number of days
      * @param daysToKeep Number of days to keep notifications
@@ -162,4 +218,10 @@ public class NotificationService {
         notification.markAsRead();
         repository.save(notification);
     }
+
+    /**
+     * A notification to be inserted by {@link #insertNotifications}
+     */
+    public record PendingNotification(UUID employeeId, String type, String title, String message) {
+    }
 }
@@ -0,0 +1,112 @@
+package com.hrms.service.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrms.entity.notification.NotificationTemplate;
+import com.hrms.repository.notification.NotificationTemplateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compiles active NotificationTemplate rows once and keeps them per (organization, code).
+ *
+ * Each entry remembers the template version it was compiled from. Edits through
+ * NotificationTemplateService evict the entry after commit; the TTL bounds staleness
+ * for edits made on other instances.
+ */
+@Service
+@Slf4j
+public class NotificationTemplateEngine {
+
+    private final NotificationTemplateRepository repository;
+    private final Cache<TemplateKey, Optional<CompiledNotification>> cache;
+
+    public NotificationTemplateEngine(NotificationTemplateRepository repository,
+                                      @Value("${notification.template-cache.ttl-seconds:600}") long ttlSeconds,
+                                      @Value("${notification.template-cache.max-size:5000}") long maxSize) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Compiled active template of an organization, if it has one with this code
+     */
+    public Optional<CompiledNotification> find(UUID organizationId, String code) {
+        if (organizationId == null || code == null) {
+            return Optional.empty();
+        }
+        return cache.get(new TemplateKey(organizationId, code), this::load);
+    }
+
+    /**
+     * Render an organization's template; empty if the organization has no active template with this code
+     */
+    public Optional<RenderedNotification> render(UUID organizationId, String code, Map<String, ?> variables) {
+        return find(organizationId, code).map(template -> template.render(variables));
+    }
+
+    public void evict(UUID organizationId, String code) {
+        if (organizationId != null && code != null) {
+            cache.invalidate(new TemplateKey(organizationId, code));
+        }
+    }
+
+    /**
+     * Evict once the surrounding transaction commits (immediately if there is none)
+     */
+    public void evictAfterCommit(UUID organizationId, String code) {
+        evict(organizationId, code);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(organizationId, code);
+                }
+            });
+        }
+    }
+
+    private Optional<CompiledNotification> load(TemplateKey key) {
+        return repository.findFirstByOrganizationIdAndCodeAndIsActiveTrueAndDeletedAtIsNull(key.organizationId(), key.code())
+                .map(template -> {
+                    log.debug("Compiled notification template {} v{} for organization {}",
+                            key.code(), template.getVersion(), key.organizationId());
+                    return CompiledNotification.compile(template);
+                });
+    }
+
+    private record TemplateKey(UUID organizationId, String code) {
+    }
+
+    /**
+     * Subject and body of one template version, ready to render
+     */
+    public record CompiledNotification(UUID templateId, String code, int version,
+                                       CompiledTemplate subject, CompiledTemplate body) {
+
+        static CompiledNotification compile(NotificationTemplate template) {
+            return new CompiledNotification(template.getId(), template.getCode(),
+                    template.getVersion() != null ? template.getVersion() : 1,
+                    CompiledTemplate.text(template.getSubject()),
+                    CompiledTemplate.html(template.getBody()));
+        }
+
+        public RenderedNotification render(Map<String, ?> variables) {
+            return new RenderedNotification(subject.render(variables), body.render(variables));
+        }
+    }
+
+    public record RenderedNotification(String subject, String body) {
+    }
+}
@@ -19,6 +19,7 @@ import java.util.UUID;
 public class NotificationTemplateService {
 
     private final NotificationTemplateRepository repository;
+    private final NotificationTemplateEngine templateEngine;
 
     public List<NotificationTemplate> getAllByOrganization(UUID organizationId) {
         log.debug("Fetching all NotificationTemplate for organization: {}", organizationId);
@@ -39,15 +40,32 @@ public class NotificationTemplateService {
     public NotificationTemplate create(NotificationTemplate entity, UUID organizationId) {
         log.debug("Creating new NotificationTemplate for organization: {}", organizationId);
         // Organization will be set by the controller
-        return repository.save(entity);
+        NotificationTemplate saved = repository.save(entity);
+        templateEngine.evictAfterCommit(organizationId, saved.getCode());
+        return saved;
     }
 
     public NotificationTemplate update(UUID id, NotificationTemplate entity, UUID organizationId) {
         log.debug("Updating NotificationTemplate with id: {} for organization: {}", id, organizationId);
         NotificationTemplate existing = getById(id, organizationId);
-        // Update fields as needed
+        String previousCode = existing.getCode();
+        existing.setName(entity.getName());
+        existing.setCode(entity.getCode());
+        existing.setNotificationType(entity.getNotificationType());
+        existing.setChannel(entity.getChannel());
+        existing.setSubject(entity.getSubject());
+        existing.setBody(entity.getBody());
+        existing.setVariables(entity.getVariables());
+        existing.setModule(entity.getModule());
+        existing.setEventTrigger(entity.getEventTrigger());
+        if (entity.getIsActive() != null) {
+            existing.setIsActive(entity.getIsActive());
+        }
         existing.setUpdatedAt(LocalDateTime.now());
-        return repository.save(existing);
+        NotificationTemplate saved = repository.save(existing);
+        templateEngine.evictAfterCommit(organizationId, previousCode);
+        templateEngine.evictAfterCommit(organizationId, saved.getCode());
+        return saved;
     }
 
     public void delete(UUID id, UUID organizationId) {
@@ -56,11 +74,13 @@ public class NotificationTemplateService {
         entity.setDeletedAt(LocalDateTime.now());
         entity.setIsActive(false);
         repository.save(entity);
+        templateEngine.evictAfterCommit(organizationId, entity.getCode());
     }
 
     public void hardDelete(UUID id, UUID organizationId) {
         log.debug("Hard deleting NotificationTemplate with id: {} for organization: {}", id, organizationId);
         NotificationTemplate entity = getById(id, organizationId);
         repository.delete(entity);
+        templateEngine.evictAfterCommit(organizationId, entity.getCode());
     }
 }
@@ -0,0 +1,139 @@
+package com.hrms.service.payroll;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes one employee's payslip from their salary structure, components and tax schedule.
+ *
+ * Pure and thread-safe: the result depends only on the input, so employees can be computed in any
+ * order and on any number of threads with identical results. Amounts are per pay period; every
+ * component is rounded to cents (HALF_UP) as it is computed, tax is computed on the annualized
+ * taxable earnings at full precision and rounded once per period.
+ *
+ * Components are FIXED (amount) or PERCENTAGE (percentage of the component named by
+ * baseComponentId, or of the basic salary when it is not set), evaluated through a SalaryPlan
+ * compiled once per structure shape. Earnings add to gross pay, deductions and income tax to
+ * total deductions.
+ */
+public final class PayrollCalculator {
+
+    public static final int SCALE = 2;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    static final String EARNING = "earning";
+    static final String DEDUCTION = "deduction";
+    static final String BASIC_CODE = "BASIC";
+
+    /**
+     * A salary component assigned to the employee
+     */
+    public record ComponentInput(UUID salaryComponentId, String name, String code, String type,
+                                 String calculationType, BigDecimal amount, BigDecimal percentage,
+                                 UUID baseComponentId) {
+
+        boolean isPercentage() {
+            return calculationType != null && calculationType.toUpperCase().startsWith("PERCENT");
+        }
+
+        boolean isDeduction() {
+            return DEDUCTION.equalsIgnoreCase(type);
+        }
+    }
+
+    /**
+     * Everything needed to compute one employee's payslip; components in display order
+     */
+    public record EmployeeInput(UUID employeeId, UUID salaryStructureId, BigDecimal basicSalary,
+                                int periodsPerYear, List<ComponentInput> components,
+                                TaxSlabIndex.Schedule taxSchedule) {
+    }
+
+    public record Line(UUID salaryComponentId, String name, String type, BigDecimal amount,
+                       String calculationBasis, BigDecimal percentage, BigDecimal baseAmount,
+                       boolean taxable, int displayOrder) {
+    }
+
+    public record Result(UUID employeeId, BigDecimal grossPay, BigDecimal totalDeductions,
+                         BigDecimal netPay, List<Line> lines) {
+    }
+
+    // Compiled once per structure shape and shared by all employees with that shape
+    private final Map<SalaryPlan.Shape, SalaryPlan> plans = new ConcurrentHashMap<>();
+
+    public Result calculate(EmployeeInput input) {
+        List<ComponentInput> components = input.components();
+        SalaryPlan plan = plans.computeIfAbsent(SalaryPlan.Shape.of(components), shape -> SalaryPlan.compile(components));
+        BigDecimal[] parameters = new BigDecimal[components.size() + 1];
+        for (int i = 0; i < components.size(); i++) {
+            ComponentInput component = components.get(i);
+            parameters[i + 1] = component.isPercentage() ? component.percentage() : component.amount();
+        }
+        BigDecimal basic = cents(orZero(input.basicSalary()));
+        BigDecimal[] values = plan.evaluate(basic, parameters);
+
+        List<Line> lines = new ArrayList<>();
+        BigDecimal gross = BigDecimal.ZERO;
+        BigDecimal deductions = BigDecimal.ZERO;
+        BigDecimal taxable = BigDecimal.ZERO;
+
+        boolean basicIsComponent = components.stream().anyMatch(c -> BASIC_CODE.equalsIgnoreCase(c.code()));
+        if (!basicIsComponent && basic.signum() != 0) {
+            lines.add(new Line(null, "Basic Salary", EARNING, basic, "FIXED", null, null, true, lines.size() + 1));
+            gross = gross.add(basic);
+            taxable = taxable.add(basic);
+        }
+
+        for (int i = 0; i < components.size(); i++) {
+            ComponentInput component = components.get(i);
+            BigDecimal amount = values[i + 1];
+            int baseSlot = plan.baseSlot(i + 1);
+            boolean deduction = component.isDeduction();
+            lines.add(new Line(component.salaryComponentId(), component.name(), deduction ? DEDUCTION : EARNING, amount,
+                    component.isPercentage() ? "PERCENTAGE" : "FIXED",
+                    component.isPercentage() ? component.percentage() : null,
+                    baseSlot >= 0 ? values[baseSlot] : null,
+                    !deduction, lines.size() + 1));
+            if (deduction) {
+                deductions = deductions.add(amount);
+            } else {
+                gross = gross.add(amount);
+                taxable = taxable.add(amount);
+            }
+        }
+
+        BigDecimal tax = periodTax(input.taxSchedule(), taxable, input.periodsPerYear());
+        if (tax.signum() > 0) {
+            lines.add(new Line(null, "Income Tax", DEDUCTION, tax, "TAX_SLAB", null, taxable, false, lines.size() + 1));
+            deductions = deductions.add(tax);
+        }
+
+        return new Result(input.employeeId(), gross, deductions, gross.subtract(deductions), List.copyOf(lines));
+    }
+
+    /**
+     * Income tax for one pay period, from the annualized taxable earnings
+     * @param schedule the employee's tax schedule; null for no income tax
+     */
+    static BigDecimal periodTax(TaxSlabIndex.Schedule schedule, BigDecimal taxablePerPeriod, int periodsPerYear) {
+        if (schedule == null || taxablePerPeriod.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        int periods = Math.max(periodsPerYear, 1);
+        BigDecimal annual = schedule.annualTax(taxablePerPeriod.multiply(BigDecimal.valueOf(periods)));
+        return annual.divide(BigDecimal.valueOf(periods), SCALE, ROUNDING);
+    }
+
+    private static BigDecimal cents(BigDecimal value) {
+        return value.setScale(SCALE, ROUNDING);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,463 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.payroll.PayrollRun;
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.payroll.PayrollRunRepository;
+import com.hrms.repository.payroll.PayslipArchiveRepository;
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+import com.hrms.service.payroll.PayrollCalculator.EmployeeInput;
+import com.hrms.service.payroll.PayrollCalculator.Line;
+import com.hrms.service.payroll.PayrollCalculator.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the payslips of a payroll run.
+ *
+ * The salary structures, employee salary components and tax profiles effective in the run's
+ * period are loaded for the whole organization in a few queries and turned into plain inputs;
+ * each employee's tax schedule comes from the organization's cached TaxSlabIndex. Payslips
+ * are then computed on the payrollComputePool by splitting the employees into slices
+ * (PayrollCalculator is pure, so results do not depend on the split), and written with JDBC batch
+ * inserts in one transaction together with the run totals. Processing a run replaces the payslips
+ * it had before.
+ *
+ * Each payslip is stored with a fingerprint of its inputs (PayrollFingerprint), so re-running a
+ * completed run after a correction recomputes and replaces only the employees whose inputs changed.
+ */
+@Service
+@Slf4j
+public class PayrollEngine {
+
+    static final String STATUS_PENDING = "pending";
+    static final String STATUS_PROCESSING = "processing";
+    static final String STATUS_COMPLETED = "completed";
+    static final String STATUS_FAILED = "failed";
+
+    private static final String PAYSLIP_STATUS = "generated";
+
+    // Employees computed by one fork-join leaf task
+    private static final int SLICE_SIZE = 256;
+
+    // Line item order: earnings before deductions, then by name
+    private static final Comparator<ComponentInput> DISPLAY_ORDER = Comparator
+            .comparing(ComponentInput::isDeduction)
+            .thenComparing(c -> c.name() != null ? c.name() : "")
+            .thenComparing(c -> c.salaryComponentId().toString());
+
+    private final PayrollRunRepository runRepository;
+    private final PayslipArchiveRepository archiveRepository;
+    private final TaxSlabService taxSlabService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool computePool;
+
+    @Value("${payroll.engine.batch-size:1000}")
+    private int batchSize;
+
+    public PayrollEngine(PayrollRunRepository runRepository,
+                         PayslipArchiveRepository archiveRepository,
+                         TaxSlabService taxSlabService,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier("payrollComputePool") ForkJoinPool computePool) {
+        this.runRepository = runRepository;
+        this.archiveRepository = archiveRepository;
+        this.taxSlabService = taxSlabService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.computePool = computePool;
+    }
+
+    /**
+     * Compute and store the payslips of a pending (or failed) run
+     * @return the run with its totals
+     */
+    public PayrollRun process(UUID runId, UUID organizationId, UUID processedBy) {
+        return run(runId, organizationId, processedBy, false);
+    }
+
+    /**
+     * Re-run a completed (or failed) run after its inputs were corrected. Only employees whose input
+     * fingerprint changed are recomputed; their payslips are replaced, payslips of employees no
+     * longer paid are removed and the run totals are recomputed, all in one transaction.
+     * @return the run with its totals
+     */
+    public PayrollRun reprocess(UUID runId, UUID organizationId, UUID processedBy) {
+        return run(runId, organizationId, processedBy, true);
+    }
+
+    private PayrollRun run(UUID runId, UUID organizationId, UUID processedBy, boolean incremental) {
+        PayrollRun run = runRepository.findByIdAndOrganizationIdAndDeletedAtIsNull(runId, organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("PayrollRun not found with id: " + runId));
+        LocalDate periodStart = run.getPeriodStart();
+        LocalDate periodEnd = run.getPeriodEnd();
+        if (periodStart == null || periodEnd == null || periodEnd.isBefore(periodStart)) {
+            throw BusinessException.invalidDateRange("Payroll run needs a valid period start and end");
+        }
+
+        // Claim the run so that it is processed once at a time
+        int claimed = jdbcTemplate.update("UPDATE payroll_runs SET status = ?, updated_at = ? WHERE id = ? " +
+                "AND (status IS NULL OR status IN (?, ?))", STATUS_PROCESSING, Timestamp.valueOf(LocalDateTime.now()),
+                runId.toString(), incremental ? STATUS_COMPLETED : STATUS_PENDING, STATUS_FAILED);
+        if (claimed == 0) {
+            throw new BusinessException("Payroll run is already " + run.getStatus(),
+                    incremental ? "PAYROLL_RUN_NOT_COMPLETED" : "PAYROLL_RUN_NOT_PENDING");
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            TaxSlabIndex taxIndex = taxSlabService.getIndex(organizationId);
+            List<EmployeeInput> inputs = loadInputs(organizationId, periodStart, periodEnd, taxIndex);
+            String[] fingerprints = fingerprints(inputs);
+
+            List<EmployeeInput> changed = inputs;
+            List<String> changedFingerprints = Arrays.asList(fingerprints);
+            Set<UUID> replaced = null;
+            Map<UUID, String> stored = incremental ? loadFingerprints(runId) : Map.of();
+            // Runs stored without fingerprints are recomputed in full
+            if (!stored.isEmpty()) {
+                changed = new ArrayList<>();
+                changedFingerprints = new ArrayList<>();
+                replaced = new HashSet<>();
+                for (int i = 0; i < inputs.size(); i++) {
+                    UUID employeeId = inputs.get(i).employeeId();
+                    if (!fingerprints[i].equals(stored.remove(employeeId))) {
+                        changed.add(inputs.get(i));
+                        changedFingerprints.add(fingerprints[i]);
+                        replaced.add(employeeId);
+                    }
+                }
+                // Left over: employees no longer paid in this run
+                replaced.addAll(stored.keySet());
+            }
+
+            Result[] results = calculate(computePool, new PayrollCalculator(), changed);
+            List<String> resultFingerprints = changedFingerprints;
+            Set<UUID> replacedEmployees = replaced;
+            transactionTemplate.executeWithoutResult(status ->
+                    store(run, organizationId, processedBy, results, resultFingerprints, replacedEmployees));
+            log.info("Payroll run {} processed: {} of {} payslips computed, {} replaced in {}ms", runId, results.length,
+                    inputs.size(), replaced != null ? replaced.size() : "all", System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            log.error("Payroll run {} failed: {}", runId, e.getMessage(), e);
+            jdbcTemplate.update("UPDATE payroll_runs SET status = ?, updated_at = ? WHERE id = ?",
+                    STATUS_FAILED, Timestamp.valueOf(LocalDateTime.now()), runId.toString());
+            throw e;
+        }
+        return runRepository.findById(runId).orElseThrow();
+    }
+
+    /**
+     * Payslip results in input order, computed on the given pool
+     */
+    static Result[] calculate(ForkJoinPool pool, PayrollCalculator calculator, List<EmployeeInput> inputs) {
+        Result[] results = new Result[inputs.size()];
+        pool.invoke(new CalculateSlice(calculator, inputs, results, 0, inputs.size()));
+        return results;
+    }
+
+    /**
+     * Salary inputs of every employee with a salary structure effective in the period, ordered by employee
+     */
+    List<EmployeeInput> loadInputs(UUID organizationId, LocalDate periodStart, LocalDate periodEnd,
+                                   TaxSlabIndex taxIndex) {
+        Map<UUID, StructureRow> structures = new HashMap<>();
+        jdbcTemplate.query("SELECT id, employee_id, basic_salary, pay_frequency, effective_from " +
+                "FROM employee_salary_structures WHERE organization_id = ? AND deleted_at IS NULL " +
+                "AND (is_active IS NULL OR is_active = ?) AND effective_from <= ? " +
+                "AND (effective_to IS NULL OR effective_to >= ?)", (ResultSet rs) -> {
+            StructureRow row = new StructureRow(uuid(rs, "id"), uuid(rs, "employee_id"), rs.getBigDecimal("basic_salary"),
+                    rs.getString("pay_frequency"), rs.getDate("effective_from").toLocalDate());
+            // The latest structure of an employee wins
+            structures.merge(row.employeeId(), row, (a, b) -> a.isBefore(b) ? b : a);
+        }, organizationId.toString(), Boolean.TRUE, Date.valueOf(periodEnd), Date.valueOf(periodStart));
+
+        Map<UUID, Map<UUID, ComponentRow>> components = new HashMap<>();
+        jdbcTemplate.query("SELECT c.id, c.employee_id, c.salary_structure_id, c.salary_component_id, c.amount, " +
+                "c.percentage, c.calculation_type, c.base_component_id, c.effective_from, s.name, s.code, s.type " +
+                "FROM employee_salary_components c JOIN salary_components s ON s.id = c.salary_component_id " +
+                "WHERE c.organization_id = ? AND c.deleted_at IS NULL AND (c.is_active IS NULL OR c.is_active = ?) " +
+                "AND c.effective_from <= ? AND (c.effective_to IS NULL OR c.effective_to >= ?)", (ResultSet rs) -> {
+            UUID employeeId = uuid(rs, "employee_id");
+            StructureRow structure = structures.get(employeeId);
+            UUID structureId = uuid(rs, "salary_structure_id");
+            if (structure == null || (structureId != null && !structureId.equals(structure.id()))) {
+                return;
+            }
+            ComponentRow row = new ComponentRow(uuid(rs, "id"), rs.getDate("effective_from").toLocalDate(),
+                    new ComponentInput(uuid(rs, "salary_component_id"), rs.getString("name"), rs.getString("code"),
+                            rs.getString("type"), rs.getString("calculation_type"), rs.getBigDecimal("amount"),
+                            rs.getBigDecimal("percentage"), uuid(rs, "base_component_id")));
+            // One assignment per component: the latest
+            components.computeIfAbsent(employeeId, id -> new HashMap<>())
+                    .merge(row.input().salaryComponentId(), row, (a, b) -> a.isBefore(b) ? b : a);
+        }, organizationId.toString(), Boolean.TRUE, Date.valueOf(periodEnd), Date.valueOf(periodStart));
+
+        Map<UUID, TaxProfileRow> profiles = loadTaxProfiles(organizationId, periodEnd, taxIndex);
+        String organizationCountry = jdbcTemplate.query("SELECT country_code FROM organizations WHERE id = ?",
+                (ResultSet rs) -> rs.next() ? rs.getString("country_code") : null, organizationId.toString());
+
+        List<EmployeeInput> inputs = new ArrayList<>(structures.size());
+        for (StructureRow structure : structures.values()) {
+            // Employees without tax info are taxed on the organization's country schedule
+            TaxProfileRow profile = profiles.get(structure.employeeId());
+            TaxSlabIndex.Schedule schedule = profile != null
+                    ? taxIndex.find(profile.countryCode(), profile.taxRegime(), periodEnd)
+                    : taxIndex.find(organizationCountry, null, periodEnd);
+            List<ComponentInput> assigned = components.getOrDefault(structure.employeeId(), Map.of()).values().stream()
+                    .map(ComponentRow::input)
+                    .sorted(DISPLAY_ORDER)
+                    .toList();
+            inputs.add(new EmployeeInput(structure.employeeId(), structure.id(), structure.basicSalary(),
+                    periodsPerYear(structure.payFrequency()), assigned, schedule));
+        }
+        inputs.sort(Comparator.comparing(input -> input.employeeId().toString()));
+        return inputs;
+    }
+
+    /**
+     * Tax country and regime per employee from their latest tax info up to the period's year
+     */
+    private Map<UUID, TaxProfileRow> loadTaxProfiles(UUID organizationId, LocalDate periodEnd, TaxSlabIndex taxIndex) {
+        Map<UUID, TaxProfileRow> profiles = new HashMap<>();
+        if (taxIndex.isEmpty()) {
+            return profiles;
+        }
+        jdbcTemplate.query("SELECT employee_id, tax_country_code, ind_tax_regime, tax_year FROM employee_tax_info " +
+                "WHERE organization_id = ? AND tax_year <= ?", (ResultSet rs) -> {
+            TaxProfileRow row = new TaxProfileRow(rs.getString("tax_country_code"), rs.getString("ind_tax_regime"),
+                    rs.getInt("tax_year"));
+            profiles.merge(uuid(rs, "employee_id"), row, (a, b) -> a.taxYear() >= b.taxYear() ? a : b);
+        }, organizationId.toString(), periodEnd.getYear());
+        return profiles;
+    }
+
+    /**
+     * Input fingerprint of every employee, aligned with inputs
+     */
+    static String[] fingerprints(List<EmployeeInput> inputs) {
+        String[] fingerprints = new String[inputs.size()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = PayrollFingerprint.of(inputs.get(i));
+        }
+        return fingerprints;
+    }
+
+    private Map<UUID, String> loadFingerprints(UUID runId) {
+        Map<UUID, String> fingerprints = new HashMap<>();
+        jdbcTemplate.query("SELECT employee_id, fingerprint FROM payroll_run_fingerprints WHERE payroll_run_id = ?",
+                (ResultSet rs) -> {
+                    fingerprints.put(uuid(rs, "employee_id"), rs.getString("fingerprint"));
+                }, runId.toString());
+        return fingerprints;
+    }
+
+    /**
+     * Replace the payslips of the given employees (all of the run's when null) with the results,
+     * then recompute the run totals from its payslips. A stored payslip archive of the run is
+     * marked stale when any payslip changes.
+     */
+    private void store(PayrollRun run, UUID organizationId, UUID processedBy, Result[] results,
+                       List<String> fingerprints, Set<UUID> replaced) {
+        String runId = run.getId().toString();
+        if (replaced == null) {
+            jdbcTemplate.update("DELETE FROM payslip_line_items WHERE payslip_id IN " +
+                    "(SELECT id FROM payslips WHERE payroll_run_id = ?)", runId);
+            jdbcTemplate.update("DELETE FROM payslips WHERE payroll_run_id = ?", runId);
+            jdbcTemplate.update("DELETE FROM payroll_run_fingerprints WHERE payroll_run_id = ?", runId);
+        } else if (!replaced.isEmpty()) {
+            List<Object[]> keys = replaced.stream()
+                    .map(employeeId -> new Object[] {runId, employeeId.toString()})
+                    .toList();
+            jdbcTemplate.batchUpdate("DELETE FROM payslip_line_items WHERE payslip_id IN " +
+                    "(SELECT id FROM payslips WHERE payroll_run_id = ? AND employee_id = ?)", keys);
+            jdbcTemplate.batchUpdate("DELETE FROM payslips WHERE payroll_run_id = ? AND employee_id = ?", keys);
+            jdbcTemplate.batchUpdate("DELETE FROM payroll_run_fingerprints WHERE payroll_run_id = ? AND employee_id = ?", keys);
+        }
+        if (replaced == null || !replaced.isEmpty() || results.length > 0) {
+            archiveRepository.markStale(run.getId());
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String org = organizationId.toString();
+        String createdBy = processedBy != null ? processedBy.toString() : null;
+        List<Object[]> payslips = new ArrayList<>();
+        List<Object[]> lineItems = new ArrayList<>();
+        List<Object[]> fingerprintRows = new ArrayList<>();
+
+        for (int i = 0; i < results.length; i++) {
+            Result result = results[i];
+            String payslipId = UUID.randomUUID().toString();
+            payslips.add(new Object[] {
+                payslipId, org, runId, result.employeeId().toString(), Date.valueOf(run.getPeriodStart()),
+                Date.valueOf(run.getPeriodEnd()), result.grossPay(), result.totalDeductions(), result.netPay(),
+                PAYSLIP_STATUS, Boolean.TRUE, now, createdBy
+            });
+            for (Line line : result.lines()) {
+                lineItems.add(new Object[] {
+                    UUID.randomUUID().toString(), org, payslipId,
+                    line.salaryComponentId() != null ? line.salaryComponentId().toString() : null,
+                    line.name(), line.type(), line.amount(), line.calculationBasis(), line.percentage(),
+                    line.baseAmount(), line.taxable(), line.displayOrder(), Boolean.TRUE, now, createdBy
+                });
+            }
+            fingerprintRows.add(new Object[] {
+                UUID.randomUUID().toString(), org, runId, result.employeeId().toString(), fingerprints.get(i), now
+            });
+
+            // Payslips go first so that their line items can reference them
+            if (lineItems.size() >= batchSize) {
+                insertPayslips(payslips);
+                insertLineItems(lineItems);
+                insertFingerprints(fingerprintRows);
+            }
+        }
+        insertPayslips(payslips);
+        insertLineItems(lineItems);
+        insertFingerprints(fingerprintRows);
+
+        Object[] totals = jdbcTemplate.queryForObject("SELECT COUNT(*) AS payslips, SUM(gross_pay) AS gross, " +
+                "SUM(total_deductions) AS deductions, SUM(net_pay) AS net FROM payslips WHERE payroll_run_id = ?",
+                (rs, rowNum) -> new Object[] {
+                    rs.getInt("payslips"), orZero(rs.getBigDecimal("gross")),
+                    orZero(rs.getBigDecimal("deductions")), orZero(rs.getBigDecimal("net"))
+                }, runId);
+        jdbcTemplate.update("UPDATE payroll_runs SET status = ?, total_employees = ?, total_gross_pay = ?, " +
+                "total_deductions = ?, total_net_pay = ?, processed_by = ?, processed_at = ?, updated_at = ? WHERE id = ?",
+                STATUS_COMPLETED, totals[0], totals[1], totals[2], totals[3], createdBy, now, now, runId);
+    }
+
+    private void insertPayslips(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payslips (id, organization_id, payroll_run_id, employee_id, " +
+                "pay_period_start, pay_period_end, gross_pay, total_deductions, net_pay, status, is_active, created_at, " +
+                "created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private void insertLineItems(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payslip_line_items (id, organization_id, payslip_id, salary_component_id, " +
+                "component_name, component_type, amount, calculation_basis, percentage, base_amount, is_taxable, " +
+                "display_order, is_active, created_at, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private void insertFingerprints(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payroll_run_fingerprints (id, organization_id, payroll_run_id, employee_id, " +
+                "fingerprint, created_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    static int periodsPerYear(String payFrequency) {
+        if (payFrequency == null) {
+            return 12;
+        }
+        return switch (payFrequency.toUpperCase().replace("-", "_")) {
+            case "WEEKLY" -> 52;
+            case "BIWEEKLY", "BI_WEEKLY" -> 26;
+            case "SEMIMONTHLY", "SEMI_MONTHLY" -> 24;
+            case "QUARTERLY" -> 4;
+            case "ANNUAL", "ANNUALLY", "YEARLY" -> 1;
+            default -> 12;
+        };
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static UUID uuid(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID id ? id : UUID.fromString(value.toString());
+    }
+
+    private record StructureRow(UUID id, UUID employeeId, BigDecimal basicSalary, String payFrequency,
+                                LocalDate effectiveFrom) {
+
+        boolean isBefore(StructureRow other) {
+            int order = effectiveFrom.compareTo(other.effectiveFrom);
+            return order != 0 ? order < 0 : id.toString().compareTo(other.id.toString()) < 0;
+        }
+    }
+
+    private record TaxProfileRow(String countryCode, String taxRegime, int taxYear) {
+    }
+
+    private record ComponentRow(UUID id, LocalDate effectiveFrom, ComponentInput input) {
+
+        boolean isBefore(ComponentRow other) {
+            int order = effectiveFrom.compareTo(other.effectiveFrom);
+            return order != 0 ? order < 0 : id.toString().compareTo(other.id.toString()) < 0;
+        }
+    }
+
+    /**
+     * Computes results[from, to) by halving the range down to SLICE_SIZE employees
+     */
+    private static final class CalculateSlice extends RecursiveAction {
+
+        private final PayrollCalculator calculator;
+        private final List<EmployeeInput> inputs;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        CalculateSlice(PayrollCalculator calculator, List<EmployeeInput> inputs, Result[] results, int from, int to) {
+            this.calculator = calculator;
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = calculator.calculate(inputs.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CalculateSlice(calculator, inputs, results, from, middle),
+                    new CalculateSlice(calculator, inputs, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hrms.service.payroll;
+
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+import com.hrms.service.payroll.PayrollCalculator.EmployeeInput;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 fingerprint of the inputs an employee's payslip is computed from.
+ *
+ * Only what PayrollCalculator reads is hashed: basic salary, periods per year, each component as
+ * the calculator sees it (a percentage and its base, or a fixed amount) and the tax schedule.
+ * Fields are hashed as text with separators, amounts without trailing zeros, so the fingerprint
+ * only changes when a value does.
+ */
+final class PayrollFingerprint {
+
+    private static final byte FIELD_SEPARATOR = 0x1f;
+    private static final byte RECORD_SEPARATOR = 0x1e;
+
+    private PayrollFingerprint() {
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Add one record to a digest
+     */
+    private static void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            if (field != null) {
+                String text = field instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString() : field.toString();
+                digest.update(text.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(FIELD_SEPARATOR);
+        }
+        digest.update(RECORD_SEPARATOR);
+    }
+
+    static String of(EmployeeInput input) {
+        MessageDigest digest = newDigest();
+        update(digest, input.basicSalary(), input.periodsPerYear());
+        for (ComponentInput component : input.components()) {
+            boolean percentage = component.isPercentage();
+            update(digest, component.salaryComponentId(), component.name(), component.code(), component.type(),
+                    percentage, percentage ? component.percentage() : component.amount(),
+                    percentage ? component.baseComponentId() : null);
+        }
+        update(digest, input.taxSchedule() != null ? input.taxSchedule().getSignature() : null);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
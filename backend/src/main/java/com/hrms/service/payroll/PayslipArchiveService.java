@@ -0,0 +1,508 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.payroll.PayrollRun;
+import com.hrms.entity.payroll.PayslipArchive;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.payroll.PayrollRunRepository;
+import com.hrms.repository.payroll.PayslipArchiveRepository;
+import com.hrms.service.FileStorageService;
+import com.hrms.service.payroll.PayslipPdfRenderer.PayslipData;
+import com.hrms.service.payroll.PayslipPdfRenderer.PayslipLine;
+import com.hrms.service.storage.StoredFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Payslip PDFs of payroll runs, one at a time or as a ZIP archive of a whole run.
+ *
+ * Archives are streamed: payslips are read a page of CHUNK_SIZE at a time in employee code order
+ * (keyset paging, line items in one query per page), rendered on the payslipRenderExecutor and
+ * written to the ZIP in that order as soon as they are ready. At most
+ * payroll.payslip-pdf.in-flight PDFs are rendered ahead of the writer, so memory stays bounded
+ * however large the run is. An archive can be written straight to the HTTP response, or requested
+ * for later download: it is then generated into document storage by a background job
+ * (payslip_archives) on the payslipArchiveExecutor, and jobs that do not fit the executor or whose
+ * worker died are picked up by a periodic sweep.
+ */
+@Service
+@Slf4j
+public class PayslipArchiveService {
+
+    public static final String ARCHIVE_CONTENT_TYPE = "application/zip";
+    public static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    // Payslips read per page; their line items are loaded in one query
+    private static final int CHUNK_SIZE = 200;
+
+    private final PayrollRunRepository runRepository;
+    private final PayslipArchiveRepository archiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PayslipPdfRenderer renderer;
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolTaskExecutor renderExecutor;
+    private final TaskExecutor archiveExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Archives queued or generating on this instance */
+    private final Set<UUID> generating = ConcurrentHashMap.newKeySet();
+
+    @Value("${payroll.payslip-pdf.in-flight:64}")
+    private int inFlight;
+
+    @Value("${payroll.payslip-archive.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    public PayslipArchiveService(PayrollRunRepository runRepository,
+                                 PayslipArchiveRepository archiveRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PayslipPdfRenderer renderer,
+                                 FileStorageService fileStorageService,
+                                 @Qualifier("payslipRenderExecutor") ThreadPoolTaskExecutor renderExecutor,
+                                 @Qualifier("payslipArchiveExecutor") TaskExecutor archiveExecutor,
+                                 PlatformTransactionManager transactionManager) {
+        this.runRepository = runRepository;
+        this.archiveRepository = archiveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderer = renderer;
+        this.fileStorageService = fileStorageService;
+        this.renderExecutor = renderExecutor;
+        this.archiveExecutor = archiveExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A run's archive in document storage
+     */
+    public record StoredArchive(String path, long size, String eTag) {
+    }
+
+    /**
+     * One rendered payslip
+     */
+    public record RenderedPayslip(String fileName, byte[] content) {
+    }
+
+    private record PayslipRow(UUID id, String employeeCode, String employeeName, LocalDate periodStart,
+                              LocalDate periodEnd, BigDecimal grossPay, BigDecimal totalDeductions,
+                              BigDecimal netPay) {
+
+        String fileName() {
+            String code = employeeCode != null ? employeeCode : id.toString();
+            return safeName(code + (periodEnd != null ? "-" + periodEnd : "")) + ".pdf";
+        }
+    }
+
+    private record Pending(String entryName, Future<byte[]> pdf) {
+    }
+
+    /**
+     * File name for a run's archive
+     * @throws ResourceNotFoundException if the run does not exist in the organization
+     */
+    public String archiveFileName(UUID runId, UUID organizationId) {
+        PayrollRun run = findRun(runId, organizationId);
+        String period = run.getPayPeriod() != null ? run.getPayPeriod()
+                : run.getPeriodEnd() != null ? run.getPeriodEnd().toString() : runId.toString();
+        return "payslips-" + safeName(period) + ".zip";
+    }
+
+    /**
+     * Write the payslip PDFs of a run as a ZIP to out (which is finished but not closed), one
+     * entry per payslip named by employee code and period
+     * @return number of payslips written
+     */
+    public int writeArchive(UUID runId, UUID organizationId, OutputStream out) throws IOException {
+        return writeArchive(runId, organizationId, out, () -> { });
+    }
+
+    /**
+     * writeArchive, calling afterPage after every page of payslips
+     */
+    private int writeArchive(UUID runId, UUID organizationId, OutputStream out, Runnable afterPage) throws IOException {
+        findRun(runId, organizationId);
+        String organizationName = organizationName(organizationId);
+        long startTime = System.currentTimeMillis();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDF content streams are already compressed
+        zip.setLevel(Deflater.BEST_SPEED);
+        Deque<Pending> pending = new ArrayDeque<>();
+        Set<String> entryNames = new HashSet<>();
+        int count = 0;
+        try {
+            List<PayslipRow> page = loadRunPage(organizationId, runId, null);
+            while (!page.isEmpty()) {
+                Map<UUID, List<PayslipLine>> lines = loadLines(page);
+                for (PayslipRow row : page) {
+                    PayslipData data = toData(row, organizationName, lines.getOrDefault(row.id(), List.of()));
+                    String entryName = entryNames.add(row.fileName()) ? row.fileName() : safeName(row.id() + ".pdf");
+                    pending.add(new Pending(entryName, renderExecutor.submit(() -> render(data))));
+                    if (pending.size() >= Math.max(inFlight, 1)) {
+                        writeEntry(zip, pending.poll());
+                    }
+                }
+                count += page.size();
+                afterPage.run();
+                page = page.size() < CHUNK_SIZE ? List.of() : loadRunPage(organizationId, runId, page.get(page.size() - 1));
+            }
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pending.poll());
+            }
+        } finally {
+            // Stop rendering for an archive that failed or whose client went away
+            pending.forEach(rendering -> rendering.pdf().cancel(true));
+        }
+        zip.finish();
+        out.flush();
+        log.info("Payslip archive of payroll run {}: {} payslips in {}ms", runId, count,
+                System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    /**
+     * Queue the generation of a run's archive into document storage. An archive that is already
+     * queued or generating is returned as it is.
+     * @throws ResourceNotFoundException if the run does not exist in the organization
+     */
+    public PayslipArchive requestArchive(UUID runId, UUID organizationId, UUID requestedBy) {
+        findRun(runId, organizationId);
+        PayslipArchive archive;
+        try {
+            archive = transactionTemplate.execute(status -> {
+                PayslipArchive existing = archiveRepository.findById(runId).orElse(null);
+                if (existing != null && existing.isPending()) {
+                    return existing;
+                }
+                PayslipArchive queued = existing != null ? existing : new PayslipArchive();
+                queued.setPayrollRunId(runId);
+                queued.setOrganizationId(organizationId);
+                queued.setRequestedBy(requestedBy);
+                queued.setStatus(PayslipArchive.STATUS_QUEUED);
+                queued.setErrorMessage(null);
+                queued.setCreatedAt(LocalDateTime.now());
+                queued.setStartedAt(null);
+                queued.setCompletedAt(null);
+                return archiveRepository.saveAndFlush(queued);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Requested concurrently
+            archive = archiveRepository.findById(runId).orElseThrow(() -> e);
+        }
+        dispatch(runId);
+        return archive;
+    }
+
+    /**
+     * State of a run's archive
+     * @throws ResourceNotFoundException if the run does not exist or no archive was requested
+     */
+    public PayslipArchive getArchive(UUID runId, UUID organizationId) {
+        findRun(runId, organizationId);
+        return archiveRepository.findByPayrollRunIdAndOrganizationId(runId, organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("No payslip archive has been requested for payroll run: " + runId));
+    }
+
+    /**
+     * The run's generated archive, if it is complete and the run has not been processed since
+     * @throws ResourceNotFoundException if the run does not exist or has no current archive
+     */
+    public StoredArchive getStoredArchive(UUID runId, UUID organizationId) {
+        findRun(runId, organizationId);
+        PayslipArchive archive = archiveRepository.findByPayrollRunIdAndOrganizationId(runId, organizationId)
+                .filter(a -> PayslipArchive.STATUS_COMPLETED.equals(a.getStatus()))
+                .orElseThrow(() -> new ResourceNotFoundException("No current payslip archive for payroll run: " + runId));
+        return new StoredArchive(archive.getStoredPath(), archive.getSizeBytes(), archive.getEtag());
+    }
+
+    /**
+     * Pick up archives that did not fit the executor and archives abandoned by a dead worker
+     */
+    @Scheduled(fixedDelayString = "${payroll.payslip-archive.recovery-interval-ms:60000}",
+               initialDelayString = "${payroll.payslip-archive.recovery-initial-delay-ms:30000}")
+    public void recoverArchives() {
+        try {
+            for (UUID runId : archiveRepository.findRunnableRunIds(staleBefore())) {
+                if (!generating.contains(runId)) {
+                    dispatch(runId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error while recovering payslip archives", e);
+        }
+    }
+
+    private void dispatch(UUID runId) {
+        if (!generating.add(runId)) {
+            return;
+        }
+        try {
+            archiveExecutor.execute(() -> {
+                try {
+                    generate(runId);
+                } finally {
+                    generating.remove(runId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            generating.remove(runId);
+            log.info("Payslip archive queue is full, archive of payroll run {} stays queued", runId);
+        }
+    }
+
+    /**
+     * Claim a queued archive and generate it into a new storage path. The ZIP is spooled to a
+     * temporary file first because storage needs the size up front. The previous generation is
+     * deleted once the new one is recorded; a generation that was superseded or marked stale
+     * meanwhile deletes its own file instead.
+     */
+    void generate(UUID runId) {
+        PayslipArchive archive = archiveRepository.findById(runId).orElse(null);
+        if (archive == null) {
+            return;
+        }
+        UUID organizationId = archive.getOrganizationId();
+        String previousPath = archive.getStoredPath();
+        String path = String.format("org/%s/payroll/%s/payslips-%s.zip", organizationId, runId, UUID.randomUUID());
+        Integer claimed = transactionTemplate.execute(status ->
+                archiveRepository.claim(runId, path, LocalDateTime.now(), staleBefore()));
+        if (claimed == null || claimed == 0) {
+            return; // generated, or owned by another worker
+        }
+
+        int recorded;
+        try {
+            int count;
+            Path spool = Files.createTempFile("payslips-", ".zip");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spool), 64 * 1024)) {
+                    count = writeArchive(runId, organizationId, out, () -> transactionTemplate.executeWithoutResult(
+                            status -> archiveRepository.heartbeat(runId, path, LocalDateTime.now())));
+                }
+                fileStorageService.storeGenerated(path, spool, ARCHIVE_CONTENT_TYPE);
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+            StoredFile stored = fileStorageService.stat(path);
+            int payslips = count;
+            Integer completed = transactionTemplate.execute(status -> archiveRepository.complete(runId, path,
+                    stored.size(), stored.eTag(), payslips, LocalDateTime.now()));
+            recorded = completed != null ? completed : 0;
+        } catch (Exception e) {
+            log.error("Payslip archive of payroll run {} failed: {}", runId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(status ->
+                    archiveRepository.fail(runId, path, e.getMessage(), LocalDateTime.now()));
+            recorded = 0;
+        }
+
+        if (recorded == 0) {
+            deleteQuietly(path);
+        } else if (previousPath != null) {
+            deleteQuietly(previousPath);
+        }
+    }
+
+    private void deleteQuietly(String path) {
+        try {
+            fileStorageService.deleteGenerated(path);
+        } catch (RuntimeException e) {
+            log.debug("Could not delete payslip archive {}: {}", path, e.getMessage());
+        }
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+    }
+
+    /**
+     * Stream a stored archive to out
+     */
+    public void download(StoredArchive archive, OutputStream out) {
+        if (archive.size() > 0) {
+            fileStorageService.download(archive.path(), 0, archive.size(), archive.eTag(), out);
+        }
+    }
+
+    /**
+     * Render a single payslip
+     * @throws ResourceNotFoundException if the payslip does not exist in the organization
+     */
+    public RenderedPayslip renderPayslip(UUID payslipId, UUID organizationId) throws IOException {
+        return renderPayslip(payslipId, organizationId,
+                loadPayslips(organizationId, "p.id = ?", false, payslipId.toString()));
+    }
+
+    /**
+     * Render a payslip of the given employee, for self-service download
+     * @throws ResourceNotFoundException if the payslip does not exist or belongs to someone else
+     */
+    public RenderedPayslip renderEmployeePayslip(UUID payslipId, UUID organizationId, UUID employeeId)
+            throws IOException {
+        if (organizationId == null || employeeId == null) {
+            throw new ResourceNotFoundException("Payslip not found with id: " + payslipId);
+        }
+        return renderPayslip(payslipId, organizationId, loadPayslips(organizationId,
+                "p.id = ? AND p.employee_id = ?", false, payslipId.toString(), employeeId.toString()));
+    }
+
+    private RenderedPayslip renderPayslip(UUID payslipId, UUID organizationId, List<PayslipRow> rows)
+            throws IOException {
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Payslip not found with id: " + payslipId);
+        }
+        PayslipRow row = rows.get(0);
+        List<PayslipLine> lines = loadLines(rows).getOrDefault(row.id(), List.of());
+        return new RenderedPayslip(row.fileName(), render(toData(row, organizationName(organizationId), lines)));
+    }
+
+    private byte[] render(PayslipData data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+        renderer.render(data, buffer);
+        return buffer.toByteArray();
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Pending pending) throws IOException {
+        byte[] pdf;
+        try {
+            pdf = pending.pdf().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering payslips", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new RuntimeException("Payslip rendering failed", e.getCause());
+        }
+        zip.putNextEntry(new ZipEntry(pending.entryName()));
+        zip.write(pdf);
+        zip.closeEntry();
+    }
+
+    private PayrollRun findRun(UUID runId, UUID organizationId) {
+        return runRepository.findByIdAndOrganizationIdAndDeletedAtIsNull(runId, organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("PayrollRun not found with id: " + runId));
+    }
+
+    private String organizationName(UUID organizationId) {
+        return jdbcTemplate.query("SELECT name FROM organizations WHERE id = ?",
+                (ResultSet rs) -> rs.next() ? rs.getString("name") : null, organizationId.toString());
+    }
+
+    /**
+     * The page of a run's payslips that follows after (the first page if null), in employee code order
+     */
+    private List<PayslipRow> loadRunPage(UUID organizationId, UUID runId, PayslipRow after) {
+        if (after == null) {
+            return loadPayslips(organizationId, "p.payroll_run_id = ?", true, runId.toString());
+        }
+        String code = after.employeeCode() != null ? after.employeeCode() : "";
+        return loadPayslips(organizationId, "p.payroll_run_id = ? AND (COALESCE(e.employee_code, '') > ? " +
+                "OR (COALESCE(e.employee_code, '') = ? AND p.id > ?))", true,
+                runId.toString(), code, code, after.id().toString());
+    }
+
+    /**
+     * Payslips matching condition in employee code order; with paged, at most CHUNK_SIZE of them
+     */
+    private List<PayslipRow> loadPayslips(UUID organizationId, String condition, boolean paged, String... params) {
+        Object[] args = new Object[params.length + 1];
+        args[0] = organizationId.toString();
+        System.arraycopy(params, 0, args, 1, params.length);
+        return jdbcTemplate.query("SELECT p.id, p.pay_period_start, p.pay_period_end, p.gross_pay, p.total_deductions, " +
+                "p.net_pay, e.employee_code, e.first_name, e.last_name FROM payslips p " +
+                "LEFT JOIN employees e ON e.id = p.employee_id " +
+                "WHERE p.organization_id = ? AND p.deleted_at IS NULL AND " + condition +
+                " ORDER BY COALESCE(e.employee_code, ''), p.id" +
+                (paged ? " OFFSET 0 ROWS FETCH NEXT " + CHUNK_SIZE + " ROWS ONLY" : ""),
+                (rs, rowNum) -> new PayslipRow(uuid(rs, "id"), rs.getString("employee_code"),
+                        fullName(rs.getString("first_name"), rs.getString("last_name")),
+                        localDate(rs.getDate("pay_period_start")), localDate(rs.getDate("pay_period_end")),
+                        rs.getBigDecimal("gross_pay"), rs.getBigDecimal("total_deductions"), rs.getBigDecimal("net_pay")),
+                args);
+    }
+
+    /**
+     * Line items of the given payslips in display order
+     */
+    private Map<UUID, List<PayslipLine>> loadLines(List<PayslipRow> payslips) {
+        if (payslips.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(payslips.size(), "?"));
+        Object[] ids = payslips.stream().map(row -> row.id().toString()).toArray();
+        Map<UUID, List<PayslipLine>> lines = new HashMap<>();
+        jdbcTemplate.query("SELECT id, payslip_id, component_name, component_type, amount, display_order " +
+                "FROM payslip_line_items WHERE deleted_at IS NULL AND payslip_id IN (" + placeholders + ") " +
+                "ORDER BY display_order, id", (ResultSet rs) -> {
+            lines.computeIfAbsent(uuid(rs, "payslip_id"), id -> new ArrayList<>())
+                    .add(new PayslipLine(rs.getString("component_name"), rs.getString("component_type"),
+                            rs.getBigDecimal("amount")));
+        }, ids);
+        return lines;
+    }
+
+    private static PayslipData toData(PayslipRow row, String organizationName, List<PayslipLine> lines) {
+        return new PayslipData(organizationName, row.employeeCode(), row.employeeName(), row.periodStart(),
+                row.periodEnd(), row.grossPay(), row.totalDeductions(), row.netPay(), lines);
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        String name = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    private static String safeName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static LocalDate localDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static UUID uuid(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID id ? id : UUID.fromString(value.toString());
+    }
+}
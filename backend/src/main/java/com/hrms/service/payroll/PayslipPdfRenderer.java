@@ -0,0 +1,258 @@
+package com.hrms.service.payroll;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders one payslip as an A4 PDF: organization and employee header, earnings and
+ * deductions with their amounts, and gross pay, total deductions and net pay.
+ *
+ * The layout (positions, fixed labels and their widths) is compiled once and shared by every
+ * payslip. Text uses DejaVu Sans, embedded and subset to the glyphs a payslip uses, so names and
+ * components in any script the font covers print as written. The font files are read once;
+ * each document parses its own font objects from those bytes because PDFBox records object
+ * numbers and the used glyphs on them while saving. Thread-safe.
+ */
+@Component
+public class PayslipPdfRenderer {
+
+    public record PayslipLine(String name, String type, BigDecimal amount) {
+    }
+
+    public record PayslipData(String organizationName, String employeeCode, String employeeName,
+                              LocalDate periodStart, LocalDate periodEnd, BigDecimal grossPay,
+                              BigDecimal totalDeductions, BigDecimal netPay, List<PayslipLine> lines) {
+    }
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+    private static final String REGULAR_FONT = "fonts/DejaVuSans.ttf";
+    private static final String BOLD_FONT = "fonts/DejaVuSans-Bold.ttf";
+
+    private final byte[] regularFont;
+    private final byte[] boldFont;
+    private final Layout layout;
+
+    public PayslipPdfRenderer() {
+        try {
+            this.regularFont = new ClassPathResource(REGULAR_FONT).getContentAsByteArray();
+            this.boldFont = new ClassPathResource(BOLD_FONT).getContentAsByteArray();
+            this.layout = Layout.compile(boldFont);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Payslip fonts could not be loaded", e);
+        }
+    }
+
+    /**
+     * Write the payslip's PDF to out (which is not closed)
+     */
+    public void render(PayslipData payslip, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDFont regular = font(document, regularFont);
+            PDFont bold = font(document, boldFont);
+            PDPageContentStream content = newPage(document);
+            try {
+                float y = Layout.TOP;
+                text(content, bold, Layout.TITLE_SIZE, Layout.LEFT, y, payslip.organizationName());
+                y -= Layout.TITLE_SIZE + 6;
+                text(content, regular, Layout.TEXT_SIZE, Layout.LEFT, y, "Payslip for " + period(payslip));
+                y -= Layout.ROW * 2;
+
+                text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.EMPLOYEE_LABEL);
+                text(content, regular, Layout.TEXT_SIZE, Layout.VALUE_X, y, payslip.employeeName());
+                y -= Layout.ROW;
+                text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.CODE_LABEL);
+                text(content, regular, Layout.TEXT_SIZE, Layout.VALUE_X, y, payslip.employeeCode());
+                y -= Layout.ROW * 1.5f;
+
+                y = tableHeader(content, bold, y);
+                for (PayslipLine line : payslip.lines()) {
+                    if (y < Layout.BOTTOM) {
+                        content.close();
+                        content = newPage(document);
+                        y = tableHeader(content, bold, Layout.TOP);
+                    }
+                    text(content, regular, Layout.TEXT_SIZE, Layout.LEFT, y, line.name());
+                    text(content, regular, Layout.TEXT_SIZE, Layout.TYPE_X, y, typeLabel(line.type()));
+                    amount(content, regular, y, line.amount());
+                    y -= Layout.ROW;
+                }
+
+                if (y < Layout.BOTTOM + Layout.ROW * 3) {
+                    content.close();
+                    content = newPage(document);
+                    y = Layout.TOP;
+                }
+                rule(content, y + Layout.ROW - 6);
+                y -= Layout.ROW * 0.5f;
+                text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.GROSS_LABEL);
+                amount(content, regular, y, payslip.grossPay());
+                y -= Layout.ROW;
+                text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.DEDUCTIONS_LABEL);
+                amount(content, regular, y, payslip.totalDeductions());
+                y -= Layout.ROW;
+                text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.NET_LABEL);
+                amount(content, bold, y, payslip.netPay());
+            } finally {
+                content.close();
+            }
+            document.save(out);
+        }
+    }
+
+    /**
+     * The font embedded in document, subset to the glyphs used when the document is saved.
+     * The parsed font reads the shared bytes in place and holds no other resources.
+     */
+    private static PDFont font(PDDocument document, byte[] ttf) throws IOException {
+        return PDType0Font.load(document, new TTFParser().parse(new RandomAccessReadBuffer(ttf)), true);
+    }
+
+    private static PDPageContentStream newPage(PDDocument document) throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        return new PDPageContentStream(document, page);
+    }
+
+    /**
+     * Column headings of the components table
+     * @return the baseline of the first row below them
+     */
+    private float tableHeader(PDPageContentStream content, PDFont bold, float y) throws IOException {
+        rule(content, y + Layout.ROW - 4);
+        text(content, bold, Layout.TEXT_SIZE, Layout.LEFT, y, Layout.COMPONENT_LABEL);
+        text(content, bold, Layout.TEXT_SIZE, Layout.TYPE_X, y, Layout.TYPE_LABEL);
+        text(content, bold, Layout.TEXT_SIZE, Layout.RIGHT - layout.amountLabelWidth, y, Layout.AMOUNT_LABEL);
+        rule(content, y - 6);
+        return y - Layout.ROW * 1.5f;
+    }
+
+    private void amount(PDPageContentStream content, PDFont font, float y, BigDecimal amount) throws IOException {
+        String text = formatAmount(amount);
+        text(content, font, Layout.TEXT_SIZE, Layout.RIGHT - width(font, Layout.TEXT_SIZE, text), y, text);
+    }
+
+    private static void text(PDPageContentStream content, PDFont font, float size, float x, float y, String text)
+            throws IOException {
+        content.beginText();
+        content.setFont(font, size);
+        content.newLineAtOffset(x, y);
+        content.showText(encodable(font, text));
+        content.endText();
+    }
+
+    private static void rule(PDPageContentStream content, float y) throws IOException {
+        content.setLineWidth(0.5f);
+        content.moveTo(Layout.LEFT, y);
+        content.lineTo(Layout.RIGHT, y);
+        content.stroke();
+    }
+
+    private static float width(PDFont font, float size, String text) {
+        try {
+            return font.getStringWidth(text) / 1000 * size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The text with characters the font has no glyph for replaced by '?'
+     */
+    private static String encodable(PDFont font, String text) {
+        if (text == null) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            char c = text.charAt(i);
+            ascii = c >= 0x20 && c < 0x7f;
+        }
+        if (ascii) {
+            return text;
+        }
+        StringBuilder safe = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> {
+            String character = new String(Character.toChars(codePoint));
+            try {
+                font.encode(character);
+                safe.append(character);
+            } catch (IOException | IllegalArgumentException e) {
+                safe.append('?');
+            }
+        });
+        return safe.toString();
+    }
+
+    private static String period(PayslipData payslip) {
+        if (payslip.periodStart() == null || payslip.periodEnd() == null) {
+            return "";
+        }
+        return DATE_FORMAT.format(payslip.periodStart()) + " - " + DATE_FORMAT.format(payslip.periodEnd());
+    }
+
+    private static String typeLabel(String type) {
+        return PayrollCalculator.DEDUCTION.equalsIgnoreCase(type) ? "Deduction" : "Earning";
+    }
+
+    private static String formatAmount(BigDecimal amount) {
+        // DecimalFormat is not thread-safe
+        DecimalFormat format = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+        return format.format(amount != null ? amount : BigDecimal.ZERO);
+    }
+
+    /**
+     * Page geometry and fixed labels, measured once
+     */
+    private static final class Layout {
+
+        static final float LEFT = 50;
+        static final float RIGHT = PDRectangle.A4.getWidth() - 50;
+        static final float TOP = PDRectangle.A4.getHeight() - 60;
+        static final float BOTTOM = 60;
+        static final float VALUE_X = LEFT + 110;
+        static final float TYPE_X = LEFT + 300;
+        static final float TITLE_SIZE = 16;
+        static final float TEXT_SIZE = 10;
+        static final float ROW = 16;
+
+        static final String EMPLOYEE_LABEL = "Employee";
+        static final String CODE_LABEL = "Employee code";
+        static final String COMPONENT_LABEL = "Component";
+        static final String TYPE_LABEL = "Type";
+        static final String AMOUNT_LABEL = "Amount";
+        static final String GROSS_LABEL = "Gross pay";
+        static final String DEDUCTIONS_LABEL = "Total deductions";
+        static final String NET_LABEL = "Net pay";
+
+        final float amountLabelWidth;
+
+        private Layout(float amountLabelWidth) {
+            this.amountLabelWidth = amountLabelWidth;
+        }
+
+        static Layout compile(byte[] boldFont) throws IOException {
+            try (PDDocument document = new PDDocument()) {
+                return new Layout(width(font(document, boldFont), TEXT_SIZE, AMOUNT_LABEL));
+            }
+        }
+    }
+}
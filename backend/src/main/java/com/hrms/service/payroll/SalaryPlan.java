@@ -0,0 +1,166 @@
+package com.hrms.service.payroll;
+
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ValidationException;
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evaluation plan of a salary structure, compiled once from the dependencies between its
+ * components and reused for every employee with the same structure.
+ *
+ * Slot 0 of the slot table holds the basic salary and slot i + 1 the amount of component i (in
+ * the structure's component order). The plan is a flat list of operations in dependency order:
+ * each sets one slot either to its fixed amount or to a percentage of its base slot, so
+ * evaluating it is a single pass without looking anything up. Per-employee amounts and
+ * percentages are passed as parameters, so the plan only depends on the structure's shape.
+ */
+public final class SalaryPlan {
+
+    /**
+     * What a plan depends on: per component its id, whether it is a percentage and of what
+     */
+    public record Shape(List<Node> nodes) {
+
+        public static Shape of(List<ComponentInput> components) {
+            List<Node> nodes = new ArrayList<>(components.size());
+            for (ComponentInput component : components) {
+                nodes.add(new Node(component.salaryComponentId(), component.isPercentage(),
+                        component.isPercentage() ? component.baseComponentId() : null));
+            }
+            return new Shape(List.copyOf(nodes));
+        }
+    }
+
+    public record Node(UUID componentId, boolean percentage, UUID baseComponentId) {
+    }
+
+    static final int BASIC_SLOT = 0;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final int slots;
+    // Operation k sets slot opTarget[k] from opBase[k] (a slot, or -1 for a fixed amount)
+    private final int[] opTarget;
+    private final int[] opBase;
+    private final int[] slotBase;
+
+    private SalaryPlan(int slots, int[] opTarget, int[] opBase, int[] slotBase) {
+        this.slots = slots;
+        this.opTarget = opTarget;
+        this.opBase = opBase;
+        this.slotBase = slotBase;
+    }
+
+    /**
+     * Topologically sort the components (Kahn's algorithm, so the order is deterministic)
+     * @throws ValidationException if a percentage is of a component that is not in the list
+     * @throws BusinessException if components depend on each other in a cycle
+     */
+    public static SalaryPlan compile(List<ComponentInput> components) {
+        List<Node> nodes = Shape.of(components).nodes();
+        int count = nodes.size();
+        Map<UUID, Integer> slotOf = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            slotOf.put(nodes.get(i).componentId(), i + 1);
+        }
+
+        int[] base = new int[count + 1];
+        base[BASIC_SLOT] = -1;
+        int[] pending = new int[count + 1];
+        List<List<Integer>> dependents = new ArrayList<>(count + 1);
+        for (int slot = 0; slot <= count; slot++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            Node node = nodes.get(i);
+            int slot = i + 1;
+            if (!node.percentage()) {
+                base[slot] = -1;
+                continue;
+            }
+            // Percentages without a base component are of the basic salary
+            base[slot] = BASIC_SLOT;
+            if (node.baseComponentId() != null) {
+                Integer baseSlot = slotOf.get(node.baseComponentId());
+                if (baseSlot == null) {
+                    throw new ValidationException("baseComponentId", "Salary component '" + components.get(i).name()
+                            + "' is a percentage of salary component " + node.baseComponentId() + ", which is not assigned");
+                }
+                base[slot] = baseSlot;
+            }
+            if (base[slot] != BASIC_SLOT) {
+                pending[slot] = 1;
+                dependents.get(base[slot]).add(slot);
+            }
+        }
+
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int slot = 1; slot <= count; slot++) {
+            if (pending[slot] == 0) {
+                ready.add(slot);
+            }
+        }
+        int[] opTarget = new int[count];
+        int[] opBase = new int[count];
+        int ops = 0;
+        while (!ready.isEmpty()) {
+            int slot = ready.poll();
+            opTarget[ops] = slot;
+            opBase[ops] = base[slot];
+            ops++;
+            for (int dependent : dependents.get(slot)) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (ops < count) {
+            List<String> cycle = new ArrayList<>();
+            for (int slot = 1; slot <= count; slot++) {
+                if (pending[slot] > 0) {
+                    cycle.add(components.get(slot - 1).name());
+                }
+            }
+            throw new BusinessException("Salary components depend on each other in a cycle: " + String.join(", ", cycle),
+                    "SALARY_COMPONENT_CYCLE");
+        }
+        return new SalaryPlan(count + 1, opTarget, opBase, base);
+    }
+
+    /**
+     * Fill the slot table for one employee
+     * @param parameters per component (slot) its fixed amount or its percentage; index 0 is unused
+     * @return the slot table: basic salary, then the amount of each component
+     */
+    public BigDecimal[] evaluate(BigDecimal basicSalary, BigDecimal[] parameters) {
+        BigDecimal[] values = new BigDecimal[slots];
+        values[BASIC_SLOT] = basicSalary;
+        for (int k = 0; k < opTarget.length; k++) {
+            int target = opTarget[k];
+            int base = opBase[k];
+            BigDecimal parameter = parameters[target] != null ? parameters[target] : BigDecimal.ZERO;
+            BigDecimal amount = base < 0 ? parameter : values[base].multiply(parameter).divide(HUNDRED, PRECISION);
+            values[target] = amount.setScale(PayrollCalculator.SCALE, PayrollCalculator.ROUNDING);
+        }
+        return values;
+    }
+
+    /**
+     * Slot a component's percentage is taken of, or -1 for a fixed component
+     */
+    public int baseSlot(int slot) {
+        return slotBase[slot];
+    }
+}
@@ -0,0 +1,271 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.payroll.TaxSlab;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable index of an organization's active tax slabs, grouped into schedules per
+ * (country, regime, financial year).
+ *
+ * Each schedule keeps its slabs sorted by minIncome together with the tax accumulated by all lower
+ * slabs, so the progressive tax on an income is one binary search plus the partial slab instead of
+ * a walk over every slab. Slabs of one financial year with different effective dates (a mid-year
+ * revision) form separate schedules; lookups pick the schedule in effect on a date.
+ */
+public final class TaxSlabIndex {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    public static final TaxSlabIndex EMPTY = new TaxSlabIndex(Map.of(), 0);
+
+    private record Key(String countryCode, String taxRegime) {
+    }
+
+    private record Window(String financialYear, LocalDate effectiveFrom, LocalDate effectiveTo) {
+    }
+
+    // Schedules per (country, regime), newest effective first
+    private final Map<Key, List<Schedule>> schedules;
+    private final long version;
+
+    private TaxSlabIndex(Map<Key, List<Schedule>> schedules, long version) {
+        this.schedules = schedules;
+        this.version = version;
+    }
+
+    /**
+     * Index the given slabs; inactive and deleted slabs are skipped
+     * @param version the cache version the slabs were read at
+     */
+    public static TaxSlabIndex build(List<TaxSlab> slabs, long version) {
+        Map<Key, Map<Window, List<TaxSlab>>> grouped = new LinkedHashMap<>();
+        for (TaxSlab slab : slabs) {
+            if (Boolean.FALSE.equals(slab.getIsActive()) || slab.getDeletedAt() != null) {
+                continue;
+            }
+            grouped.computeIfAbsent(new Key(normalize(slab.getCountryCode()), normalize(slab.getTaxRegime())),
+                            key -> new LinkedHashMap<>())
+                    .computeIfAbsent(new Window(slab.getFinancialYear(), slab.getEffectiveFrom(), slab.getEffectiveTo()),
+                            window -> new ArrayList<>())
+                    .add(slab);
+        }
+
+        Map<Key, List<Schedule>> schedules = new HashMap<>();
+        grouped.forEach((key, windows) -> {
+            List<Schedule> built = new ArrayList<>(windows.size());
+            windows.forEach((window, group) -> built.add(Schedule.of(window, group)));
+            built.sort(Schedule.NEWEST_FIRST);
+            schedules.put(key, List.copyOf(built));
+        });
+        return new TaxSlabIndex(Map.copyOf(schedules), version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return schedules.isEmpty();
+    }
+
+    /**
+     * The schedule in effect on a date for a country and regime. Falls back to slabs without a
+     * regime, then to slabs without a country, then to the country's only regime.
+     * @return the schedule, or null when no slab applies (no income tax)
+     */
+    public Schedule find(String countryCode, String taxRegime, LocalDate asOf) {
+        String country = normalize(countryCode);
+        String regime = normalize(taxRegime);
+        Schedule schedule = effective(new Key(country, regime), asOf);
+        if (schedule == null && !regime.isEmpty()) {
+            schedule = effective(new Key(country, ""), asOf);
+        }
+        if (schedule == null && !country.isEmpty()) {
+            schedule = effective(new Key("", regime), asOf);
+            if (schedule == null && !regime.isEmpty()) {
+                schedule = effective(new Key("", ""), asOf);
+            }
+        }
+        if (schedule == null) {
+            // An employee without a regime gets the country's schedule when it has just one
+            Schedule only = null;
+            for (Map.Entry<Key, List<Schedule>> entry : schedules.entrySet()) {
+                if (!entry.getKey().countryCode().equals(country)) {
+                    continue;
+                }
+                Schedule candidate = effective(entry.getKey(), asOf);
+                if (candidate != null) {
+                    if (only != null) {
+                        return null;
+                    }
+                    only = candidate;
+                }
+            }
+            schedule = only;
+        }
+        return schedule;
+    }
+
+    private Schedule effective(Key key, LocalDate asOf) {
+        for (Schedule schedule : schedules.getOrDefault(key, List.of())) {
+            if (schedule.isEffective(asOf)) {
+                return schedule;
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toUpperCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * The slabs of one (country, regime, financial year) in effect over one period
+     */
+    public static final class Schedule {
+
+        static final Comparator<Schedule> NEWEST_FIRST = Comparator
+                .comparing((Schedule s) -> s.effectiveFrom, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(s -> s.financialYear != null ? s.financialYear : "", Comparator.reverseOrder());
+
+        private final String financialYear;
+        private final LocalDate effectiveFrom;
+        private final LocalDate effectiveTo;
+        // Per slab in minIncome order; upper is null for the open top slab
+        private final BigDecimal[] lower;
+        private final BigDecimal[] upper;
+        private final BigDecimal[] rate;
+        private final BigDecimal[] fixedAmount;
+        private final BigDecimal[] surchargeRate;
+        private final BigDecimal[] cessRate;
+        // Tax on the full width of every slab below slab i
+        private final BigDecimal[] below;
+        private final String signature;
+
+        private Schedule(String financialYear, LocalDate effectiveFrom, LocalDate effectiveTo, List<TaxSlab> slabs) {
+            this.financialYear = financialYear;
+            this.effectiveFrom = effectiveFrom;
+            this.effectiveTo = effectiveTo;
+            int count = slabs.size();
+            lower = new BigDecimal[count];
+            upper = new BigDecimal[count];
+            rate = new BigDecimal[count];
+            fixedAmount = new BigDecimal[count];
+            surchargeRate = new BigDecimal[count];
+            cessRate = new BigDecimal[count];
+            below = new BigDecimal[count];
+
+            StringBuilder signature = new StringBuilder()
+                    .append(financialYear).append('|').append(effectiveFrom).append('|').append(effectiveTo);
+            BigDecimal accumulated = BigDecimal.ZERO;
+            for (int i = 0; i < count; i++) {
+                TaxSlab slab = slabs.get(i);
+                lower[i] = orZero(slab.getMinIncome());
+                rate[i] = orZero(slab.getTaxRate());
+                fixedAmount[i] = orZero(slab.getFixedAmount());
+                surchargeRate[i] = orZero(slab.getSurchargeRate());
+                cessRate[i] = orZero(slab.getCessRate());
+                // Overlapping slabs end where the next one starts
+                BigDecimal max = slab.getMaxIncome();
+                if (i + 1 < count) {
+                    BigDecimal next = orZero(slabs.get(i + 1).getMinIncome());
+                    max = max == null || max.compareTo(next) > 0 ? next : max;
+                }
+                upper[i] = max;
+                below[i] = accumulated;
+                signature.append('|').append(plain(lower[i])).append(':').append(plain(max))
+                        .append(':').append(plain(rate[i])).append(':').append(plain(fixedAmount[i]))
+                        .append(':').append(plain(surchargeRate[i])).append(':').append(plain(cessRate[i]));
+                if (max != null) {
+                    accumulated = accumulated.add(slabTax(i, max));
+                }
+            }
+            this.signature = signature.toString();
+        }
+
+        public static Schedule of(List<TaxSlab> slabs) {
+            return of(new Window(null, null, null), slabs);
+        }
+
+        private static Schedule of(Window window, List<TaxSlab> slabs) {
+            List<TaxSlab> sorted = new ArrayList<>(slabs);
+            sorted.sort(Comparator.comparing(TaxSlab::getMinIncome, Comparator.nullsFirst(Comparator.naturalOrder())));
+            return new Schedule(window.financialYear(), window.effectiveFrom(), window.effectiveTo(), sorted);
+        }
+
+        public String getFinancialYear() {
+            return financialYear;
+        }
+
+        /**
+         * The schedule's slabs and period as text; equal for schedules that tax identically
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        public boolean isEffective(LocalDate date) {
+            return date == null || ((effectiveFrom == null || !effectiveFrom.isAfter(date))
+                    && (effectiveTo == null || !effectiveTo.isBefore(date)));
+        }
+
+        /**
+         * Progressive tax on an annual income: the slabs below the income's slab in full, the part
+         * of the income in its slab, plus that slab's fixed amount, surcharge on the tax and cess on
+         * tax and surcharge. Full precision; callers round.
+         */
+        public BigDecimal annualTax(BigDecimal income) {
+            int slab = slabOf(income);
+            if (slab < 0) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal top = upper[slab] != null && upper[slab].compareTo(income) < 0 ? upper[slab] : income;
+            BigDecimal tax = below[slab].add(slabTax(slab, top)).add(fixedAmount[slab]);
+            BigDecimal surcharge = tax.multiply(surchargeRate[slab]).divide(HUNDRED, PRECISION);
+            BigDecimal cess = tax.add(surcharge).multiply(cessRate[slab]).divide(HUNDRED, PRECISION);
+            return tax.add(surcharge).add(cess);
+        }
+
+        /**
+         * The highest slab starting below the income, or -1
+         */
+        int slabOf(BigDecimal income) {
+            int low = 0;
+            int high = lower.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (lower[middle].compareTo(income) < 0) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found;
+        }
+
+        private BigDecimal slabTax(int slab, BigDecimal to) {
+            return to.subtract(lower[slab]).multiply(rate[slab]).divide(HUNDRED, PRECISION);
+        }
+
+        private static BigDecimal orZero(BigDecimal value) {
+            return value != null ? value : BigDecimal.ZERO;
+        }
+
+        private static String plain(BigDecimal value) {
+            return value != null ? value.stripTrailingZeros().toPlainString() : "";
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.hrms.service.payroll;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrms.entity.payroll.TaxSlab;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-organization cache of tax slab indexes.
+ *
+ * An index is reused only while the organization's slabs version is unchanged; every slab change
+ * must call invalidate(), which bumps that organization's version so an index built concurrently
+ * from older slabs is not kept. Other organizations' indexes are unaffected.
+ *
+ * Only the instance that saved the slabs invalidates its index. Elsewhere the old index is used
+ * until it expires (payroll.tax-slab-index.ttl-seconds after it was built), so a payroll run
+ * processed on another instance within that time of a slab edit may still apply the old rates
+ * and should be re-processed.
+ */
+@Component
+public class TaxSlabIndexCache {
+
+    private final Cache<UUID, TaxSlabIndex> indexes;
+
+    // Versions come from one counter so that an organization's version never goes back
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentMap<UUID, Long> slabsVersions = new ConcurrentHashMap<>();
+
+    public TaxSlabIndexCache(@Value("${payroll.tax-slab-index.ttl-seconds:300}") long ttlSeconds) {
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the index of an organization's slabs, building it on first use or after invalidation
+     */
+    public TaxSlabIndex get(UUID organizationId, Supplier<List<TaxSlab>> slabs) {
+        long version = slabsVersions.getOrDefault(organizationId, 0L);
+        TaxSlabIndex cached = indexes.getIfPresent(organizationId);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        TaxSlabIndex built = TaxSlabIndex.build(slabs.get(), version);
+        // Do not overwrite an index built against a newer version by a concurrent caller
+        indexes.asMap().merge(organizationId, built,
+                (existing, fresh) -> existing.getVersion() > fresh.getVersion() ? existing : fresh);
+        return built;
+    }
+
+    /**
+     * Drop an organization's index after its slabs changed.
+     * Runs again after commit so indexes built from pre-commit data are not kept.
+     */
+    public void invalidate(UUID organizationId) {
+        bump(organizationId);
+        afterCommit(() -> bump(organizationId));
+    }
+
+    private void bump(UUID organizationId) {
+        slabsVersions.merge(organizationId, clock.incrementAndGet(), Math::max);
+        indexes.invalidate(organizationId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
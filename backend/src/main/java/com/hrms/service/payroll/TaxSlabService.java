@@ -19,6 +19,7 @@ import java.util.UUID;
 public class TaxSlabService {
 
     private final TaxSlabRepository repository;
+    private final TaxSlabIndexCache indexCache;
 
     public List<TaxSlab> getAllByOrganization(UUID organizationId) {
         log.debug("Fetching all TaxSlab for organization: {}", organizationId);
@@ -30,6 +31,13 @@ public class TaxSlabService {
         return repository.findByOrganizationIdAndIsActiveTrueAndDeletedAtIsNull(organizationId);
     }
 
+    /**
+     * Index of the organization's active slabs for payroll tax lookups
+     */
+    public TaxSlabIndex getIndex(UUID organizationId) {
+        return indexCache.get(organizationId, () -> getActiveByOrganization(organizationId));
+    }
+
     public TaxSlab getById(UUID id, UUID organizationId) {
         log.debug("Fetching TaxSlab with id: {} for organization: {}", id, organizationId);
         return repository.findByIdAndOrganizationIdAndDeletedAtIsNull(id, organizationId)
@@ -39,7 +47,9 @@ public class TaxSlabService {
     public TaxSlab create(TaxSlab entity, UUID organizationId) {
         log.debug("Creating new TaxSlab for organization: {}", organizationId);
         // Organization will be set by the controller
-        return repository.save(entity);
+        TaxSlab saved = repository.save(entity);
+        indexCache.invalidate(organizationId);
+        return saved;
     }
 
     public TaxSlab update(UUID id, TaxSlab entity, UUID organizationId) {
@@ -47,7 +57,9 @@ public class TaxSlabService {
         TaxSlab existing = getById(id, organizationId);
         // Update fields as needed
         existing.setUpdatedAt(LocalDateTime.now());
-        return repository.save(existing);
+        TaxSlab saved = repository.save(existing);
+        indexCache.invalidate(organizationId);
+        return saved;
     }
 
     public void delete(UUID id, UUID organizationId) {
@@ -56,11 +68,13 @@ public class TaxSlabService {
         entity.setDeletedAt(LocalDateTime.now());
         entity.setIsActive(false);
         repository.save(entity);
+        indexCache.invalidate(organizationId);
     }
 
     public void hardDelete(UUID id, UUID organizationId) {
         log.debug("Hard deleting TaxSlab with id: {} for organization: {}", id, organizationId);
         TaxSlab entity = getById(id, organizationId);
         repository.delete(entity);
+        indexCache.invalidate(organizationId);
     }
 }
@@ -0,0 +1,148 @@
+package com.hrms.service.storage;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobContainerClientBuilder;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stores documents in Azure Blob Storage.
+ *
+ * One BlobContainerClient is built at startup and shared (it is thread-safe); the container is
+ * created if missing once, at startup or on first use when that check is disabled or failed.
+ * Downloads stream from the blob to the caller's output stream, optionally for a byte range,
+ * and larger uploads are sent as blocks in parallel.
+ */
+@Service
+@ConditionalOnProperty(name = "documents.storage.type", havingValue = "azure", matchIfMissing = true)
+public class AzureBlobDocumentStorage implements DocumentStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(AzureBlobDocumentStorage.class);
+
+    @Value("${storage.azure.connection-string}")
+    private String connectionString;
+
+    @Value("${storage.azure.container}")
+    private String containerName;
+
+    @Value("${storage.azure.check-container-on-startup:true}")
+    private boolean checkContainerOnStartup;
+
+    @Value("${storage.azure.upload.block-size-bytes:4194304}")
+    private long uploadBlockSize;
+
+    @Value("${storage.azure.upload.single-shot-max-bytes:8388608}")
+    private long uploadSingleShotMax;
+
+    @Value("${storage.azure.upload.max-concurrency:4}")
+    private int uploadMaxConcurrency;
+
+    private BlobContainerClient containerClient;
+    private volatile boolean containerChecked;
+
+    @PostConstruct
+    public void init() {
+        containerClient = new BlobContainerClientBuilder()
+                .connectionString(connectionString)
+                .containerName(containerName)
+                .buildClient();
+
+        if (checkContainerOnStartup) {
+            try {
+                getContainer();
+            } catch (Exception e) {
+                // Storage may come up after the application; retried on first use
+                logger.warn("Could not verify blob container {} on startup: {}", containerName, e.getMessage());
+            }
+        }
+    }
+
+    private BlobContainerClient getContainer() {
+        if (!containerChecked) {
+            synchronized (this) {
+                if (!containerChecked) {
+                    containerClient.createIfNotExists();
+                    containerChecked = true;
+                }
+            }
+        }
+        return containerClient;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) {
+        try {
+            // Content type goes with the upload; files above the single-shot limit are sent as parallel blocks
+            ParallelTransferOptions transferOptions = new ParallelTransferOptions()
+                    .setBlockSizeLong(uploadBlockSize)
+                    .setMaxSingleUploadSizeLong(uploadSingleShotMax)
+                    .setMaxConcurrency(uploadMaxConcurrency);
+            getContainer().getBlobClient(key).uploadWithResponse(new BlobParallelUploadOptions(content, size)
+                    .setParallelTransferOptions(transferOptions)
+                    .setHeaders(new BlobHttpHeaders().setContentType(contentType)),
+                    null, Context.NONE);
+        } catch (Exception e) {
+            throw new RuntimeException("Azure Blob upload failed", e);
+        }
+    }
+
+    /**
+     * One HEAD request
+     */
+    @Override
+    public StoredFile stat(String key) {
+        try {
+            BlobProperties properties = getContainer().getBlobClient(key).getProperties();
+            return new StoredFile(properties.getBlobSize(), properties.getETag(),
+                    properties.getLastModified(), properties.getContentType());
+        } catch (Exception e) {
+            throw new RuntimeException("Azure Blob properties lookup failed", e);
+        }
+    }
+
+    @Override
+    public void download(String key, long offset, long count, String eTag, OutputStream out) {
+        try {
+            BlobRequestConditions conditions = eTag != null ? new BlobRequestConditions().setIfMatch(eTag) : null;
+            getContainer().getBlobClient(key).downloadStreamWithResponse(
+                    out, new BlobRange(offset, count), null, conditions, false, null, Context.NONE);
+        } catch (Exception e) {
+            throw new RuntimeException("Azure Blob download failed", e);
+        }
+    }
+
+    /**
+     * Data is fetched in chunks as the stream is read
+     */
+    @Override
+    public InputStream open(String key) {
+        try {
+            return getContainer().getBlobClient(key).openInputStream();
+        } catch (Exception e) {
+            throw new RuntimeException("Azure Blob load failed", e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            getContainer().getBlobClient(key).deleteIfExists();
+        } catch (Exception e) {
+            throw new RuntimeException("Azure Blob delete failed", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hrms.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Backend that holds the bytes of stored documents under opaque keys.
+ *
+ * The implementation is chosen with documents.storage.type: azure (default) or local. Keys are
+ * built by FileStorageService; implementations only store, describe, stream and remove them.
+ * Failures are reported as RuntimeException like the rest of the storage code.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Store size bytes read from content under key, replacing any previous content
+     */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * Size, ETag and modification time of a stored file
+     */
+    StoredFile stat(String key);
+
+    /**
+     * Stream count bytes of a stored file from offset to out. With an eTag the download fails
+     * if the file changed since it was read.
+     */
+    void download(String key, long offset, long count, String eTag, OutputStream out);
+
+    /**
+     * Open a stored file for reading
+     */
+    InputStream open(String key);
+
+    void delete(String key);
+
+    /**
+     * The file on local disk holding key, for servers that can send it without reading it into
+     * memory; null when the backend is not a local filesystem
+     */
+    default Path localFile(String key) {
+        return null;
+    }
+}
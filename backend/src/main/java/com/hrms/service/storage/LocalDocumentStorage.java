@@ -0,0 +1,161 @@
+package com.hrms.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores documents on a local (or mounted) filesystem under documents.storage.base-path.
+ *
+ * A key is stored at objects/ab/cd/abcd... where the name is the SHA-256 of the key, so
+ * directories stay small however many documents there are and keys never reach the filesystem
+ * as paths. Writes go to a temporary file in the same tree, are flushed to disk and then renamed
+ * atomically into place, so readers see either the old or the new file, never a partial one.
+ * Downloads are transferred by the file channel (sendfile / mapped I/O where the target allows)
+ * and the file itself is offered to the server for zero-copy sending.
+ */
+@Service
+@ConditionalOnProperty(name = "documents.storage.type", havingValue = "local")
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+    private final Path objects;
+    private final Path incoming;
+
+    public LocalDocumentStorage(@Value("${documents.storage.base-path:documents}") String basePath) {
+        this.root = Paths.get(basePath).toAbsolutePath().normalize();
+        this.objects = root.resolve("objects");
+        this.incoming = root.resolve("tmp");
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(objects);
+        Files.createDirectories(incoming);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Path target = pathOf(key);
+        Path part = incoming.resolve(UUID.randomUUID() + ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(content)) {
+                long position = 0;
+                long read;
+                while ((read = channel.transferFrom(source, position, 1024 * 1024)) > 0) {
+                    position += read;
+                }
+                if (position != size) {
+                    throw new IOException("Expected " + size + " bytes but received " + position);
+                }
+                channel.force(true);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * The ETag is derived from size and modification time; the content type is not kept
+     */
+    @Override
+    public StoredFile stat(String key) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(pathOf(key), BasicFileAttributes.class);
+            return new StoredFile(attributes.size(), eTag(attributes),
+                    attributes.lastModifiedTime().toInstant().atOffset(ZoneOffset.UTC), null);
+        } catch (IOException e) {
+            throw new RuntimeException("Local document lookup failed", e);
+        }
+    }
+
+    @Override
+    public void download(String key, long offset, long count, String eTag, OutputStream out) {
+        Path path = pathOf(key);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The open channel keeps reading the file it opened even if it is replaced meanwhile
+            if (eTag != null && !eTag.equals(eTag(Files.readAttributes(path, BasicFileAttributes.class)))) {
+                throw new IOException("Document changed since it was read");
+            }
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long end = Math.min(offset + count, channel.size());
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    throw new IOException("Document is shorter than expected");
+                }
+                position += sent;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Local document download failed", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) {
+        try {
+            return Files.newInputStream(pathOf(key));
+        } catch (IOException e) {
+            throw new RuntimeException("Local document load failed", e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(pathOf(key));
+        } catch (IOException e) {
+            throw new RuntimeException("Local document delete failed", e);
+        }
+    }
+
+    @Override
+    public Path localFile(String key) {
+        return pathOf(key);
+    }
+
+    Path pathOf(String key) {
+        String name = sha256(key);
+        return objects.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    private static String eTag(BasicFileAttributes attributes) {
+        return Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS)) + "-"
+                + Long.toHexString(attributes.size());
+    }
+
+    private static String sha256(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
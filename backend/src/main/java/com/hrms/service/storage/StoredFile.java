@@ -0,0 +1,9 @@
+package com.hrms.service.storage;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Metadata of a stored file, as needed for conditional and range downloads
+ */
+public record StoredFile(long size, String eTag, OffsetDateTime lastModified, String contentType) {
+}
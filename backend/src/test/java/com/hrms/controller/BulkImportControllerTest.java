@@ -0,0 +1,67 @@
+package com.hrms.controller;
+
+import com.hrms.entity.BulkImportJob;
+import com.hrms.security.CurrentUser;
+import com.hrms.service.BulkEmployeeImportService;
+import com.hrms.service.BulkImportJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Bulk Import Controller Tests")
+class BulkImportControllerTest {
+
+    private final BulkEmployeeImportService importService = mock(BulkEmployeeImportService.class);
+    private final BulkImportJobService jobService = mock(BulkImportJobService.class);
+    private final BulkImportController controller = new BulkImportController(importService, jobService);
+
+    private final UUID ownOrg = UUID.randomUUID();
+    private final UUID otherOrg = UUID.randomUUID();
+    private final UUID jobId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("An org admin cannot read, resume or download jobs of another organization")
+    void rejectsOtherOrganization() {
+        CurrentUser orgAdmin = user(ownOrg, "orgadmin");
+
+        assertThrows(AccessDeniedException.class, () -> controller.getImportJob(otherOrg, jobId, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.getImportJobs(otherOrg, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.resumeImportJob(otherOrg, jobId, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.downloadImportErrors(otherOrg, jobId, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.downloadTemplate(otherOrg, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.getImportInstructions(otherOrg, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.importEmployees(otherOrg, null, true, orgAdmin));
+        assertThrows(AccessDeniedException.class, () -> controller.validateImportFile(otherOrg, null, orgAdmin));
+        verifyNoInteractions(jobService, importService);
+    }
+
+    @Test
+    @DisplayName("Org admins reach their own organization and superadmins any organization")
+    void allowsOwnOrganizationAndSuperadmin() {
+        BulkImportJob job = new BulkImportJob();
+        job.setId(jobId);
+        when(jobService.getJob(jobId, ownOrg)).thenReturn(job);
+        when(jobService.getJob(jobId, otherOrg)).thenReturn(null);
+        when(jobService.getRecentJobs(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(200, controller.getImportJob(ownOrg, jobId, user(ownOrg, "orgadmin")).getStatusCode().value());
+        assertEquals(200, controller.getImportJob(ownOrg, jobId, user(otherOrg, "superadmin")).getStatusCode().value());
+        assertEquals(200, controller.getImportJobs(otherOrg, user(null, "superadmin")).getStatusCode().value());
+        // Jobs are still looked up by (id, organization): another org's id is simply not found
+        assertEquals(404, controller.getImportJob(otherOrg, jobId, user(null, "superadmin")).getStatusCode().value());
+        verify(jobService).getJob(jobId, otherOrg);
+    }
+
+    private static CurrentUser user(UUID organizationId, String role) {
+        return new CurrentUser(UUID.randomUUID(), role + "@test.com", organizationId, null, null, null,
+                Set.of(), List.of(role));
+    }
+}
@@ -0,0 +1,108 @@
+package com.hrms.controller;
+
+import com.hrms.service.storage.StoredFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Conditional Download Tests")
+class ConditionalDownloadTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+    private static final StoredFile FILE = new StoredFile(CONTENT.length, "0x8DC0FFEE",
+            OffsetDateTime.of(2026, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC), "application/pdf");
+
+    @Test
+    @DisplayName("Full download carries validators and the whole body")
+    void fullDownload() throws Exception {
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"0x8DC0FFEE\"", response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(CONTENT.length, response.getContentLengthLong());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("Matching If-None-Match answers 304 without a body")
+    void notModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"other\", \"0x8DC0FFEE\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("A single range answers 206 with only the requested bytes")
+    void partialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=5-9");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+        assertEquals("56789", response.getContentAsString());
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=-3");
+        assertEquals("hij", download(request).getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Stale If-Range falls back to the full file; unsatisfiable ranges answer 416")
+    void ifRangeAndUnsatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=5-9");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = download(request);
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=50-60");
+        response = download(request);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    @DisplayName("Local files are handed to the connector's sendfile when it is supported")
+    void sendfile(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("payslip.pdf"), CONTENT);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ConditionalDownload.write(request, response, FILE, "payslip.pdf", "application/pdf",
+                (offset, count, out) -> fail("Body should not be copied"), file);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(file.toRealPath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(5L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private static MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ConditionalDownload.write(request, response, FILE, "payslip.pdf", "application/pdf",
+                (offset, count, out) -> out.write(CONTENT, (int) offset, (int) count));
+        return response;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hrms.security;
+
+import com.hrms.entity.Organization;
+import com.hrms.entity.Role;
+import com.hrms.entity.User;
+import com.hrms.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request: the JWT filter followed by the organization and user lookups a
+ * controller makes. parseOnce is the current path; legacy repeats what the filter and
+ * controllers did before the principal was parsed once: a new signing key and a full
+ * verify + parse for every lookup.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtAuthenticationFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationTime", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "principalCacheMaxSize", 10_000L);
+        jwtService.validateSecretKey();
+        filter = new JwtAuthenticationFilter(jwtService);
+
+        Organization organization = new Organization();
+        organization.setId(UUID.randomUUID());
+        User user = new User("benchmark@test.com", "password");
+        user.setId(UUID.randomUUID());
+        user.setOrganization(organization);
+        user.addRole(new Role("employee"));
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object parseOnce() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+            filter.getUserId(request);
+            return filter.getOrganizationId(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object legacy() {
+        // Filter: extractEmail, isTokenValid, extractRoles; controller: getUserId, getOrganizationId
+        Object result = null;
+        for (int i = 0; i < 5; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            result = claims.get("organizationId", String.class);
+        }
+        return result;
+    }
+
+    private MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hrms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrms.entity.Organization;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.service.AuditLogExportService.ExportFilter;
+import com.hrms.service.AuditLogExportService.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Audit Log Export Tests")
+class AuditLogExportTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    @Autowired
+    private AuditLogExportService exportService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        Organization org = new Organization();
+        org.setName("Export Org " + UUID.randomUUID());
+        organizationId = organizationRepository.save(org).getId();
+
+        for (int i = 0; i < 30; i++) {
+            insert("audit_logs", BASE.plusDays(i), i % 2 == 0 ? "CREATE" : "UPDATE", ", \"quoted\"\nvalue");
+        }
+        jdbcTemplate.update("INSERT INTO audit_logs_archive (id, action_type, entity_type, entity_id, status, " +
+                "performed_at, organization_id, archived_at) VALUES (?, 'CREATE', 'Employee', '1', 'SUCCESS', ?, ?, ?)",
+                UUID.randomUUID().toString(), Timestamp.valueOf(BASE.minusYears(1)), organizationId.toString(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("CSV export applies filters and date range")
+    void exportsFilteredCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(organizationId,
+                new ExportFilter("CREATE", null, BASE, BASE.plusDays(10), false), Format.CSV, false, out);
+
+        assertEquals(5, rows);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\"id\",\"performed_at\",\"action_type\""));
+        assertTrue(csv.contains("\"\"quoted\"\""));
+    }
+
+    @Test
+    @DisplayName("Gzipped NDJSON export includes archived entries first")
+    void exportsGzippedNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(organizationId,
+                new ExportFilter(null, null, null, null, true), Format.NDJSON, true, out);
+
+        assertEquals(31, rows);
+        String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        List<String> lines = text.lines().toList();
+        assertEquals(31, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(BASE.minusYears(1).toString(), first.get("performed_at").asText());
+        assertEquals(", \"quoted\"\nvalue", objectMapper.readTree(lines.get(1)).get("new_value").asText());
+    }
+
+    private void insert(String table, LocalDateTime performedAt, String actionType, String newValue) {
+        jdbcTemplate.update("INSERT INTO " + table + " (id, action_type, entity_type, entity_id, new_value, status, " +
+                "performed_at, organization_id) VALUES (?, ?, 'Employee', '1', ?, 'SUCCESS', ?, ?)",
+                UUID.randomUUID().toString(), actionType, newValue, Timestamp.valueOf(performedAt), organizationId.toString());
+    }
+}
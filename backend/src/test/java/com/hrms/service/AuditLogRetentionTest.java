@@ -0,0 +1,159 @@
+package com.hrms.service;
+
+import com.hrms.entity.AuditLog;
+import com.hrms.entity.Organization;
+import com.hrms.repository.AuditLogArchiveRepository;
+import com.hrms.repository.AuditLogRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.service.AuditLogQueryService.AuditLogPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Audit Log Paging and Retention Tests")
+class AuditLogRetentionTest {
+
+    @Autowired
+    private AuditLogQueryService queryService;
+
+    @Autowired
+    private AuditLogRetentionService retentionService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditLogArchiveRepository archiveRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private FileStorageService fileStorageService;
+
+    private String archivePath;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        auditLogRepository.deleteAll();
+        archiveRepository.deleteAll();
+        Organization org = new Organization();
+        org.setName("Audit Org " + UUID.randomUUID());
+        organization = organizationRepository.save(org);
+        archivePath = "audit-archive-" + UUID.randomUUID();
+        ReflectionTestUtils.setField(retentionService, "archivePath", archivePath);
+    }
+
+    @Test
+    @DisplayName("Keyset pages walk the whole trail once, newest first, including equal timestamps")
+    void keysetPagesCoverAllEntries() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 10, 12, 0);
+        for (int i = 0; i < 25; i++) {
+            // Pairs of entries share a timestamp so that the id tie-breaker is exercised
+            insert(base.plusMinutes(i / 2), i % 3 == 0 ? "UPDATE" : "CREATE");
+        }
+
+        List<AuditLog> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AuditLogPage page = queryService.findPage(organization.getId(), null, null, cursor, 10);
+            seen.addAll(page.content());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        assertEquals(25, new HashSet<>(seen.stream().map(AuditLog::getId).toList()).size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getPerformedAt().isAfter(seen.get(i - 1).getPerformedAt()));
+        }
+
+        AuditLogPage updates = queryService.findPage(organization.getId(), "UPDATE", null, null, 50);
+        assertEquals(9, updates.content().size());
+        assertFalse(updates.hasMore());
+        assertThrows(IllegalArgumentException.class,
+                () -> queryService.findPage(organization.getId(), null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("Old entries roll over to the archive table and then to compressed monthly files")
+    void rollsOverAndExports() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        insert(now.minusDays(1), "CREATE");
+        insert(now.minusMonths(8), "UPDATE");
+        insert(now.minusMonths(30).withDayOfMonth(3), "DELETE");
+        insert(now.minusMonths(30).withDayOfMonth(20), "DELETE");
+        insert(now.minusMonths(40), "LOGIN");
+
+        assertEquals(4, retentionService.rollOver(now.minusMonths(6)));
+        assertEquals(1, auditLogRepository.count());
+        assertEquals(4, archiveRepository.count());
+
+        assertEquals(3, retentionService.exportArchive(now.minusMonths(24)));
+        assertEquals(1, archiveRepository.count());
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(fileStorageService, times(2)).storeGenerated(stored.capture(), any(Path.class), eq("application/gzip"));
+        List<String> files = stored.getAllValues();
+        assertTrue(files.stream().allMatch(f -> f.startsWith(archivePath + "/") && f.endsWith(".jsonl.gz")));
+        List<String> lines = new ArrayList<>();
+        for (String file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(fileStorageService.load(file)), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(lines::add);
+            }
+        }
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().allMatch(l -> l.contains(organization.getId().toString())));
+    }
+
+    @Test
+    @DisplayName("Archived rows stay in the database when the archive cannot be stored")
+    void keepsRowsWhenStorageFails() {
+        LocalDateTime now = LocalDateTime.now();
+        insert(now.minusMonths(30), "DELETE");
+        assertEquals(1, retentionService.rollOver(now.minusMonths(6)));
+
+        doThrow(new RuntimeException("Storage unavailable"))
+                .when(fileStorageService).storeGenerated(anyString(), any(Path.class), anyString());
+        assertThrows(RuntimeException.class, () -> retentionService.exportArchive(now.minusMonths(24)));
+        assertEquals(1, archiveRepository.count());
+    }
+
+    private void insert(LocalDateTime performedAt, String actionType) {
+        jdbcTemplate.update("INSERT INTO audit_logs (id, action_type, entity_type, entity_id, status, performed_at, " +
+                "organization_id) VALUES (?, ?, 'Employee', '1', 'SUCCESS', ?, ?)",
+                UUID.randomUUID().toString(), actionType, Timestamp.valueOf(performedAt), organization.getId().toString());
+    }
+}
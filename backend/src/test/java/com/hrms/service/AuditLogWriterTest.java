@@ -0,0 +1,208 @@
+package com.hrms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Audit Log Writer Tests")
+class AuditLogWriterTest {
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE audit_logs (id UUID PRIMARY KEY, action_type VARCHAR(50) NOT NULL, entity_type VARCHAR(100), " +
+        "entity_id VARCHAR(255), performed_by UUID, old_value TEXT, new_value TEXT, status VARCHAR(20) NOT NULL, " +
+        "error_message TEXT, ip_address VARCHAR(50), metadata TEXT, performed_at TIMESTAMP, organization_id UUID)";
+
+    @TempDir
+    Path spoolDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit_writer_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                1000, 100, 50, 5000, spoolDir.toString());
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Queued entries are written in batches")
+    void writesQueuedEntries() {
+        jdbcTemplate.execute(CREATE_TABLE);
+
+        for (int i = 0; i < 250; i++) {
+            writer.enqueue(entry("CREATE"));
+        }
+
+        await(() -> writer.getStats().written() == 250);
+        assertEquals(250, count());
+        assertEquals(0, writer.getStats().spilled());
+    }
+
+    @Test
+    @DisplayName("Entries are spooled while the database is unavailable and replayed later")
+    void spoolsAndReplays() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            writer.enqueue(entry("UPDATE"));
+        }
+
+        await(() -> writer.getStats().spilled() == 3);
+        assertEquals(3, Files.readAllLines(spoolDir.resolve("audit-logs.jsonl")).size());
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        assertEquals(3, writer.replaySpool());
+        assertEquals(3, count());
+        assertFalse(Files.exists(spoolDir.resolve("audit-logs.jsonl")));
+        assertEquals(0, writer.replaySpool());
+    }
+
+    @Test
+    @DisplayName("Replay skips entries that already reached the database")
+    void replayIsIdempotent() throws Exception {
+        writer.enqueue(entry("DELETE"));
+        await(() -> writer.getStats().spilled() == 1);
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        String line = Files.readAllLines(spoolDir.resolve("audit-logs.jsonl")).get(0);
+        AuditLogWriter.Entry spooled = new ObjectMapper().findAndRegisterModules().readValue(line, AuditLogWriter.Entry.class);
+        jdbcTemplate.update("INSERT INTO audit_logs (id, action_type, status) VALUES (?, 'DELETE', 'SUCCESS')",
+                spooled.id().toString());
+
+        assertEquals(1, writer.replaySpool());
+        assertEquals(1, count());
+    }
+
+    @Test
+    @DisplayName("Replay moves unreadable lines aside and writes the rest")
+    void replaySkipsUnreadableLines() throws Exception {
+        jdbcTemplate.execute(CREATE_TABLE);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Path spool = spoolDir.resolve("audit-logs.jsonl");
+        Files.write(spool, List.of(
+                objectMapper.writeValueAsString(entry("CREATE")),
+                "{\"id\":\"torn",
+                objectMapper.writeValueAsString(entry("UPDATE"))));
+
+        assertEquals(2, writer.replaySpool());
+        assertEquals(2, count());
+        assertFalse(Files.exists(spool));
+        assertEquals(List.of("{\"id\":\"torn"), Files.readAllLines(spoolDir.resolve("audit-logs.jsonl.rejected")));
+        assertEquals(0, writer.replaySpool());
+    }
+
+    @Test
+    @DisplayName("Replay moves entries the database refuses aside and writes the ones after them")
+    void replaySkipsRefusedEntries() throws Exception {
+        jdbcTemplate.execute(CREATE_TABLE);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Path spool = spoolDir.resolve("audit-logs.jsonl");
+        AuditLogWriter.Entry oversized = entry("X".repeat(51));
+        Files.write(spool, List.of(
+                objectMapper.writeValueAsString(oversized),
+                objectMapper.writeValueAsString(entry("CREATE")),
+                objectMapper.writeValueAsString(entry("UPDATE"))));
+
+        assertEquals(2, writer.replaySpool());
+        assertEquals(2, count());
+        assertFalse(Files.exists(spool));
+        List<String> rejected = Files.readAllLines(spoolDir.resolve("audit-logs.jsonl.rejected"));
+        assertEquals(1, rejected.size());
+        assertEquals(oversized.id(), objectMapper.readValue(rejected.get(0), AuditLogWriter.Entry.class).id());
+        assertEquals(0, writer.replaySpool());
+    }
+
+    @Test
+    @DisplayName("Entries logged in a transaction wait for it and are marked FAILED on rollback")
+    void followsTransactionOutcome() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        AuditLogWriter.Entry committed = entry("CREATE");
+        AuditLogWriter.Entry rolledBack = entry("DELETE");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.enqueue(committed);
+            assertEquals(0, writer.getStats().enqueued());
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.enqueue(rolledBack);
+            status.setRollbackOnly();
+        });
+
+        await(() -> writer.getStats().written() == 2);
+        assertEquals("SUCCESS", statusOf(committed));
+        assertEquals("FAILED", statusOf(rolledBack));
+    }
+
+    @Test
+    @DisplayName("Pending entries are flushed on shutdown")
+    void flushesOnShutdown() {
+        jdbcTemplate.execute(CREATE_TABLE);
+
+        for (int i = 0; i < 40; i++) {
+            writer.enqueue(entry("LOGIN"));
+        }
+        writer.shutdown();
+
+        assertEquals(40, count());
+        writer.enqueue(entry("LOGIN"));
+        assertEquals(1, writer.getStats().spilled());
+    }
+
+    private AuditLogWriter.Entry entry(String actionType) {
+        return new AuditLogWriter.Entry(UUID.randomUUID(), actionType, "Employee", UUID.randomUUID().toString(),
+                UUID.randomUUID(), UUID.randomUUID(), "SUCCESS", null, "{}", null, "127.0.0.1", null,
+                LocalDateTime.now());
+    }
+
+    private String statusOf(AuditLogWriter.Entry entry) {
+        return jdbcTemplate.queryForObject("SELECT status FROM audit_logs WHERE id = ?", String.class,
+                entry.id().toString());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
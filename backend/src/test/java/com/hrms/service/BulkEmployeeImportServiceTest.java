@@ -0,0 +1,126 @@
+package com.hrms.service;
+
+import com.hrms.dto.employee.BulkImportResponse;
+import com.hrms.dto.employee.BulkImportResponse.ImportRowResult;
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.support.EmployeeFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk Employee Import Tests")
+class BulkEmployeeImportServiceTest {
+
+    @Autowired
+    private BulkEmployeeImportService importService;
+
+    @Autowired
+    private EmployeeHierarchyService hierarchyService;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        organization = fixtures.organization("Bulk Import Org");
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    @DisplayName("Rows are numbered by CSV record, not by physical line")
+    void numbersRowsByRecord() {
+        String csv = "employee_code,first_name,last_name,email,designation\n"
+                + code("A") + ",Ada,Lovelace," + email("a") + ",\"Analytical\nEngineer\"\n"
+                + "\n"
+                + code("B") + ",Alan,Turing\n"
+                + code("C") + ",Grace,Hopper,,\n"
+                + code("D") + ",Edsger,Dijkstra," + email("d") + ",\n";
+
+        BulkImportResponse response = importService.importEmployees(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), organization.getId(), true);
+
+        Map<Integer, String> statusByRow = response.getResults().stream()
+                .collect(Collectors.toMap(ImportRowResult::getRowNumber, ImportRowResult::getStatus));
+        // Header = 1, the two-line designation is record 2, the empty line is record 3
+        assertEquals(Map.of(2, "success", 4, "failed", 5, "failed", 6, "success"), statusByRow);
+    }
+
+    @Test
+    @DisplayName("Imported employees get closure rows without touching the rest of the organization")
+    void insertsClosureRowsOfImportedEmployees() {
+        Employee ceo = existing(null);
+        Employee director = existing(ceo);
+        Employee other = existing(ceo);
+        Set<String> before = closureRows();
+
+        String csv = "employee_code,first_name,last_name,email,reports_to_code\n"
+                + code("M") + ",Manager,Imported," + email("m") + "," + director.getEmployeeCode() + "\n"
+                + code("E") + ",Engineer,Imported," + email("e") + "," + code("M") + "\n"
+                + code("T") + ",Top,Imported," + email("t") + ",\n";
+
+        BulkImportResponse response = importService.importEmployees(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), organization.getId(), true);
+        assertEquals("completed", response.getStatus());
+
+        UUID manager = employeeId(code("M"));
+        UUID engineer = employeeId(code("E"));
+        assertEquals(List.of(manager, director.getId(), ceo.getId()), hierarchyService.getManagementChainIds(engineer));
+        assertEquals(List.of(), hierarchyService.getManagementChainIds(employeeId(code("T"))));
+        assertFalse(hierarchyService.isInReportingLine(other.getId(), engineer));
+
+        Set<String> after = closureRows();
+        assertTrue(after.containsAll(before));
+        assertEquals(before.size() + 3 + 4 + 1, after.size()); // M: self + 2 ancestors, E: self + 3, T: self
+        hierarchyService.rebuildOrganization(organization.getId());
+        assertEquals(after, closureRows());
+    }
+
+    private Employee existing(Employee reportsTo) {
+        Employee employee = fixtures.employee(organization, "X", e -> {
+            e.setFirstName("Employee");
+            e.setLastName("Existing");
+            e.setReportsTo(reportsTo);
+        });
+        hierarchyService.onEmployeeCreated(employee);
+        return employee;
+    }
+
+    private UUID employeeId(String employeeCode) {
+        return UUID.fromString(jdbcTemplate.queryForObject(
+                "SELECT CAST(id AS VARCHAR(36)) FROM employees WHERE employee_code = ?", String.class, employeeCode));
+    }
+
+    private Set<String> closureRows() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT CONCAT(ancestor_id, '>', descendant_id, '@', depth) FROM employee_hierarchy_closure " +
+                "WHERE organization_id = ?", String.class, organization.getId().toString()));
+    }
+
+    private String code(String name) {
+        return name + "-" + suffix;
+    }
+
+    private String email(String name) {
+        return name + "-" + suffix + "@test.com";
+    }
+}
@@ -0,0 +1,84 @@
+package com.hrms.service;
+
+import com.hrms.entity.BulkImportJob;
+import com.hrms.entity.Organization;
+import com.hrms.repository.OrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk Import Job Tests")
+class BulkImportJobServiceTest {
+
+    @Autowired
+    private BulkImportJobService bulkImportJobService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        organization = new Organization();
+        organization.setName("Import Org " + UUID.randomUUID());
+        organization = organizationRepository.save(organization);
+    }
+
+    @Test
+    @DisplayName("Uploads and error files live in document storage")
+    void keepsFilesInDocumentStorage() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String csv = "employee_code,first_name,last_name,email\n"
+                + "OK-" + suffix + ",Ada,Lovelace,ada-" + suffix + "@test.com\n"
+                + "BAD-" + suffix + ",Alan,Turing,\n";
+        MockMultipartFile file = new MockMultipartFile("file", "employees.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        BulkImportJob job = bulkImportJobService.submit(file, organization.getId(), true, null);
+        assertTrue(job.getStoredFile().startsWith("org/" + organization.getId() + "/imports/"));
+
+        job = awaitFinished(job.getId());
+        assertEquals(BulkImportJob.STATUS_PARTIAL, job.getStatus());
+        assertTrue(bulkImportJobService.hasErrorFile(job));
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        bulkImportJobService.writeErrorFile(job, errors);
+        String content = errors.toString(StandardCharsets.UTF_8);
+        assertEquals(job.getErrorFileBytes(), errors.size());
+        assertEquals(2, content.lines().count());
+        assertTrue(content.contains("'email'"));
+
+        // A finished job cannot be resumed, so its upload is removed
+        String storedFile = job.getStoredFile();
+        assertThrows(RuntimeException.class, () -> fileStorageService.stat(storedFile));
+    }
+
+    private BulkImportJob awaitFinished(UUID jobId) throws InterruptedException {
+        Set<String> finished = Set.of(BulkImportJob.STATUS_COMPLETED, BulkImportJob.STATUS_PARTIAL,
+                BulkImportJob.STATUS_FAILED);
+        long deadline = System.currentTimeMillis() + 30_000;
+        BulkImportJob job = bulkImportJobService.getJob(jobId, organization.getId());
+        while (!finished.contains(job.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            job = bulkImportJobService.getJob(jobId, organization.getId());
+        }
+        return job;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hrms.service;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.Role;
+import com.hrms.entity.User;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.repository.RoleRepository;
+import com.hrms.repository.UserRepository;
+import com.hrms.security.AuthenticatedPrincipal;
+import com.hrms.security.CurrentUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Current User Tests")
+class CurrentUserServiceTest {
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Organization organization;
+    private User user;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        organization = new Organization();
+        organization.setName("Identity Org " + UUID.randomUUID());
+        organization = organizationRepository.save(organization);
+
+        user = new User("identity-" + UUID.randomUUID() + "@test.com", "password");
+        user.setOrganization(organization);
+        user.addRole(roleRepository.findByName("employee").orElseThrow());
+        user = userRepository.save(user);
+
+        employee = new Employee(user, organization);
+        employee.setEmployeeCode("I-" + UUID.randomUUID().toString().substring(0, 8));
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee = employeeRepository.save(employee);
+    }
+
+    @Test
+    @DisplayName("The identity is cached until the user is saved")
+    void cachedUntilUserSaved() {
+        CurrentUser first = currentUserService.resolve(principal(user.getId(), user.getEmail()));
+        assertEquals(employee.getId(), first.getEmployeeId());
+        assertEquals(organization.getId(), first.getOrganizationId());
+        assertSame(first, currentUserService.resolve(principal(user.getId(), user.getEmail())));
+
+        Role orgAdmin = roleRepository.findByName("orgadmin").orElseThrow();
+        user.addRole(orgAdmin);
+        user = userService.save(user);
+
+        CurrentUser changed = currentUserService.resolve(principal(user.getId(), user.getEmail()));
+        assertNotSame(first, changed);
+        assertTrue(changed.getRoleIds().contains(orgAdmin.getId()));
+    }
+
+    @Test
+    @DisplayName("Disabled, deleted and renamed users are refused even when cached")
+    void refusesInvalidAccounts() {
+        currentUserService.resolve(principal(user.getId(), user.getEmail()));
+
+        assertThrows(RuntimeException.class,
+                () -> currentUserService.resolve(principal(user.getId(), "someone-else@test.com")));
+        assertThrows(RuntimeException.class,
+                () -> currentUserService.resolve(principal(UUID.randomUUID(), user.getEmail())));
+
+        user.setEnabled(false);
+        user = userService.save(user);
+        assertThrows(AccessDeniedException.class,
+                () -> currentUserService.resolve(principal(user.getId(), user.getEmail())));
+    }
+
+    private AuthenticatedPrincipal principal(UUID userId, String email) {
+        return new AuthenticatedPrincipal(userId, organization.getId(), email, List.of("employee"), null);
+    }
+}
@@ -0,0 +1,151 @@
+package com.hrms.service;
+
+import com.hrms.entity.Document;
+import com.hrms.entity.Employee;
+import com.hrms.repository.DocumentBlobRepository;
+import com.hrms.repository.DocumentRepository;
+import com.hrms.service.FileStorageService.StoredContent;
+import com.hrms.support.EmployeeFixtures;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Document Deduplication Tests")
+class DocumentDeduplicationTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Identical uploads share one stored file until the last reference is released")
+    void duplicatesShareOneFile() {
+        UUID organizationId = UUID.randomUUID();
+        byte[] content = ("%PDF-1.4\n% offer letter " + UUID.randomUUID() + "\n%%EOF\n").getBytes(StandardCharsets.US_ASCII);
+
+        StoredContent first = fileStorageService.store(pdf("offer.pdf", content), UUID.randomUUID(), organizationId);
+        StoredContent second = fileStorageService.store(pdf("offer (1).pdf", content), UUID.randomUUID(), organizationId);
+
+        assertFalse(first.duplicate());
+        assertTrue(second.duplicate());
+        assertEquals(first.path(), second.path());
+        assertEquals(first.contentHash(), second.contentHash());
+        assertEquals(2, blobRepository.findReferenceCount(organizationId, first.contentHash()).orElseThrow());
+
+        // Another organization gets its own copy
+        StoredContent other = fileStorageService.store(pdf("offer.pdf", content), UUID.randomUUID(), UUID.randomUUID());
+        assertFalse(other.duplicate());
+        assertNotEquals(first.path(), other.path());
+
+        fileStorageService.release(organizationId, first.contentHash(), first.path());
+        assertTrue(Files.exists(fileStorageService.localFile(first.path())));
+        assertEquals(1, blobRepository.findReferenceCount(organizationId, first.contentHash()).orElseThrow());
+
+        fileStorageService.release(organizationId, second.contentHash(), second.path());
+        assertFalse(Files.exists(fileStorageService.localFile(first.path())));
+        assertTrue(blobRepository.findByOrganizationIdAndContentHash(organizationId, first.contentHash()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Content left without references is stored again before it is referenced")
+    void unreferencedContentIsStoredAgain() throws Exception {
+        UUID organizationId = UUID.randomUUID();
+        byte[] content = uniquePdf();
+        StoredContent first = fileStorageService.store(pdf("letter.pdf", content), UUID.randomUUID(), organizationId);
+
+        // A delete whose row removal did not commit: no references left, file already gone
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                blobRepository.dropReference(organizationId, first.contentHash()));
+        Files.delete(fileStorageService.localFile(first.path()));
+
+        StoredContent second = fileStorageService.store(pdf("letter.pdf", content), UUID.randomUUID(), organizationId);
+        assertFalse(second.duplicate());
+        assertTrue(Files.exists(fileStorageService.localFile(second.path())));
+        assertEquals(1, blobRepository.findReferenceCount(organizationId, second.contentHash()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("A rolled-back delete keeps the document's stored file")
+    void rolledBackDeleteKeepsFile() {
+        Employee employee = employee();
+        UUID organizationId = employee.getOrganization().getId();
+        StoredContent stored = fileStorageService.store(pdf("contract.pdf", uniquePdf()), employee.getId(), organizationId);
+        Document document = documentService.uploadForEmployee(employee, employee.getUser(), "contract.pdf", stored,
+                "application/pdf");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            documentService.delete(document);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(documentRepository.findById(document.getId()).isPresent());
+        assertTrue(Files.exists(fileStorageService.localFile(stored.path())));
+        assertEquals(1, blobRepository.findReferenceCount(organizationId, stored.contentHash()).orElseThrow());
+
+        documentService.delete(document);
+        assertTrue(documentRepository.findById(document.getId()).isEmpty());
+        assertFalse(Files.exists(fileStorageService.localFile(stored.path())));
+    }
+
+    @Test
+    @DisplayName("A failed replace drops the reference to the new file and keeps the old one")
+    void failedReplaceDropsNewReference() {
+        Employee employee = employee();
+        UUID organizationId = employee.getOrganization().getId();
+        StoredContent stored = fileStorageService.store(pdf("payslip.pdf", uniquePdf()), employee.getId(), organizationId);
+        Document document = documentService.uploadForEmployee(employee, employee.getUser(), "payslip.pdf", stored,
+                "application/pdf");
+
+        // The file name does not fit the column, so the update fails after the new file was stored
+        byte[] replacement = uniquePdf();
+        assertThrows(DataIntegrityViolationException.class,
+                () -> documentService.replace(document, pdf("x".repeat(300) + ".pdf", replacement)));
+
+        Document reloaded = documentRepository.findById(document.getId()).orElseThrow();
+        assertEquals(stored.path(), reloaded.getFilePath());
+        assertEquals(1, blobRepository.findReferenceCount(organizationId, stored.contentHash()).orElseThrow());
+        String replacementHash = fileStorageService.store(pdf("probe.pdf", replacement), employee.getId(), organizationId)
+                .contentHash();
+        assertEquals(1, blobRepository.findReferenceCount(organizationId, replacementHash).orElseThrow());
+    }
+
+    private Employee employee() {
+        return fixtures.employee(fixtures.organization("Document Org"), "D");
+    }
+
+    private static byte[] uniquePdf() {
+        return ("%PDF-1.4\n% " + UUID.randomUUID() + "\n%%EOF\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static MockMultipartFile pdf(String name, byte[] content) {
+        return new MockMultipartFile("file", name, "application/pdf", content);
+    }
+}
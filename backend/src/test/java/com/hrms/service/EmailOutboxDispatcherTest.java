@@ -0,0 +1,190 @@
+package com.hrms.service;
+
+import com.hrms.entity.EmailLog;
+import com.hrms.entity.EmailOutbox;
+import com.hrms.repository.EmailLogRepository;
+import com.hrms.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "email.outbox.initial-delay-ms=3600000",
+        "email.outbox.per-domain-per-minute=2",
+        "scheduled-jobs.lock.min-hold-seconds=0"
+})
+@ActiveProfiles("test")
+@DisplayName("Email Outbox Dispatcher Tests")
+class EmailOutboxDispatcherTest {
+
+    private static final TestSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private EmailLogRepository emailLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", SMTP::getPort);
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        drain();
+        SMTP.reset();
+    }
+
+    @Test
+    @DisplayName("Queued mails should be sent in one batch over a single connection and logged")
+    void sendsBatchOverOneConnection() {
+        String a = unique("a.example");
+        String b = unique("b.example");
+        String c = unique("c.example");
+        emailService.sendGenericNotificationEmail(a, "Hello", "First", null);
+        emailService.sendGenericNotificationEmail(b, "Hello", "Second", null);
+        emailService.sendPayrollGeneratedEmail(c, "Cat", "2026-09", "1000.00");
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(3, SMTP.getMessages().size());
+        assertEquals(1, SMTP.getConnectionCount());
+        for (String recipient : List.of(a, b, c)) {
+            EmailOutbox mail = findByRecipient(recipient);
+            assertEquals(EmailOutbox.STATUS_SENT, mail.getStatus());
+            assertNull(mail.getBody());
+            assertEquals(1, emailLogRepository.findByRecipientEmailOrderBySentAtDesc(recipient).size());
+        }
+        assertEquals(EmailLog.EmailStatus.SUCCESS,
+                emailLogRepository.findByRecipientEmailOrderBySentAtDesc(c).get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Rejected mail should be rescheduled with backoff, the rest of the batch delivered")
+    void rejectedMailIsRetriedLater() {
+        String rejected = unique("reject.example");
+        String accepted = unique("ok.example");
+        emailService.sendGenericNotificationEmail(rejected, "Hello", "Bounce", null);
+        emailService.sendGenericNotificationEmail(accepted, "Hello", "Deliver", null);
+
+        dispatcher.dispatchBatch();
+
+        EmailOutbox mail = findByRecipient(rejected);
+        assertEquals(EmailOutbox.STATUS_PENDING, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getLastError());
+        assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertNull(mail.getClaimToken());
+        assertTrue(emailLogRepository.findByRecipientEmailOrderBySentAtDesc(rejected).isEmpty());
+
+        assertEquals(EmailOutbox.STATUS_SENT, findByRecipient(accepted).getStatus());
+        assertEquals(1, SMTP.getMessages().size());
+    }
+
+    @Test
+    @DisplayName("A mail given up after its last attempt drops its body and is purged after retention")
+    void failedMailIsClearedAndPurged() {
+        String rejected = unique("reject.example");
+        emailService.sendTemporaryPasswordEmail(rejected, "Secret-123");
+        EmailOutbox queued = findByRecipient(rejected);
+        queued.setAttempts(maxAttempts - 1);
+        outboxRepository.save(queued);
+
+        dispatcher.dispatchBatch();
+
+        EmailOutbox failed = findByRecipient(rejected);
+        assertEquals(EmailOutbox.STATUS_FAILED, failed.getStatus());
+        assertNull(failed.getBody());
+
+        dispatcher.purgeSentMails();
+        assertTrue(outboxRepository.findById(failed.getId()).isPresent());
+
+        jdbcTemplate.update("UPDATE email_outbox SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(30), failed.getId().toString());
+        dispatcher.purgeSentMails();
+        assertTrue(outboxRepository.findById(failed.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mails over the per-domain limit should be deferred without using an attempt")
+    void perDomainRateLimit() {
+        String domain = UUID.randomUUID() + ".example";
+        for (int i = 0; i < 3; i++) {
+            emailService.sendGenericNotificationEmail("user" + i + "@" + domain, "Hello", "Limited", null);
+        }
+
+        dispatcher.dispatchBatch();
+
+        List<EmailOutbox> mails = outboxRepository.findAll().stream()
+                .filter(m -> m.getRecipientDomain().equals(domain))
+                .toList();
+        assertEquals(2, mails.stream().filter(m -> EmailOutbox.STATUS_SENT.equals(m.getStatus())).count());
+        EmailOutbox deferred = mails.stream()
+                .filter(m -> EmailOutbox.STATUS_PENDING.equals(m.getStatus()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, deferred.getAttempts());
+        assertTrue(deferred.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    private void drain() {
+        while (dispatcher.dispatchBatch() > 0) {
+            // deliver anything left over from other tests
+        }
+    }
+
+    private EmailOutbox findByRecipient(String recipient) {
+        return outboxRepository.findAll().stream()
+                .filter(m -> m.getRecipientEmail().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String unique(String domain) {
+        return "user-" + UUID.randomUUID() + "@" + domain;
+    }
+
+    private static TestSmtpServer startSmtp() {
+        try {
+            return new TestSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
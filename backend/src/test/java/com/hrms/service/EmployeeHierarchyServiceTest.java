@@ -0,0 +1,114 @@
+package com.hrms.service;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.support.EmployeeFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Employee Hierarchy Closure Tests")
+class EmployeeHierarchyServiceTest {
+
+    @Autowired
+    private EmployeeHierarchyService hierarchyService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        organization = fixtures.organization("Hierarchy Org");
+    }
+
+    @Test
+    @DisplayName("A new report under managers without nodes gets the whole management chain")
+    void buildsManagerChainFirst() {
+        // Saved without the hierarchy service, as legacy rows that were never backfilled
+        Employee ceo = employee(null);
+        Employee director = employee(ceo);
+        Employee manager = employee(director);
+
+        Employee engineer = employee(manager);
+        hierarchyService.onEmployeeCreated(engineer);
+
+        assertEquals(List.of(manager.getId(), director.getId(), ceo.getId()),
+                hierarchyService.getManagementChainIds(engineer.getId()));
+        assertTrue(hierarchyService.isInReportingLine(ceo.getId(), engineer.getId()));
+        assertEquals(List.of(director.getId(), ceo.getId()), hierarchyService.getManagementChainIds(manager.getId()));
+        assertEquals(closureRows(), rebuiltRows());
+    }
+
+    @Test
+    @DisplayName("Moving a manager moves their subtree and matches a full rebuild")
+    void movesSubtree() {
+        Employee ceo = created(null);
+        Employee director = created(ceo);
+        Employee manager = created(director);
+        Employee engineer = created(manager);
+        Employee otherDirector = created(ceo);
+
+        manager.setReportsTo(otherDirector);
+        manager = employeeRepository.save(manager);
+        hierarchyService.onReportingChanged(manager, otherDirector);
+
+        assertEquals(List.of(manager.getId(), otherDirector.getId(), ceo.getId()),
+                hierarchyService.getManagementChainIds(engineer.getId()));
+        assertFalse(hierarchyService.isInReportingLine(director.getId(), engineer.getId()));
+        assertEquals(Set.of(manager.getId(), engineer.getId()),
+                new HashSet<>(hierarchyService.getSubordinateIds(otherDirector.getId())));
+        assertEquals(closureRows(), rebuiltRows());
+
+        manager.setReportsTo(null);
+        manager = employeeRepository.save(manager);
+        hierarchyService.onReportingChanged(manager, null);
+        assertEquals(List.of(manager.getId()), hierarchyService.getManagementChainIds(engineer.getId()));
+        assertEquals(closureRows(), rebuiltRows());
+    }
+
+    private Employee created(Employee reportsTo) {
+        Employee employee = employee(reportsTo);
+        hierarchyService.onEmployeeCreated(employee);
+        return employee;
+    }
+
+    private Employee employee(Employee reportsTo) {
+        return fixtures.employee(organization, "E", e -> {
+            e.setFirstName("Employee");
+            e.setLastName("Test");
+            e.setReportsTo(reportsTo);
+        });
+    }
+
+    private Set<String> closureRows() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT CONCAT(ancestor_id, '>', descendant_id, '@', depth) FROM employee_hierarchy_closure " +
+                "WHERE organization_id = ?", String.class, organization.getId().toString()));
+    }
+
+    private Set<String> rebuiltRows() {
+        hierarchyService.rebuildOrganization(organization.getId());
+        return closureRows();
+    }
+}
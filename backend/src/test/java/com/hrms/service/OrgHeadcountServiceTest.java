@@ -0,0 +1,104 @@
+package com.hrms.service;
+
+import com.hrms.entity.Department;
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.User;
+import com.hrms.repository.DepartmentRepository;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Org Headcount Snapshot Tests")
+class OrgHeadcountServiceTest {
+
+    @Autowired
+    private OrgHeadcountService orgHeadcountService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+    private Department department;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        organization = new Organization();
+        organization.setName("Headcount Org " + UUID.randomUUID());
+        organization = organizationRepository.save(organization);
+        department = departmentRepository.save(new Department(organization, "Engineering"));
+
+        User user = new User("headcount-" + UUID.randomUUID() + "@test.com", "password");
+        user.setOrganization(organization);
+        user = userRepository.save(user);
+        employee = new Employee(user, organization);
+        employee.setEmployeeCode("H-" + UUID.randomUUID().toString().substring(0, 8));
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee.setDepartment(department);
+        employee.setJoiningDate(LocalDate.of(2026, 3, 15));
+        employee = employeeRepository.save(employee);
+    }
+
+    @Test
+    @DisplayName("A department rename reaches a loaded snapshot")
+    void followsDepartmentRename() {
+        OrgHeadcountSnapshot snapshot = orgHeadcountService.getSnapshot(organization.getId());
+        assertEquals("Engineering", snapshot.getDepartmentNames().get(department.getId()));
+
+        department.setName("Research");
+        departmentRepository.save(department);
+
+        assertEquals("Research", orgHeadcountService.getSnapshot(organization.getId())
+                .getDepartmentNames().get(department.getId()));
+        assertTrue(orgHeadcountService.isConsistent(snapshot));
+    }
+
+    @Test
+    @DisplayName("Hire months and department names changed behind the snapshot are detected as drift")
+    void detectsDrift() {
+        OrgHeadcountSnapshot snapshot = orgHeadcountService.getSnapshot(organization.getId());
+        assertEquals(1, snapshot.getHiresFrom(YearMonth.of(2026, 3)));
+        assertTrue(orgHeadcountService.isConsistent(snapshot));
+
+        // Bypasses JPA, so no change event: only the hire month differs
+        jdbcTemplate.update("UPDATE employees SET joining_date = ? WHERE id = ?",
+                Date.valueOf(LocalDate.of(2025, 11, 1)), employee.getId().toString());
+        assertFalse(orgHeadcountService.isConsistent(snapshot));
+        jdbcTemplate.update("UPDATE employees SET joining_date = ? WHERE id = ?",
+                Date.valueOf(LocalDate.of(2026, 3, 15)), employee.getId().toString());
+        assertTrue(orgHeadcountService.isConsistent(snapshot));
+
+        jdbcTemplate.update("UPDATE departments SET name = 'Operations' WHERE id = ?", department.getId().toString());
+        assertFalse(orgHeadcountService.isConsistent(snapshot));
+    }
+}
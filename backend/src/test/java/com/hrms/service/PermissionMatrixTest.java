@@ -0,0 +1,76 @@
+package com.hrms.service;
+
+import com.hrms.entity.Permission;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Permission Matrix Tests")
+class PermissionMatrixTest {
+
+    private static PermissionMatrix compile(String... codes) {
+        List<Permission> permissions = Arrays.stream(codes)
+                .map(Permission::fromCode)
+                .toList();
+        return PermissionMatrix.compile(permissions, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Granted permission should be found")
+    void grantedPermission() {
+        PermissionMatrix matrix = compile("employees:view:team", "documents:upload:own");
+
+        assertTrue(matrix.has("employees", "view", "team"));
+        assertTrue(matrix.has("documents", "upload", "own"));
+    }
+
+    @Test
+    @DisplayName("Permission with a different scope, action or resource should not be found")
+    void missingPermission() {
+        PermissionMatrix matrix = compile("employees:view:team");
+
+        assertFalse(matrix.has("employees", "view", "organization"));
+        assertFalse(matrix.has("employees", "edit", "team"));
+        assertFalse(matrix.has("documents", "view", "team"));
+    }
+
+    @Test
+    @DisplayName("Unknown names should not be found")
+    void unknownNames() {
+        PermissionMatrix matrix = compile("employees:view:team");
+
+        assertFalse(matrix.has("never-seen-resource", "view", "team"));
+        assertFalse(matrix.has("employees", "never-seen-action", "team"));
+        assertFalse(matrix.has("employees", "view", "never-seen-scope"));
+        assertFalse(matrix.has(null, null, null));
+    }
+
+    @Test
+    @DisplayName("Highest scope should follow organization > department > team > own")
+    void highestScope() {
+        PermissionMatrix matrix = compile(
+                "leaves:approve:team",
+                "leaves:approve:department",
+                "leaves:view:own",
+                "payroll:run:organization",
+                "payroll:run:own");
+
+        assertEquals("department", matrix.getHighestScope("leaves", "approve"));
+        assertEquals("own", matrix.getHighestScope("leaves", "view"));
+        assertEquals("organization", matrix.getHighestScope("payroll", "run"));
+        assertNull(matrix.getHighestScope("leaves", "delete"));
+    }
+
+    @Test
+    @DisplayName("Empty matrix should grant nothing")
+    void emptyMatrix() {
+        PermissionMatrix matrix = compile();
+
+        assertFalse(matrix.has("employees", "view", "own"));
+        assertNull(matrix.getHighestScope("employees", "view"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.hrms.service;
+
+import com.hrms.HrmsApplication;
+import com.hrms.entity.Organization;
+import com.hrms.entity.Permission;
+import com.hrms.entity.Role;
+import com.hrms.entity.User;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.repository.PermissionRepository;
+import com.hrms.repository.RoleRepository;
+import com.hrms.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access decision for one target employee in organizations of 1k, 10k and 100k employees
+ * (ten departments, a ten-way reporting tree). pointCheck is canAccessEmployee by id;
+ * listMembership is the previous approach of loading getAccessibleEmployees and searching it.
+ * Runs against the H2 test profile, so absolute numbers understate a remote database.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main PermissionServiceBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionServiceBenchmark {
+
+    private static final String RESOURCE = "employees";
+    private static final String ACTION = "view";
+    private static final int DEPARTMENTS = 10;
+    private static final int FAN_OUT = 10;
+
+    @Param({"1000", "10000", "100000"})
+    public int employees;
+
+    @Param({"organization", "department", "team"})
+    public String scope;
+
+    private ConfigurableApplicationContext context;
+    private PermissionService permissionService;
+    private TransactionTemplate readOnly;
+    private User caller;
+    private UUID[] targets;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HrmsApplication.class)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.hrms=WARN");
+        permissionService = context.getBean(PermissionService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        Organization organization = new Organization();
+        organization.setName("Benchmark Org " + UUID.randomUUID());
+        organization = context.getBean(OrganizationRepository.class).save(organization);
+        targets = seed(context.getBean(JdbcTemplate.class), organization.getId());
+        context.getBean(EmployeeHierarchyService.class).rebuildOrganization(organization.getId());
+
+        // System permissions are seeded at startup
+        Permission permission = context.getBean(PermissionRepository.class)
+                .findByResourceAndActionAndScopeAndOrganizationIsNull(RESOURCE, ACTION, scope).orElseThrow();
+        Role role = new Role("benchmark-" + scope + "-" + UUID.randomUUID(), organization);
+        role.addPermission(permission);
+        role = context.getBean(RoleRepository.class).save(role);
+
+        // The caller is employee 1: a manager near the top of the tree, in department 1
+        UUID callerId = UUID.fromString(context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT CAST(user_id AS VARCHAR(36)) FROM employees WHERE id = ?", String.class, targets[1].toString()));
+        context.getBean(JdbcTemplate.class).update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)",
+                callerId.toString(), role.getId());
+        caller = readOnly.execute(status -> {
+            User user = context.getBean(UserRepository.class).findById(callerId).orElseThrow();
+            user.getRoles().forEach(r -> Hibernate.initialize(r.getPermissions()));
+            return user;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean pointCheck() {
+        UUID target = randomTarget();
+        return readOnly.execute(status -> permissionService.canAccessEmployee(caller, target, RESOURCE, ACTION));
+    }
+
+    @Benchmark
+    public boolean listMembership() {
+        UUID target = randomTarget();
+        return readOnly.execute(status -> permissionService.getAccessibleEmployees(caller, RESOURCE, ACTION)
+                .stream().anyMatch(employee -> employee.getId().equals(target)));
+    }
+
+    private UUID randomTarget() {
+        return targets[ThreadLocalRandom.current().nextInt(targets.length)];
+    }
+
+    /**
+     * Insert users, departments and employees with JDBC batches
+     * @return the employee ids, in creation order
+     */
+    private UUID[] seed(JdbcTemplate jdbcTemplate, UUID organizationId) {
+        String org = organizationId.toString();
+        List<String> departments = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            String id = UUID.randomUUID().toString();
+            jdbcTemplate.update("INSERT INTO departments (id, organization_id, name) VALUES (?, ?, ?)",
+                    id, org, "Department " + d);
+            departments.add(id);
+        }
+
+        UUID[] ids = new UUID[employees];
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < employees; i++) {
+            ids[i] = UUID.randomUUID();
+            String userId = UUID.randomUUID().toString();
+            users.add(new Object[] { userId, "bench-" + ids[i] + "@test.com", "password", false, true, org, 0L });
+            rows.add(new Object[] { ids[i].toString(), userId, org, "B-" + ids[i], "Employee", String.valueOf(i),
+                    departments.get(i % DEPARTMENTS), i == 0 ? null : ids[(i - 1) / FAN_OUT].toString() });
+            if (rows.size() == 1000 || i == employees - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, must_change_password, is_active, " +
+                        "organization_id, version) VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+                jdbcTemplate.batchUpdate("INSERT INTO employees (id, user_id, organization_id, employee_code, " +
+                        "first_name, last_name, department_id, reports_to) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                users.clear();
+                rows.clear();
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PermissionServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
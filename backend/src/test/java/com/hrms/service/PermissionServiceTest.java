@@ -0,0 +1,117 @@
+package com.hrms.service;
+
+import com.hrms.entity.*;
+import com.hrms.repository.*;
+import com.hrms.support.EmployeeFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Permission Service Tests")
+class PermissionServiceTest {
+
+    private static final List<String> SCOPES = List.of("organization", "department", "team", "own");
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private EmployeeHierarchyService hierarchyService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private Organization organization;
+    private String resource;
+    private final List<Employee> employees = new ArrayList<>();
+    private final Map<String, Role> roles = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        organization = fixtures.organization("Access Org");
+        Department engineering = departmentRepository.save(new Department(organization, "Engineering"));
+        Department sales = departmentRepository.save(new Department(organization, "Sales"));
+
+        Employee ceo = employee(organization, engineering, null);
+        Employee manager = employee(organization, engineering, ceo);
+        employee(organization, sales, manager);
+        employee(organization, sales, ceo);
+        employee(organization, null, manager);
+        employee(fixtures.organization("Other Org"), null, null); // never accessible
+
+        resource = "access-test-" + UUID.randomUUID().toString().substring(0, 8);
+        for (String scope : SCOPES) {
+            Permission permission = permissionRepository.save(new Permission(resource, "view", scope));
+            Role role = new Role("access-" + scope + "-" + UUID.randomUUID(), organization);
+            role.addPermission(permission);
+            roles.put(scope, roleRepository.save(role));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Point checks match membership in the accessible employee list for every scope")
+    void pointCheckMatchesAccessibleEmployees() {
+        List<String> grants = new ArrayList<>(SCOPES);
+        grants.add("none");
+
+        for (String grant : grants) {
+            // Decisions are memoized per request, so every grant gets a request of its own
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            for (Employee caller : employees.subList(0, employees.size() - 1)) {
+                User user = caller.getUser();
+                user.setRoles(grant.equals("none") ? new HashSet<>() : new HashSet<>(Set.of(roles.get(grant))));
+
+                Set<UUID> accessible = new HashSet<>();
+                for (Employee employee : permissionService.getAccessibleEmployees(user, resource, "view")) {
+                    accessible.add(employee.getId());
+                }
+                for (Employee target : employees) {
+                    assertEquals(accessible.contains(target.getId()),
+                            permissionService.canAccessEmployee(user, target.getId(), resource, "view"),
+                            grant + " scope, caller " + caller.getLastName() + ", target " + target.getLastName());
+                }
+            }
+        }
+    }
+
+    private Employee employee(Organization organization, Department department, Employee reportsTo) {
+        Employee employee = fixtures.employee(organization, "A", e -> {
+            e.setFirstName("Employee");
+            e.setLastName("Number " + employees.size());
+            e.setDepartment(department);
+            e.setReportsTo(reportsTo);
+        });
+        hierarchyService.onEmployeeCreated(employee);
+        employees.add(employee);
+        return employee;
+    }
+}
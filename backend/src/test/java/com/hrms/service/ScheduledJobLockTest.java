@@ -0,0 +1,140 @@
+package com.hrms.service;
+
+import com.hrms.HrmsApplication;
+import com.hrms.entity.ScheduledJobLog;
+import com.hrms.repository.ScheduledJobLogRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts ("nodes") sharing one embedded H2 database
+ */
+@DisplayName("Scheduled Job Lock Tests")
+class ScheduledJobLockTest {
+
+    private static final long LEASE_SECONDS = 2;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(HrmsApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:scheduled_job_lock_test;DB_CLOSE_DELAY=-1;MODE=MSSQLServer",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        "--server.port=0",
+                        "--email.outbox.initial-delay-ms=3600000",
+                        "--scheduled-jobs.lock.node-id=" + nodeId,
+                        "--scheduled-jobs.lock.lease-seconds=" + LEASE_SECONDS,
+                        "--scheduled-jobs.lock.min-hold-seconds=0");
+    }
+
+    private static ScheduledJobLockService lock(ConfigurableApplicationContext node) {
+        return node.getBean(ScheduledJobLockService.class);
+    }
+
+    @Test
+    @DisplayName("Only one node runs a job while it is locked")
+    void onlyOneNodeRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Boolean> onA = CompletableFuture.supplyAsync(() -> lock(nodeA).runExclusively("ExclusiveJob", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(finish);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertFalse(lock(nodeB).runExclusively("ExclusiveJob", runs::incrementAndGet));
+        finish.countDown();
+        assertTrue(onA.get(10, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+
+        // Released: the next trigger may run anywhere
+        assertTrue(lock(nodeB).runExclusively("ExclusiveJob", runs::incrementAndGet));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("Another node takes over once the owner's lease expires")
+    void takeOverAfterOwnerDies() {
+        LocalDateTime now = LocalDateTime.now();
+        // node A takes the lock and "dies" without releasing it
+        assertTrue(lock(nodeA).tryAcquire("AbandonedJob", now));
+        assertFalse(lock(nodeB).tryAcquire("AbandonedJob", now.plusSeconds(1)));
+        assertTrue(lock(nodeB).tryAcquire("AbandonedJob", now.plusSeconds(LEASE_SECONDS + 1)));
+    }
+
+    @Test
+    @DisplayName("Heartbeats keep the lease of a long-running job")
+    void heartbeatExtendsLease() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> onA = CompletableFuture.supplyAsync(() -> lock(nodeA).runExclusively("LongJob", () -> {
+            started.countDown();
+            sleep(LEASE_SECONDS * 1000 + 1500);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        sleep(LEASE_SECONDS * 1000 + 500);
+        assertFalse(lock(nodeB).runExclusively("LongJob", () -> fail("ran on two nodes")));
+        assertTrue(onA.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Job logs record the node that ran the job")
+    void jobLogsRecordNode() {
+        nodeA.getBean(JobLogService.class).logSuccess("NodeStampedJob", 5, 10);
+
+        ScheduledJobLog log = nodeB.getBean(ScheduledJobLogRepository.class)
+                .findTop10ByJobNameOrderByExecutionTimeDesc("NodeStampedJob").get(0);
+        assertEquals("node-a", log.getNodeId());
+        assertEquals(10L, log.getRowsProcessed());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
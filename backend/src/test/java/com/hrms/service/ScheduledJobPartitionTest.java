@@ -0,0 +1,158 @@
+package com.hrms.service;
+
+import com.hrms.HrmsApplication;
+import com.hrms.entity.ScheduledJobPartition;
+import com.hrms.repository.ScheduledJobPartitionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts ("nodes") sharing one embedded H2 database
+ */
+@DisplayName("Scheduled Job Partition Tests")
+class ScheduledJobPartitionTest {
+
+    private static final int PARTITIONS = 8;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(HrmsApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:scheduled_job_partition_test;DB_CLOSE_DELAY=-1;MODE=MSSQLServer",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        "--server.port=0",
+                        "--email.outbox.initial-delay-ms=3600000",
+                        "--scheduled-jobs.lock.node-id=" + nodeId,
+                        "--scheduled-jobs.partitions.count=" + PARTITIONS,
+                        "--scheduled-jobs.partitions.stale-after-seconds=3",
+                        "--scheduled-jobs.partitions.rebalance-interval-ms=3600000");
+    }
+
+    private static ScheduledJobPartitionService partitions(ConfigurableApplicationContext node) {
+        return node.getBean(ScheduledJobPartitionService.class);
+    }
+
+    @Test
+    @DisplayName("Nodes process disjoint slices of a run concurrently")
+    void nodesShareARun() throws Exception {
+        Map<Integer, String> processedBy = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        for (ConfigurableApplicationContext node : List.of(nodeA, nodeB)) {
+            String nodeId = node.getBean(ScheduledJobLockService.class).getNodeId();
+            partitions(node).register("SharedJob", (runDate, partition, partitionCount) -> {
+                if (processedBy.putIfAbsent(partition, nodeId) != null) {
+                    duplicates.incrementAndGet();
+                }
+                sleep(200);
+                return 10;
+            });
+        }
+
+        LocalDate runDate = LocalDate.now();
+        CompletableFuture<Long> onA = CompletableFuture.supplyAsync(() -> partitions(nodeA).run("SharedJob", runDate));
+        CompletableFuture<Long> onB = CompletableFuture.supplyAsync(() -> partitions(nodeB).run("SharedJob", runDate));
+
+        assertEquals(PARTITIONS * 10L, onA.get(30, TimeUnit.SECONDS) + onB.get(30, TimeUnit.SECONDS));
+        assertEquals(0, duplicates.get());
+        assertEquals(PARTITIONS, processedBy.size());
+        assertEquals(Set.of("node-a", "node-b"), Set.copyOf(processedBy.values()));
+        assertTrue(partitions(nodeA).getPartitions("SharedJob", runDate).stream()
+                .allMatch(p -> ScheduledJobPartition.STATUS_DONE.equals(p.getStatus())));
+
+        // A late trigger finds nothing left to do
+        assertEquals(0, partitions(nodeB).run("SharedJob", runDate));
+    }
+
+    @Test
+    @DisplayName("Slices of a dead node are rebalanced to a live one")
+    void rebalanceAbandonedSlices() {
+        LocalDate runDate = LocalDate.now();
+        LocalDateTime longAgo = LocalDateTime.now().minusHours(1);
+        ScheduledJobPartitionRepository repository = nodeA.getBean(ScheduledJobPartitionRepository.class);
+        for (int i = 0; i < PARTITIONS; i++) {
+            ScheduledJobPartition partition = new ScheduledJobPartition("OrphanedJob", runDate, i, PARTITIONS);
+            partition.setCreatedAt(longAgo);
+            if (i % 2 == 0) {
+                partition.setStatus(ScheduledJobPartition.STATUS_RUNNING);
+                partition.setOwner("dead-node");
+                partition.setAttempts(1);
+                partition.setHeartbeatAt(longAgo);
+            }
+            repository.save(partition);
+        }
+
+        AtomicInteger processed = new AtomicInteger();
+        partitions(nodeB).register("OrphanedJob", (date, partition, partitionCount) -> processed.incrementAndGet());
+        partitions(nodeB).rebalance();
+
+        assertEquals(PARTITIONS, processed.get());
+        assertTrue(partitions(nodeB).getPartitions("OrphanedJob", runDate).stream()
+                .allMatch(p -> ScheduledJobPartition.STATUS_DONE.equals(p.getStatus()) && "node-b".equals(p.getOwner())));
+    }
+
+    @Test
+    @DisplayName("A failed slice is retried by the next run")
+    void failedSliceIsRetried() {
+        AtomicInteger failures = new AtomicInteger();
+        partitions(nodeA).register("FlakyJob", (runDate, partition, partitionCount) -> {
+            if (partition == 0 && failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("boom");
+            }
+            return 1;
+        });
+
+        LocalDate runDate = LocalDate.now();
+        assertEquals(PARTITIONS - 1, partitions(nodeA).run("FlakyJob", runDate));
+        ScheduledJobPartition first = partitions(nodeA).getPartitions("FlakyJob", runDate).get(0);
+        assertEquals(ScheduledJobPartition.STATUS_FAILED, first.getStatus());
+        assertEquals("boom", first.getErrorMessage());
+
+        assertEquals(1, partitions(nodeA).run("FlakyJob", runDate));
+        first = partitions(nodeA).getPartitions("FlakyJob", runDate).get(0);
+        assertEquals(ScheduledJobPartition.STATUS_DONE, first.getStatus());
+        assertEquals(2, first.getAttempts());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hrms.service.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compiled Template Tests")
+class CompiledTemplateTest {
+
+    @Test
+    @DisplayName("Variables are substituted and HTML-escaped")
+    void substitutesAndEscapes() {
+        CompiledTemplate template = CompiledTemplate.html("<p>Hello {{ name }}, {{count}} new</p>");
+        assertEquals("<p>Hello Tom &amp; &lt;Jerry&gt;, 3 new</p>",
+                template.render(Map.of("name", "Tom & <Jerry>", "count", 3)));
+    }
+
+    @Test
+    @DisplayName("Triple braces insert markup verbatim")
+    void rawVariables() {
+        CompiledTemplate template = CompiledTemplate.html("<div>{{{button}}}</div>");
+        assertEquals("<div><a href=\"x\">Go</a></div>", template.render(Map.of("button", "<a href=\"x\">Go</a>")));
+    }
+
+    @Test
+    @DisplayName("Text templates do not escape and missing variables render empty")
+    void textTemplates() {
+        CompiledTemplate template = CompiledTemplate.text("Payslip - {{month}}{{missing}}");
+        assertEquals("Payslip - Jan & Feb", template.render(Map.of("month", "Jan & Feb")));
+    }
+
+    @Test
+    @DisplayName("Unterminated and empty placeholders stay literal")
+    void malformedPlaceholders() {
+        assertEquals("a {{}} b {{open", CompiledTemplate.html("a {{}} b {{open").render(Map.of()));
+        assertEquals("", CompiledTemplate.html(null).render(null));
+    }
+
+    @Test
+    @DisplayName("Variable names are reported once in order of use")
+    void variableNames() {
+        CompiledTemplate template = CompiledTemplate.html("{{b}} {{a}} {{{b}}}");
+        assertEquals(Set.of("a", "b"), template.getVariableNames());
+        assertEquals("b", template.getVariableNames().iterator().next());
+    }
+}
@@ -0,0 +1,67 @@
+package com.hrms.service.notification;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.User;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.repository.UserRepository;
+import com.hrms.service.notification.NotificationService.PendingNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Notification Service Tests")
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Processing a reminder run twice inserts its notifications once")
+    void insertsOncePerRun() {
+        Organization organization = new Organization();
+        organization.setName("Notification Org " + UUID.randomUUID());
+        organization = organizationRepository.save(organization);
+        User user = new User("notify-" + UUID.randomUUID() + "@test.com", "password");
+        user.setOrganization(organization);
+        user = userRepository.save(user);
+        Employee employee = new Employee(user, organization);
+        employee.setEmployeeCode("N-" + UUID.randomUUID().toString().substring(0, 8));
+        employee.setFirstName("Grace");
+        employee.setLastName("Hopper");
+        employee = employeeRepository.save(employee);
+
+        List<PendingNotification> notifications = List.of(
+            new PendingNotification(employee.getId(), "REMINDER", "Probation Review Due", "Review Ada"),
+            new PendingNotification(employee.getId(), "REMINDER", "Probation Review Due", "Review Alan"));
+
+        assertEquals(2, notificationService.insertNotifications(organization.getId(), "Job/2026-05-04", notifications));
+        assertEquals(0, notificationService.insertNotifications(organization.getId(), "Job/2026-05-04", notifications));
+        assertEquals(2, notificationService.insertNotifications(organization.getId(), "Job/2026-05-05", notifications));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications WHERE employee_id = ?",
+            Integer.class, employee.getId().toString()));
+    }
+}
@@ -0,0 +1,294 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.payroll.EmployeeSalaryComponent;
+import com.hrms.entity.payroll.EmployeeSalaryStructure;
+import com.hrms.entity.payroll.PayrollRun;
+import com.hrms.entity.payroll.PayslipArchive;
+import com.hrms.entity.payroll.SalaryComponent;
+import com.hrms.entity.payroll.TaxSlab;
+import com.hrms.exception.BusinessException;
+import com.hrms.repository.payroll.EmployeeSalaryComponentRepository;
+import com.hrms.repository.payroll.EmployeeSalaryStructureRepository;
+import com.hrms.repository.payroll.PayrollRunRepository;
+import com.hrms.repository.payroll.PayslipArchiveRepository;
+import com.hrms.repository.payroll.SalaryComponentRepository;
+import com.hrms.repository.payroll.TaxSlabRepository;
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+import com.hrms.service.payroll.PayrollCalculator.EmployeeInput;
+import com.hrms.service.payroll.PayrollCalculator.Result;
+import com.hrms.support.EmployeeFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Payroll Engine Tests")
+class PayrollEngineTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2026, 4, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2026, 4, 30);
+
+    @Autowired
+    private PayrollEngine payrollEngine;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private SalaryComponentRepository salaryComponentRepository;
+
+    @Autowired
+    private EmployeeSalaryStructureRepository structureRepository;
+
+    @Autowired
+    private EmployeeSalaryComponentRepository employeeComponentRepository;
+
+    @Autowired
+    private TaxSlabRepository taxSlabRepository;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @Autowired
+    private PayslipArchiveRepository payslipArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+
+    private final List<EmployeeSalaryStructure> structures = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        organization = fixtures.organization("Payroll Org");
+
+        SalaryComponent hra = component("House Rent Allowance", "HRA", "earning", "percentage");
+        SalaryComponent special = component("Special Allowance", "SPECIAL", "earning", "fixed");
+        SalaryComponent pf = component("Provident Fund", "PF", "deduction", "percentage");
+
+        for (int i = 0; i < 3; i++) {
+            Employee employee = employee();
+            EmployeeSalaryStructure structure = new EmployeeSalaryStructure();
+            structure.setOrganization(organization);
+            structure.setEmployee(employee);
+            structure.setEffectiveFrom(LocalDate.of(2026, 1, 1));
+            structure.setBasicSalary(new BigDecimal("5000.00"));
+            structures.add(structureRepository.save(structure));
+
+            assign(employee, hra, null, new BigDecimal("40"), "PERCENTAGE");
+            assign(employee, special, new BigDecimal("1000.00"), null, "FIXED");
+            assign(employee, pf, null, new BigDecimal("12"), "PERCENTAGE");
+        }
+
+        slab(BigDecimal.ZERO, new BigDecimal("50000"), BigDecimal.ZERO);
+        slab(new BigDecimal("50000"), new BigDecimal("100000"), new BigDecimal("10"));
+        slab(new BigDecimal("100000"), null, new BigDecimal("20"));
+    }
+
+    @Test
+    @DisplayName("Processing a run creates payslips, line items and run totals")
+    void processesRun() {
+        PayrollRun run = new PayrollRun();
+        run.setOrganization(organization);
+        run.setPeriodStart(PERIOD_START);
+        run.setPeriodEnd(PERIOD_END);
+        run.setStatus("pending");
+        run = payrollRunRepository.save(run);
+
+        PayrollRun processed = payrollEngine.process(run.getId(), organization.getId(), null);
+
+        // Gross 5000 + 2000 + 1000; tax on 96000 a year is 4600 (383.33 a month); PF 600
+        assertEquals("completed", processed.getStatus());
+        assertEquals(3, processed.getTotalEmployees());
+        assertEquals(0, new BigDecimal("24000.00").compareTo(processed.getTotalGrossPay()));
+        assertEquals(0, new BigDecimal("2949.99").compareTo(processed.getTotalDeductions()));
+        assertEquals(0, new BigDecimal("21050.01").compareTo(processed.getTotalNetPay()));
+
+        List<Map<String, Object>> payslips = jdbcTemplate.queryForList(
+                "SELECT id, net_pay FROM payslips WHERE payroll_run_id = ?", run.getId().toString());
+        assertEquals(3, payslips.size());
+        Integer lines = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payslip_line_items WHERE payslip_id = ?",
+                Integer.class, payslips.get(0).get("id").toString());
+        assertEquals(5, lines);
+
+        UUID runId = run.getId();
+        assertThrows(BusinessException.class, () -> payrollEngine.process(runId, organization.getId(), null));
+    }
+
+    @Test
+    @DisplayName("Re-running a run recomputes only employees whose inputs changed")
+    void reprocessesChangedEmployeesOnly() {
+        PayrollRun run = new PayrollRun();
+        run.setOrganization(organization);
+        run.setPeriodStart(PERIOD_START);
+        run.setPeriodEnd(PERIOD_END);
+        run.setStatus("pending");
+        UUID runId = payrollRunRepository.save(run).getId();
+        payrollEngine.process(runId, organization.getId(), null);
+        Map<String, String> before = payslipIds(runId);
+        storedArchive(runId);
+
+        EmployeeSalaryStructure corrected = structures.get(0);
+        corrected.setBasicSalary(new BigDecimal("6000.00"));
+        structureRepository.save(corrected);
+        PayrollRun reprocessed = payrollEngine.reprocess(runId, organization.getId(), null);
+
+        // The corrected employee: gross 6000 + 2400 + 1000, PF 720, tax 7560 a year (630 a month)
+        Map<String, String> after = payslipIds(runId);
+        String correctedEmployee = corrected.getEmployee().getId().toString();
+        assertEquals(3, after.size());
+        assertNotEquals(before.get(correctedEmployee), after.get(correctedEmployee));
+        before.remove(correctedEmployee);
+        before.forEach((employeeId, payslipId) -> assertEquals(payslipId, after.get(employeeId)));
+        assertEquals("completed", reprocessed.getStatus());
+        assertEquals(3, reprocessed.getTotalEmployees());
+        assertEquals(0, new BigDecimal("25400.00").compareTo(reprocessed.getTotalGrossPay()));
+        assertEquals(0, new BigDecimal("3316.66").compareTo(reprocessed.getTotalDeductions()));
+        assertEquals(0, new BigDecimal("22083.34").compareTo(reprocessed.getTotalNetPay()));
+        assertEquals(PayslipArchive.STATUS_STALE, payslipArchiveRepository.findById(runId).orElseThrow().getStatus());
+
+        // Nothing changed since: nothing is replaced
+        payrollEngine.reprocess(runId, organization.getId(), null);
+        assertEquals(after, payslipIds(runId));
+    }
+
+    @Test
+    @DisplayName("Changes to inputs the calculator does not read recompute nothing")
+    void ignoresUnusedInputs() {
+        PayrollRun run = new PayrollRun();
+        run.setOrganization(organization);
+        run.setPeriodStart(PERIOD_START);
+        run.setPeriodEnd(PERIOD_END);
+        run.setStatus("pending");
+        UUID runId = payrollRunRepository.save(run).getId();
+        payrollEngine.process(runId, organization.getId(), null);
+        Map<String, String> before = payslipIds(runId);
+        storedArchive(runId);
+
+        String employeeId = structures.get(0).getEmployee().getId().toString();
+        jdbcTemplate.update("INSERT INTO attendance_records (id, organization_id, employee_id, attendance_date, status, " +
+                "worked_minutes, is_active) VALUES (?, ?, ?, ?, ?, ?, ?)", UUID.randomUUID().toString(),
+                organization.getId().toString(), employeeId, Date.valueOf(PERIOD_START.plusDays(2)),
+                "present", 480, Boolean.TRUE);
+        // Percentage components are computed from their percentage; a stray amount is not read
+        jdbcTemplate.update("UPDATE employee_salary_components SET amount = ? WHERE employee_id = ? " +
+                "AND calculation_type = 'PERCENTAGE'", new BigDecimal("999.00"), employeeId);
+
+        payrollEngine.reprocess(runId, organization.getId(), null);
+        assertEquals(before, payslipIds(runId));
+        assertEquals(PayslipArchive.STATUS_COMPLETED, payslipArchiveRepository.findById(runId).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Results are identical whatever the parallelism")
+    void deterministicAcrossParallelism() {
+        UUID hra = UUID.randomUUID();
+        PayrollCalculator calculator = new PayrollCalculator();
+        TaxSlabIndex.Schedule schedule = TaxSlabIndex.Schedule.of(List.of(
+                taxSlab(BigDecimal.ZERO, new BigDecimal("30000"), "5", null, null),
+                taxSlab(new BigDecimal("30000"), null, "17.5", "2.5", "4")));
+        List<EmployeeInput> inputs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            inputs.add(new EmployeeInput(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(1000 + i * 7).movePointLeft(1),
+                    12, List.of(
+                    new ComponentInput(hra, "HRA", "HRA", "earning", "percentage", null, new BigDecimal("33.3333"), null),
+                    new ComponentInput(UUID.randomUUID(), "Bonus", "BONUS", "earning", "percentage", null,
+                            new BigDecimal("12.5"), hra)), schedule));
+        }
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool wide = new ForkJoinPool(8);
+        try {
+            Result[] sequential = PayrollEngine.calculate(single, calculator, inputs);
+            Result[] parallel = PayrollEngine.calculate(wide, calculator, inputs);
+            assertArrayEquals(sequential, parallel);
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+
+    private Map<String, String> payslipIds(UUID runId) {
+        Map<String, String> ids = new HashMap<>();
+        jdbcTemplate.queryForList("SELECT id, employee_id FROM payslips WHERE payroll_run_id = ?", runId.toString())
+                .forEach(row -> ids.put(row.get("employee_id").toString(), row.get("id").toString()));
+        return ids;
+    }
+
+    private SalaryComponent component(String name, String code, String type, String calculationType) {
+        SalaryComponent component = new SalaryComponent();
+        component.setOrganization(organization);
+        component.setName(name);
+        component.setCode(code);
+        component.setType(type);
+        component.setCalculationType(calculationType);
+        return salaryComponentRepository.save(component);
+    }
+
+    private Employee employee() {
+        return fixtures.employee(organization, "P");
+    }
+
+    private void assign(Employee employee, SalaryComponent component, BigDecimal amount, BigDecimal percentage,
+                        String calculationType) {
+        EmployeeSalaryComponent assigned = new EmployeeSalaryComponent();
+        assigned.setOrganization(organization);
+        assigned.setEmployee(employee);
+        assigned.setSalaryComponent(component);
+        assigned.setAmount(amount);
+        assigned.setPercentage(percentage);
+        assigned.setCalculationType(calculationType);
+        assigned.setEffectiveFrom(LocalDate.of(2026, 1, 1));
+        employeeComponentRepository.save(assigned);
+    }
+
+    private void storedArchive(UUID runId) {
+        PayslipArchive archive = new PayslipArchive();
+        archive.setPayrollRunId(runId);
+        archive.setOrganizationId(organization.getId());
+        archive.setStatus(PayslipArchive.STATUS_COMPLETED);
+        archive.setStoredPath("org/" + organization.getId() + "/payroll/" + runId + "/payslips.zip");
+        payslipArchiveRepository.save(archive);
+    }
+
+    private void slab(BigDecimal min, BigDecimal max, BigDecimal rate) {
+        TaxSlab slab = new TaxSlab();
+        slab.setOrganization(organization);
+        slab.setName("Slab " + min);
+        slab.setFinancialYear("2026-27");
+        slab.setMinIncome(min);
+        slab.setMaxIncome(max);
+        slab.setTaxRate(rate);
+        taxSlabRepository.save(slab);
+    }
+
+    private static TaxSlab taxSlab(BigDecimal min, BigDecimal max, String rate, String surcharge, String cess) {
+        TaxSlab slab = new TaxSlab();
+        slab.setMinIncome(min);
+        slab.setMaxIncome(max);
+        slab.setTaxRate(new BigDecimal(rate));
+        slab.setSurchargeRate(surcharge != null ? new BigDecimal(surcharge) : null);
+        slab.setCessRate(cess != null ? new BigDecimal(cess) : null);
+        return slab;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.payroll.PayrollRun;
+import com.hrms.entity.payroll.PayslipArchive;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.payroll.PayrollRunRepository;
+import com.hrms.support.EmployeeFixtures;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Payslip Archive Tests")
+class PayslipArchiveServiceTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2026, 4, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2026, 4, 30);
+
+    @Autowired
+    private PayslipArchiveService payslipArchiveService;
+
+    @Autowired
+    private EmployeeFixtures fixtures;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+    private PayrollRun run;
+    private final List<String> employeeCodes = new ArrayList<>();
+    private final List<UUID> employeeIds = new ArrayList<>();
+    private final List<UUID> payslipIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        organization = fixtures.organization("Payslip Org");
+
+        run = new PayrollRun();
+        run.setOrganization(organization);
+        run.setPayPeriod("2026-04");
+        run.setPeriodStart(PERIOD_START);
+        run.setPeriodEnd(PERIOD_END);
+        run.setStatus("completed");
+        run = payrollRunRepository.save(run);
+
+        for (int i = 0; i < 3; i++) {
+            int number = i;
+            Employee employee = fixtures.employee(organization, "S", e -> {
+                // The first employee's name is outside WinAnsi
+                e.setFirstName(number == 0 ? "Łukasz" : "Employee");
+                e.setLastName(number == 0 ? "Иванов" : "Number " + number);
+            });
+            employeeCodes.add(employee.getEmployeeCode());
+            employeeIds.add(employee.getId());
+
+            String payslipId = UUID.randomUUID().toString();
+            payslipIds.add(UUID.fromString(payslipId));
+            jdbcTemplate.update("INSERT INTO payslips (id, organization_id, payroll_run_id, employee_id, pay_period_start, " +
+                    "pay_period_end, gross_pay, total_deductions, net_pay, status, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    payslipId, organization.getId().toString(), run.getId().toString(), employee.getId().toString(),
+                    Date.valueOf(PERIOD_START), Date.valueOf(PERIOD_END), new BigDecimal("6000.00"),
+                    new BigDecimal("600.00"), new BigDecimal("5400.00"), "generated", Boolean.TRUE);
+            line(payslipId, "Basic Salary", "earning", "6000.00", 1);
+            line(payslipId, "Provident Fund", "deduction", "600.00", 2);
+        }
+    }
+
+    @Test
+    @DisplayName("The archive of a run has one PDF per payslip")
+    void writesArchive() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = payslipArchiveService.writeArchive(run.getId(), organization.getId(), out);
+
+        assertEquals(3, written);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                try (PDDocument pdf = Loader.loadPDF(zip.readAllBytes())) {
+                    String text = new PDFTextStripper().getText(pdf);
+                    assertTrue(text.contains("Provident Fund"));
+                    assertTrue(text.contains("5,400.00"));
+                }
+            }
+        }
+        assertEquals(employeeCodes.stream().sorted().map(code -> code + "-" + PERIOD_END + ".pdf").toList(), names);
+    }
+
+    @Test
+    @DisplayName("A requested archive is generated in the background and can be downloaded later")
+    void storesArchive() throws Exception {
+        assertThrows(ResourceNotFoundException.class,
+                () -> payslipArchiveService.getStoredArchive(run.getId(), organization.getId()));
+        PayslipArchive requested = payslipArchiveService.requestArchive(run.getId(), organization.getId(), null);
+        assertTrue(requested.isPending());
+
+        PayslipArchive archive = awaitArchive();
+        assertEquals(PayslipArchive.STATUS_COMPLETED, archive.getStatus());
+        assertEquals(3, archive.getPayslipCount());
+        PayslipArchiveService.StoredArchive found = payslipArchiveService.getStoredArchive(run.getId(), organization.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        payslipArchiveService.download(found, out);
+        assertEquals(archive.getSizeBytes(), out.size());
+        assertEquals("payslips-2026-04.zip", payslipArchiveService.archiveFileName(run.getId(), organization.getId()));
+
+        // Once the payslips change the archive is no longer served
+        jdbcTemplate.update("UPDATE payslip_archives SET status = ? WHERE payroll_run_id = ?",
+                PayslipArchive.STATUS_STALE, run.getId().toString());
+        assertThrows(ResourceNotFoundException.class,
+                () -> payslipArchiveService.getStoredArchive(run.getId(), organization.getId()));
+    }
+
+    @Test
+    @DisplayName("Employees can render their own payslip, in their own script, and no one else's")
+    void rendersOwnPayslip() throws IOException {
+        PayslipArchiveService.RenderedPayslip own = payslipArchiveService.renderEmployeePayslip(
+                payslipIds.get(0), organization.getId(), employeeIds.get(0));
+        try (PDDocument pdf = Loader.loadPDF(own.content())) {
+            assertTrue(new PDFTextStripper().getText(pdf).contains("Łukasz Иванов"));
+        }
+
+        assertThrows(ResourceNotFoundException.class, () -> payslipArchiveService.renderEmployeePayslip(
+                payslipIds.get(1), organization.getId(), employeeIds.get(0)));
+    }
+
+    private PayslipArchive awaitArchive() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            PayslipArchive archive = payslipArchiveService.getArchive(run.getId(), organization.getId());
+            if (!archive.isPending()) {
+                return archive;
+            }
+            Thread.sleep(50);
+        }
+        fail("Payslip archive was not generated");
+        return null;
+    }
+
+    private void line(String payslipId, String name, String type, String amount, int displayOrder) {
+        jdbcTemplate.update("INSERT INTO payslip_line_items (id, organization_id, payslip_id, component_name, " +
+                "component_type, amount, display_order, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID().toString(), organization.getId().toString(), payslipId, name, type,
+                new BigDecimal(amount), displayOrder, Boolean.TRUE);
+    }
+}
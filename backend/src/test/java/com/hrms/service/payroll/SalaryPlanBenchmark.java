@@ -0,0 +1,87 @@
+package com.hrms.service.payroll;
+
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+import com.hrms.service.payroll.PayrollCalculator.EmployeeInput;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payslips of 1k employees sharing one salary structure of twelve components, half of them
+ * percentages (of the basic salary or of another component, in chains listed before their
+ * bases). sharedPlan is a payroll run: one calculator, so the plan is compiled once.
+ * planPerEmployee compiles the structure again for every employee.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main SalaryPlanBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryPlanBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+    private static final int COMPONENTS = 12;
+
+    private List<EmployeeInput> inputs;
+
+    @Setup
+    public void setUp() {
+        UUID[] ids = new UUID[COMPONENTS];
+        for (int c = 0; c < COMPONENTS; c++) {
+            ids[c] = UUID.randomUUID();
+        }
+        UUID structureId = UUID.randomUUID();
+
+        inputs = new ArrayList<>(EMPLOYEES);
+        for (int e = 0; e < EMPLOYEES; e++) {
+            List<ComponentInput> components = new ArrayList<>(COMPONENTS);
+            for (int c = 0; c < COMPONENTS; c++) {
+                String name = "Component " + c;
+                String type = c % 4 == 3 ? "deduction" : "earning";
+                if (c % 2 == 0) {
+                    components.add(new ComponentInput(ids[c], name, "C" + c, type, "fixed",
+                            BigDecimal.valueOf(500 + e % 100), null, null));
+                } else {
+                    // Odd components are a percentage of the next component, the last one of basic
+                    UUID base = c + 1 < COMPONENTS ? ids[c + 1] : null;
+                    components.add(new ComponentInput(ids[c], name, "C" + c, type, "percentage",
+                            null, BigDecimal.valueOf(5 + c), base));
+                }
+            }
+            inputs.add(new EmployeeInput(UUID.randomUUID(), structureId, BigDecimal.valueOf(40_000 + e),
+                    12, List.copyOf(components), null));
+        }
+    }
+
+    @Benchmark
+    public void sharedPlan(Blackhole blackhole) {
+        PayrollCalculator calculator = new PayrollCalculator();
+        for (EmployeeInput input : inputs) {
+            blackhole.consume(calculator.calculate(input));
+        }
+    }
+
+    @Benchmark
+    public void planPerEmployee(Blackhole blackhole) {
+        for (EmployeeInput input : inputs) {
+            blackhole.consume(new PayrollCalculator().calculate(input));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SalaryPlanBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.hrms.service.payroll;
+
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ValidationException;
+import com.hrms.service.payroll.PayrollCalculator.ComponentInput;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Salary Plan Tests")
+class SalaryPlanTest {
+
+    private final UUID hra = UUID.randomUUID();
+    private final UUID bonus = UUID.randomUUID();
+    private final UUID gratuity = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Components are evaluated after the components they are a percentage of")
+    void evaluatesInDependencyOrder() {
+        // Listed before their bases: gratuity <- bonus <- hra <- basic
+        List<ComponentInput> components = List.of(
+                percentage(gratuity, "Gratuity", bonus),
+                percentage(bonus, "Bonus", hra),
+                percentage(hra, "HRA", null));
+        SalaryPlan plan = SalaryPlan.compile(components);
+
+        BigDecimal[] values = plan.evaluate(new BigDecimal("1000.00"),
+                new BigDecimal[] {null, new BigDecimal("10"), new BigDecimal("50"), new BigDecimal("40")});
+
+        assertEquals(new BigDecimal("400.00"), values[3]);
+        assertEquals(new BigDecimal("200.00"), values[2]);
+        assertEquals(new BigDecimal("20.00"), values[1]);
+        assertEquals(2, plan.baseSlot(1));
+        assertEquals(SalaryPlan.BASIC_SLOT, plan.baseSlot(3));
+        assertEquals(SalaryPlan.Shape.of(components), SalaryPlan.Shape.of(List.copyOf(components)));
+    }
+
+    @Test
+    @DisplayName("Cyclic dependencies are rejected when compiling")
+    void rejectsCycles() {
+        BusinessException e = assertThrows(BusinessException.class, () -> SalaryPlan.compile(List.of(
+                percentage(hra, "HRA", bonus),
+                percentage(bonus, "Bonus", hra),
+                percentage(gratuity, "Gratuity", null))));
+        assertTrue(e.getMessage().contains("HRA"));
+        assertFalse(e.getMessage().contains("Gratuity"));
+    }
+
+    @Test
+    @DisplayName("A percentage of a component that is not assigned is rejected when compiling")
+    void rejectsMissingBase() {
+        UUID missing = UUID.randomUUID();
+        ValidationException e = assertThrows(ValidationException.class, () -> SalaryPlan.compile(List.of(
+                percentage(hra, "HRA", null),
+                percentage(bonus, "Bonus", missing))));
+        assertTrue(e.getMessage().contains("Bonus"));
+        assertTrue(e.getMessage().contains(missing.toString()));
+    }
+
+    private static ComponentInput percentage(UUID id, String name, UUID base) {
+        return new ComponentInput(id, name, name.toUpperCase(), "earning", "percentage", null, null, base);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hrms.service.payroll;
+
+import com.hrms.entity.payroll.TaxSlab;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxSlabIndexTest {
+
+    @Test
+    @DisplayName("Progressive tax includes lower slabs, fixed amount, surcharge and cess")
+    void progressiveTax() {
+        TaxSlabIndex.Schedule schedule = TaxSlabIndex.Schedule.of(List.of(
+                slab("IND", "NEW_REGIME", "0", "300000", "0", null, null, null),
+                slab("IND", "NEW_REGIME", "700000", null, "20", "1000", "10", "4"),
+                slab("IND", "NEW_REGIME", "300000", "700000", "5", null, null, null)));
+
+        assertEquals(0, schedule.annualTax(new BigDecimal("250000")).signum());
+        assertEquals(0, new BigDecimal("10000").compareTo(schedule.annualTax(new BigDecimal("500000"))));
+        // 20000 + 60000 + 1000 = 81000, surcharge 8100, cess 4% of 89100
+        assertEquals(0, new BigDecimal("92664").compareTo(schedule.annualTax(new BigDecimal("1000000"))));
+    }
+
+    @Test
+    @DisplayName("Schedules are found by country, regime and effective date with fallbacks")
+    void findSchedule() {
+        TaxSlab oldRegime = slab("IND", "OLD_REGIME", "0", null, "10", null, null, null);
+        TaxSlab newRegime = slab("IND", "new_regime", "0", null, "5", null, null, null);
+        TaxSlab revised = slab("IND", "new_regime", "0", null, "4", null, null, null);
+        newRegime.setEffectiveTo(LocalDate.of(2026, 9, 30));
+        revised.setEffectiveFrom(LocalDate.of(2026, 10, 1));
+        TaxSlab fallback = slab(null, null, "0", null, "15", null, null, null);
+        TaxSlabIndex index = TaxSlabIndex.build(List.of(oldRegime, newRegime, revised, fallback), 0);
+
+        BigDecimal income = new BigDecimal("100");
+        assertEquals(0, new BigDecimal("10").compareTo(
+                index.find("IND", "old_regime", LocalDate.of(2026, 6, 30)).annualTax(income)));
+        assertEquals(0, new BigDecimal("5").compareTo(
+                index.find("ind", "NEW_REGIME", LocalDate.of(2026, 6, 30)).annualTax(income)));
+        assertEquals(0, new BigDecimal("4").compareTo(
+                index.find("IND", "NEW_REGIME", LocalDate.of(2026, 10, 31)).annualTax(income)));
+        assertEquals(0, new BigDecimal("15").compareTo(
+                index.find("USA", null, LocalDate.of(2026, 6, 30)).annualTax(income)));
+        assertSame(index.find("IND", null, LocalDate.of(2026, 6, 30)), index.find("GBR", null, LocalDate.of(2026, 6, 30)));
+        assertNull(TaxSlabIndex.EMPTY.find("IND", null, LocalDate.of(2026, 6, 30)));
+    }
+
+    @Test
+    @DisplayName("Invalidating one organization's slabs keeps other organizations' indexes")
+    void invalidatesPerOrganization() {
+        TaxSlabIndexCache cache = new TaxSlabIndexCache(300);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<TaxSlab> slabs = List.of(slab("IND", null, "0", null, "10", null, null, null));
+
+        TaxSlabIndex firstIndex = cache.get(first, () -> slabs);
+        TaxSlabIndex secondIndex = cache.get(second, () -> slabs);
+        assertSame(firstIndex, cache.get(first, List::of));
+
+        cache.invalidate(first);
+
+        assertSame(secondIndex, cache.get(second, List::of));
+        TaxSlabIndex rebuilt = cache.get(first, () -> slabs);
+        assertNotSame(firstIndex, rebuilt);
+        assertTrue(rebuilt.getVersion() > firstIndex.getVersion());
+        assertSame(rebuilt, cache.get(first, List::of));
+    }
+
+    private static TaxSlab slab(String country, String regime, String min, String max, String rate,
+                                String fixedAmount, String surcharge, String cess) {
+        TaxSlab slab = new TaxSlab();
+        slab.setFinancialYear("2026-27");
+        slab.setCountryCode(country);
+        slab.setTaxRegime(regime);
+        slab.setMinIncome(new BigDecimal(min));
+        slab.setMaxIncome(max != null ? new BigDecimal(max) : null);
+        slab.setTaxRate(new BigDecimal(rate));
+        slab.setFixedAmount(fixedAmount != null ? new BigDecimal(fixedAmount) : null);
+        slab.setSurchargeRate(surcharge != null ? new BigDecimal(surcharge) : null);
+        slab.setCessRate(cess != null ? new BigDecimal(cess) : null);
+        return slab;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hrms.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local Document Storage Tests")
+class LocalDocumentStorageTest {
+
+    private static final String KEY = "org/1/employee/2/2026/05/offer_letter.pdf";
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path baseDir;
+
+    private LocalDocumentStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalDocumentStorage(baseDir.toString());
+        storage.init();
+    }
+
+    @Test
+    @DisplayName("Stored files land in a sharded directory and can be read back and ranged")
+    void storeAndRead() throws Exception {
+        storage.put(KEY, new ByteArrayInputStream(CONTENT), CONTENT.length, "application/pdf");
+
+        Path file = storage.localFile(KEY);
+        assertTrue(Files.isRegularFile(file));
+        assertEquals(baseDir.resolve("objects").toAbsolutePath(), file.getParent().getParent().getParent());
+        assertEquals(file.getFileName().toString().substring(0, 2), file.getParent().getParent().getFileName().toString());
+        try (Stream<Path> pending = Files.list(baseDir.resolve("tmp"))) {
+            assertEquals(0, pending.count());
+        }
+
+        StoredFile stat = storage.stat(KEY);
+        assertEquals(CONTENT.length, stat.size());
+        assertNotNull(stat.eTag());
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        storage.download(KEY, 5, 5, stat.eTag(), range);
+        assertEquals("56789", range.toString(StandardCharsets.US_ASCII));
+
+        try (InputStream in = storage.open(KEY)) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+
+        storage.delete(KEY);
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("A short upload leaves neither a file nor a temporary behind")
+    void truncatedUploadIsDiscarded() throws Exception {
+        assertThrows(IOException.class,
+                () -> storage.put(KEY, new ByteArrayInputStream(CONTENT), CONTENT.length + 10, "application/pdf"));
+
+        assertFalse(Files.exists(storage.localFile(KEY)));
+        try (Stream<Path> pending = Files.list(baseDir.resolve("tmp"))) {
+            assertEquals(0, pending.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Downloading with a stale ETag fails")
+    void staleETag() throws Exception {
+        storage.put(KEY, new ByteArrayInputStream(CONTENT), CONTENT.length, "application/pdf");
+
+        assertThrows(RuntimeException.class,
+                () -> storage.download(KEY, 0, CONTENT.length, "stale", new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.hrms.support;
+
+import com.hrms.entity.Employee;
+import com.hrms.entity.Organization;
+import com.hrms.entity.User;
+import com.hrms.repository.EmployeeRepository;
+import com.hrms.repository.OrganizationRepository;
+import com.hrms.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Saved organizations and employees (each with its own user) for Spring tests.
+ * Names, codes and emails are made unique so tests can share one database.
+ */
+@Component
+public class EmployeeFixtures {
+
+    private final OrganizationRepository organizationRepository;
+    private final UserRepository userRepository;
+    private final EmployeeRepository employeeRepository;
+
+    public EmployeeFixtures(OrganizationRepository organizationRepository, UserRepository userRepository,
+                            EmployeeRepository employeeRepository) {
+        this.organizationRepository = organizationRepository;
+        this.userRepository = userRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * A new organization named name followed by a random suffix
+     */
+    public Organization organization(String name) {
+        Organization organization = new Organization();
+        organization.setName(name + " " + UUID.randomUUID());
+        return organizationRepository.save(organization);
+    }
+
+    /**
+     * A new employee of the organization, with employee code codePrefix-xxxxxxxx
+     */
+    public Employee employee(Organization organization, String codePrefix) {
+        return employee(organization, codePrefix, employee -> { });
+    }
+
+    /**
+     * A new employee of the organization, with employee code codePrefix-xxxxxxxx, customized
+     * (names, department, manager...) before it is saved
+     */
+    public Employee employee(Organization organization, String codePrefix, Consumer<Employee> customizer) {
+        User user = new User(codePrefix.toLowerCase() + "-" + UUID.randomUUID() + "@test.com", "password");
+        user.setOrganization(organization);
+        user = userRepository.save(user);
+        Employee employee = new Employee(user, organization);
+        employee.setEmployeeCode(codePrefix + "-" + UUID.randomUUID().toString().substring(0, 8));
+        customizer.accept(employee);
+        return employeeRepository.save(employee);
+    }
+}
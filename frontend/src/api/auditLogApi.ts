@@ -20,30 +20,31 @@ export interface AuditLogEntry {
 
 export interface AuditLogsResponse {
   content: AuditLogEntry[];
-  totalElements: number;
-  totalPages: number;
-  currentPage: number;
+  nextCursor: string | null;
+  hasMore: boolean;
   pageSize: number;
 }
 
 export interface EntityAuditLogsResponse {
   content: AuditLogEntry[];
-  totalElements: number;
+  nextCursor: string | null;
+  hasMore: boolean;
   entityType: string;
   entityId: string;
 }
 
 export const auditLogApi = {
   /**
-   * Get audit logs with filters and pagination
+   * Get audit logs with filters, newest first; pass the nextCursor of a page to get the next one
    */
   getAuditLogs: async (
-    page: number = 0,
+    cursor?: string,
     size: number = 50,
     actionType?: string,
     entityType?: string
   ): Promise<AuditLogsResponse> => {
-    const params: any = { page, size };
+    const params: any = { size };
+    if (cursor) params.cursor = cursor;
     if (actionType) params.actionType = actionType;
     if (entityType) params.entityType = entityType;
 
@@ -57,12 +58,14 @@ export const auditLogApi = {
   getAuditLogsForEntity: async (
     entityType: string,
     entityId: string,
-    page: number = 0,
+    cursor?: string,
     size: number = 20
   ): Promise<EntityAuditLogsResponse> => {
+    const params: any = { size };
+    if (cursor) params.cursor = cursor;
     const response = await http.get<EntityAuditLogsResponse>(
       `/api/admin/audit-logs/entity/${entityType}/${entityId}`,
-      { params: { page, size } }
+      { params }
     );
     return response.data;
   },
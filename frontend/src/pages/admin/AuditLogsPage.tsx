@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import {
-  Card, Table, Tag, Typography, Space, Select, Button, Tooltip, Alert, Input, Pagination,
+  Card, Table, Tag, Typography, Space, Select, Button, Tooltip, Alert, Input,
   Descriptions, Modal, Row, Col, message
 } from 'antd';
 import {
@@ -25,8 +25,9 @@ export const AuditLogsPage: React.FC = () => {
   const [error, setError] = useState('');
   const [currentPage, setCurrentPage] = useState(0);
   const [pageSize, setPageSize] = useState(50);
-  const [totalElements, setTotalElements] = useState(0);
-  const [totalPages, setTotalPages] = useState(0);
+  // cursors[i] is the cursor that loads page i (page 0 has none)
+  const [cursors, setCursors] = useState<(string | undefined)[]>([undefined]);
+  const [hasMore, setHasMore] = useState(false);
 
   // Filters
   const [actionType, setActionType] = useState<string | undefined>(undefined);
@@ -63,10 +64,13 @@ export const AuditLogsPage: React.FC = () => {
     try {
       setLoading(true);
       setError('');
-      const data = await auditLogApi.getAuditLogs(currentPage, pageSize, actionType, entityType);
+      const data = await auditLogApi.getAuditLogs(cursors[currentPage], pageSize, actionType, entityType);
       setAuditLogs(data.content);
-      setTotalElements(data.totalElements);
-      setTotalPages(data.totalPages);
+      setHasMore(data.hasMore);
+      if (data.nextCursor) {
+        const nextCursor = data.nextCursor;
+        setCursors((previous) => [...previous.slice(0, currentPage + 1), nextCursor]);
+      }
     } catch (err: any) {
       setError(err.response?.data?.error || 'Failed to load audit logs');
     } finally {
@@ -74,20 +78,25 @@ export const AuditLogsPage: React.FC = () => {
     }
   };
 
+  const resetPaging = () => {
+    setCursors([undefined]);
+    setCurrentPage(0);
+  };
+
   const handleActionTypeChange = (value: string | undefined) => {
     setActionType(value);
-    setCurrentPage(0); // Reset to first page
+    resetPaging(); // Reset to first page
   };
 
   const handleEntityTypeChange = (value: string | undefined) => {
     setEntityType(value);
-    setCurrentPage(0); // Reset to first page
+    resetPaging(); // Reset to first page
   };
 
   const handleClearFilters = () => {
     setActionType(undefined);
     setEntityType(undefined);
-    setCurrentPage(0);
+    resetPaging();
   };
 
   const handleViewDetails = (record: AuditLogEntry) => {
@@ -381,23 +390,27 @@ export const AuditLogsPage: React.FC = () => {
             }}
           />
 
-          {/* Custom Pagination */}
-          {totalElements > 0 && (
+          {/* Cursor Pagination */}
+          {(currentPage > 0 || hasMore) && (
             <div style={{ marginTop: 16, textAlign: 'right' }}>
               <Space>
                 <Text type="secondary">
-                  Showing {currentPage * pageSize + 1} to {Math.min((currentPage + 1) * pageSize, totalElements)} of {totalElements} logs
+                  Page {currentPage + 1}
                 </Text>
-                <Pagination
-                  current={currentPage + 1}
-                  total={totalElements}
-                  pageSize={pageSize}
-                  onChange={(page, size) => {
-                    setCurrentPage(page - 1);
+                <Button disabled={currentPage === 0} onClick={() => setCurrentPage(currentPage - 1)}>
+                  Newer
+                </Button>
+                <Button disabled={!hasMore} onClick={() => setCurrentPage(currentPage + 1)}>
+                  Older
+                </Button>
+                <Select
+                  value={pageSize}
+                  onChange={(size) => {
                     setPageSize(size);
+                    resetPaging();
                   }}
-                  showSizeChanger
-                  pageSizeOptions={['20', '50', '100', '200']}
+                  options={[20, 50, 100, 200].map((size) => ({ value: size, label: `${size} / page` }))}
+                  style={{ width: 120 }}
                 />
               </Space>
             </div>